@@ -0,0 +1,212 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.autermann.yaml.Yaml;
+import com.github.autermann.yaml.YamlNode;
+import com.github.autermann.yaml.YamlNodeFactory;
+import com.github.autermann.yaml.bind.YamlBinder;
+import com.github.autermann.yaml.nodes.YamlMapNode;
+import com.github.autermann.yaml.nodes.YamlSeqNode;
+
+/**
+ * Binds an inventory of 1000 services to {@link Inventory} objects. The
+ * {@code baseline} benchmark binds a loaded tree with handwritten code, the
+ * {@code bind} benchmark with a {@link YamlBinder}. The {@code load*}
+ * benchmarks include parsing: {@code loadTree} only loads the tree,
+ * {@code loadTreeAndBind} binds the loaded tree and {@code loadBound} binds
+ * the composed document with {@link Yaml#load(String, Class)}. Every service
+ * also has an {@code annotations} entry that is not bound.
+ *
+ * @author Christian Autermann
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BindBenchmark {
+
+    private Yaml yaml;
+    private YamlBinder binder;
+    private String document;
+    private YamlNode tree;
+
+    @Setup
+    public void setup() {
+        YamlNodeFactory factory = YamlNodeFactory.createDefault();
+        Random random = new Random(42);
+        YamlSeqNode services = factory.sequenceNode();
+        for (int i = 0; i < 1000; ++i) {
+            YamlSeqNode ports = factory.sequenceNode();
+            for (int j = 0; j < 10; ++j) {
+                ports.add(factory.orderedMapNode()
+                        .put("port", random.nextInt(65536))
+                        .put("exposed", random.nextBoolean()));
+            }
+            YamlMapNode annotations = factory.orderedMapNode();
+            for (int j = 0; j < 10; ++j) {
+                annotations.put("annotation-" + j, "value-" + random.nextInt());
+            }
+            services.add(factory.orderedMapNode()
+                    .put("name", "service-" + i)
+                    .put("replicas", random.nextInt(10))
+                    .put("weight", random.nextDouble())
+                    .put("ports", ports)
+                    .put("annotations", annotations));
+        }
+        YamlMapNode root = factory.orderedMapNode();
+        root.put("services", services);
+        this.yaml = new Yaml(factory);
+        this.binder = new YamlBinder(factory);
+        this.document = yaml.dump(root);
+        this.tree = yaml.load(document);
+    }
+
+    private static Inventory bindByHand(YamlNode node) {
+        Inventory inventory = new Inventory();
+        inventory.setServices(new ArrayList<>());
+        for (YamlNode s : node.path("services")) {
+            Service service = new Service();
+            service.setName(s.path("name").asTextValue());
+            service.setReplicas(s.path("replicas").asIntValue());
+            service.setWeight(s.path("weight").asDoubleValue());
+            service.setPorts(new ArrayList<>());
+            for (YamlNode p : s.path("ports")) {
+                Port port = new Port();
+                port.setPort(p.path("port").asIntValue());
+                port.setExposed(p.path("exposed").asBooleanValue());
+                service.getPorts().add(port);
+            }
+            inventory.getServices().add(service);
+        }
+        return inventory;
+    }
+
+    @Benchmark
+    public Inventory baseline() {
+        return bindByHand(tree);
+    }
+
+    @Benchmark
+    public Inventory bind() {
+        return binder.bind(tree, Inventory.class);
+    }
+
+    @Benchmark
+    public YamlNode loadTree() {
+        return yaml.load(document);
+    }
+
+    @Benchmark
+    public Inventory loadTreeAndBind() {
+        return binder.bind(yaml.load(document), Inventory.class);
+    }
+
+    @Benchmark
+    public Inventory loadBound() {
+        return yaml.load(document, Inventory.class);
+    }
+
+    public static class Inventory {
+        private List<Service> services;
+
+        public List<Service> getServices() {
+            return services;
+        }
+
+        public void setServices(List<Service> services) {
+            this.services = services;
+        }
+    }
+
+    public static class Service {
+        private String name;
+        private int replicas;
+        private double weight;
+        private List<Port> ports;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getReplicas() {
+            return replicas;
+        }
+
+        public void setReplicas(int replicas) {
+            this.replicas = replicas;
+        }
+
+        public double getWeight() {
+            return weight;
+        }
+
+        public void setWeight(double weight) {
+            this.weight = weight;
+        }
+
+        public List<Port> getPorts() {
+            return ports;
+        }
+
+        public void setPorts(List<Port> ports) {
+            this.ports = ports;
+        }
+    }
+
+    public static class Port {
+        private int port;
+        private boolean exposed;
+
+        public int getPort() {
+            return port;
+        }
+
+        public void setPort(int port) {
+            this.port = port;
+        }
+
+        public boolean isExposed() {
+            return exposed;
+        }
+
+        public void setExposed(boolean exposed) {
+            this.exposed = exposed;
+        }
+    }
+}
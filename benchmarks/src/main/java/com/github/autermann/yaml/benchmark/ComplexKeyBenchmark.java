@@ -0,0 +1,118 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.github.autermann.yaml.Yaml;
+import com.github.autermann.yaml.YamlNode;
+import com.github.autermann.yaml.YamlNodeFactory;
+import com.github.autermann.yaml.nodes.YamlMapNode;
+import com.github.autermann.yaml.nodes.YamlSetNode;
+
+/**
+ * Looks up and collects complex (mapping) keys of a loaded document. The
+ * {@code baseline} benchmarks use modifiable copies of the keys, whose hash
+ * codes are computed on every call; the other benchmarks use frozen copies,
+ * whose hash codes are cached.
+ *
+ * @author Christian Autermann
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ComplexKeyBenchmark {
+    private static final int KEYS = 1000;
+
+    @Param({ "4", "64" })
+    private int keySize;
+
+    private YamlNodeFactory factory;
+    private YamlMapNode document;
+    private YamlNode[] keys;
+    private YamlNode[] frozenKeys;
+
+    @Setup
+    public void setup() {
+        this.factory = YamlNodeFactory.createDefault();
+        Yaml yaml = new Yaml(factory);
+        YamlMapNode node = factory.mapNode();
+        for (int i = 0; i < KEYS; ++i) {
+            YamlMapNode key = factory.mapNode().put("id", i);
+            for (int j = 1; j < keySize; ++j) {
+                key.put("dimension-" + j, "value-" + (i + j));
+            }
+            node.put(key, i);
+        }
+        this.document = yaml.load(yaml.dump(node)).asMap();
+        this.keys = new YamlNode[KEYS];
+        this.frozenKeys = new YamlNode[KEYS];
+        int i = 0;
+        // equal but not identical keys, as if they were parsed separately
+        for (YamlNode key : document) {
+            keys[i] = key.copy();
+            frozenKeys[i++] = key.freeze();
+        }
+    }
+
+    @Benchmark
+    public void baselineLookup(Blackhole bh) {
+        for (YamlNode key : keys) {
+            bh.consume(document.path(key));
+        }
+    }
+
+    @Benchmark
+    public void lookup(Blackhole bh) {
+        for (YamlNode key : frozenKeys) {
+            bh.consume(document.path(key));
+        }
+    }
+
+    @Benchmark
+    public YamlSetNode baselineCollect() {
+        YamlSetNode set = factory.setNode();
+        for (YamlNode key : keys) {
+            set.add(key);
+        }
+        return set;
+    }
+
+    @Benchmark
+    public YamlSetNode collect() {
+        YamlSetNode set = factory.setNode();
+        for (YamlNode key : frozenKeys) {
+            set.add(key);
+        }
+        return set;
+    }
+}
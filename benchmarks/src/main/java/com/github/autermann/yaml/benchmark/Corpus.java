@@ -0,0 +1,196 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+
+import com.github.autermann.yaml.Yaml;
+import com.github.autermann.yaml.YamlNode;
+import com.github.autermann.yaml.YamlNodeFactory;
+import com.github.autermann.yaml.nodes.YamlMapNode;
+import com.github.autermann.yaml.nodes.YamlSeqNode;
+
+/**
+ * Documents used by the benchmarks. The synthetic corpora are generated from
+ * a fixed seed and {@link #SERVICE_CONFIG} is read from a resource, so every
+ * run works on the same data.
+ *
+ * @author Christian Autermann
+ */
+public enum Corpus {
+    /**
+     * A configuration tree nested six levels deep, with a few scalar
+     * settings and three child sections per level.
+     */
+    DEEP_CONFIG {
+        @Override
+        List<YamlNode> create(YamlNodeFactory factory, Random random) {
+            return Collections.singletonList(
+                    section(factory, random, "root", 0));
+        }
+
+        private YamlNode section(YamlNodeFactory factory, Random random,
+                                 String name, int depth) {
+            YamlMapNode node = factory.orderedMapNode()
+                    .put("name", name)
+                    .put("enabled", random.nextBoolean())
+                    .put("timeout", random.nextInt(10000))
+                    .put("ratio", random.nextDouble())
+                    .put("created", new DateTime(random.nextInt(), DateTimeZone.UTC));
+            node.putSequence("tags").add("alpha").add("beta").add("gamma");
+            if (depth < DEPTH) {
+                for (int i = 0; i < 3; ++i) {
+                    node.put("child-" + i,
+                             section(factory, random, name + "." + i, depth + 1));
+                }
+            }
+            return node;
+        }
+    },
+    /**
+     * A single mapping of 10k text keys to mixed scalar values.
+     */
+    WIDE_MAP {
+        @Override
+        List<YamlNode> create(YamlNodeFactory factory, Random random) {
+            YamlMapNode node = factory.mapNode();
+            for (int i = 0; i < 10000; ++i) {
+                String key = "key-" + i;
+                switch (i % 4) {
+                    case 0:
+                        node.put(key, "value-" + random.nextInt(100));
+                        break;
+                    case 1:
+                        node.put(key, random.nextLong());
+                        break;
+                    case 2:
+                        node.put(key, random.nextBoolean());
+                        break;
+                    default:
+                        node.put(key, random.nextDouble());
+                        break;
+                }
+            }
+            return Collections.singletonList(node);
+        }
+    },
+    /**
+     * A sequence of 100k integers of mixed magnitude.
+     */
+    NUMERIC_SEQUENCE {
+        @Override
+        List<YamlNode> create(YamlNodeFactory factory, Random random) {
+            YamlSeqNode node = factory.sequenceNode();
+            for (int i = 0; i < 100000; ++i) {
+                node.add(random.nextLong() >> random.nextInt(64));
+            }
+            return Collections.singletonList(node);
+        }
+    },
+    /**
+     * A mapping of 64 binary values of 16 KiB each.
+     */
+    BINARY_BLOBS {
+        @Override
+        List<YamlNode> create(YamlNodeFactory factory, Random random) {
+            YamlMapNode node = factory.mapNode();
+            for (int i = 0; i < 64; ++i) {
+                byte[] blob = new byte[16 * 1024];
+                random.nextBytes(blob);
+                node.put("blob-" + i, blob);
+            }
+            return Collections.singletonList(node);
+        }
+    },
+    /**
+     * A stream of 1000 small log-record like documents.
+     */
+    MULTI_DOCUMENT {
+        @Override
+        List<YamlNode> create(YamlNodeFactory factory, Random random) {
+            List<YamlNode> documents = new ArrayList<>(1000);
+            for (int i = 0; i < 1000; ++i) {
+                documents.add(factory.mapNode()
+                        .put("id", i)
+                        .put("level", LEVELS[random.nextInt(LEVELS.length)])
+                        .put("host", "host-" + random.nextInt(50))
+                        .put("message", "request " + random.nextInt() + " done")
+                        .put("duration", random.nextDouble()));
+            }
+            return documents;
+        }
+    },
+    /**
+     * Real-world configuration documents loaded from
+     * {@code service-config.yaml}: the CI configuration of this project, a
+     * docker-compose file and the Kubernetes manifests of a web service, with
+     * block scalars, flow collections and aliases.
+     */
+    SERVICE_CONFIG {
+        @Override
+        List<YamlNode> create(YamlNodeFactory factory, Random random) {
+            List<YamlNode> documents = new ArrayList<>();
+            try (InputStream in = Corpus.class
+                    .getResourceAsStream("service-config.yaml")) {
+                for (YamlNode document : new Yaml(factory).loadAll(in)) {
+                    documents.add(document);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return documents;
+        }
+    };
+
+    /**
+     * The maximal depth of {@link #DEEP_CONFIG}.
+     */
+    static final int DEPTH = 6;
+    /**
+     * The log levels of {@link #MULTI_DOCUMENT}.
+     */
+    private static final String[] LEVELS = { "DEBUG", "INFO", "WARN", "ERROR" };
+
+    /**
+     * Creates the documents of this corpus.
+     *
+     * @param factory the factory
+     *
+     * @return the documents
+     */
+    public List<YamlNode> create(YamlNodeFactory factory) {
+        return create(factory, new Random(42));
+    }
+
+    /**
+     * Creates the documents of this corpus.
+     *
+     * @param factory the factory
+     * @param random  the source of random values
+     *
+     * @return the documents
+     */
+    abstract List<YamlNode> create(YamlNodeFactory factory, Random random);
+}
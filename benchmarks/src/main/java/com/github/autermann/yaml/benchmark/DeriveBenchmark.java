@@ -0,0 +1,83 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.autermann.yaml.YamlNode;
+import com.github.autermann.yaml.YamlNodeFactory;
+import com.github.autermann.yaml.nodes.YamlMapNode;
+import com.github.autermann.yaml.nodes.YamlPersistentMapNode;
+
+/**
+ * Derives a variant with one changed key from a mapping. The
+ * {@code baseline} benchmark copies and modifies a {@link YamlMapNode}, the
+ * {@code derive} benchmark creates a new version of a
+ * {@link YamlPersistentMapNode}.
+ *
+ * @author Christian Autermann
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeriveBenchmark {
+
+    @Param({ "100", "10000" })
+    private int size;
+
+    private YamlMapNode map;
+    private YamlPersistentMapNode persistent;
+    private YamlNode key;
+    private YamlNode value;
+
+    @Setup
+    public void setup() {
+        YamlNodeFactory factory = YamlNodeFactory.createDefault();
+        this.map = factory.mapNode();
+        for (int i = 0; i < size; ++i) {
+            map.put("flag-" + i, factory.mapNode()
+                    .put("enabled", i % 2 == 0).put("rollout", i % 100));
+        }
+        this.persistent = YamlPersistentMapNode.copyOf(map);
+        this.key = factory.textNode("flag-" + (size / 2));
+        this.value = factory.mapNode().put("enabled", true).put("rollout", 100);
+    }
+
+    @Benchmark
+    public YamlMapNode baseline() {
+        return map.copy().put(key, value);
+    }
+
+    @Benchmark
+    public YamlMapNode derive() {
+        return persistent.with(key, value);
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.benchmark;
+
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.yaml.snakeyaml.DumperOptions;
+
+import com.github.autermann.yaml.Yaml;
+import com.github.autermann.yaml.YamlNode;
+import com.github.autermann.yaml.YamlNodeFactory;
+import com.github.autermann.yaml.YamlNodeRepresenter;
+import com.google.common.io.CharStreams;
+
+/**
+ * Measures dumping the {@link Corpus} documents and deep copying them with
+ * {@link YamlNode#copy()}. The {@code baseline} benchmarks dump through the
+ * {@link YamlNodeRepresenter} and the SnakeYAML serializer, the others emit
+ * the nodes directly. The {@code write} benchmarks discard the output to
+ * show the memory needed by the dump itself.
+ *
+ * @author Christian Autermann
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DumpBenchmark {
+
+    @Param
+    private Corpus corpus;
+
+    private Yaml yaml;
+    private org.yaml.snakeyaml.Yaml representer;
+    private List<YamlNode> documents;
+    private final Writer sink = CharStreams.nullWriter();
+
+    @Setup
+    public void setup() {
+        YamlNodeFactory factory = YamlNodeFactory.createDefault();
+        this.yaml = new Yaml(factory);
+        DumperOptions options = new DumperOptions();
+        this.representer = new org.yaml.snakeyaml.Yaml(
+                new YamlNodeRepresenter(options), options);
+        // load the documents to benchmark the node types a load produces
+        this.documents = new ArrayList<>();
+        for (YamlNode node : corpus.create(factory)) {
+            this.documents.add(yaml.load(yaml.dump(node)));
+        }
+    }
+
+    @Benchmark
+    public String dump() {
+        return yaml.dumpAll(documents);
+    }
+
+    @Benchmark
+    public String baseline() {
+        return representer.dumpAll(documents.iterator());
+    }
+
+    @Benchmark
+    public void write() {
+        yaml.dumpAll(documents, sink);
+    }
+
+    @Benchmark
+    public void writeBaseline() {
+        representer.dumpAll(documents.iterator(), sink);
+    }
+
+    @Benchmark
+    public void copy(Blackhole bh) {
+        for (YamlNode node : documents) {
+            bh.consume(node.copy());
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.yaml.snakeyaml.DumperOptions;
+
+import com.github.autermann.yaml.Yaml;
+import com.github.autermann.yaml.YamlNode;
+import com.github.autermann.yaml.YamlNodeFactory;
+
+/**
+ * Measures the throughput of dumping small nodes. {@link #newYaml()}
+ * reproduces the former behaviour of {@link YamlNode#dump()}, which created a
+ * new {@link Yaml} for every call.
+ *
+ * @author Christian Autermann
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DumpSmallNodeBenchmark {
+
+    private YamlNode node;
+    private DumperOptions options;
+
+    @Setup
+    public void setup() {
+        YamlNodeFactory factory = YamlNodeFactory.createDefault();
+        this.node = factory.mapNode()
+                .put("name", "service")
+                .put("port", 8080)
+                .put("enabled", true);
+        this.options = new DumperOptions();
+        this.options.setDefaultFlowStyle(DumperOptions.FlowStyle.BLOCK);
+    }
+
+    @Benchmark
+    public String newYaml() {
+        return new Yaml().dump(node);
+    }
+
+    @Benchmark
+    public String dump() {
+        return node.dump();
+    }
+
+    @Benchmark
+    public String dumpWithOptions() {
+        return node.dump(options);
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.benchmark;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.autermann.yaml.Yaml;
+import com.github.autermann.yaml.YamlGenerator;
+import com.github.autermann.yaml.YamlNodeFactory;
+import com.github.autermann.yaml.nodes.YamlSeqNode;
+import com.google.common.io.CharStreams;
+
+/**
+ * Exports a sequence of records to a discarding writer. The
+ * {@code baseline} benchmark builds the {@link com.github.autermann.yaml.YamlNode}
+ * tree and dumps it, the {@code generator} benchmark writes the records with a
+ * {@link YamlGenerator}.
+ *
+ * @author Christian Autermann
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeneratorBenchmark {
+
+    @Param({ "100000" })
+    private int records;
+
+    private YamlNodeFactory factory;
+    private Yaml yaml;
+    private final Writer sink = CharStreams.nullWriter();
+
+    @Setup
+    public void setup() {
+        this.factory = YamlNodeFactory.createDefault();
+        this.yaml = new Yaml(factory);
+    }
+
+    @Benchmark
+    public void baseline() {
+        YamlSeqNode root = factory.sequenceNode();
+        for (int i = 0; i < records; ++i) {
+            root.add(factory.orderedMapNode()
+                    .put("id", (long) i)
+                    .put("name", "record-" + i)
+                    .put("score", i * 0.5d)
+                    .put("tags", factory.sequenceNode().add("a").add("b")));
+        }
+        yaml.dump(root, sink);
+    }
+
+    @Benchmark
+    public void generator() throws IOException {
+        try (YamlGenerator generator = yaml.createGenerator(sink)) {
+            generator.writeStartSequence();
+            for (int i = 0; i < records; ++i) {
+                generator.writeStartOrderedMap()
+                        .writeKey("id").writeNumber((long) i)
+                        .writeKey("name").writeString("record-" + i)
+                        .writeKey("score").writeNumber(i * 0.5d)
+                        .writeKey("tags").writeStartSequence()
+                        .writeString("a").writeString("b")
+                        .writeEndSequence()
+                        .writeEndMap();
+            }
+            generator.writeEndSequence();
+        }
+    }
+}
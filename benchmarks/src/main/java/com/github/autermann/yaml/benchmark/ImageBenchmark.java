@@ -0,0 +1,131 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.autermann.yaml.Yaml;
+import com.github.autermann.yaml.YamlNode;
+import com.github.autermann.yaml.YamlNodeFactory;
+import com.github.autermann.yaml.nodes.YamlMapNode;
+import com.github.autermann.yaml.nodes.YamlSeqNode;
+
+/**
+ * Looks up a single value in a catalog of 10000 services after loading it
+ * from its string representation ({@code loadText}), from a binary snapshot
+ * ({@code readSnapshot}) and by mapping a tree image ({@code mapImage}).
+ * The {@code lookup*} benchmarks look up the value in an already loaded
+ * tree and an already mapped image.
+ *
+ * @author Christian Autermann
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ImageBenchmark {
+
+    private Yaml yaml;
+    private String document;
+    private byte[] snapshot;
+    private Path image;
+    private YamlNode tree;
+    private YamlNode mapped;
+
+    @Setup
+    public void setup() throws IOException {
+        YamlNodeFactory factory = YamlNodeFactory.createDefault();
+        Random random = new Random(42);
+        YamlSeqNode services = factory.sequenceNode();
+        for (int i = 0; i < 10000; ++i) {
+            YamlMapNode annotations = factory.mapNode();
+            for (int j = 0; j < 10; ++j) {
+                annotations.put("annotation-" + j, "value-" + random.nextInt());
+            }
+            services.add(factory.mapNode()
+                    .put("name", "service-" + i)
+                    .put("replicas", random.nextInt(10))
+                    .put("weight", random.nextDouble())
+                    .put("annotations", annotations));
+        }
+        YamlMapNode root = factory.mapNode();
+        root.put("services", services);
+        this.yaml = new Yaml(factory);
+        this.document = yaml.dump(root);
+        this.tree = yaml.load(document);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        yaml.writeSnapshot(tree, out);
+        this.snapshot = out.toByteArray();
+        this.image = Files.createTempFile("catalog", ".image");
+        yaml.writeImage(tree, image);
+        this.mapped = yaml.mapImage(image);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(image);
+    }
+
+    private static YamlNode lookup(YamlNode node) {
+        return node.path("services").path(5000).path("annotations")
+                .path("annotation-5");
+    }
+
+    @Benchmark
+    public YamlNode loadText() {
+        return lookup(yaml.load(document));
+    }
+
+    @Benchmark
+    public YamlNode readSnapshot() throws IOException {
+        return lookup(yaml.readSnapshot(new ByteArrayInputStream(snapshot)));
+    }
+
+    @Benchmark
+    public YamlNode mapImage() throws IOException {
+        return lookup(yaml.mapImage(image));
+    }
+
+    @Benchmark
+    public YamlNode lookupTree() {
+        return lookup(tree);
+    }
+
+    @Benchmark
+    public YamlNode lookupImage() {
+        return lookup(mapped);
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.benchmark;
+
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.Tag;
+
+import com.github.autermann.yaml.YamlNodeFactory;
+import com.github.autermann.yaml.construct.YamlIntegralConstruct;
+import com.github.autermann.yaml.construct.YamlNodeConstructor;
+import com.github.autermann.yaml.util.Numbers;
+
+/**
+ * Constructs integral nodes from 1000 decimal scalars of mixed magnitude.
+ * The {@code baseline} benchmark reproduces the previous
+ * {@code BigInteger} based construction.
+ *
+ * @author Christian Autermann
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IntegralConstructBenchmark {
+    private static final int SCALARS = 1000;
+
+    private YamlNodeFactory factory;
+    private YamlIntegralConstruct construct;
+    private ScalarNode[] scalars;
+
+    @Setup
+    public void setup() {
+        this.factory = YamlNodeFactory.createDefault();
+        this.construct = new YamlIntegralConstruct(
+                factory, new YamlNodeConstructor(factory));
+        this.scalars = new ScalarNode[SCALARS];
+        Random random = new Random(42);
+        for (int i = 0; i < SCALARS; ++i) {
+            long value = random.nextLong() >> random.nextInt(64);
+            scalars[i] = new ScalarNode(Tag.INT, Long.toString(value),
+                                        null, null, null);
+        }
+    }
+
+    @Benchmark
+    public void construct(Blackhole bh) {
+        for (ScalarNode scalar : scalars) {
+            bh.consume(construct.construct(scalar));
+        }
+    }
+
+    @Benchmark
+    public void baseline(Blackhole bh) {
+        for (ScalarNode scalar : scalars) {
+            BigInteger number = new BigInteger(scalar.getValue());
+            if (Numbers.fitsIntoByte(number)) {
+                bh.consume(factory.byteNode(number.byteValue()));
+            } else if (Numbers.fitsIntoShort(number)) {
+                bh.consume(factory.shortNode(number.shortValue()));
+            } else if (Numbers.fitsIntoInt(number)) {
+                bh.consume(factory.intNode(number.intValue()));
+            } else if (Numbers.fitsIntoLong(number)) {
+                bh.consume(factory.longNode(number.longValue()));
+            } else {
+                bh.consume(factory.bigIntegerNode(number));
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.yaml.snakeyaml.DumperOptions;
+
+import com.github.autermann.yaml.Yaml;
+import com.github.autermann.yaml.YamlNode;
+import com.github.autermann.yaml.YamlNodeFactory;
+
+/**
+ * Loads a {@link Corpus} document and reads a few values of it. The
+ * {@code baseline} benchmark constructs the whole document, the
+ * {@code lazy} benchmark only the containers on the path to the values.
+ *
+ * @author Christian Autermann
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LazyLoadBenchmark {
+
+    @Param({ "DEEP_CONFIG", "WIDE_MAP" })
+    private Corpus corpus;
+
+    private Yaml eager;
+    private Yaml lazy;
+    private String text;
+
+    @Setup
+    public void setup() {
+        YamlNodeFactory factory = YamlNodeFactory.createDefault();
+        this.eager = new Yaml(factory);
+        this.lazy = new Yaml(new DumperOptions(), factory, true);
+        this.text = eager.dump(corpus.create(factory).get(0));
+    }
+
+    private long read(YamlNode document) {
+        if (corpus == Corpus.DEEP_CONFIG) {
+            YamlNode node = document;
+            for (int i = 0; i < Corpus.DEPTH; ++i) {
+                node = node.path("child-" + (i % 3));
+            }
+            return node.path("timeout").asLongValue();
+        }
+        return document.path("key-1").asLongValue() +
+               document.path("key-5001").asLongValue();
+    }
+
+    @Benchmark
+    public long baseline() {
+        return read(eager.load(text));
+    }
+
+    @Benchmark
+    public long lazy() {
+        return read(lazy.load(text));
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.github.autermann.yaml.Yaml;
+import com.github.autermann.yaml.YamlEvent;
+import com.github.autermann.yaml.YamlNode;
+import com.github.autermann.yaml.YamlNodeFactory;
+
+/**
+ * Measures loading the {@link Corpus} documents through
+ * {@link Yaml#loadAll(String)} (parser, composer and
+ * {@link com.github.autermann.yaml.construct.YamlNodeConstructor}) and
+ * through the event API of {@link Yaml#parse(String)}.
+ *
+ * @author Christian Autermann
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoadBenchmark {
+
+    @Param
+    private Corpus corpus;
+
+    private Yaml yaml;
+    private String text;
+
+    @Setup
+    public void setup() {
+        YamlNodeFactory factory = YamlNodeFactory.createDefault();
+        this.yaml = new Yaml(factory);
+        this.text = yaml.dumpAll(corpus.create(factory));
+    }
+
+    @Benchmark
+    public void load(Blackhole bh) {
+        for (YamlNode node : yaml.loadAll(text)) {
+            bh.consume(node);
+        }
+    }
+
+    @Benchmark
+    public void parse(Blackhole bh) {
+        for (YamlEvent event : yaml.parse(text)) {
+            bh.consume(event);
+        }
+    }
+}
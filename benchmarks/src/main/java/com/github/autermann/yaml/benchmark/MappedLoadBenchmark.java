@@ -0,0 +1,100 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.benchmark;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.github.autermann.yaml.Yaml;
+import com.github.autermann.yaml.YamlNode;
+import com.github.autermann.yaml.YamlNodeFactory;
+
+/**
+ * Loads a large file of {@link Corpus#MULTI_DOCUMENT} documents. The
+ * {@code baseline} benchmark reads the file through an {@link InputStream},
+ * the {@code mapped} benchmark uses {@link Yaml#loadAll(Path)}.
+ *
+ * @author Christian Autermann
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class MappedLoadBenchmark {
+
+    @Param({ "128" })
+    private int megabytes;
+
+    private Yaml yaml;
+    private Path path;
+
+    @Setup
+    public void setup() throws IOException {
+        YamlNodeFactory factory = YamlNodeFactory.createDefault();
+        this.yaml = new Yaml(factory);
+        String corpus = yaml.dumpAll(Corpus.MULTI_DOCUMENT.create(factory));
+        this.path = Files.createTempFile("corpus", ".yaml");
+        long size = (long) megabytes << 20;
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            for (long written = 0; written < size; written += corpus.length()) {
+                writer.write("---\n");
+                writer.write(corpus);
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.delete(path);
+    }
+
+    @Benchmark
+    public void baseline(Blackhole bh) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            for (YamlNode node : yaml.loadAll(in)) {
+                bh.consume(node);
+            }
+        }
+    }
+
+    @Benchmark
+    public void mapped(Blackhole bh) throws IOException {
+        for (YamlNode node : yaml.loadAll(path)) {
+            bh.consume(node);
+        }
+    }
+}
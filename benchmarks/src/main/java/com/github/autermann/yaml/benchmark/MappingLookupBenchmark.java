@@ -0,0 +1,95 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.github.autermann.yaml.YamlNodeFactory;
+import com.github.autermann.yaml.nodes.YamlMapNode;
+import com.github.autermann.yaml.nodes.YamlOrderedMapNode;
+import com.github.autermann.yaml.nodes.YamlPairsNode;
+
+/**
+ * Measures {@code String} key lookups on mapping nodes. Run with
+ * {@code -prof gc} to see the allocation rate per lookup.
+ *
+ * @author Christian Autermann
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappingLookupBenchmark {
+
+    @Param({ "16", "1024" })
+    private int size;
+
+    private String[] keys;
+    private YamlMapNode map;
+    private YamlOrderedMapNode orderedMap;
+    private YamlPairsNode pairs;
+
+    @Setup
+    public void setup() {
+        YamlNodeFactory factory = YamlNodeFactory.createDefault();
+        this.keys = new String[size];
+        this.map = factory.mapNode();
+        this.orderedMap = factory.orderedMapNode();
+        this.pairs = factory.pairsNode();
+        for (int i = 0; i < size; ++i) {
+            keys[i] = "key-" + i;
+            map.put(keys[i], i);
+            orderedMap.put(keys[i], i);
+            pairs.put(keys[i], i);
+        }
+    }
+
+    @Benchmark
+    public void mapPath(Blackhole bh) {
+        for (String key : keys) {
+            bh.consume(map.path(key));
+        }
+    }
+
+    @Benchmark
+    public void orderedMapHas(Blackhole bh) {
+        for (String key : keys) {
+            bh.consume(orderedMap.has(key));
+        }
+    }
+
+    @Benchmark
+    public void pairsHasNotNull(Blackhole bh) {
+        for (String key : keys) {
+            bh.consume(pairs.hasNotNull(key));
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.github.autermann.yaml.Yaml;
+import com.github.autermann.yaml.YamlNode;
+import com.github.autermann.yaml.YamlNodeFactory;
+import com.github.autermann.yaml.YamlPointer;
+
+/**
+ * Measures navigating loaded {@link Corpus} documents with
+ * {@link YamlNode#path(String)}, {@link YamlNode#path(int)} and
+ * {@link YamlPointer}.
+ *
+ * @author Christian Autermann
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NavigateBenchmark {
+
+    private YamlNode deepConfig;
+    private YamlNode wideMap;
+    private YamlNode numericSequence;
+    private String[] keys;
+    private String deepExpression;
+    private YamlPointer deepPointer;
+
+    @Setup
+    public void setup() {
+        YamlNodeFactory factory = YamlNodeFactory.createDefault();
+        Yaml yaml = new Yaml(factory);
+        this.deepConfig = load(yaml, factory, Corpus.DEEP_CONFIG);
+        this.wideMap = load(yaml, factory, Corpus.WIDE_MAP);
+        this.numericSequence = load(yaml, factory, Corpus.NUMERIC_SEQUENCE);
+        this.keys = new String[wideMap.size()];
+        for (int i = 0; i < keys.length; ++i) {
+            keys[i] = "key-" + i;
+        }
+        StringBuilder expression = new StringBuilder();
+        for (int i = 0; i < Corpus.DEPTH; ++i) {
+            expression.append("/child-").append(i % 3);
+        }
+        this.deepExpression = expression.append("/timeout").toString();
+        this.deepPointer = YamlPointer.compile(deepExpression);
+    }
+
+    private static YamlNode load(Yaml yaml, YamlNodeFactory factory,
+                                 Corpus corpus) {
+        return yaml.load(yaml.dump(corpus.create(factory).get(0)));
+    }
+
+    @Benchmark
+    public YamlNode deepPath() {
+        YamlNode node = deepConfig;
+        for (int i = 0; i < Corpus.DEPTH; ++i) {
+            node = node.path("child-" + (i % 3));
+        }
+        return node.path("timeout");
+    }
+
+    @Benchmark
+    public YamlNode deepPointer() {
+        return deepPointer.get(deepConfig);
+    }
+
+    @Benchmark
+    public YamlNode deepPointerExpression() {
+        return deepConfig.at(deepExpression);
+    }
+
+    @Benchmark
+    public void widePath(Blackhole bh) {
+        for (String key : keys) {
+            bh.consume(wideMap.path(key));
+        }
+    }
+
+    @Benchmark
+    public long sequenceIndex() {
+        long sum = 0;
+        for (int i = 0; i < numericSequence.size(); i += 10) {
+            sum += numericSequence.path(i).asLongValue();
+        }
+        return sum;
+    }
+}
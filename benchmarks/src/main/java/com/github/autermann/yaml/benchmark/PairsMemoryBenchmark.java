@@ -0,0 +1,123 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.benchmark;
+
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.github.autermann.yaml.YamlNode;
+import com.github.autermann.yaml.YamlNodeFactory;
+import com.github.autermann.yaml.nodes.YamlPairsNode;
+import com.google.common.collect.Maps;
+
+/**
+ * Builds and reads {@code !!pairs} nodes of 100k pairs. Run with
+ * {@code -prof gc}; {@code gc.alloc.rate.norm} of the {@code build}
+ * benchmarks is the memory needed per 100k pairs (the keys and values
+ * themselves are shared and not included). The {@code baseline} benchmarks
+ * reproduce the previous {@code LinkedList} and {@code HashMap} based
+ * representation.
+ *
+ * @author Christian Autermann
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PairsMemoryBenchmark {
+    private static final int PAIRS = 100000;
+
+    @Param({ "1", "10" })
+    private int valuesPerKey;
+
+    private YamlNodeFactory factory;
+    private YamlNode[] keys;
+    private YamlNode[] values;
+    private YamlPairsNode pairs;
+    private Map<YamlNode, List<YamlNode>> baseline;
+
+    @Setup
+    public void setup() {
+        this.factory = YamlNodeFactory.createDefault();
+        this.keys = new YamlNode[PAIRS];
+        this.values = new YamlNode[PAIRS];
+        for (int i = 0; i < PAIRS; ++i) {
+            keys[i] = factory.textNode("header-" + (i / valuesPerKey));
+            values[i] = factory.intNode(i);
+        }
+        this.pairs = build();
+        this.baseline = new HashMap<>();
+        for (int i = 0; i < PAIRS; ++i) {
+            baseline.computeIfAbsent(keys[i], k -> new LinkedList<>())
+                    .add(values[i]);
+        }
+    }
+
+    @Benchmark
+    public YamlPairsNode build() {
+        YamlPairsNode node = factory.pairsNode();
+        for (int i = 0; i < PAIRS; ++i) {
+            node.put(keys[i], values[i]);
+        }
+        return node;
+    }
+
+    @Benchmark
+    public Object baselineBuild() {
+        List<Entry<YamlNode, YamlNode>> entries = new LinkedList<>();
+        Map<YamlNode, List<YamlNode>> multiMap = new HashMap<>();
+        for (int i = 0; i < PAIRS; ++i) {
+            entries.add(Maps.immutableEntry(keys[i], values[i]));
+            multiMap.computeIfAbsent(keys[i], k -> new LinkedList<>())
+                    .add(values[i]);
+        }
+        return new Object[] { entries, multiMap };
+    }
+
+    @Benchmark
+    public void path(Blackhole bh) {
+        for (int i = 0; i < PAIRS; i += valuesPerKey) {
+            bh.consume(pairs.path(keys[i]).size());
+        }
+    }
+
+    @Benchmark
+    public void baselinePath(Blackhole bh) {
+        for (int i = 0; i < PAIRS; i += valuesPerKey) {
+            bh.consume(factory.sequenceNode()
+                    .addAll(baseline.get(keys[i])).size());
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.benchmark;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.autermann.yaml.Yaml;
+import com.github.autermann.yaml.YamlNode;
+import com.github.autermann.yaml.YamlNodeFactory;
+
+/**
+ * Loads a stream of many small documents, built by repeating the
+ * {@link Corpus#MULTI_DOCUMENT} corpus. The {@code baseline} benchmark uses
+ * the sequential {@link Yaml#loadStream(String)}, the {@code ordered} and
+ * {@code unordered} benchmarks load the documents on the common
+ * {@link ForkJoinPool}.
+ *
+ * @author Christian Autermann
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelLoadBenchmark {
+
+    @Param({ "200000" })
+    private int documents;
+
+    private Yaml yaml;
+    private String text;
+
+    @Setup
+    public void setup() {
+        YamlNodeFactory factory = YamlNodeFactory.createDefault();
+        this.yaml = new Yaml(factory);
+        List<YamlNode> corpus = Corpus.MULTI_DOCUMENT.create(factory);
+        this.text = yaml.dumpAll(IntStream.range(0, documents)
+                .mapToObj(i -> corpus.get(i % corpus.size())).iterator());
+    }
+
+    @Benchmark
+    public long baseline() {
+        return yaml.loadStream(text).count();
+    }
+
+    @Benchmark
+    public long ordered() {
+        return yaml.loadStream(text, ForkJoinPool.commonPool(), true).count();
+    }
+
+    @Benchmark
+    public long unordered() {
+        return yaml.loadStream(text, ForkJoinPool.commonPool(), false).count();
+    }
+}
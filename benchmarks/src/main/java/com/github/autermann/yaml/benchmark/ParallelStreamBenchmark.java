@@ -0,0 +1,117 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.benchmark;
+
+import java.util.Map.Entry;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.StreamSupport;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.autermann.yaml.YamlNode;
+import com.github.autermann.yaml.YamlNodeFactory;
+import com.github.autermann.yaml.nodes.YamlMappingNode;
+import com.github.autermann.yaml.nodes.YamlPersistentMapNode;
+
+/**
+ * Sums the values of a large mapping with a parallel stream. The
+ * {@code baseline} benchmark streams the entries with an iterator based
+ * spliterator, as the mapping nodes did before, the {@code sequential} and
+ * {@code parallel} benchmarks use {@link YamlMappingNode#entryStream()} and
+ * {@link YamlMappingNode#parallelEntryStream()}. Use
+ * {@code -p size=10000000 -jvmArgs -Xmx8g} for the full sized mapping.
+ *
+ * @author Christian Autermann
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelStreamBenchmark {
+
+    @Param({ "1000000" })
+    private int size;
+
+    @Param({ "map", "frozen", "persistent", "pairs" })
+    private String kind;
+
+    private YamlMappingNode<?> node;
+
+    @Setup
+    public void setup() {
+        YamlNodeFactory factory = YamlNodeFactory.createDefault();
+        switch (kind) {
+            case "pairs":
+                this.node = fill(factory.pairsNode());
+                break;
+            case "frozen":
+                this.node = (YamlMappingNode<?>) fill(factory.mapNode()).freeze();
+                break;
+            case "persistent":
+                this.node = YamlPersistentMapNode.copyOf(fill(factory.mapNode()));
+                break;
+            default:
+                this.node = fill(factory.mapNode());
+        }
+    }
+
+    private <T extends YamlMappingNode<T>> T fill(T mapping) {
+        for (int i = 0; i < size; ++i) {
+            mapping.put("key-" + i, i);
+        }
+        return mapping;
+    }
+
+    private static long value(Entry<YamlNode, YamlNode> entry) {
+        return entry.getValue().asLongValue();
+    }
+
+    @Benchmark
+    public long baseline() {
+        Spliterator<Entry<YamlNode, YamlNode>> spliterator
+                = Spliterators.spliterator(node.entries().iterator(), size,
+                                           Spliterator.SIZED |
+                                           Spliterator.SUBSIZED |
+                                           Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, true)
+                .mapToLong(ParallelStreamBenchmark::value).sum();
+    }
+
+    @Benchmark
+    public long sequential() {
+        return node.entryStream().mapToLong(ParallelStreamBenchmark::value).sum();
+    }
+
+    @Benchmark
+    public long parallel() {
+        return node.parallelEntryStream()
+                .mapToLong(ParallelStreamBenchmark::value).sum();
+    }
+}
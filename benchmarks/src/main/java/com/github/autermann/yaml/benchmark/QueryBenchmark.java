@@ -0,0 +1,115 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.autermann.yaml.YamlNode;
+import com.github.autermann.yaml.YamlNodeFactory;
+import com.github.autermann.yaml.YamlQuery;
+import com.github.autermann.yaml.nodes.YamlMapNode;
+import com.github.autermann.yaml.nodes.YamlSeqNode;
+
+/**
+ * Selects the public ports of an inventory of 1000 services with 100 ports
+ * each. The {@code baseline} benchmark walks the nodes by hand, the other
+ * benchmarks evaluate a {@link YamlQuery} sequentially and in parallel.
+ *
+ * @author Christian Autermann
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryBenchmark {
+
+    private YamlNode inventory;
+    private YamlQuery query;
+    private YamlQuery descendants;
+
+    @Setup
+    public void setup() {
+        YamlNodeFactory factory = YamlNodeFactory.createDefault();
+        Random random = new Random(42);
+        YamlSeqNode services = factory.sequenceNode();
+        for (int i = 0; i < 1000; ++i) {
+            YamlSeqNode ports = factory.sequenceNode();
+            for (int j = 0; j < 100; ++j) {
+                ports.add(factory.orderedMapNode()
+                        .put("port", random.nextInt(65536))
+                        .put("public", random.nextBoolean()));
+            }
+            services.add(factory.orderedMapNode()
+                    .put("name", "service-" + i)
+                    .put("ports", ports));
+        }
+        YamlMapNode root = factory.mapNode();
+        root.put("services", services);
+        this.inventory = root;
+        this.query = YamlQuery.compile("$.services[*].ports[?(@.public == true)]");
+        this.descendants = YamlQuery.compile("$..[?(@.port < 1024)]");
+    }
+
+    @Benchmark
+    public List<YamlNode> baseline() {
+        List<YamlNode> result = new ArrayList<>();
+        for (YamlNode service : inventory.path("services")) {
+            for (YamlNode port : service.path("ports")) {
+                if (port.path("public").asBooleanValue()) {
+                    result.add(port);
+                }
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<YamlNode> select() {
+        return query.select(inventory);
+    }
+
+    @Benchmark
+    public List<YamlNode> selectParallel() {
+        return query.select(inventory, ForkJoinPool.commonPool());
+    }
+
+    @Benchmark
+    public List<YamlNode> selectDescendants() {
+        return descendants.select(inventory);
+    }
+
+    @Benchmark
+    public List<YamlNode> selectDescendantsParallel() {
+        return descendants.select(inventory, ForkJoinPool.commonPool());
+    }
+}
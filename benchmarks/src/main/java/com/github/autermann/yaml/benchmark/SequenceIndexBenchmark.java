@@ -0,0 +1,93 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.github.autermann.yaml.YamlNode;
+import com.github.autermann.yaml.YamlNodeFactory;
+import com.github.autermann.yaml.nodes.YamlMissingNode;
+import com.github.autermann.yaml.nodes.YamlSeqNode;
+import com.github.autermann.yaml.nodes.YamlSetNode;
+
+/**
+ * Measures indexed access to sequence nodes. {@link #streamSkip(Blackhole)}
+ * reproduces the former {@code stream().skip(i).findFirst()} lookup as a
+ * baseline.
+ *
+ * @author Christian Autermann
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SequenceIndexBenchmark {
+
+    @Param({ "100", "10000", "50000" })
+    private int size;
+
+    private YamlSeqNode sequence;
+    private YamlSetNode set;
+
+    @Setup
+    public void setup() {
+        YamlNodeFactory factory = YamlNodeFactory.createDefault();
+        this.sequence = factory.sequenceNode();
+        this.set = factory.setNode();
+        for (int i = 0; i < size; ++i) {
+            this.sequence.add(i);
+            this.set.add(i);
+        }
+    }
+
+    @Benchmark
+    public void sequencePath(Blackhole bh) {
+        for (int i = 0; i < size; ++i) {
+            bh.consume(sequence.path(i));
+        }
+    }
+
+    @Benchmark
+    public void setPath(Blackhole bh) {
+        for (int i = 0; i < size; ++i) {
+            bh.consume(set.path(i));
+        }
+    }
+
+    @Benchmark
+    public void streamSkip(Blackhole bh) {
+        for (int i = 0; i < size; ++i) {
+            YamlNode node = sequence.value().stream().skip(i).findFirst()
+                    .orElseGet(YamlMissingNode::instance);
+            bh.consume(node);
+        }
+    }
+}
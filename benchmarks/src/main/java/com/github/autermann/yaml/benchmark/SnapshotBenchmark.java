@@ -0,0 +1,114 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.autermann.yaml.Yaml;
+import com.github.autermann.yaml.YamlNode;
+import com.github.autermann.yaml.YamlNodeFactory;
+import com.github.autermann.yaml.nodes.YamlMapNode;
+import com.github.autermann.yaml.nodes.YamlSeqNode;
+
+/**
+ * Loads an inventory of 1000 services from its string representation
+ * ({@code loadText}) and from a binary snapshot ({@code readSnapshot}), and
+ * writes the snapshot of the loaded tree ({@code writeSnapshot}).
+ *
+ * @author Christian Autermann
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnapshotBenchmark {
+
+    private Yaml yaml;
+    private String document;
+    private byte[] snapshot;
+    private YamlNode tree;
+
+    @Setup
+    public void setup() throws IOException {
+        YamlNodeFactory factory = YamlNodeFactory.createDefault();
+        Random random = new Random(42);
+        YamlSeqNode services = factory.sequenceNode();
+        for (int i = 0; i < 1000; ++i) {
+            YamlSeqNode ports = factory.sequenceNode();
+            for (int j = 0; j < 10; ++j) {
+                ports.add(factory.orderedMapNode()
+                        .put("port", random.nextInt(65536))
+                        .put("exposed", random.nextBoolean()));
+            }
+            YamlMapNode annotations = factory.orderedMapNode();
+            for (int j = 0; j < 10; ++j) {
+                annotations.put("annotation-" + j, "value-" + random.nextInt());
+            }
+            services.add(factory.orderedMapNode()
+                    .put("name", "service-" + i)
+                    .put("replicas", random.nextInt(10))
+                    .put("weight", random.nextDouble())
+                    .put("created", new DateTime(random.nextInt() * 1000L,
+                                                 DateTimeZone.UTC))
+                    .put("ports", ports)
+                    .put("annotations", annotations));
+        }
+        YamlMapNode root = factory.orderedMapNode();
+        root.put("services", services);
+        this.yaml = new Yaml(factory);
+        this.document = yaml.dump(root);
+        this.tree = yaml.load(document);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        yaml.writeSnapshot(tree, out);
+        this.snapshot = out.toByteArray();
+    }
+
+    @Benchmark
+    public YamlNode loadText() {
+        return yaml.load(document);
+    }
+
+    @Benchmark
+    public YamlNode readSnapshot() throws IOException {
+        return yaml.readSnapshot(new ByteArrayInputStream(snapshot));
+    }
+
+    @Benchmark
+    public byte[] writeSnapshot() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(snapshot.length);
+        yaml.writeSnapshot(tree, out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.autermann.yaml.InterningYamlNodeFactory;
+import com.github.autermann.yaml.Yaml;
+import com.github.autermann.yaml.YamlNode;
+
+/**
+ * Loads an inventory of 10k hosts in which keys, statuses and locations
+ * repeat, with and without an {@link InterningYamlNodeFactory}.
+ *
+ * @author Christian Autermann
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TextInterningBenchmark {
+    private static final int HOSTS = 10000;
+    private static final String[] STATUS = { "up", "down", "maintenance" };
+    private static final String[] DATACENTER = { "fra1", "ams2", "lon1", "nyc3" };
+
+    private String inventory;
+
+    @Setup
+    public void setup() {
+        this.inventory = inventory(HOSTS);
+    }
+
+    @Benchmark
+    public YamlNode load() {
+        return new Yaml().load(inventory);
+    }
+
+    @Benchmark
+    public YamlNode loadInterning() {
+        return new Yaml(InterningYamlNodeFactory.create(4096)).load(inventory);
+    }
+
+    /**
+     * Creates an inventory document.
+     *
+     * @param hosts the number of hosts
+     *
+     * @return the document
+     */
+    public static String inventory(int hosts) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < hosts; ++i) {
+            builder.append("- hostname: host-").append(i % 500)
+                    .append(".example.org\n")
+                    .append("  status: ").append(STATUS[i % STATUS.length])
+                    .append('\n')
+                    .append("  datacenter: ")
+                    .append(DATACENTER[i % DATACENTER.length]).append('\n')
+                    .append("  role: ").append(i % 2 == 0 ? "web" : "db")
+                    .append('\n')
+                    .append("  owner: team-").append(i % 20).append('\n');
+        }
+        return builder.toString();
+    }
+}
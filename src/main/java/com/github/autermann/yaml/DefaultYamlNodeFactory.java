@@ -43,13 +43,31 @@ import com.github.autermann.yaml.nodes.YamlShortNode;
 import com.github.autermann.yaml.nodes.YamlTextNode;
 import com.github.autermann.yaml.nodes.YamlTimeNode;
 import com.github.autermann.yaml.util.DecimalPrecision;
+import com.github.autermann.yaml.util.Numbers;
 
 /**
  * Default implementation of {@link YamlNodeFactory}.
+ * <p>
+ * Integral nodes with a value in the range of the integral cache (by default
+ * {@value #DEFAULT_INTEGRAL_CACHE_LOW} to
+ * {@value #DEFAULT_INTEGRAL_CACHE_HIGH}) are preallocated and shared, as they
+ * are immutable.
  *
  * @author Christian Autermann
  */
 public class DefaultYamlNodeFactory implements YamlNodeFactory {
+    /**
+     * The default lower bound (inclusive) of the integral cache.
+     */
+    public static final int DEFAULT_INTEGRAL_CACHE_LOW = -128;
+    /**
+     * The default upper bound (inclusive) of the integral cache.
+     */
+    public static final int DEFAULT_INTEGRAL_CACHE_HIGH = 1024;
+    /**
+     * The maximal number of values in the integral cache.
+     */
+    public static final int MAX_INTEGRAL_CACHE_SIZE = 1 << 16;
     /**
      * Created {@link DecimalPrecision} specific instances.
      */
@@ -59,15 +77,81 @@ public class DefaultYamlNodeFactory implements YamlNodeFactory {
      * The {@link DecimalPrecision} of this factory.
      */
     private final DecimalPrecision decimalPrecision;
+    /**
+     * The lower bound (inclusive) of the integral cache.
+     */
+    private final int integralCacheLow;
+    /**
+     * The upper bound (inclusive) of the integral cache.
+     */
+    private final int integralCacheHigh;
+    /**
+     * The cached {@code byte} nodes, indexed by {@code value - low}.
+     */
+    private final YamlByteNode[] byteNodes;
+    /**
+     * The cached {@code short} nodes, indexed by {@code value - low}.
+     */
+    private final YamlShortNode[] shortNodes;
+    /**
+     * The cached {@code int} nodes, indexed by {@code value - low}.
+     */
+    private final YamlIntegerNode[] intNodes;
+    /**
+     * The cached {@code long} nodes, indexed by {@code value - low}.
+     */
+    private final YamlLongNode[] longNodes;
 
     /**
      * Creates a new {@code DefaultYamlNodeFactory} with the specified
-     * precision.
+     * precision and the default integral cache.
      *
      * @param precision the precision
      */
     protected DefaultYamlNodeFactory(DecimalPrecision precision) {
+        this(precision, DEFAULT_INTEGRAL_CACHE_LOW,
+             DEFAULT_INTEGRAL_CACHE_HIGH);
+    }
+
+    /**
+     * Creates a new {@code DefaultYamlNodeFactory} with the specified
+     * precision and integral cache. If {@code high} is less than
+     * {@code low}, integral nodes are not cached.
+     *
+     * @param precision the precision
+     * @param low       the lower bound (inclusive) of the integral cache
+     * @param high      the upper bound (inclusive) of the integral cache
+     *
+     * @throws IllegalArgumentException if the cache would hold more than
+     *                                  {@value #MAX_INTEGRAL_CACHE_SIZE}
+     *                                  values
+     */
+    protected DefaultYamlNodeFactory(DecimalPrecision precision,
+                                     int low, int high) {
         this.decimalPrecision = Objects.requireNonNull(precision);
+        long range = Math.max(0, (long) high - low + 1);
+        if (range > MAX_INTEGRAL_CACHE_SIZE) {
+            throw new IllegalArgumentException(
+                    "integral cache too large: " + range);
+        }
+        int size = (int) range;
+        this.integralCacheLow = low;
+        this.integralCacheHigh = high;
+        this.byteNodes = new YamlByteNode[size];
+        this.shortNodes = new YamlShortNode[size];
+        this.intNodes = new YamlIntegerNode[size];
+        this.longNodes = new YamlLongNode[size];
+        for (int i = 0; i < size; ++i) {
+            int value = low + i;
+            if (Numbers.fitsIntoByte(value)) {
+                byteNodes[i] = new YamlByteNode((byte) value);
+            }
+            if (Numbers.fitsIntoShort(value)) {
+                shortNodes[i] = new YamlShortNode((short) value);
+            }
+            intNodes[i] = new YamlIntegerNode(value);
+            longNodes[i] = new YamlLongNode(value);
+        }
     }
 
     @Override
@@ -102,24 +186,47 @@ public class DefaultYamlNodeFactory implements YamlNodeFactory {
 
     @Override
     public YamlIntegralNode byteNode(byte value) {
+        if (isCached(value)) {
+            return byteNodes[value - integralCacheLow];
+        }
         return new YamlByteNode(value);
     }
 
     @Override
     public YamlIntegralNode shortNode(short value) {
+        if (isCached(value)) {
+            return shortNodes[value - integralCacheLow];
+        }
         return new YamlShortNode(value);
     }
 
     @Override
     public YamlIntegralNode intNode(int value) {
+        if (isCached(value)) {
+            return intNodes[value - integralCacheLow];
+        }
         return new YamlIntegerNode(value);
     }
 
     @Override
     public YamlIntegralNode longNode(long value) {
+        if (isCached(value)) {
+            return longNodes[(int) (value - integralCacheLow)];
+        }
         return new YamlLongNode(value);
     }
 
+    /**
+     * Checks if the specified value is in the range of the integral cache.
+     *
+     * @param value the value
+     *
+     * @return if the value is cached
+     */
+    private boolean isCached(long value) {
+        return value >= integralCacheLow && value <= integralCacheHigh;
+    }
+
     @Override
     public YamlMapNode mapNode() {
         return new YamlMapNode(this);
@@ -191,7 +298,23 @@ public class DefaultYamlNodeFactory implements YamlNodeFactory {
      */
     public YamlNodeFactory withDecimalPrecision(
             DecimalPrecision decimalPrecision) {
-        return create(decimalPrecision);
+        return create(decimalPrecision, integralCacheLow, integralCacheHigh);
+    }
+
+    /**
+     * Sets the range of integral values whose nodes are preallocated and
+     * shared by this factory. If {@code high} is less than {@code low},
+     * integral nodes are not cached.
+     *
+     * Subclasses should override this method.
+     *
+     * @param low  the lower bound (inclusive)
+     * @param high the upper bound (inclusive)
+     *
+     * @return a new {@code DefaultYamlNodeFactory}
+     */
+    public YamlNodeFactory withIntegralCache(int low, int high) {
+        return create(decimalPrecision, low, high);
     }
 
     /**
@@ -203,6 +326,24 @@ public class DefaultYamlNodeFactory implements YamlNodeFactory {
         return decimalPrecision;
     }
 
+    /**
+     * Gets the lower bound (inclusive) of the integral cache of this factory.
+     *
+     * @return the lower bound
+     */
+    public int getIntegralCacheLow() {
+        return integralCacheLow;
+    }
+
+    /**
+     * Gets the upper bound (inclusive) of the integral cache of this factory.
+     *
+     * @return the upper bound
+     */
+    public int getIntegralCacheHigh() {
+        return integralCacheHigh;
+    }
+
     /**
      * Creates a new {@link DefaultYamlNodeFactory} with the specified
      * precision.
@@ -221,6 +362,26 @@ public class DefaultYamlNodeFactory implements YamlNodeFactory {
         return fac;
     }
 
+    /**
+     * Creates a new {@link DefaultYamlNodeFactory} with the specified
+     * precision and integral cache. If {@code high} is less than
+     * {@code low}, integral nodes are not cached.
+     *
+     * @param precision the precision
+     * @param low       the lower bound (inclusive) of the integral cache
+     * @param high      the upper bound (inclusive) of the integral cache
+     *
+     * @return the factory
+     */
+    public static DefaultYamlNodeFactory create(DecimalPrecision precision,
+                                                int low, int high) {
+        if (low == DEFAULT_INTEGRAL_CACHE_LOW &&
+            high == DEFAULT_INTEGRAL_CACHE_HIGH) {
+            return create(precision);
+        }
+        return new DefaultYamlNodeFactory(precision, low, high);
+    }
+
     /**
      * Creates a new {@link DefaultYamlNodeFactory} with the default precision
      * {@link DecimalPrecision#BIG_DECIMAL}.
@@ -0,0 +1,219 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TimeZone;
+
+import org.yaml.snakeyaml.DumperOptions;
+
+/**
+ * Per-thread cache of {@link Yaml} instances used by the {@code dump} methods
+ * of {@link YamlNode}. Creating a {@link Yaml} registers all constructs and
+ * represents, which dominates dumping small nodes. SnakeYAML instances are not
+ * thread-safe, so every thread gets its own instances, keyed by the values of
+ * the {@link DumperOptions} they were created with.
+ *
+ * @author Christian Autermann
+ * @since 1.0.4
+ */
+final class DumperCache {
+    /**
+     * The maximum number of cached instances per thread.
+     */
+    private static final int MAX_SIZE = 16;
+    /**
+     * The key of the default {@link DumperOptions}.
+     */
+    private static final Key DEFAULT_KEY = new Key(new DumperOptions());
+    /**
+     * The cached instances of each thread.
+     */
+    private static final ThreadLocal<Map<Key, Yaml>> CACHE
+            = ThreadLocal.withInitial(DumperCache::createCache);
+
+    /**
+     * Private constructor for utility class.
+     */
+    private DumperCache() {
+    }
+
+    /**
+     * Gets a {@link Yaml} with default {@link DumperOptions} for the current
+     * thread.
+     *
+     * @return the {@link Yaml}
+     */
+    static Yaml get() {
+        return get(DEFAULT_KEY);
+    }
+
+    /**
+     * Gets a {@link Yaml} for the current thread that dumps like a
+     * {@link Yaml} created with the supplied {@link DumperOptions}. Later
+     * modifications of {@code options} do not affect the returned instance.
+     *
+     * @param options the dumper options
+     *
+     * @return the {@link Yaml}
+     */
+    static Yaml get(DumperOptions options) {
+        return get(new Key(Objects.requireNonNull(options)));
+    }
+
+    /**
+     * Gets or creates the {@link Yaml} for the specified key.
+     *
+     * @param key the key
+     *
+     * @return the {@link Yaml}
+     */
+    private static Yaml get(Key key) {
+        Map<Key, Yaml> cache = CACHE.get();
+        Yaml yaml = cache.get(key);
+        if (yaml == null) {
+            yaml = new Yaml(key.toDumperOptions());
+            cache.put(key, yaml);
+        }
+        return yaml;
+    }
+
+    /**
+     * Creates a access ordered map that evicts the least recently used
+     * instance if more than {@link #MAX_SIZE} instances are cached.
+     *
+     * @return the map
+     */
+    private static Map<Key, Yaml> createCache() {
+        return new LinkedHashMap<Key, Yaml>(MAX_SIZE, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Yaml> eldest) {
+                return size() > MAX_SIZE;
+            }
+        };
+    }
+
+    /**
+     * Immutable snapshot of the values of a {@link DumperOptions}.
+     */
+    private static final class Key {
+        private final boolean allowUnicode;
+        private final DumperOptions.ScalarStyle defaultScalarStyle;
+        private final int indent;
+        private final DumperOptions.Version version;
+        private final boolean canonical;
+        private final boolean prettyFlow;
+        private final int width;
+        private final boolean splitLines;
+        private final DumperOptions.LineBreak lineBreak;
+        private final DumperOptions.FlowStyle defaultFlowStyle;
+        private final boolean explicitStart;
+        private final boolean explicitEnd;
+        private final Map<String, String> tags;
+        private final boolean allowReadOnlyProperties;
+        private final TimeZone timeZone;
+        private final int hashCode;
+
+        Key(DumperOptions options) {
+            this.allowUnicode = options.isAllowUnicode();
+            this.defaultScalarStyle = options.getDefaultScalarStyle();
+            this.indent = options.getIndent();
+            this.version = options.getVersion();
+            this.canonical = options.isCanonical();
+            this.prettyFlow = options.isPrettyFlow();
+            this.width = options.getWidth();
+            this.splitLines = options.getSplitLines();
+            this.lineBreak = options.getLineBreak();
+            this.defaultFlowStyle = options.getDefaultFlowStyle();
+            this.explicitStart = options.isExplicitStart();
+            this.explicitEnd = options.isExplicitEnd();
+            this.tags = options.getTags() == null ? null
+                        : new HashMap<>(options.getTags());
+            this.allowReadOnlyProperties = options.isAllowReadOnlyProperties();
+            this.timeZone = options.getTimeZone() == null ? null
+                            : (TimeZone) options.getTimeZone().clone();
+            this.hashCode = Arrays.hashCode(new Object[] {
+                allowUnicode, defaultScalarStyle, indent, version, canonical,
+                prettyFlow, width, splitLines, lineBreak, defaultFlowStyle,
+                explicitStart, explicitEnd, tags, allowReadOnlyProperties,
+                timeZone
+            });
+        }
+
+        /**
+         * Creates a new {@link DumperOptions} from this key.
+         *
+         * @return the dumper options
+         */
+        DumperOptions toDumperOptions() {
+            DumperOptions options = new DumperOptions();
+            options.setAllowUnicode(allowUnicode);
+            options.setDefaultScalarStyle(defaultScalarStyle);
+            options.setIndent(indent);
+            options.setVersion(version);
+            options.setCanonical(canonical);
+            options.setPrettyFlow(prettyFlow);
+            options.setWidth(width);
+            options.setSplitLines(splitLines);
+            options.setLineBreak(lineBreak);
+            options.setDefaultFlowStyle(defaultFlowStyle);
+            options.setExplicitStart(explicitStart);
+            options.setExplicitEnd(explicitEnd);
+            options.setTags(tags == null ? null : new HashMap<>(tags));
+            options.setAllowReadOnlyProperties(allowReadOnlyProperties);
+            options.setTimeZone(timeZone == null ? null
+                                : (TimeZone) timeZone.clone());
+            return options;
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key that = (Key) o;
+            return allowUnicode == that.allowUnicode &&
+                   indent == that.indent &&
+                   canonical == that.canonical &&
+                   prettyFlow == that.prettyFlow &&
+                   width == that.width &&
+                   splitLines == that.splitLines &&
+                   explicitStart == that.explicitStart &&
+                   explicitEnd == that.explicitEnd &&
+                   allowReadOnlyProperties == that.allowReadOnlyProperties &&
+                   defaultScalarStyle == that.defaultScalarStyle &&
+                   version == that.version &&
+                   lineBreak == that.lineBreak &&
+                   defaultFlowStyle == that.defaultFlowStyle &&
+                   Objects.equals(tags, that.tags) &&
+                   Objects.equals(timeZone, that.timeZone);
+        }
+    }
+}
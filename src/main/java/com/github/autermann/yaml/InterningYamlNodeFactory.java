@@ -0,0 +1,147 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml;
+
+import com.github.autermann.yaml.nodes.YamlTextNode;
+import com.github.autermann.yaml.util.DecimalPrecision;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * A {@link DefaultYamlNodeFactory} that deduplicates {@link YamlTextNode}s.
+ * Text nodes (and thereby their {@code String} values) are kept in a bounded
+ * pool and shared between all occurrences of the same text, including
+ * mapping keys. Once the pool is full, the least recently used texts are
+ * evicted.
+ * <p>
+ * The pool is thread safe and lives as long as the factory, so a factory can
+ * either be shared between loads or be created per load:
+ * <pre>
+ * YamlNode node = new Yaml(InterningYamlNodeFactory.create(4096)).load(in);
+ * </pre>
+ *
+ * @author Christian Autermann
+ */
+public class InterningYamlNodeFactory extends DefaultYamlNodeFactory {
+    /**
+     * The pool of text nodes.
+     */
+    private final Cache<String, YamlTextNode> textNodes;
+    /**
+     * The maximal number of text nodes in the pool.
+     */
+    private final long maximumSize;
+
+    /**
+     * Creates a new {@code InterningYamlNodeFactory}.
+     *
+     * @param precision   the precision
+     * @param low         the lower bound (inclusive) of the integral cache
+     * @param high        the upper bound (inclusive) of the integral cache
+     * @param maximumSize the maximal number of text nodes in the pool
+     */
+    protected InterningYamlNodeFactory(DecimalPrecision precision,
+                                       int low, int high, long maximumSize) {
+        super(precision, low, high);
+        this.maximumSize = maximumSize;
+        this.textNodes = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize).build();
+    }
+
+    @Override
+    public YamlTextNode createTextNode(String value) {
+        YamlTextNode node = this.textNodes.getIfPresent(value);
+        if (node == null) {
+            node = new YamlTextNode(value);
+            YamlTextNode existing = this.textNodes.asMap()
+                    .putIfAbsent(value, node);
+            if (existing != null) {
+                node = existing;
+            }
+        }
+        return node;
+    }
+
+    /**
+     * Gets the maximal number of text nodes in the pool of this factory.
+     *
+     * @return the maximal number of text nodes
+     */
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Sets the {@link DecimalPrecision} of this factory. The returned factory
+     * has its own, empty pool.
+     *
+     * @param decimalPrecision the {@link DecimalPrecision}
+     *
+     * @return a new {@code InterningYamlNodeFactory}
+     */
+    @Override
+    public InterningYamlNodeFactory withDecimalPrecision(
+            DecimalPrecision decimalPrecision) {
+        return new InterningYamlNodeFactory(decimalPrecision,
+                                            getIntegralCacheLow(),
+                                            getIntegralCacheHigh(),
+                                            maximumSize);
+    }
+
+    /**
+     * Sets the range of the integral cache of this factory. The returned
+     * factory has its own, empty pool.
+     *
+     * @param low  the lower bound (inclusive)
+     * @param high the upper bound (inclusive)
+     *
+     * @return a new {@code InterningYamlNodeFactory}
+     */
+    @Override
+    public InterningYamlNodeFactory withIntegralCache(int low, int high) {
+        return new InterningYamlNodeFactory(getDecimalPrecision(),
+                                            low, high, maximumSize);
+    }
+
+    /**
+     * Creates a new {@link InterningYamlNodeFactory} with the specified
+     * precision.
+     *
+     * @param precision   the precision
+     * @param maximumSize the maximal number of text nodes in the pool
+     *
+     * @return the factory
+     */
+    public static InterningYamlNodeFactory create(DecimalPrecision precision,
+                                                  long maximumSize) {
+        return new InterningYamlNodeFactory(precision,
+                                            DEFAULT_INTEGRAL_CACHE_LOW,
+                                            DEFAULT_INTEGRAL_CACHE_HIGH,
+                                            maximumSize);
+    }
+
+    /**
+     * Creates a new {@link InterningYamlNodeFactory} with the default
+     * precision {@link DecimalPrecision#BIG_DECIMAL}.
+     *
+     * @param maximumSize the maximal number of text nodes in the pool
+     *
+     * @return the factory
+     */
+    public static InterningYamlNodeFactory create(long maximumSize) {
+        return create(DecimalPrecision.BIG_DECIMAL, maximumSize);
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.yaml.snakeyaml.reader.UnicodeReader;
+
+/**
+ * {@link Reader} that decodes a memory-mapped file directly into the buffers
+ * of the caller, without the byte and char buffers of an
+ * {@link java.io.InputStreamReader}. Like {@link UnicodeReader}, the
+ * encoding is detected from the byte order mark and defaults to UTF-8.
+ *
+ * @author Christian Autermann
+ */
+final class MappedFileReader extends Reader {
+    /**
+     * The remaining bytes of the file.
+     */
+    private ByteBuffer bytes;
+    /**
+     * The decoder of the detected encoding.
+     */
+    private final CharsetDecoder decoder;
+    /**
+     * The second half of a surrogate pair that did not fit into the buffer
+     * of the caller, or {@code 0}.
+     */
+    private char pending;
+    /**
+     * If all bytes are decoded.
+     */
+    private boolean eof;
+
+    /**
+     * Creates a new {@link MappedFileReader}.
+     *
+     * @param bytes the bytes of the file
+     */
+    private MappedFileReader(ByteBuffer bytes) {
+        this.bytes = bytes;
+        this.decoder = detectEncoding(bytes)
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT);
+    }
+
+    /**
+     * Opens a reader for the specified file. The file is mapped into memory
+     * and the channel is closed right away, the mapping stays valid until
+     * the reader is garbage collected. Files too large to be mapped by a
+     * single buffer are read by a {@link UnicodeReader}.
+     *
+     * @param path the file
+     *
+     * @return the reader
+     *
+     * @throws IOException if the file can not be opened or mapped
+     */
+    static Reader open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path,
+                                                    StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                return new UnicodeReader(Files.newInputStream(path));
+            }
+            return new MappedFileReader(
+                    channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        }
+    }
+
+    /**
+     * Detects the encoding from the byte order mark and skips it.
+     *
+     * @param bytes the bytes
+     *
+     * @return the decoder of the encoding
+     */
+    private static CharsetDecoder detectEncoding(ByteBuffer bytes) {
+        int remaining = bytes.remaining();
+        int b0 = remaining > 0 ? bytes.get(0) & 0xff : -1;
+        int b1 = remaining > 1 ? bytes.get(1) & 0xff : -1;
+        int b2 = remaining > 2 ? bytes.get(2) & 0xff : -1;
+        if (b0 == 0xef && b1 == 0xbb && b2 == 0xbf) {
+            // Buffer casts keep the Java 8 signatures when built on JDK 9+
+            ((Buffer) bytes).position(3);
+            return StandardCharsets.UTF_8.newDecoder();
+        } else if (b0 == 0xfe && b1 == 0xff) {
+            ((Buffer) bytes).position(2);
+            return StandardCharsets.UTF_16BE.newDecoder();
+        } else if (b0 == 0xff && b1 == 0xfe) {
+            ((Buffer) bytes).position(2);
+            return StandardCharsets.UTF_16LE.newDecoder();
+        } else {
+            return StandardCharsets.UTF_8.newDecoder();
+        }
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+        if (bytes == null) {
+            throw new IOException("reader is closed");
+        }
+        if (len == 0) {
+            return 0;
+        }
+        CharBuffer out = CharBuffer.wrap(cbuf, off, len);
+        if (pending != 0) {
+            out.put(pending);
+            pending = 0;
+        }
+        while (out.hasRemaining() && !eof) {
+            CoderResult result = decoder.decode(bytes, out, true);
+            if (result.isError()) {
+                result.throwException();
+            } else if (result.isUnderflow()) {
+                decoder.flush(out);
+                eof = true;
+            } else if (out.position() == off) {
+                // a surrogate pair does not fit into a single char
+                readPair(out);
+            } else {
+                break;
+            }
+        }
+        int read = out.position() - off;
+        return read == 0 && eof ? -1 : read;
+    }
+
+    /**
+     * Decodes the next surrogate pair into a single char buffer.
+     *
+     * @param out the buffer with room for a single char
+     *
+     * @throws IOException if the input is malformed
+     */
+    private void readPair(CharBuffer out) throws IOException {
+        CharBuffer pair = CharBuffer.allocate(2);
+        CoderResult result = decoder.decode(bytes, pair, true);
+        if (result.isError()) {
+            result.throwException();
+        }
+        ((Buffer) pair).flip();
+        out.put(pair.get());
+        if (pair.hasRemaining()) {
+            pending = pair.get();
+        }
+    }
+
+    @Override
+    public void close() {
+        this.bytes = null;
+    }
+}
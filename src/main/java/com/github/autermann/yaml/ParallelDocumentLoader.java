@@ -0,0 +1,260 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.function.Function;
+
+import org.yaml.snakeyaml.error.YAMLException;
+
+import com.google.common.collect.UnmodifiableIterator;
+
+/**
+ * Loads the documents of a stream concurrently. The input is split into
+ * batches of documents at document markers ({@code ---} and {@code ...} at
+ * the start of a line), which the YAML specification forbids inside of
+ * scalars. Every batch is loaded by a task on an {@link Executor} and at most
+ * {@link #MAX_PENDING} batches are read ahead of the consumer. If a batch
+ * fails to load or {@link #cancel()} is called, the pending tasks are
+ * cancelled; an iterator that is abandoned without calling {@link #cancel()}
+ * leaves them running until they are finished.
+ *
+ * @author Christian Autermann
+ */
+class ParallelDocumentLoader extends UnmodifiableIterator<YamlNode> {
+    /**
+     * The number of characters after which a batch is ended at the next
+     * document boundary.
+     */
+    static final int BATCH_SIZE = 64 * 1024;
+    /**
+     * The maximal number of batches that are loaded concurrently or wait to
+     * be consumed.
+     */
+    private static final int MAX_PENDING = 64;
+    /**
+     * The input.
+     */
+    private final BufferedReader reader;
+    /**
+     * The function loading the documents of a batch.
+     */
+    private final Function<String, List<YamlNode>> loader;
+    /**
+     * The executor of the tasks.
+     */
+    private final Executor executor;
+    /**
+     * The pending tasks in input order.
+     */
+    private final Queue<Future<List<YamlNode>>> pending
+            = new ArrayDeque<>(MAX_PENDING);
+    /**
+     * The pending tasks in completion order, if the documents are unordered.
+     */
+    private final CompletionService<List<YamlNode>> unordered;
+    /**
+     * The first line of the next batch or {@code null}.
+     */
+    private String line;
+    /**
+     * If the input is exhausted.
+     */
+    private boolean eof;
+    /**
+     * The documents of the current batch.
+     */
+    private Iterator<YamlNode> documents = Collections.emptyIterator();
+
+    /**
+     * Creates a new {@link ParallelDocumentLoader}.
+     *
+     * @param reader   the input
+     * @param loader   the function loading the documents of a batch; it is
+     *                 called concurrently
+     * @param executor the executor of the tasks
+     * @param ordered  if the documents should be returned in input order
+     */
+    ParallelDocumentLoader(Reader reader,
+                           Function<String, List<YamlNode>> loader,
+                           Executor executor, boolean ordered) {
+        this.reader = reader instanceof BufferedReader
+                      ? (BufferedReader) reader : new BufferedReader(reader);
+        this.loader = loader;
+        this.executor = executor;
+        this.unordered = ordered ? null
+                         : new ExecutorCompletionService<>(executor);
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!documents.hasNext()) {
+            submit();
+            if (pending.isEmpty()) {
+                return false;
+            }
+            documents = take().iterator();
+        }
+        return true;
+    }
+
+    @Override
+    public YamlNode next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return documents.next();
+    }
+
+    /**
+     * Submits tasks until {@link #MAX_PENDING} tasks are pending or the input
+     * is exhausted.
+     */
+    private void submit() {
+        while (pending.size() < MAX_PENDING) {
+            String batch = readBatch();
+            if (batch == null) {
+                return;
+            }
+            if (unordered == null) {
+                FutureTask<List<YamlNode>> task
+                        = new FutureTask<>(() -> loader.apply(batch));
+                executor.execute(task);
+                pending.add(task);
+            } else {
+                pending.add(unordered.submit(() -> loader.apply(batch)));
+            }
+        }
+    }
+
+    /**
+     * Cancels the pending tasks and ends the iteration.
+     */
+    void cancel() {
+        for (Future<List<YamlNode>> task : pending) {
+            task.cancel(true);
+        }
+        pending.clear();
+        documents = Collections.emptyIterator();
+        line = null;
+        eof = true;
+    }
+
+    /**
+     * Waits for the next batch of documents. If the batch fails to load, the
+     * remaining tasks are cancelled.
+     *
+     * @return the documents
+     */
+    private List<YamlNode> take() {
+        try {
+            if (unordered == null) {
+                return pending.remove().get();
+            } else {
+                Future<List<YamlNode>> task = unordered.take();
+                pending.remove(task);
+                return task.get();
+            }
+        } catch (InterruptedException ex) {
+            cancel();
+            Thread.currentThread().interrupt();
+            throw new YAMLException(ex);
+        } catch (ExecutionException ex) {
+            cancel();
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new YAMLException(cause);
+        }
+    }
+
+    /**
+     * Reads the next batch of documents. A batch ends before a
+     * {@code ---} line or after a {@code ...} line once it is longer than
+     * {@link #BATCH_SIZE}. A {@code ---} line that follows a directive
+     * belongs to the batch of the directive.
+     *
+     * @return the batch or {@code null} if the input is exhausted
+     */
+    private String readBatch() {
+        if (eof) {
+            return null;
+        }
+        StringBuilder batch = new StringBuilder(BATCH_SIZE + 1024);
+        boolean directive = false;
+        try {
+            if (line == null) {
+                line = reader.readLine();
+            }
+            while (line != null) {
+                if (isMarker(line, '-') && !directive &&
+                    batch.length() >= BATCH_SIZE) {
+                    return batch.toString();
+                }
+                batch.append(line).append('\n');
+                if (line.startsWith("%")) {
+                    directive = true;
+                } else if (!line.trim().isEmpty() && !line.startsWith("#")) {
+                    directive = false;
+                }
+                boolean end = isMarker(line, '.');
+                line = reader.readLine();
+                if (end && batch.length() >= BATCH_SIZE) {
+                    return batch.toString();
+                }
+            }
+        } catch (IOException ex) {
+            throw new YAMLException(ex);
+        }
+        eof = true;
+        return batch.length() == 0 ? null : batch.toString();
+    }
+
+    /**
+     * Checks if the line is a document start ({@code ---}) or document end
+     * ({@code ...}) marker.
+     *
+     * @param line the line
+     * @param c    the character of the marker
+     *
+     * @return if the line starts with the marker
+     */
+    private static boolean isMarker(String line, char c) {
+        if (line.length() < 3 || line.charAt(0) != c ||
+            line.charAt(1) != c || line.charAt(2) != c) {
+            return false;
+        }
+        return line.length() == 3 || line.charAt(3) == ' ' ||
+               line.charAt(3) == '\t';
+    }
+}
@@ -15,20 +15,39 @@
  */
 package com.github.autermann.yaml;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
 import java.io.Writer;
 import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Objects;
+import java.util.Queue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.emitter.Emitter;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.reader.UnicodeReader;
+import org.yaml.snakeyaml.resolver.Resolver;
 
+import com.github.autermann.yaml.bind.YamlBinder;
 import com.github.autermann.yaml.construct.YamlNodeConstructor;
+import com.github.autermann.yaml.nodes.MappedNodes;
+import com.google.common.collect.Iterators;
 import com.google.common.collect.UnmodifiableIterator;
 
 /**
@@ -41,6 +60,38 @@ public class Yaml {
      * The {@link org.yaml.snakeyaml.Yaml} delegate of this class.
      */
     private final org.yaml.snakeyaml.Yaml delegate;
+    /**
+     * The constructor of the {@link #delegate}.
+     */
+    private final YamlNodeConstructor constructor;
+    /**
+     * The representer of the {@link #delegate}.
+     */
+    private final YamlNodeRepresenter representer;
+    /**
+     * The resolver of the {@link #delegate}.
+     */
+    private final Resolver resolver;
+    /**
+     * The node factory of the {@link #delegate}.
+     */
+    private final YamlNodeFactory nodeFactory;
+    /**
+     * The dumper options of the {@link #delegate}.
+     */
+    private final DumperOptions dumperOptions;
+    /**
+     * If container nodes are constructed lazily.
+     */
+    private final boolean lazy;
+    /**
+     * The idle loaders used by the parallel {@code loadStream} methods.
+     */
+    private final Queue<Yaml> loaders = new ConcurrentLinkedQueue<>();
+    /**
+     * The binder for {@link #load(Reader, Class)}, created on first use.
+     */
+    private YamlBinder binder;
 
     /**
      * Creates a new {@link Yaml} with default {@link DumperOptions} and
@@ -78,12 +129,37 @@ public class Yaml {
      * @param nodeFactory   the node factory
      */
     public Yaml(DumperOptions dumperOptions, YamlNodeFactory nodeFactory) {
+        this(dumperOptions, nodeFactory, false);
+    }
+
+    /**
+     * Creates a new {@link Yaml} using the supplied {@link YamlNodeFactory} and
+     * {@link DumperOptions}. If {@code lazy} is {@code true}, loaded mappings,
+     * sequences and sets construct their children on first access, which
+     * saves the construction of subtrees that are never read.
+     *
+     * @param dumperOptions the dumper options
+     * @param nodeFactory   the node factory
+     * @param lazy          if container nodes should be constructed lazily
+     *
+     * @see YamlNodeConstructor#isLazy()
+     */
+    public Yaml(DumperOptions dumperOptions, YamlNodeFactory nodeFactory,
+                boolean lazy) {
         Objects.requireNonNull(nodeFactory);
         Objects.requireNonNull(dumperOptions);
+        this.nodeFactory = nodeFactory;
+        this.dumperOptions = dumperOptions;
+        this.lazy = lazy;
+        this.constructor = new YamlNodeConstructor(nodeFactory, dumperOptions,
+                                                   lazy);
+        this.representer = new YamlNodeRepresenter(dumperOptions);
+        this.resolver = new Resolver();
         this.delegate = new org.yaml.snakeyaml.Yaml(
-                new YamlNodeConstructor(nodeFactory, dumperOptions),
-                new YamlNodeRepresenter(dumperOptions),
-                dumperOptions);
+                this.constructor,
+                this.representer,
+                dumperOptions,
+                this.resolver);
     }
 
     /**
@@ -96,7 +172,9 @@ public class Yaml {
      * @see org.yaml.snakeyaml.Yaml#dump(Object)
      */
     public String dump(YamlNode data) {
-        return getDelegate().dump(data);
+        StringWriter writer = new StringWriter();
+        dump(data, writer);
+        return writer.toString();
     }
 
     /**
@@ -108,7 +186,7 @@ public class Yaml {
      * @see org.yaml.snakeyaml.Yaml#dump(Object, Writer)
      */
     public void dump(YamlNode data, Writer output) {
-        getDelegate().dump(data, output);
+        dumpAll(Iterators.singletonIterator(data), output);
     }
 
     /**
@@ -120,8 +198,8 @@ public class Yaml {
      *
      */
     public void dump(YamlNode data, OutputStream output) {
-        getDelegate().dump(data, new OutputStreamWriter(output, Charset
-                                                        .forName("UTF-8")));
+        dump(data, new OutputStreamWriter(output, Charset
+                                          .forName("UTF-8")));
     }
 
     /**
@@ -134,11 +212,14 @@ public class Yaml {
      * @see org.yaml.snakeyaml.Yaml#dumpAll(Iterator)
      */
     public String dumpAll(Iterator<? extends YamlNode> data) {
-        return getDelegate().dumpAll(data);
+        StringWriter writer = new StringWriter();
+        dumpAll(data, writer);
+        return writer.toString();
     }
 
     /**
-     * Dumps {@code data} into a {@code Writer}.
+     * Dumps {@code data} into a {@code Writer}. The nodes are written as they
+     * are visited, without creating a SnakeYAML node graph of the documents.
      *
      * @param data   the data
      * @param output the writer
@@ -146,7 +227,14 @@ public class Yaml {
      * @see org.yaml.snakeyaml.Yaml#dumpAll(Iterator, Writer)
      */
     public void dumpAll(Iterator<? extends YamlNode> data, Writer output) {
-        getDelegate().dumpAll(data, output);
+        YamlNodeSerializer serializer = new YamlNodeSerializer(
+                new Emitter(output, dumperOptions), resolver, representer,
+                dumperOptions);
+        serializer.open();
+        while (data.hasNext()) {
+            serializer.serialize(data.next());
+        }
+        serializer.close();
     }
 
     /**
@@ -158,8 +246,8 @@ public class Yaml {
      *
      */
     public void dumpAll(Iterator<? extends YamlNode> data, OutputStream output) {
-        getDelegate().dumpAll(data, new OutputStreamWriter(output, Charset
-                                                           .forName("UTF-8")));
+        dumpAll(data, new OutputStreamWriter(output, Charset
+                                             .forName("UTF-8")));
     }
 
     /**
@@ -199,6 +287,32 @@ public class Yaml {
         dumpAll(data.iterator(), output);
     }
 
+    /**
+     * Creates a {@link YamlGenerator} that writes to {@code output} without
+     * building a {@link YamlNode} tree.
+     *
+     * @param output the writer
+     *
+     * @return the generator
+     */
+    public YamlGenerator createGenerator(Writer output) {
+        return new YamlGenerator(output, resolver, representer, dumperOptions,
+                                 nodeFactory);
+    }
+
+    /**
+     * Creates a {@link YamlGenerator} that writes to {@code output} using a
+     * {@code UTF-8} encoding without building a {@link YamlNode} tree.
+     *
+     * @param output the output stream
+     *
+     * @return the generator
+     */
+    public YamlGenerator createGenerator(OutputStream output) {
+        return createGenerator(new OutputStreamWriter(output, Charset
+                                                      .forName("UTF-8")));
+    }
+
     /**
      * Loads the string representation into a {@link YamlNode}.
      *
@@ -238,6 +352,183 @@ public class Yaml {
         return (YamlNode) getDelegate().load(io);
     }
 
+    /**
+     * Loads the string representation in the specified file into a
+     * {@link YamlNode}. The file is memory-mapped and decoded directly from
+     * the mapped buffer; the encoding is detected from the byte order mark
+     * and defaults to UTF-8.
+     *
+     * @param path the file
+     *
+     * @return the {@link YamlNode}
+     *
+     * @throws IOException if the file can not be opened or mapped
+     */
+    public YamlNode load(Path path) throws IOException {
+        try (Reader reader = MappedFileReader.open(path)) {
+            return load(reader);
+        }
+    }
+
+    /**
+     * Loads the string representation into an instance of the specified
+     * type. The document is bound directly from the composed SnakeYAML nodes
+     * without constructing a {@link YamlNode} tree.
+     *
+     * @param <T>  the type
+     * @param yaml the string
+     * @param type the class of the type
+     *
+     * @return the instance
+     *
+     * @see YamlBinder#bind(org.yaml.snakeyaml.nodes.Node, Class)
+     */
+    public <T> T load(String yaml, Class<T> type) {
+        return load(new StringReader(yaml), type);
+    }
+
+    /**
+     * Loads the string representation into an instance of the specified
+     * type. The document is bound directly from the composed SnakeYAML nodes
+     * without constructing a {@link YamlNode} tree.
+     *
+     * @param <T>  the type
+     * @param io   the input stream
+     * @param type the class of the type
+     *
+     * @return the instance
+     *
+     * @see YamlBinder#bind(org.yaml.snakeyaml.nodes.Node, Class)
+     */
+    public <T> T load(InputStream io, Class<T> type) {
+        return load(new UnicodeReader(io), type);
+    }
+
+    /**
+     * Loads the string representation into an instance of the specified
+     * type. The document is bound directly from the composed SnakeYAML nodes
+     * without constructing a {@link YamlNode} tree.
+     *
+     * @param <T>  the type
+     * @param io   the reader
+     * @param type the class of the type
+     *
+     * @return the instance
+     *
+     * @see YamlBinder#bind(org.yaml.snakeyaml.nodes.Node, Class)
+     */
+    public <T> T load(Reader io, Class<T> type) {
+        return getBinder().bind(getDelegate().compose(io), type);
+    }
+
+    /**
+     * Gets the {@link YamlBinder} used by {@link #load(Reader, Class)}.
+     *
+     * @return the binder
+     */
+    public YamlBinder getBinder() {
+        if (binder == null) {
+            binder = new YamlBinder(nodeFactory, dumperOptions);
+        }
+        return binder;
+    }
+
+    /**
+     * Writes a binary snapshot of the specified node. A snapshot loads
+     * considerably faster than the string representation but is only
+     * readable by {@link #readSnapshot(InputStream)}. The stream is not
+     * closed.
+     *
+     * @param data   the node
+     * @param output the output stream
+     *
+     * @throws IOException if writing fails
+     */
+    public void writeSnapshot(YamlNode data, OutputStream output) throws IOException {
+        YamlSnapshot.write(data, output);
+    }
+
+    /**
+     * Writes a binary snapshot of the specified node to the specified file.
+     *
+     * @param data the node
+     * @param path the file
+     *
+     * @throws IOException if writing fails
+     *
+     * @see #writeSnapshot(YamlNode, OutputStream)
+     */
+    public void writeSnapshot(YamlNode data, Path path) throws IOException {
+        try (OutputStream output = Files.newOutputStream(path)) {
+            writeSnapshot(data, output);
+        }
+    }
+
+    /**
+     * Reads a binary snapshot written by
+     * {@link #writeSnapshot(YamlNode, OutputStream)}. The nodes are created
+     * by the {@link YamlNodeFactory} of this instance. The stream is read to
+     * its end but not closed.
+     *
+     * @param input the input stream
+     *
+     * @return the {@link YamlNode}
+     *
+     * @throws IOException if reading fails or the snapshot is malformed
+     */
+    public YamlNode readSnapshot(InputStream input) throws IOException {
+        return YamlSnapshot.read(input, nodeFactory);
+    }
+
+    /**
+     * Reads a binary snapshot from the specified file.
+     *
+     * @param path the file
+     *
+     * @return the {@link YamlNode}
+     *
+     * @throws IOException if reading fails or the snapshot is malformed
+     *
+     * @see #readSnapshot(InputStream)
+     */
+    public YamlNode readSnapshot(Path path) throws IOException {
+        return YamlSnapshot.read(Files.readAllBytes(path), nodeFactory);
+    }
+
+    /**
+     * Writes a memory-mappable image of the specified node to the specified
+     * file. The image is written once and can then be mapped by any number
+     * of processes with {@link #mapImage(Path)}.
+     *
+     * @param data the node
+     * @param path the file
+     *
+     * @throws IOException if writing fails or the image exceeds 2 GB
+     *
+     * @see MappedNodes#write(YamlNode, Path)
+     */
+    public void writeImage(YamlNode data, Path path) throws IOException {
+        MappedNodes.write(data, path);
+    }
+
+    /**
+     * Maps the image in the specified file. The returned nodes are
+     * read-only views of the mapped file that decode their children on
+     * access; scalars are created by the {@link YamlNodeFactory} of this
+     * instance.
+     *
+     * @param path the file
+     *
+     * @return the root {@link YamlNode}
+     *
+     * @throws IOException if the file can not be mapped or is not an image
+     *
+     * @see MappedNodes#map(YamlNodeFactory, Path)
+     */
+    public YamlNode mapImage(Path path) throws IOException {
+        return MappedNodes.map(nodeFactory, path);
+    }
+
     /**
      * Loads the string representations into {@link YamlNode}s.
      *
@@ -277,6 +568,23 @@ public class Yaml {
         return cast(getDelegate().loadAll(yaml));
     }
 
+    /**
+     * Loads the string representations in the specified file into
+     * {@link YamlNode}s. The file is memory-mapped when this method is
+     * called and the documents are loaded lazily from the mapped buffer.
+     *
+     * @param path the file
+     *
+     * @return the {@link YamlNode}s
+     *
+     * @throws IOException if the file can not be opened or mapped
+     *
+     * @see #load(Path)
+     */
+    public Iterable<YamlNode> loadAll(Path path) throws IOException {
+        return loadAll(MappedFileReader.open(path));
+    }
+
     /**
      * Loads the string representations into {@link YamlNode}s.
      *
@@ -316,6 +624,169 @@ public class Yaml {
         return StreamSupport.stream(loadAll(yaml).spliterator(), false);
     }
 
+    /**
+     * Loads the string representations into {@link YamlNode}s concurrently.
+     * The input is split into batches of documents at document markers and
+     * the batches are loaded by tasks on the supplied executor, while the
+     * calling thread reads ahead a bounded number of batches. Error marks of
+     * the documents are relative to their batch. If a batch fails to load or
+     * the stream is closed, the remaining tasks are cancelled; a stream that
+     * is neither consumed nor closed leaves them running on the executor.
+     *
+     * @param yaml     the reader
+     * @param executor the executor to load the documents on
+     * @param ordered  if the documents should be returned in input order, or
+     *                 as soon as they are loaded
+     *
+     * @return the {@link YamlNode}s
+     *
+     * @see #loadStream(Reader)
+     */
+    public Stream<YamlNode> loadStream(Reader yaml, Executor executor,
+                                       boolean ordered) {
+        Objects.requireNonNull(yaml);
+        Objects.requireNonNull(executor);
+        ParallelDocumentLoader documents = new ParallelDocumentLoader(
+                yaml, this::loadBatch, executor, ordered);
+        int characteristics = ordered ? Spliterator.ORDERED : 0;
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(
+                documents, characteristics | Spliterator.NONNULL), false)
+                .onClose(documents::cancel);
+    }
+
+    /**
+     * Loads the string representations into {@link YamlNode}s concurrently.
+     *
+     * @param yaml     the string
+     * @param executor the executor to load the documents on
+     * @param ordered  if the documents should be returned in input order, or
+     *                 as soon as they are loaded
+     *
+     * @return the {@link YamlNode}s
+     *
+     * @see #loadStream(Reader, Executor, boolean)
+     */
+    public Stream<YamlNode> loadStream(String yaml, Executor executor,
+                                       boolean ordered) {
+        return loadStream(new StringReader(yaml), executor, ordered);
+    }
+
+    /**
+     * Loads the string representations into {@link YamlNode}s concurrently.
+     *
+     * @param yaml     the input stream
+     * @param executor the executor to load the documents on
+     * @param ordered  if the documents should be returned in input order, or
+     *                 as soon as they are loaded
+     *
+     * @return the {@link YamlNode}s
+     *
+     * @see #loadStream(Reader, Executor, boolean)
+     */
+    public Stream<YamlNode> loadStream(InputStream yaml, Executor executor,
+                                       boolean ordered) {
+        return loadStream(new UnicodeReader(yaml), executor, ordered);
+    }
+
+    /**
+     * Parses the string representations into {@link YamlEvent}s without
+     * creating a tree of nodes. The events are read lazily, so arbitrarily
+     * large streams can be processed in constant memory.
+     *
+     * @param yaml the reader
+     *
+     * @return the {@link YamlEvent}s
+     *
+     * @see org.yaml.snakeyaml.Yaml#parse(Reader)
+     */
+    public Iterable<YamlEvent> parse(Reader yaml) {
+        Iterable<Event> events = getDelegate().parse(yaml);
+        return () -> new YamlEventIterator(events.iterator(), resolver,
+                                           constructor);
+    }
+
+    /**
+     * Parses the string representations into {@link YamlEvent}s without
+     * creating a tree of nodes.
+     *
+     * @param yaml the string
+     *
+     * @return the {@link YamlEvent}s
+     *
+     * @see #parse(Reader)
+     */
+    public Iterable<YamlEvent> parse(String yaml) {
+        return parse(new StringReader(yaml));
+    }
+
+    /**
+     * Parses the string representations into {@link YamlEvent}s without
+     * creating a tree of nodes.
+     *
+     * @param yaml the input stream
+     *
+     * @return the {@link YamlEvent}s
+     *
+     * @see #parse(Reader)
+     */
+    public Iterable<YamlEvent> parse(InputStream yaml) {
+        return parse(new UnicodeReader(yaml));
+    }
+
+    /**
+     * Parses the string representations and passes the {@link YamlEvent}s to
+     * the supplied handler without creating a tree of nodes.
+     *
+     * @param yaml    the reader
+     * @param handler the handler
+     *
+     * @see #parse(Reader)
+     */
+    public void parse(Reader yaml, YamlEventHandler handler) {
+        Objects.requireNonNull(handler);
+        for (YamlEvent event : parse(yaml)) {
+            event.accept(handler);
+        }
+    }
+
+    /**
+     * Parses the string representations and passes the {@link YamlEvent}s to
+     * the supplied handler without creating a tree of nodes.
+     *
+     * @param yaml    the input stream
+     * @param handler the handler
+     *
+     * @see #parse(Reader)
+     */
+    public void parse(InputStream yaml, YamlEventHandler handler) {
+        parse(new UnicodeReader(yaml), handler);
+    }
+
+    /**
+     * Loads a batch of documents with an idle loader. SnakeYAML instances are
+     * not thread-safe, so every concurrent batch uses its own {@link Yaml}
+     * created with the node factory and dumper options of this instance.
+     *
+     * @param batch the documents
+     *
+     * @return the {@link YamlNode}s
+     */
+    private List<YamlNode> loadBatch(String batch) {
+        Yaml loader = loaders.poll();
+        if (loader == null) {
+            loader = new Yaml(dumperOptions, nodeFactory, lazy);
+        }
+        try {
+            List<YamlNode> documents = new ArrayList<>();
+            for (YamlNode document : loader.loadAll(batch)) {
+                documents.add(document);
+            }
+            return documents;
+        } finally {
+            loaders.offer(loader);
+        }
+    }
+
     /**
      * Transforms a {@code Iterable<Object>} into a {@code Iterable<YamlNode>}.
      *
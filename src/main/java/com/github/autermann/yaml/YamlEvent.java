@@ -0,0 +1,190 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml;
+
+import java.util.Objects;
+
+import org.yaml.snakeyaml.nodes.Tag;
+
+import com.github.autermann.yaml.nodes.YamlScalarNode;
+
+/**
+ * An event of a streamed YAML document.
+ *
+ * @see Yaml#parse(java.io.Reader)
+ * @author Christian Autermann
+ */
+public final class YamlEvent {
+    /**
+     * The type of a {@link YamlEvent}.
+     */
+    public enum Type {
+        /**
+         * The start of a document.
+         */
+        DOCUMENT_START,
+        /**
+         * The end of a document.
+         */
+        DOCUMENT_END,
+        /**
+         * The start of a mapping.
+         */
+        MAPPING_START,
+        /**
+         * The end of a mapping.
+         */
+        MAPPING_END,
+        /**
+         * The start of a sequence.
+         */
+        SEQUENCE_START,
+        /**
+         * The end of a sequence.
+         */
+        SEQUENCE_END,
+        /**
+         * A scalar value.
+         */
+        SCALAR,
+        /**
+         * An alias to a previously anchored node.
+         */
+        ALIAS
+    }
+
+    /**
+     * The type of this event.
+     */
+    private final Type type;
+    /**
+     * The resolved tag of the started collection or the scalar, or
+     * {@code null}.
+     */
+    private final Tag tag;
+    /**
+     * The anchor of the started collection or the scalar, or the anchor an
+     * alias refers to.
+     */
+    private final String anchor;
+    /**
+     * The value of a scalar event.
+     */
+    private final YamlScalarNode value;
+
+    /**
+     * Creates a new {@link YamlEvent}.
+     *
+     * @param type   the type
+     * @param tag    the tag (may be {@code null})
+     * @param anchor the anchor (may be {@code null})
+     * @param value  the scalar value (may be {@code null})
+     */
+    YamlEvent(Type type, Tag tag, String anchor, YamlScalarNode value) {
+        this.type = Objects.requireNonNull(type);
+        this.tag = tag;
+        this.anchor = anchor;
+        this.value = value;
+    }
+
+    /**
+     * Gets the type of this event.
+     *
+     * @return the type
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Gets the resolved tag of the started collection or the scalar.
+     *
+     * @return the tag or {@code null} for other events
+     */
+    public Tag getTag() {
+        return tag;
+    }
+
+    /**
+     * Gets the anchor of the started collection or the scalar, or the anchor
+     * an alias refers to.
+     *
+     * @return the anchor or {@code null}
+     */
+    public String getAnchor() {
+        return anchor;
+    }
+
+    /**
+     * Gets the value of a scalar event.
+     *
+     * @return the value or {@code null} for other events
+     */
+    public YamlScalarNode getValue() {
+        return value;
+    }
+
+    /**
+     * Passes this event to the specified handler.
+     *
+     * @param handler the handler
+     */
+    public void accept(YamlEventHandler handler) {
+        switch (type) {
+            case DOCUMENT_START:
+                handler.startDocument();
+                break;
+            case DOCUMENT_END:
+                handler.endDocument();
+                break;
+            case MAPPING_START:
+                handler.startMapping(tag, anchor);
+                break;
+            case MAPPING_END:
+                handler.endMapping();
+                break;
+            case SEQUENCE_START:
+                handler.startSequence(tag, anchor);
+                break;
+            case SEQUENCE_END:
+                handler.endSequence();
+                break;
+            case SCALAR:
+                handler.scalar(value, anchor);
+                break;
+            case ALIAS:
+                handler.alias(anchor);
+                break;
+            default:
+                throw new Error("unknown event type: " + type);
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(type.name());
+        if (tag != null) {
+            builder.append(' ').append(tag);
+        }
+        if (anchor != null) {
+            builder.append(" &").append(anchor);
+        }
+        if (value != null) {
+            builder.append(' ').append(value);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml;
+
+import org.yaml.snakeyaml.nodes.Tag;
+
+import com.github.autermann.yaml.nodes.YamlScalarNode;
+
+/**
+ * Callback for the events of a streamed YAML document. Mapping keys and
+ * values are reported alternately between {@link #startMapping(Tag, String)}
+ * and {@link #endMapping()}. All methods do nothing by default.
+ *
+ * @see Yaml#parse(java.io.Reader, YamlEventHandler)
+ * @author Christian Autermann
+ */
+public interface YamlEventHandler {
+
+    /**
+     * Called at the start of a document.
+     */
+    default void startDocument() {
+    }
+
+    /**
+     * Called at the end of a document.
+     */
+    default void endDocument() {
+    }
+
+    /**
+     * Called at the start of a mapping.
+     *
+     * @param tag    the resolved tag, e.g. {@link Tag#MAP} or {@link Tag#OMAP}
+     * @param anchor the anchor or {@code null}
+     */
+    default void startMapping(Tag tag, String anchor) {
+    }
+
+    /**
+     * Called at the end of a mapping.
+     */
+    default void endMapping() {
+    }
+
+    /**
+     * Called at the start of a sequence.
+     *
+     * @param tag    the resolved tag, e.g. {@link Tag#SEQ}
+     * @param anchor the anchor or {@code null}
+     */
+    default void startSequence(Tag tag, String anchor) {
+    }
+
+    /**
+     * Called at the end of a sequence.
+     */
+    default void endSequence() {
+    }
+
+    /**
+     * Called for a scalar.
+     *
+     * @param value  the value, constructed like in {@link Yaml#load(String)}
+     * @param anchor the anchor or {@code null}
+     */
+    default void scalar(YamlScalarNode value, String anchor) {
+    }
+
+    /**
+     * Called for an alias. Anchored nodes are not retained while streaming,
+     * so the handler has to resolve the alias itself if needed.
+     *
+     * @param anchor the anchor the alias refers to
+     */
+    default void alias(String anchor) {
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.yaml.snakeyaml.events.AliasEvent;
+import org.yaml.snakeyaml.events.CollectionStartEvent;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.events.ScalarEvent;
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+import com.github.autermann.yaml.YamlEvent.Type;
+import com.github.autermann.yaml.construct.YamlNodeConstructor;
+import com.github.autermann.yaml.nodes.YamlScalarNode;
+import com.google.common.collect.UnmodifiableIterator;
+
+/**
+ * Translates the events of the SnakeYAML parser into {@link YamlEvent}s.
+ * Tags are resolved like the SnakeYAML composer does and scalars are
+ * constructed by the {@link YamlNodeConstructor}, so the values equal those of
+ * {@link Yaml#load(java.io.Reader)}. No state is kept between events.
+ *
+ * @author Christian Autermann
+ */
+class YamlEventIterator extends UnmodifiableIterator<YamlEvent> {
+    /**
+     * The non-specific tag.
+     */
+    private static final String NON_SPECIFIC_TAG = "!";
+    /**
+     * The parser events.
+     */
+    private final Iterator<Event> events;
+    /**
+     * The resolver for implicit tags.
+     */
+    private final Resolver resolver;
+    /**
+     * The constructor for scalars.
+     */
+    private final YamlNodeConstructor constructor;
+    /**
+     * The next event, or {@code null} if it was not yet read.
+     */
+    private YamlEvent next;
+
+    /**
+     * Creates a new {@link YamlEventIterator}.
+     *
+     * @param events      the parser events
+     * @param resolver    the resolver for implicit tags
+     * @param constructor the constructor for scalars
+     */
+    YamlEventIterator(Iterator<Event> events, Resolver resolver,
+                      YamlNodeConstructor constructor) {
+        this.events = events;
+        this.resolver = resolver;
+        this.constructor = constructor;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (next == null && events.hasNext()) {
+            next = translate(events.next());
+        }
+        return next != null;
+    }
+
+    @Override
+    public YamlEvent next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        YamlEvent event = next;
+        next = null;
+        return event;
+    }
+
+    /**
+     * Translates a parser event.
+     *
+     * @param event the parser event
+     *
+     * @return the {@link YamlEvent} or {@code null} if the event is skipped
+     */
+    private YamlEvent translate(Event event) {
+        if (event.is(Event.ID.Scalar)) {
+            ScalarEvent scalar = (ScalarEvent) event;
+            Tag tag = resolve(NodeId.scalar, scalar.getTag(), scalar.getValue(),
+                              scalar.getImplicit().canOmitTagInPlainScalar());
+            ScalarNode node = new ScalarNode(tag, scalar.getValue(),
+                                             scalar.getStartMark(),
+                                             scalar.getEndMark(),
+                                             scalar.getStyle());
+            YamlScalarNode value
+                    = (YamlScalarNode) constructor.constructScalarNode(node);
+            return new YamlEvent(Type.SCALAR, tag, scalar.getAnchor(), value);
+        } else if (event.is(Event.ID.MappingStart)) {
+            return collectionStart(Type.MAPPING_START, NodeId.mapping,
+                                   (CollectionStartEvent) event);
+        } else if (event.is(Event.ID.SequenceStart)) {
+            return collectionStart(Type.SEQUENCE_START, NodeId.sequence,
+                                   (CollectionStartEvent) event);
+        } else if (event.is(Event.ID.MappingEnd)) {
+            return new YamlEvent(Type.MAPPING_END, null, null, null);
+        } else if (event.is(Event.ID.SequenceEnd)) {
+            return new YamlEvent(Type.SEQUENCE_END, null, null, null);
+        } else if (event.is(Event.ID.Alias)) {
+            String anchor = ((AliasEvent) event).getAnchor();
+            return new YamlEvent(Type.ALIAS, null, anchor, null);
+        } else if (event.is(Event.ID.DocumentStart)) {
+            return new YamlEvent(Type.DOCUMENT_START, null, null, null);
+        } else if (event.is(Event.ID.DocumentEnd)) {
+            return new YamlEvent(Type.DOCUMENT_END, null, null, null);
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Translates the start of a collection.
+     *
+     * @param type  the event type
+     * @param id    the node id of the collection
+     * @param event the parser event
+     *
+     * @return the {@link YamlEvent}
+     */
+    private YamlEvent collectionStart(Type type, NodeId id,
+                                      CollectionStartEvent event) {
+        Tag tag = resolve(id, event.getTag(), null, event.getImplicit());
+        return new YamlEvent(type, tag, event.getAnchor(), null);
+    }
+
+    /**
+     * Resolves the tag of a node.
+     *
+     * @param id       the node id
+     * @param tag      the explicit tag or {@code null}
+     * @param value    the scalar value or {@code null}
+     * @param implicit if the tag may be resolved implicitly
+     *
+     * @return the tag
+     */
+    private Tag resolve(NodeId id, String tag, String value, boolean implicit) {
+        if (tag == null || tag.equals(NON_SPECIFIC_TAG)) {
+            return resolver.resolve(id, value, implicit);
+        }
+        return new Tag(tag);
+    }
+}
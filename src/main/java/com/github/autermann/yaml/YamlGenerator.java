@@ -0,0 +1,705 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+
+import org.joda.time.DateTime;
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.DumperOptions.FlowStyle;
+import org.yaml.snakeyaml.emitter.Emitable;
+import org.yaml.snakeyaml.emitter.Emitter;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.events.CollectionStartEvent;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.events.MappingStartEvent;
+import org.yaml.snakeyaml.events.ScalarEvent;
+import org.yaml.snakeyaml.events.SequenceStartEvent;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+/**
+ * Writes YAML incrementally without building a {@link YamlNode} tree. Every
+ * value written outside of a container becomes a document of its own. Inside
+ * a mapping, keys and values are written alternately; inside a set, every
+ * value written is an element. Scalars are created with the
+ * {@link YamlNodeFactory} of the originating {@link Yaml} and represented like
+ * the {@link YamlNodeRepresenter} does, so the output equals a dump of the
+ * corresponding tree. If the default flow style is
+ * {@link FlowStyle#AUTO}, the style of a container depends on its children:
+ * the events of a container are held back until its style is known, but at
+ * most {@value #MAX_PENDING_EVENTS} of them. Containers exceeding this are
+ * written in block style, which may differ from a dump of the tree, but
+ * loads the same.
+ * <pre>
+ * try (YamlGenerator generator = yaml.createGenerator(writer)) {
+ *     generator.writeStartMap()
+ *             .writeKey("id").writeNumber(42L)
+ *             .writeKey("tags").writeStartSequence()
+ *                 .writeString("a").writeString("b")
+ *             .writeEndSequence()
+ *             .writeEndMap();
+ * }
+ * </pre>
+ * <p>
+ * Instances are not thread-safe. Errors while writing are thrown as
+ * {@link YAMLException}s.
+ *
+ * @author Christian Autermann
+ * @see Yaml#createGenerator(Writer)
+ */
+public class YamlGenerator implements Closeable, Flushable {
+    /**
+     * The maximal number of events held back to decide on the flow style of
+     * containers.
+     */
+    static final int MAX_PENDING_EVENTS = 1024;
+    /**
+     * The serializer used to emit the events.
+     */
+    private final YamlNodeSerializer serializer;
+    /**
+     * The emitter to write to.
+     */
+    private final Emitable emitter;
+    /**
+     * If the flow style of containers depends on their children.
+     */
+    private final boolean auto;
+    /**
+     * The events held back until the flow style of a container is known.
+     */
+    private final List<Event> pending = new ArrayList<>();
+    /**
+     * The number of events emitted after being held back.
+     */
+    private long released;
+    /**
+     * The number of open containers with unknown flow style.
+     */
+    private int undecided;
+    /**
+     * The last event passed to the emitter.
+     */
+    private Event last;
+    /**
+     * The node factory used for scalars.
+     */
+    private final YamlNodeFactory nodeFactory;
+    /**
+     * The writer of the emitter.
+     */
+    private final Writer writer;
+    /**
+     * The open containers, innermost first.
+     */
+    private final Deque<Context> contexts = new ArrayDeque<>();
+    /**
+     * If this generator was closed.
+     */
+    private boolean closed;
+
+    /**
+     * Creates a new generator. The stream is started immediately.
+     *
+     * @param writer      the writer
+     * @param resolver    the resolver
+     * @param representer the representer for scalars
+     * @param options     the dumper options
+     * @param nodeFactory the node factory
+     */
+    YamlGenerator(Writer writer, Resolver resolver,
+                  YamlNodeRepresenter representer, DumperOptions options,
+                  YamlNodeFactory nodeFactory) {
+        this.writer = Objects.requireNonNull(writer);
+        this.nodeFactory = Objects.requireNonNull(nodeFactory);
+        this.emitter = new Emitter(writer, options);
+        this.auto = representer.getDefaultFlowStyle() == FlowStyle.AUTO;
+        this.serializer = new YamlNodeSerializer(this::emit, resolver,
+                                                 representer, options);
+        this.serializer.open();
+    }
+
+    /**
+     * Starts a {@code !!map}.
+     *
+     * @return this
+     */
+    public YamlGenerator writeStartMap() {
+        return writeStartMapping(Tag.MAP, Kind.MAP);
+    }
+
+    /**
+     * Starts an {@code !!omap}.
+     *
+     * @return this
+     */
+    public YamlGenerator writeStartOrderedMap() {
+        return writeStartMapping(Tag.OMAP, Kind.MAP);
+    }
+
+    /**
+     * Starts a {@code !!pairs} mapping, that may contain duplicate keys.
+     *
+     * @return this
+     */
+    public YamlGenerator writeStartPairs() {
+        return writeStartMapping(Tag.PAIRS, Kind.MAP);
+    }
+
+    /**
+     * Ends the current {@code !!map}, {@code !!omap} or {@code !!pairs}.
+     *
+     * @return this
+     *
+     * @throws IllegalStateException if the current container is not a
+     *                               mapping or a key misses its value
+     */
+    public YamlGenerator writeEndMap() {
+        Context context = this.contexts.peek();
+        if (context == null || context.kind != Kind.MAP) {
+            throw new IllegalStateException("not in a mapping");
+        }
+        if (!context.key) {
+            throw new IllegalStateException("missing value");
+        }
+        return writeEndMapping();
+    }
+
+    /**
+     * Starts a {@code !!set}.
+     *
+     * @return this
+     */
+    public YamlGenerator writeStartSet() {
+        return writeStartMapping(Tag.SET, Kind.SET);
+    }
+
+    /**
+     * Ends the current {@code !!set}.
+     *
+     * @return this
+     *
+     * @throws IllegalStateException if the current container is not a set
+     */
+    public YamlGenerator writeEndSet() {
+        Context context = this.contexts.peek();
+        if (context == null || context.kind != Kind.SET) {
+            throw new IllegalStateException("not in a set");
+        }
+        return writeEndMapping();
+    }
+
+    /**
+     * Starts a {@code !!seq}.
+     *
+     * @return this
+     */
+    public YamlGenerator writeStartSequence() {
+        beforeContainer(Kind.SEQUENCE);
+        this.serializer.startSequence(null, Tag.SEQ, false);
+        return this;
+    }
+
+    /**
+     * Ends the current {@code !!seq}.
+     *
+     * @return this
+     *
+     * @throws IllegalStateException if the current container is not a
+     *                               sequence
+     */
+    public YamlGenerator writeEndSequence() {
+        Context context = this.contexts.peek();
+        if (context == null || context.kind != Kind.SEQUENCE) {
+            throw new IllegalStateException("not in a sequence");
+        }
+        endContext();
+        this.serializer.endSequence();
+        afterValue();
+        return this;
+    }
+
+    /**
+     * Writes the key of the next mapping entry.
+     *
+     * @param key the key
+     *
+     * @return this
+     *
+     * @throws IllegalStateException if the current container is not a
+     *                               mapping or a value is expected
+     */
+    public YamlGenerator writeKey(String key) {
+        Context context = this.contexts.peek();
+        if (context == null || context.kind != Kind.MAP) {
+            throw new IllegalStateException("not in a mapping");
+        }
+        if (!context.key) {
+            throw new IllegalStateException("expected a value");
+        }
+        return writeString(key);
+    }
+
+    /**
+     * Writes a text value.
+     *
+     * @param value the value, may be {@code null}
+     *
+     * @return this
+     */
+    public YamlGenerator writeString(String value) {
+        return writeScalar(nodeFactory.textNode(value));
+    }
+
+    /**
+     * Writes a boolean value.
+     *
+     * @param value the value
+     *
+     * @return this
+     */
+    public YamlGenerator writeBoolean(boolean value) {
+        return writeScalar(nodeFactory.booleanNode(value));
+    }
+
+    /**
+     * Writes a {@code null} value.
+     *
+     * @return this
+     */
+    public YamlGenerator writeNull() {
+        return writeScalar(nodeFactory.nullNode());
+    }
+
+    /**
+     * Writes a {@code byte} value.
+     *
+     * @param value the value
+     *
+     * @return this
+     */
+    public YamlGenerator writeNumber(byte value) {
+        return writeScalar(nodeFactory.byteNode(value));
+    }
+
+    /**
+     * Writes a {@code short} value.
+     *
+     * @param value the value
+     *
+     * @return this
+     */
+    public YamlGenerator writeNumber(short value) {
+        return writeScalar(nodeFactory.shortNode(value));
+    }
+
+    /**
+     * Writes an {@code int} value.
+     *
+     * @param value the value
+     *
+     * @return this
+     */
+    public YamlGenerator writeNumber(int value) {
+        return writeScalar(nodeFactory.intNode(value));
+    }
+
+    /**
+     * Writes a {@code long} value.
+     *
+     * @param value the value
+     *
+     * @return this
+     */
+    public YamlGenerator writeNumber(long value) {
+        return writeScalar(nodeFactory.longNode(value));
+    }
+
+    /**
+     * Writes a {@code BigInteger} value.
+     *
+     * @param value the value, may be {@code null}
+     *
+     * @return this
+     */
+    public YamlGenerator writeNumber(BigInteger value) {
+        return writeScalar(nodeFactory.bigIntegerNode(value));
+    }
+
+    /**
+     * Writes a {@code float} value.
+     *
+     * @param value the value
+     *
+     * @return this
+     */
+    public YamlGenerator writeNumber(float value) {
+        return writeScalar(nodeFactory.floatNode(value));
+    }
+
+    /**
+     * Writes a {@code double} value.
+     *
+     * @param value the value
+     *
+     * @return this
+     */
+    public YamlGenerator writeNumber(double value) {
+        return writeScalar(nodeFactory.doubleNode(value));
+    }
+
+    /**
+     * Writes a {@code BigDecimal} value.
+     *
+     * @param value the value, may be {@code null}
+     *
+     * @return this
+     */
+    public YamlGenerator writeNumber(BigDecimal value) {
+        return writeScalar(nodeFactory.bigDecimalNode(value));
+    }
+
+    /**
+     * Writes a {@code !!binary} value.
+     *
+     * @param value the value, may be {@code null}
+     *
+     * @return this
+     */
+    public YamlGenerator writeBinary(byte[] value) {
+        return writeScalar(nodeFactory.binaryNode(value));
+    }
+
+    /**
+     * Writes a {@code !!timestamp} value.
+     *
+     * @param value the value, may be {@code null}
+     *
+     * @return this
+     */
+    public YamlGenerator writeTime(DateTime value) {
+        return writeScalar(nodeFactory.dateTimeNode(value));
+    }
+
+    /**
+     * Writes a {@link YamlNode} tree as the next value. Containers that occur
+     * more than once in {@code node} are written as aliases.
+     *
+     * @param node the node, may be {@code null}
+     *
+     * @return this
+     */
+    public YamlGenerator writeNode(YamlNode node) {
+        if (node != null && node.isContainer()) {
+            beforeValue();
+            child(false);
+            this.serializer.serializeTree(node);
+            afterValue();
+            return this;
+        }
+        return writeScalar(node);
+    }
+
+    /**
+     * Flushes the underlying writer. Events held back to decide on the layout
+     * of the output are not written.
+     *
+     * @throws IOException if flushing fails
+     */
+    @Override
+    public void flush() throws IOException {
+        this.writer.flush();
+    }
+
+    /**
+     * Ends the stream and closes the underlying writer.
+     *
+     * @throws IOException           if closing the writer fails
+     * @throws IllegalStateException if a container was not ended
+     */
+    @Override
+    public void close() throws IOException {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        try {
+            if (!this.contexts.isEmpty()) {
+                throw new IllegalStateException("unclosed container");
+            }
+            this.serializer.close();
+        } finally {
+            this.writer.close();
+        }
+    }
+
+    /**
+     * Writes a scalar.
+     *
+     * @param node the scalar
+     *
+     * @return this
+     */
+    private YamlGenerator writeScalar(YamlNode node) {
+        beforeValue();
+        this.serializer.serializeScalar(node);
+        child(((ScalarEvent) this.last).getStyle() == null);
+        afterValue();
+        return this;
+    }
+
+    /**
+     * Starts a mapping.
+     *
+     * @param tag  the tag
+     * @param kind the kind of the context
+     *
+     * @return this
+     */
+    private YamlGenerator writeStartMapping(Tag tag, Kind kind) {
+        beforeContainer(kind);
+        this.serializer.startMapping(null, tag, false);
+        return this;
+    }
+
+    /**
+     * Ends the current mapping or set.
+     *
+     * @return this
+     */
+    private YamlGenerator writeEndMapping() {
+        endContext();
+        this.serializer.endMapping();
+        afterValue();
+        return this;
+    }
+
+    /**
+     * Prepares writing a value, starting a document if necessary.
+     */
+    private void beforeValue() {
+        if (this.closed) {
+            throw new IllegalStateException("generator is closed");
+        }
+        if (this.contexts.isEmpty()) {
+            this.serializer.startDocument();
+        }
+    }
+
+    /**
+     * Prepares starting a container and opens its context. The flow style of
+     * the container stays undecided if it depends on its children.
+     *
+     * @param kind the kind of the container
+     */
+    private void beforeContainer(Kind kind) {
+        beforeValue();
+        child(false);
+        Context context = new Context(kind);
+        if (this.auto) {
+            context.start = this.released + this.pending.size();
+            ++this.undecided;
+        }
+        this.contexts.push(context);
+    }
+
+    /**
+     * Closes the current context. If its flow style is still undecided, all
+     * children allow the flow style.
+     */
+    private void endContext() {
+        Context context = this.contexts.peek();
+        if (context.isUndecided()) {
+            decide(context, true);
+        }
+        this.contexts.pop();
+    }
+
+    /**
+     * Decides on the flow style of the current container after a child was
+     * written, the same way the {@link YamlNodeSerializer} does.
+     *
+     * @param plain if the child is a plain scalar
+     */
+    private void child(boolean plain) {
+        Context context = this.contexts.peek();
+        if (context == null || !context.isUndecided()) {
+            return;
+        }
+        if (context.kind == Kind.MAP ? plain : !plain) {
+            decide(context, false);
+        }
+    }
+
+    /**
+     * Sets the flow style of the start event of {@code context} and emits
+     * the events that no longer have to be held back.
+     *
+     * @param context   the context
+     * @param flowStyle the flow style
+     */
+    private void decide(Context context, boolean flowStyle) {
+        int index = (int) (context.start - this.released);
+        CollectionStartEvent event = (CollectionStartEvent) this.pending
+                .get(index);
+        if (event instanceof MappingStartEvent) {
+            event = new MappingStartEvent(null, event.getTag(),
+                                          event.getImplicit(),
+                                          null, null, flowStyle);
+        } else {
+            event = new SequenceStartEvent(null, event.getTag(),
+                                           event.getImplicit(),
+                                           null, null, flowStyle);
+        }
+        this.pending.set(index, event);
+        context.start = -1;
+        --this.undecided;
+        release();
+    }
+
+    /**
+     * Emits the held back events up to the start of the outermost
+     * undecided container.
+     */
+    private void release() {
+        int end = this.pending.size();
+        Iterator<Context> iter = this.contexts.descendingIterator();
+        while (iter.hasNext()) {
+            Context context = iter.next();
+            if (context.isUndecided()) {
+                end = (int) (context.start - this.released);
+                break;
+            }
+        }
+        List<Event> events = this.pending.subList(0, end);
+        try {
+            for (Event event : events) {
+                this.emitter.emit(event);
+            }
+        } catch (IOException e) {
+            throw new YAMLException(e);
+        }
+        this.released += end;
+        events.clear();
+    }
+
+    /**
+     * Emits {@code event} or holds it back while the flow style of a
+     * container is undecided. Exceeding {@link #MAX_PENDING_EVENTS} decides
+     * on the block style for the outermost undecided containers.
+     *
+     * @param event the event
+     *
+     * @throws IOException if the emitter fails
+     */
+    private void emit(Event event) throws IOException {
+        this.last = event;
+        if (this.undecided == 0) {
+            this.emitter.emit(event);
+            return;
+        }
+        this.pending.add(event);
+        Iterator<Context> iter = this.contexts.descendingIterator();
+        while (this.pending.size() > MAX_PENDING_EVENTS && iter.hasNext()) {
+            Context context = iter.next();
+            if (context.isUndecided()) {
+                decide(context, false);
+            }
+        }
+    }
+
+    /**
+     * Completes writing a value, ending the document if it was the root.
+     */
+    private void afterValue() {
+        Context context = this.contexts.peek();
+        if (context == null) {
+            this.serializer.endDocument();
+        } else if (context.kind == Kind.SET) {
+            // sets are represented as mappings to null
+            this.serializer.serializeScalar(null);
+        } else if (context.kind == Kind.MAP) {
+            context.key = !context.key;
+        }
+    }
+
+    /**
+     * An open container.
+     */
+    private static class Context {
+        /**
+         * The kind of this container.
+         */
+        private final Kind kind;
+        /**
+         * If the next value of a mapping is a key.
+         */
+        private boolean key = true;
+        /**
+         * The position of the start event if the flow style is undecided,
+         * otherwise {@code -1}.
+         */
+        private long start = -1;
+
+        /**
+         * Creates a new context.
+         *
+         * @param kind the kind of the container
+         */
+        Context(Kind kind) {
+            this.kind = kind;
+        }
+
+        /**
+         * Checks if the flow style of this container is undecided.
+         *
+         * @return if the flow style is undecided
+         */
+        boolean isUndecided() {
+            return this.start >= 0;
+        }
+    }
+
+    /**
+     * The kinds of containers.
+     */
+    private enum Kind {
+        /**
+         * A {@code !!map}, {@code !!omap} or {@code !!pairs}.
+         */
+        MAP,
+        /**
+         * A {@code !!set}.
+         */
+        SET,
+        /**
+         * A {@code !!seq}.
+         */
+        SEQUENCE
+    }
+}
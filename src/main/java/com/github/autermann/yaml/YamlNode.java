@@ -22,6 +22,7 @@ import java.math.BigInteger;
 import java.util.Date;
 import java.util.Iterator;
 import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Stream;
 
 import org.joda.time.DateTime;
@@ -1059,6 +1060,34 @@ public interface YamlNode extends Iterable<YamlNode> {
         return YamlMissingNode.instance();
     }
 
+    /**
+     * Get the {@link YamlNode} the specified pointer refers to. If it does not
+     * exist a {@link YamlMissingNode} is returned.
+     *
+     * @param pointer the pointer expression
+     *
+     * @return the {@link YamlNode} the pointer refers to, or a
+     *         {@link YamlMissingNode}
+     *
+     * @see YamlPointer
+     */
+    default YamlNode at(String pointer) {
+        return at(YamlPointer.compile(pointer));
+    }
+
+    /**
+     * Get the {@link YamlNode} the specified pointer refers to. If it does not
+     * exist a {@link YamlMissingNode} is returned.
+     *
+     * @param pointer the pointer
+     *
+     * @return the {@link YamlNode} the pointer refers to, or a
+     *         {@link YamlMissingNode}
+     */
+    default YamlNode at(YamlPointer pointer) {
+        return pointer.get(this);
+    }
+
     /**
      * Checks if a {@link YamlNode} with the specified key or index exists.
      *
@@ -1135,6 +1164,51 @@ public interface YamlNode extends Iterable<YamlNode> {
      */
     YamlNode copy();
 
+    /**
+     * Create a (deep) copy of this node, copying the children of large
+     * containers in parallel using the specified pool. Containers are
+     * created with presized collections as plain {@link YamlMapNode},
+     * {@link YamlOrderedMapNode}, {@link YamlPairsNode}, {@link YamlSeqNode}
+     * or {@link YamlSetNode} instead of using the node factory, but are equal
+     * to those created by {@link #copy()}.
+     *
+     * @param pool the pool to copy in
+     *
+     * @return the copy
+     */
+    default YamlNode copy(ForkJoinPool pool) {
+        return copy();
+    }
+
+    /**
+     * Checks if this node and all of its descendants can not be modified.
+     * Frozen nodes can be shared between threads without copying them.
+     * Scalar nodes are always frozen.
+     *
+     * @return if this node is frozen
+     *
+     * @see #freeze()
+     */
+    default boolean isFrozen() {
+        return true;
+    }
+
+    /**
+     * Creates a frozen (deep) copy of this node. The copy can not be
+     * modified, and, once safely published, can be read by multiple threads
+     * concurrently. Children that are already frozen are shared instead of
+     * copied, and a frozen node returns itself.
+     * <p>
+     * Use {@link #copy()} to get a modifiable copy of a frozen node.
+     *
+     * @return the frozen node
+     *
+     * @see #isFrozen()
+     */
+    default YamlNode freeze() {
+        return this;
+    }
+
     /**
      * Lets a visitor visit this node.
      *
@@ -1173,7 +1247,7 @@ public interface YamlNode extends Iterable<YamlNode> {
      * @see Yaml
      */
     default String dump() {
-        return new Yaml().dump(this);
+        return dump(DumperCache.get());
     }
 
     /**
@@ -1184,7 +1258,7 @@ public interface YamlNode extends Iterable<YamlNode> {
      * @see Yaml
      */
     default void dump(Writer output) {
-        new Yaml().dump(this, output);
+        dump(output, DumperCache.get());
     }
 
     /**
@@ -1195,7 +1269,7 @@ public interface YamlNode extends Iterable<YamlNode> {
      * @see Yaml
      */
     default void dump(OutputStream output) {
-        dump(output, new Yaml());
+        dump(output, DumperCache.get());
     }
 
     /**
@@ -1208,7 +1282,7 @@ public interface YamlNode extends Iterable<YamlNode> {
      * @see Yaml
      */
     default String dump(DumperOptions options) {
-        return dump(new Yaml(options));
+        return dump(DumperCache.get(options));
     }
 
     /**
@@ -1220,7 +1294,7 @@ public interface YamlNode extends Iterable<YamlNode> {
      * @see Yaml
      */
     default void dump(Writer output, DumperOptions options) {
-        dump(output, new Yaml(options));
+        dump(output, DumperCache.get(options));
     }
 
     /**
@@ -1232,7 +1306,7 @@ public interface YamlNode extends Iterable<YamlNode> {
      * @see Yaml
      */
     default void dump(OutputStream output, DumperOptions options) {
-        new Yaml(options).dump(this, output);
+        dump(output, DumperCache.get(options));
     }
 
     /**
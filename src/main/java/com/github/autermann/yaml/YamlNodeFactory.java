@@ -25,11 +25,15 @@ import org.joda.time.DateTime;
 import com.github.autermann.yaml.nodes.YamlBinaryNode;
 import com.github.autermann.yaml.nodes.YamlBooleanNode;
 import com.github.autermann.yaml.nodes.YamlDecimalNode;
+import com.github.autermann.yaml.nodes.YamlDoubleArrayNode;
 import com.github.autermann.yaml.nodes.YamlIntegralNode;
+import com.github.autermann.yaml.nodes.YamlLongArrayNode;
 import com.github.autermann.yaml.nodes.YamlMapNode;
 import com.github.autermann.yaml.nodes.YamlNullNode;
 import com.github.autermann.yaml.nodes.YamlOrderedMapNode;
 import com.github.autermann.yaml.nodes.YamlPairsNode;
+import com.github.autermann.yaml.nodes.YamlPersistentMapNode;
+import com.github.autermann.yaml.nodes.YamlPersistentSeqNode;
 import com.github.autermann.yaml.nodes.YamlScalarNode;
 import com.github.autermann.yaml.nodes.YamlSeqNode;
 import com.github.autermann.yaml.nodes.YamlSetNode;
@@ -489,6 +493,46 @@ public interface YamlNodeFactory {
      */
     YamlSetNode setNode();
 
+    /**
+     * Creates a new empty {@link YamlPersistentMapNode}.
+     *
+     * @return the {@link YamlPersistentMapNode}
+     */
+    default YamlPersistentMapNode persistentMapNode() {
+        return new YamlPersistentMapNode(this);
+    }
+
+    /**
+     * Creates a new empty {@link YamlPersistentSeqNode}.
+     *
+     * @return the {@link YamlPersistentSeqNode}
+     */
+    default YamlPersistentSeqNode persistentSequenceNode() {
+        return new YamlPersistentSeqNode(this);
+    }
+
+    /**
+     * Creates a new empty sequence for integral values that fit into a
+     * {@code long}. It is used for long numeric sequences, see
+     * {@link YamlLongArrayNode#supports(YamlNode)}.
+     *
+     * @return the {@link YamlLongArrayNode}
+     */
+    default YamlSeqNode longArrayNode() {
+        return new YamlLongArrayNode(this);
+    }
+
+    /**
+     * Creates a new empty sequence for decimal values that fit into a
+     * {@code double}. It is used for long numeric sequences, see
+     * {@link YamlDoubleArrayNode#supports(YamlNode)}.
+     *
+     * @return the {@link YamlDoubleArrayNode}
+     */
+    default YamlSeqNode doubleArrayNode() {
+        return new YamlDoubleArrayNode(this);
+    }
+
     /**
      * Creates a new {@link YamlNullNode}.
      *
@@ -38,15 +38,19 @@ import com.github.autermann.yaml.nodes.YamlBigIntegerNode;
 import com.github.autermann.yaml.nodes.YamlBinaryNode;
 import com.github.autermann.yaml.nodes.YamlBooleanNode;
 import com.github.autermann.yaml.nodes.YamlByteNode;
+import com.github.autermann.yaml.nodes.YamlDoubleArrayNode;
 import com.github.autermann.yaml.nodes.YamlDoubleNode;
 import com.github.autermann.yaml.nodes.YamlFloatNode;
 import com.github.autermann.yaml.nodes.YamlIntegerNode;
+import com.github.autermann.yaml.nodes.YamlLongArrayNode;
 import com.github.autermann.yaml.nodes.YamlLongNode;
 import com.github.autermann.yaml.nodes.YamlMapNode;
 import com.github.autermann.yaml.nodes.YamlMappingNode;
 import com.github.autermann.yaml.nodes.YamlNullNode;
 import com.github.autermann.yaml.nodes.YamlOrderedMapNode;
 import com.github.autermann.yaml.nodes.YamlPairsNode;
+import com.github.autermann.yaml.nodes.YamlPersistentMapNode;
+import com.github.autermann.yaml.nodes.YamlPersistentSeqNode;
 import com.github.autermann.yaml.nodes.YamlScalarNode;
 import com.github.autermann.yaml.nodes.YamlSeqNode;
 import com.github.autermann.yaml.nodes.YamlSequenceNode;
@@ -106,7 +110,11 @@ public class YamlNodeRepresenter extends Representer {
         // has to be before YamlMapNode
         register(YamlOrderedMapNode.class, represent);
         register(YamlPairsNode.class, represent);
+        register(YamlPersistentMapNode.class, represent);
         register(YamlMapNode.class, represent);
+        register(YamlLongArrayNode.class, represent);
+        register(YamlDoubleArrayNode.class, represent);
+        register(YamlPersistentSeqNode.class, represent);
         register(YamlSeqNode.class, represent);
         register(YamlSetNode.class, represent);
         register(YamlNode.class, represent);
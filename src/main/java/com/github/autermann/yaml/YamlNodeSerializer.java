@@ -0,0 +1,463 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml;
+
+import java.io.IOException;
+import java.text.NumberFormat;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.DumperOptions.FlowStyle;
+import org.yaml.snakeyaml.emitter.Emitable;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.events.AliasEvent;
+import org.yaml.snakeyaml.events.DocumentEndEvent;
+import org.yaml.snakeyaml.events.DocumentStartEvent;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.events.ImplicitTuple;
+import org.yaml.snakeyaml.events.MappingEndEvent;
+import org.yaml.snakeyaml.events.MappingStartEvent;
+import org.yaml.snakeyaml.events.ScalarEvent;
+import org.yaml.snakeyaml.events.SequenceEndEvent;
+import org.yaml.snakeyaml.events.SequenceStartEvent;
+import org.yaml.snakeyaml.events.StreamEndEvent;
+import org.yaml.snakeyaml.events.StreamStartEvent;
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.resolver.Resolver;
+import org.yaml.snakeyaml.serializer.Serializer;
+
+import com.github.autermann.yaml.nodes.YamlMappingNode;
+import com.github.autermann.yaml.nodes.YamlScalarNode;
+import com.github.autermann.yaml.nodes.YamlSequenceNode;
+
+/**
+ * Serializes {@link YamlNode}s directly into an {@link Emitable}. In contrast
+ * to the SnakeYAML {@link Serializer}, no SnakeYAML node graph of the document
+ * is created: containers are walked by a visitor that emits their events
+ * straight away and only scalars are represented by the
+ * {@link YamlNodeRepresenter}, one at a time. The emitted events are the same
+ * the {@link Serializer} would emit for the represented document, including
+ * the anchors and aliases of containers that occur more than once. To find
+ * these, every document is traversed twice and all its containers are
+ * remembered by identity until the document is written.
+ *
+ * @author Christian Autermann
+ */
+final class YamlNodeSerializer implements SimpleYamlNodeVisitor {
+    /**
+     * The emitter to write to.
+     */
+    private final Emitable emitter;
+    /**
+     * The resolver used to detect implicit tags.
+     */
+    private final Resolver resolver;
+    /**
+     * The representer used for scalars.
+     */
+    private final YamlNodeRepresenter representer;
+    /**
+     * The dumper options.
+     */
+    private final DumperOptions options;
+    /**
+     * The anchors of the containers of the current document. Containers that
+     * occur only once are mapped to {@code null}.
+     */
+    private final Map<YamlNode, String> anchors = new IdentityHashMap<>();
+    /**
+     * The anchored containers that were already written.
+     */
+    private final Set<YamlNode> serialized
+            = Collections.newSetFromMap(new IdentityHashMap<>());
+    /**
+     * The number of the last generated anchor.
+     */
+    private int lastAnchorId;
+
+    /**
+     * Creates a new serializer.
+     *
+     * @param emitter     the emitter to write to
+     * @param resolver    the resolver
+     * @param representer the representer for scalars
+     * @param options     the dumper options
+     */
+    YamlNodeSerializer(Emitable emitter, Resolver resolver,
+                       YamlNodeRepresenter representer,
+                       DumperOptions options) {
+        this.emitter = emitter;
+        this.resolver = resolver;
+        this.representer = representer;
+        this.options = options;
+    }
+
+    /**
+     * Starts the stream.
+     */
+    void open() {
+        emit(new StreamStartEvent(null, null));
+    }
+
+    /**
+     * Ends the stream.
+     */
+    void close() {
+        emit(new StreamEndEvent(null, null));
+    }
+
+    /**
+     * Writes {@code node} as a document.
+     *
+     * @param node the node
+     */
+    void serialize(YamlNode node) {
+        startDocument();
+        serializeTree(node);
+        endDocument();
+    }
+
+    /**
+     * Starts a document.
+     */
+    void startDocument() {
+        emit(new DocumentStartEvent(null, null, options.isExplicitStart(),
+                                    options.getVersion(), options.getTags()));
+    }
+
+    /**
+     * Ends a document.
+     */
+    void endDocument() {
+        this.lastAnchorId = 0;
+        emit(new DocumentEndEvent(null, null, options.isExplicitEnd()));
+    }
+
+    /**
+     * Writes {@code node} into the current document. Containers that occur
+     * more than once in {@code node} are written as aliases.
+     *
+     * @param node the node, may be {@code null}
+     */
+    void serializeTree(YamlNode node) {
+        try {
+            anchor(node);
+            serializeNode(node);
+        } finally {
+            this.anchors.clear();
+            this.serialized.clear();
+        }
+    }
+
+    /**
+     * Assigns anchors to the containers below {@code node} that occur more
+     * than once, in the same order as the {@link Serializer} does.
+     *
+     * @param node the node
+     */
+    private void anchor(YamlNode node) {
+        if (!isContainer(node)) {
+            return;
+        }
+        if (this.anchors.containsKey(node)) {
+            if (this.anchors.get(node) == null) {
+                this.anchors.put(node, generateAnchor());
+            }
+        } else {
+            this.anchors.put(node, null);
+            if (node instanceof YamlMappingNode) {
+                YamlMappingNode<?> mapping = (YamlMappingNode<?>) node;
+                for (Entry<YamlNode, YamlNode> e : mapping.entries()) {
+                    anchor(e.getKey());
+                    anchor(e.getValue());
+                }
+            } else {
+                for (YamlNode child : node) {
+                    anchor(child);
+                }
+            }
+        }
+    }
+
+    /**
+     * Generates the next anchor.
+     *
+     * @return the anchor
+     */
+    private String generateAnchor() {
+        NumberFormat format = NumberFormat.getNumberInstance();
+        format.setMinimumIntegerDigits(3);
+        format.setMaximumFractionDigits(0);
+        format.setGroupingUsed(false);
+        return "id" + format.format(++this.lastAnchorId);
+    }
+
+    /**
+     * Writes {@code node}, or an alias if it was already written.
+     *
+     * @param node the node, may be {@code null}
+     */
+    private void serializeNode(YamlNode node) {
+        if (!isContainer(node)) {
+            serializeScalar(node);
+        } else if (this.serialized.contains(node)) {
+            emit(new AliasEvent(this.anchors.get(node), null, null));
+        } else {
+            if (this.anchors.get(node) != null) {
+                this.serialized.add(node);
+            }
+            node.accept(this);
+        }
+    }
+
+    /**
+     * Writes {@code node}, or its already created representation if
+     * {@code scalar} is not {@code null}.
+     *
+     * @param node   the node, may be {@code null}
+     * @param scalar the representation of {@code node}, may be {@code null}
+     */
+    private void serializeNode(YamlNode node, ScalarNode scalar) {
+        if (scalar == null) {
+            serializeNode(node);
+        } else {
+            serializeScalar(scalar);
+        }
+    }
+
+    /**
+     * Writes the representation of the scalar {@code node}.
+     *
+     * @param node the node, may be {@code null}
+     */
+    void serializeScalar(YamlNode node) {
+        serializeScalar(represent(node));
+    }
+
+    /**
+     * Writes the representation of a scalar.
+     *
+     * @param scalar the representation
+     */
+    private void serializeScalar(ScalarNode scalar) {
+        String value = scalar.getValue();
+        Tag tag = scalar.getTag();
+        ImplicitTuple implicit = new ImplicitTuple(
+                tag.equals(this.resolver.resolve(NodeId.scalar, value, true)),
+                tag.equals(this.resolver.resolve(NodeId.scalar, value, false)));
+        emit(new ScalarEvent(null, tag.getValue(), implicit, value,
+                             null, null, scalar.getStyle()));
+    }
+
+    @Override
+    public void visitMapping(YamlMappingNode<?> node) {
+        // the representations needed for the style decision are kept
+        // and written later, so that no child is represented twice
+        ScalarNode[] scalars = null;
+        boolean flowStyle = true;
+        if (getDefaultFlowStyle() == FlowStyle.AUTO) {
+            scalars = new ScalarNode[2 * node.size()];
+            int i = 0;
+            for (Entry<YamlNode, YamlNode> e : node.entries()) {
+                ScalarNode key = representChild(e.getKey());
+                ScalarNode value = representChild(e.getValue());
+                if (isPlain(key) || isPlain(value)) {
+                    flowStyle = false;
+                }
+                scalars[i++] = key;
+                scalars[i++] = value;
+            }
+        }
+        startMapping(this.anchors.get(node), node.tag(), flowStyle);
+        int i = 0;
+        for (Entry<YamlNode, YamlNode> e : node.entries()) {
+            serializeNode(e.getKey(), scalars == null ? null : scalars[i++]);
+            serializeNode(e.getValue(), scalars == null ? null : scalars[i++]);
+        }
+        endMapping();
+    }
+
+    @Override
+    public void visitSequence(YamlSequenceNode<?> node) {
+        ScalarNode[] scalars = null;
+        boolean flowStyle = true;
+        if (getDefaultFlowStyle() == FlowStyle.AUTO) {
+            scalars = new ScalarNode[node.size()];
+            int i = 0;
+            for (YamlNode child : node) {
+                ScalarNode scalar = representChild(child);
+                if (!isPlain(scalar)) {
+                    flowStyle = false;
+                }
+                scalars[i++] = scalar;
+            }
+        }
+        int i = 0;
+        if (node.isSet()) {
+            // sets are represented as mappings to null
+            ScalarNode nil = represent(null);
+            startMapping(this.anchors.get(node), node.tag(), flowStyle);
+            for (YamlNode child : node) {
+                serializeNode(child, scalars == null ? null : scalars[i++]);
+                serializeScalar(nil);
+            }
+            endMapping();
+        } else {
+            startSequence(this.anchors.get(node), node.tag(), flowStyle);
+            for (YamlNode child : node) {
+                serializeNode(child, scalars == null ? null : scalars[i++]);
+            }
+            endSequence();
+        }
+    }
+
+    @Override
+    public void visitScalar(YamlScalarNode node) {
+        serializeScalar(node);
+    }
+
+    /**
+     * Emits the start of a mapping.
+     *
+     * @param anchor    the anchor, may be {@code null}
+     * @param tag       the tag
+     * @param flowStyle the flow style to use if the default is
+     *                  {@link FlowStyle#AUTO}
+     */
+    void startMapping(String anchor, Tag tag, boolean flowStyle) {
+        boolean implicit = tag.equals(
+                this.resolver.resolve(NodeId.mapping, null, true));
+        emit(new MappingStartEvent(anchor, tag.getValue(), implicit,
+                                   null, null, getFlowStyle(flowStyle)));
+    }
+
+    /**
+     * Emits the end of a mapping.
+     */
+    void endMapping() {
+        emit(new MappingEndEvent(null, null));
+    }
+
+    /**
+     * Emits the start of a sequence.
+     *
+     * @param anchor    the anchor, may be {@code null}
+     * @param tag       the tag
+     * @param flowStyle the flow style to use if the default is
+     *                  {@link FlowStyle#AUTO}
+     */
+    void startSequence(String anchor, Tag tag, boolean flowStyle) {
+        boolean implicit = tag.equals(
+                this.resolver.resolve(NodeId.sequence, null, true));
+        emit(new SequenceStartEvent(anchor, tag.getValue(), implicit,
+                                    null, null, getFlowStyle(flowStyle)));
+    }
+
+    /**
+     * Emits the end of a sequence.
+     */
+    void endSequence() {
+        emit(new SequenceEndEvent(null, null));
+    }
+
+    /**
+     * Gets the flow style of a container.
+     *
+     * @param flowStyle the flow style to use if the default is
+     *                  {@link FlowStyle#AUTO}
+     *
+     * @return the flow style
+     */
+    private boolean getFlowStyle(boolean flowStyle) {
+        FlowStyle defaultFlowStyle = getDefaultFlowStyle();
+        if (defaultFlowStyle == FlowStyle.AUTO) {
+            return flowStyle;
+        }
+        return defaultFlowStyle.getStyleBoolean();
+    }
+
+    /**
+     * Gets the default flow style of the representer.
+     *
+     * @return the default flow style
+     */
+    private FlowStyle getDefaultFlowStyle() {
+        return this.representer.getDefaultFlowStyle();
+    }
+
+    /**
+     * Represents the child {@code node} if it is a scalar.
+     *
+     * @param node the node, may be {@code null}
+     *
+     * @return the representation, or {@code null} if the node is a container
+     */
+    private ScalarNode representChild(YamlNode node) {
+        return isContainer(node) ? null : represent(node);
+    }
+
+    /**
+     * Checks if {@code scalar} is a plain scalar.
+     *
+     * @param scalar the representation, {@code null} for containers
+     *
+     * @return if the representation is a plain scalar
+     */
+    private static boolean isPlain(ScalarNode scalar) {
+        return scalar != null && scalar.getStyle() == null;
+    }
+
+    /**
+     * Represents the scalar {@code node}.
+     *
+     * @param node the node, may be {@code null}
+     *
+     * @return the representation
+     */
+    private ScalarNode represent(YamlNode node) {
+        return (ScalarNode) this.representer.represent(node);
+    }
+
+    /**
+     * Emits the supplied event.
+     *
+     * @param event the event
+     */
+    private void emit(Event event) {
+        try {
+            this.emitter.emit(event);
+        } catch (IOException e) {
+            throw new YAMLException(e);
+        }
+    }
+
+    /**
+     * Checks if {@code node} is a container.
+     *
+     * @param node the node, may be {@code null}
+     *
+     * @return if the node is a container
+     */
+    private static boolean isContainer(YamlNode node) {
+        return node != null && node.isContainer();
+    }
+}
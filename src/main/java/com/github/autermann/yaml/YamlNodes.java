@@ -15,11 +15,15 @@
  */
 package com.github.autermann.yaml;
 
-import java.util.Optional;
+import java.util.Collections;
+import java.util.Map.Entry;
 import java.util.function.Predicate;
 
+import com.github.autermann.yaml.nodes.YamlMappingNode;
 import com.github.autermann.yaml.nodes.YamlMissingNode;
 import com.github.autermann.yaml.nodes.YamlNullNode;
+import com.github.autermann.yaml.nodes.YamlSequenceNode;
+import com.google.common.collect.Iterables;
 
 /**
  * Utility methods to handle {@link YamlNode}s.
@@ -43,7 +47,7 @@ public class YamlNodes {
      * @return {@code value} if not {@code null}, else a {@link YamlNullNode}
      */
     public static YamlNode nullToNode(YamlNode value) {
-        return Optional.ofNullable(value).orElseGet(YamlNullNode::instance);
+        return value == null ? YamlNullNode.instance() : value;
     }
 
     /**
@@ -55,7 +59,7 @@ public class YamlNodes {
      * @return {@code value} if not {@code null}, else a {@link YamlMissingNode}
      */
     public static YamlNode nullToMissing(YamlNode value) {
-        return Optional.ofNullable(value).orElseGet(YamlMissingNode::instance);
+        return value == null ? YamlMissingNode.instance() : value;
     }
 
     /**
@@ -86,4 +90,23 @@ public class YamlNodes {
     public static Predicate<YamlNode> notNullOrMissing() {
         return notNull().and(notMissing());
     }
-}
\ No newline at end of file
+
+    /**
+     * Gets the children of {@code node}: the values of a mapping, the
+     * elements of a sequence or set, and nothing for a scalar.
+     *
+     * @param node the node
+     *
+     * @return the children
+     */
+    public static Iterable<YamlNode> children(YamlNode node) {
+        if (node instanceof YamlMappingNode) {
+            return Iterables.transform(((YamlMappingNode<?>) node).entries(),
+                                       Entry::getValue);
+        } else if (node instanceof YamlSequenceNode) {
+            return node;
+        } else {
+            return Collections.emptyList();
+        }
+    }
+}
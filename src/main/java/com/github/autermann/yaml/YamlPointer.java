@@ -0,0 +1,355 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+import com.github.autermann.yaml.nodes.YamlMissingNode;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * A compiled path expression in the syntax of a JSON Pointer
+ * (<a href="https://tools.ietf.org/html/rfc6901">RFC 6901</a>): a sequence of
+ * reference tokens, each prefixed by {@code /}, in which {@code ~1} denotes
+ * {@code /} and {@code ~0} denotes {@code ~}. The empty expression refers to
+ * the whole node. Additionally, the token {@code *} refers to all values of
+ * a mapping or all elements of a sequence or set.
+ * <p>
+ * A token refers to the value of a mapping with the token as text key or, if
+ * there is none and the token is an index, with the index as integer key. In
+ * sequences and sets, a token refers to the element with the index. The
+ * tokens are parsed once, so evaluating a pointer without wildcards does not
+ * allocate anything besides what the traversed nodes allocate for
+ * {@link YamlNode#path(String)} and {@link YamlNode#path(int)}.
+ * <pre>
+ * YamlPointer pointer = YamlPointer.compile("/servers/0/host");
+ * String host = pointer.get(node).asTextValue();
+ * </pre>
+ * <p>
+ * Instances are immutable and thread-safe. {@link #compile(String)} caches
+ * the most recently compiled pointers.
+ *
+ * @author Christian Autermann
+ */
+public final class YamlPointer {
+    /**
+     * The maximal number of cached pointers.
+     */
+    private static final long CACHE_SIZE = 1024;
+    /**
+     * The cache of compiled pointers.
+     */
+    private static final Cache<String, YamlPointer> CACHE
+            = CacheBuilder.newBuilder().maximumSize(CACHE_SIZE).build();
+    /**
+     * The wildcard token.
+     */
+    private static final String WILDCARD = "*";
+    /**
+     * The expression of this pointer.
+     */
+    private final String expression;
+    /**
+     * The text keys of the tokens, {@code null} for wildcards.
+     */
+    private final String[] keys;
+    /**
+     * The indices of the tokens, {@code -1} if the token is not an index.
+     */
+    private final int[] indices;
+    /**
+     * If this pointer contains wildcards.
+     */
+    private final boolean wildcards;
+
+    /**
+     * Creates a new pointer.
+     *
+     * @param expression the expression
+     * @param keys       the text keys of the tokens
+     * @param indices    the indices of the tokens
+     */
+    private YamlPointer(String expression, String[] keys, int[] indices) {
+        this.expression = expression;
+        this.keys = keys;
+        this.indices = indices;
+        boolean wildcard = false;
+        for (String key : keys) {
+            wildcard |= key == null;
+        }
+        this.wildcards = wildcard;
+    }
+
+    /**
+     * Gets the node this pointer refers to. If this pointer contains
+     * wildcards, the first node in document order is returned.
+     *
+     * @param node the node to evaluate this pointer against
+     *
+     * @return the node, or a {@link YamlMissingNode} if there is none
+     */
+    public YamlNode get(YamlNode node) {
+        Objects.requireNonNull(node);
+        if (this.wildcards) {
+            return first(node, 0);
+        }
+        YamlNode current = node;
+        for (int i = 0; i < this.keys.length && current.exists(); ++i) {
+            current = step(current, i);
+        }
+        return current;
+    }
+
+    /**
+     * Checks if this pointer refers to at least one node.
+     *
+     * @param node the node to evaluate this pointer against
+     *
+     * @return if a node exists
+     */
+    public boolean exists(YamlNode node) {
+        return get(node).exists();
+    }
+
+    /**
+     * Performs {@code action} for every node this pointer refers to, in
+     * document order.
+     *
+     * @param node   the node to evaluate this pointer against
+     * @param action the action
+     */
+    public void forEach(YamlNode node, Consumer<? super YamlNode> action) {
+        Objects.requireNonNull(node);
+        Objects.requireNonNull(action);
+        forEach(node, 0, action);
+    }
+
+    /**
+     * Gets all nodes this pointer refers to, in document order.
+     *
+     * @param node the node to evaluate this pointer against
+     *
+     * @return the nodes
+     */
+    public List<YamlNode> getAll(YamlNode node) {
+        List<YamlNode> nodes = new ArrayList<>();
+        forEach(node, nodes::add);
+        return nodes;
+    }
+
+    /**
+     * Checks if this pointer contains wildcards and may refer to more than
+     * one node.
+     *
+     * @return if this pointer contains wildcards
+     */
+    public boolean hasWildcards() {
+        return this.wildcards;
+    }
+
+    /**
+     * Gets the number of reference tokens of this pointer.
+     *
+     * @return the number of tokens
+     */
+    public int size() {
+        return this.keys.length;
+    }
+
+    /**
+     * Gets the first node {@code node} refers to, starting at token
+     * {@code i}.
+     *
+     * @param node the node
+     * @param i    the index of the token
+     *
+     * @return the node, or a {@link YamlMissingNode} if there is none
+     */
+    private YamlNode first(YamlNode node, int i) {
+        YamlNode current = node;
+        for (; i < this.keys.length && current.exists(); ++i) {
+            if (this.keys[i] == null) {
+                for (YamlNode child : YamlNodes.children(current)) {
+                    YamlNode result = first(child, i + 1);
+                    if (result.exists()) {
+                        return result;
+                    }
+                }
+                return YamlMissingNode.instance();
+            }
+            current = step(current, i);
+        }
+        return current;
+    }
+
+    /**
+     * Performs {@code action} for every node {@code node} refers to, starting
+     * at token {@code i}.
+     *
+     * @param node   the node
+     * @param i      the index of the token
+     * @param action the action
+     */
+    private void forEach(YamlNode node, int i,
+                         Consumer<? super YamlNode> action) {
+        YamlNode current = node;
+        for (; i < this.keys.length && current.exists(); ++i) {
+            if (this.keys[i] == null) {
+                for (YamlNode child : YamlNodes.children(current)) {
+                    forEach(child, i + 1, action);
+                }
+                return;
+            }
+            current = step(current, i);
+        }
+        if (current.exists()) {
+            action.accept(current);
+        }
+    }
+
+    /**
+     * Evaluates the non-wildcard token {@code i} against {@code node}.
+     *
+     * @param node the node
+     * @param i    the index of the token
+     *
+     * @return the referred node, or a {@link YamlMissingNode}
+     */
+    private YamlNode step(YamlNode node, int i) {
+        int index = this.indices[i];
+        if (node.isSequence() || node.isSet()) {
+            return index < 0 ? YamlMissingNode.instance() : node.path(index);
+        }
+        YamlNode child = node.path(this.keys[i]);
+        if (!child.exists() && index >= 0) {
+            child = node.path(index);
+        }
+        return child;
+    }
+
+    @Override
+    public int hashCode() {
+        return this.expression.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof YamlPointer &&
+               this.expression.equals(((YamlPointer) o).expression);
+    }
+
+    @Override
+    public String toString() {
+        return this.expression;
+    }
+
+    /**
+     * Compiles the supplied expression. Recently compiled expressions are
+     * served from a cache.
+     *
+     * @param expression the expression
+     *
+     * @return the pointer
+     *
+     * @throws IllegalArgumentException if the expression is invalid
+     */
+    public static YamlPointer compile(String expression) {
+        Objects.requireNonNull(expression);
+        YamlPointer pointer = CACHE.getIfPresent(expression);
+        if (pointer == null) {
+            pointer = parse(expression);
+            CACHE.put(expression, pointer);
+        }
+        return pointer;
+    }
+
+    /**
+     * Parses the supplied expression.
+     *
+     * @param expression the expression
+     *
+     * @return the pointer
+     *
+     * @throws IllegalArgumentException if the expression is invalid
+     */
+    private static YamlPointer parse(String expression) {
+        if (!expression.isEmpty() && expression.charAt(0) != '/') {
+            throw new IllegalArgumentException(
+                    "pointer has to start with '/': " + expression);
+        }
+        List<String> tokens = new ArrayList<>();
+        StringBuilder token = new StringBuilder();
+        for (int i = 1; i <= expression.length(); ++i) {
+            char c = i < expression.length() ? expression.charAt(i) : '/';
+            if (c == '/') {
+                tokens.add(token.toString());
+                token.setLength(0);
+            } else if (c == '~') {
+                char next = ++i < expression.length()
+                            ? expression.charAt(i) : '\0';
+                if (next == '0') {
+                    token.append('~');
+                } else if (next == '1') {
+                    token.append('/');
+                } else {
+                    throw new IllegalArgumentException(
+                            "invalid escape sequence in pointer: " + expression);
+                }
+            } else {
+                token.append(c);
+            }
+        }
+        if (expression.isEmpty()) {
+            tokens.clear();
+        }
+        String[] keys = new String[tokens.size()];
+        int[] indices = new int[tokens.size()];
+        for (int i = 0; i < keys.length; ++i) {
+            String key = tokens.get(i);
+            keys[i] = key.equals(WILDCARD) ? null : key;
+            indices[i] = toIndex(key);
+        }
+        return new YamlPointer(expression, keys, indices);
+    }
+
+    /**
+     * Converts the token to an index, as defined by RFC 6901.
+     *
+     * @param token the token
+     *
+     * @return the index, or {@code -1} if the token is not an index
+     */
+    private static int toIndex(String token) {
+        int length = token.length();
+        if (length == 0 || length > 10 ||
+            (length > 1 && token.charAt(0) == '0')) {
+            return -1;
+        }
+        long index = 0;
+        for (int i = 0; i < length; ++i) {
+            char c = token.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            index = 10 * index + (c - '0');
+        }
+        return index > Integer.MAX_VALUE ? -1 : (int) index;
+    }
+}
@@ -0,0 +1,1293 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import com.github.autermann.yaml.nodes.YamlContainerNode;
+import com.github.autermann.yaml.nodes.YamlMappingNode;
+import com.github.autermann.yaml.nodes.YamlMissingNode;
+import com.github.autermann.yaml.nodes.YamlSequenceNode;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * A compiled JSONPath-style query over {@link YamlNode}s. A query starts with
+ * an optional {@code $} or a name, followed by any number of the following
+ * steps:
+ * <table summary="query steps">
+ * <tr><td>{@code .name}, {@code ['name']}</td>
+ * <td>the value of a mapping with the text key</td></tr>
+ * <tr><td>{@code [1]}, {@code [-1]}</td>
+ * <td>the element of a sequence or set with the index (counting from the end
+ * if negative), or the value of a mapping with the integer key</td></tr>
+ * <tr><td>{@code ['a', 'b', 1]}</td>
+ * <td>the union of the above</td></tr>
+ * <tr><td>{@code [start:end:step]}</td>
+ * <td>a slice of a sequence or set, as in Python</td></tr>
+ * <tr><td>{@code .*}, {@code [*]}</td>
+ * <td>all values of a mapping or elements of a sequence or set</td></tr>
+ * <tr><td>{@code ..name}, {@code ..*}, {@code ..[...]}</td>
+ * <td>recursive descent: the following step applied to the node and all
+ * of its descendants</td></tr>
+ * <tr><td>{@code [?(filter)]}</td>
+ * <td>all values of a mapping or elements of a sequence or set matching the
+ * filter</td></tr>
+ * </table>
+ * <p>
+ * A filter refers to the tested node as {@code @}, followed by any steps, and
+ * is either such a path, which has to select a node, or a comparison of paths
+ * and literals with {@code ==}, {@code !=}, {@code <}, {@code <=}, {@code >}
+ * or {@code >=}. A comparison holds if it holds for any selected node.
+ * Literals are numbers, quoted strings, {@code true}, {@code false} and
+ * {@code null}. Numbers are compared by value, strings, booleans and times
+ * are compared with each other, and all other nodes can only be tested for
+ * equality. Filters are combined with {@code &&}, {@code ||}, {@code !} and
+ * parentheses:
+ * <pre>
+ * YamlQuery query = YamlQuery.compile(
+ *         "$.services[*].ports[?(@.public &amp;&amp; @.port &lt; 1024)]");
+ * List&lt;YamlNode&gt; ports = query.select(inventory);
+ * </pre>
+ * <p>
+ * Queries are parsed once into a plan of steps. The selected nodes are
+ * always returned in document order. {@link #select(YamlNode, ForkJoinPool)}
+ * splits the first large fan-out of a query, like a wildcard over a large
+ * container, into parallel tasks using the container spliterators.
+ * <p>
+ * Instances are immutable and thread-safe. {@link #compile(String)} caches
+ * the most recently compiled queries.
+ *
+ * @author Christian Autermann
+ * @see YamlPointer
+ */
+public final class YamlQuery {
+    /**
+     * The maximal number of cached queries.
+     */
+    private static final long CACHE_SIZE = 1024;
+    /**
+     * The cache of compiled queries.
+     */
+    private static final Cache<String, YamlQuery> CACHE
+            = CacheBuilder.newBuilder().maximumSize(CACHE_SIZE).build();
+    /**
+     * The minimal number of nodes that are evaluated in parallel.
+     */
+    private static final int PARALLEL_SIZE = 64;
+    /**
+     * The node factory for literals.
+     */
+    private static final YamlNodeFactory FACTORY
+            = YamlNodeFactory.createDefault();
+    /**
+     * The expression of this query.
+     */
+    private final String expression;
+    /**
+     * The steps of this query.
+     */
+    private final Step[] steps;
+
+    /**
+     * Creates a new query.
+     *
+     * @param expression the expression
+     * @param steps      the steps
+     */
+    private YamlQuery(String expression, List<Step> steps) {
+        this.expression = expression;
+        this.steps = steps.toArray(new Step[steps.size()]);
+    }
+
+    /**
+     * Selects the nodes this query refers to, in document order.
+     *
+     * @param node the node to evaluate this query against
+     *
+     * @return the selected nodes
+     */
+    public List<YamlNode> select(YamlNode node) {
+        Objects.requireNonNull(node);
+        List<YamlNode> nodes = new ArrayList<>();
+        select(node, 0, nodes::add);
+        return nodes;
+    }
+
+    /**
+     * Selects the nodes this query refers to, in document order. The steps
+     * are evaluated in parallel using the specified pool for containers and
+     * intermediate results with many nodes.
+     *
+     * @param node the node to evaluate this query against
+     * @param pool the pool to evaluate in
+     *
+     * @return the selected nodes
+     */
+    public List<YamlNode> select(YamlNode node, ForkJoinPool pool) {
+        Objects.requireNonNull(node);
+        return pool.invoke(ForkJoinTask.adapt(() -> evaluate(node, 0)));
+    }
+
+    /**
+     * Selects the first node this query refers to in document order. The
+     * evaluation stops as soon as a node is selected.
+     *
+     * @param node the node to evaluate this query against
+     *
+     * @return the node, or a {@link YamlMissingNode} if there is none
+     */
+    public YamlNode selectFirst(YamlNode node) {
+        Objects.requireNonNull(node);
+        YamlNode[] first = { YamlMissingNode.instance() };
+        select(node, 0, selected -> {
+            first[0] = selected;
+            return false;
+        });
+        return first[0];
+    }
+
+    /**
+     * Performs {@code action} for every node this query refers to, in
+     * document order.
+     *
+     * @param node   the node to evaluate this query against
+     * @param action the action
+     */
+    public void forEach(YamlNode node, Consumer<? super YamlNode> action) {
+        Objects.requireNonNull(node);
+        Objects.requireNonNull(action);
+        select(node, 0, selected -> {
+            action.accept(selected);
+            return true;
+        });
+    }
+
+    /**
+     * Passes the nodes selected by the steps starting at {@code i} to
+     * {@code sink}.
+     *
+     * @param node the node
+     * @param i    the index of the step
+     * @param sink the sink
+     *
+     * @return {@code false} if the sink stopped the evaluation
+     */
+    private boolean select(YamlNode node, int i, Sink sink) {
+        if (i == this.steps.length) {
+            return sink.accept(node);
+        }
+        return this.steps[i].select(node, child -> select(child, i + 1, sink));
+    }
+
+    /**
+     * Evaluates the steps starting at {@code i} from within a
+     * {@link ForkJoinPool}. The nodes selected by the first step that
+     * selects many nodes are split into parallel tasks, which evaluate the
+     * remaining steps sequentially.
+     *
+     * @param node the node
+     * @param i    the index of the step
+     *
+     * @return the selected nodes
+     */
+    private List<YamlNode> evaluate(YamlNode node, int i) {
+        if (i == this.steps.length) {
+            return Collections.singletonList(node);
+        }
+        Stream<YamlNode> selected = this.steps[i].parallelStream(node);
+        if (selected != null) {
+            return selected.map(child -> {
+                List<YamlNode> nodes = new ArrayList<>();
+                select(child, i + 1, nodes::add);
+                return nodes;
+            }).flatMap(List::stream).collect(Collectors.toList());
+        }
+        List<YamlNode> nodes = new ArrayList<>();
+        this.steps[i].select(node, child -> {
+            nodes.addAll(evaluate(child, i + 1));
+            return true;
+        });
+        return nodes;
+    }
+
+    @Override
+    public int hashCode() {
+        return this.expression.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof YamlQuery &&
+               this.expression.equals(((YamlQuery) o).expression);
+    }
+
+    @Override
+    public String toString() {
+        return this.expression;
+    }
+
+    /**
+     * Compiles the supplied expression. Recently compiled expressions are
+     * served from a cache.
+     *
+     * @param expression the expression
+     *
+     * @return the query
+     *
+     * @throws IllegalArgumentException if the expression is invalid
+     */
+    public static YamlQuery compile(String expression) {
+        Objects.requireNonNull(expression);
+        YamlQuery query = CACHE.getIfPresent(expression);
+        if (query == null) {
+            query = new Parser(expression).parse();
+            CACHE.put(expression, query);
+        }
+        return query;
+    }
+
+    /**
+     * Checks if the specified node has enough children to evaluate them in
+     * parallel.
+     *
+     * @param node the node
+     *
+     * @return if the children are evaluated in parallel
+     */
+    private static boolean isLarge(YamlNode node) {
+        return node.size() >= PARALLEL_SIZE;
+    }
+
+    /**
+     * Creates a parallel stream of the children of {@code node}.
+     *
+     * @param node the node
+     *
+     * @return the stream
+     *
+     * @see YamlNodes#children(YamlNode)
+     */
+    private static Stream<YamlNode> children(YamlNode node) {
+        if (node instanceof YamlMappingNode) {
+            YamlMappingNode<?> mapping = (YamlMappingNode<?>) node;
+            return mapping.parallelEntryStream().map(Entry::getValue);
+        } else if (node instanceof YamlSequenceNode) {
+            return ((YamlContainerNode) node).parallelStream();
+        } else {
+            return Stream.empty();
+        }
+    }
+
+    /**
+     * Gets the elements of a sequence or set as a random access list.
+     *
+     * @param node the sequence or set
+     *
+     * @return the elements
+     */
+    private static List<YamlNode> elements(YamlSequenceNode<?> node) {
+        Collection<YamlNode> elements = node.value();
+        if (elements instanceof List && elements instanceof RandomAccess) {
+            return (List<YamlNode>) elements;
+        }
+        return new ArrayList<>(elements);
+    }
+
+    /**
+     * Receives the nodes selected by a {@link Step}.
+     */
+    @FunctionalInterface
+    private interface Sink {
+        /**
+         * Accepts a selected node.
+         *
+         * @param node the node
+         *
+         * @return {@code false} if the evaluation should stop
+         */
+        boolean accept(YamlNode node);
+    }
+
+    /**
+     * A step of a query, selecting nodes relative to a node.
+     */
+    private abstract static class Step {
+        /**
+         * Passes the nodes this step selects from {@code node} to
+         * {@code sink}, in document order.
+         *
+         * @param node the node
+         * @param sink the sink
+         *
+         * @return {@code false} if the sink stopped the evaluation
+         */
+        abstract boolean select(YamlNode node, Sink sink);
+
+        /**
+         * Creates an ordered parallel stream of the nodes this step selects
+         * from {@code node}, if there are enough nodes to split.
+         *
+         * @param node the node
+         *
+         * @return the stream, or {@code null} if the nodes should be selected
+         *         sequentially
+         */
+        Stream<YamlNode> parallelStream(YamlNode node) {
+            return null;
+        }
+    }
+
+    /**
+     * Selects the value of a mapping with a text key.
+     */
+    private static final class NameStep extends Step {
+        /**
+         * The key.
+         */
+        private final String key;
+
+        /**
+         * Creates a new {@link NameStep}.
+         *
+         * @param key the key
+         */
+        NameStep(String key) {
+            this.key = key;
+        }
+
+        @Override
+        boolean select(YamlNode node, Sink sink) {
+            if (node instanceof YamlMappingNode) {
+                YamlNode child = node.path(this.key);
+                if (child.exists()) {
+                    return sink.accept(child);
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Selects the element of a sequence or set with an index, or the value
+     * of a mapping with an integer key.
+     */
+    private static final class IndexStep extends Step {
+        /**
+         * The index.
+         */
+        private final int index;
+
+        /**
+         * Creates a new {@link IndexStep}.
+         *
+         * @param index the index
+         */
+        IndexStep(int index) {
+            this.index = index;
+        }
+
+        @Override
+        boolean select(YamlNode node, Sink sink) {
+            YamlNode child;
+            if (node instanceof YamlSequenceNode) {
+                child = node.path(this.index < 0 ? this.index + node.size()
+                                                 : this.index);
+            } else if (node instanceof YamlMappingNode) {
+                child = node.path(this.index);
+            } else {
+                return true;
+            }
+            return !child.exists() || sink.accept(child);
+        }
+    }
+
+    /**
+     * Selects the union of the nodes selected by other steps.
+     */
+    private static final class UnionStep extends Step {
+        /**
+         * The steps.
+         */
+        private final List<Step> steps;
+
+        /**
+         * Creates a new {@link UnionStep}.
+         *
+         * @param steps the steps
+         */
+        UnionStep(List<Step> steps) {
+            this.steps = steps;
+        }
+
+        @Override
+        boolean select(YamlNode node, Sink sink) {
+            for (Step step : this.steps) {
+                if (!step.select(node, sink)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Selects all children of a node.
+     */
+    private static final class WildcardStep extends Step {
+        @Override
+        boolean select(YamlNode node, Sink sink) {
+            for (YamlNode child : YamlNodes.children(node)) {
+                if (!sink.accept(child)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        Stream<YamlNode> parallelStream(YamlNode node) {
+            return isLarge(node) ? children(node) : null;
+        }
+    }
+
+    /**
+     * Selects the children of a node matching a filter.
+     */
+    private static final class FilterStep extends Step {
+        /**
+         * The filter.
+         */
+        private final Predicate<YamlNode> filter;
+
+        /**
+         * Creates a new {@link FilterStep}.
+         *
+         * @param filter the filter
+         */
+        FilterStep(Predicate<YamlNode> filter) {
+            this.filter = filter;
+        }
+
+        @Override
+        boolean select(YamlNode node, Sink sink) {
+            for (YamlNode child : YamlNodes.children(node)) {
+                if (this.filter.test(child) && !sink.accept(child)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        Stream<YamlNode> parallelStream(YamlNode node) {
+            return isLarge(node) ? children(node).filter(this.filter) : null;
+        }
+    }
+
+    /**
+     * Selects a slice of the elements of a sequence or set.
+     */
+    private static final class SliceStep extends Step {
+        /**
+         * The first index (inclusive), or {@code null} for the default.
+         */
+        private final Integer start;
+        /**
+         * The last index (exclusive), or {@code null} for the default.
+         */
+        private final Integer end;
+        /**
+         * The step between indices.
+         */
+        private final int step;
+
+        /**
+         * Creates a new {@link SliceStep}.
+         *
+         * @param start the first index, or {@code null}
+         * @param end   the last index, or {@code null}
+         * @param step  the step between indices
+         */
+        SliceStep(Integer start, Integer end, int step) {
+            this.start = start;
+            this.end = end;
+            this.step = step;
+        }
+
+        @Override
+        boolean select(YamlNode node, Sink sink) {
+            if (node instanceof YamlSequenceNode) {
+                List<YamlNode> elements = elements((YamlSequenceNode<?>) node);
+                int first = first(elements.size());
+                for (int i = 0, n = count(first, elements.size()); i < n; ++i) {
+                    if (!sink.accept(elements.get(first + i * this.step))) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        @Override
+        Stream<YamlNode> parallelStream(YamlNode node) {
+            if (!(node instanceof YamlSequenceNode) || !isLarge(node)) {
+                return null;
+            }
+            List<YamlNode> elements = elements((YamlSequenceNode<?>) node);
+            int first = first(elements.size());
+            return IntStream.range(0, count(first, elements.size())).parallel()
+                    .mapToObj(i -> elements.get(first + i * this.step));
+        }
+
+        /**
+         * Gets the first selected index.
+         *
+         * @param size the number of elements
+         *
+         * @return the first index
+         */
+        private int first(int size) {
+            if (this.start == null) {
+                return this.step > 0 ? 0 : size - 1;
+            }
+            return clamp(this.start, size);
+        }
+
+        /**
+         * Gets the number of selected indices.
+         *
+         * @param first the first selected index
+         * @param size  the number of elements
+         *
+         * @return the number of indices
+         */
+        private int count(int first, int size) {
+            if (this.step > 0) {
+                int last = this.end == null ? size : clamp(this.end, size);
+                return last <= first ? 0
+                       : (last - first + this.step - 1) / this.step;
+            } else {
+                int last = this.end == null ? -1 : clamp(this.end, size);
+                return last >= first ? 0
+                       : (first - last - this.step - 1) / -this.step;
+            }
+        }
+
+        /**
+         * Converts a possibly negative index to a position in the elements.
+         * Positions before the elements are {@code -1} for negative steps and
+         * {@code 0} for positive steps, positions after the elements are
+         * {@code size - 1} for negative steps and {@code size} for positive
+         * steps.
+         *
+         * @param index the index
+         * @param size  the number of elements
+         *
+         * @return the position
+         */
+        private int clamp(int index, int size) {
+            int position = index < 0 ? index + size : index;
+            if (this.step > 0) {
+                return Math.max(0, Math.min(position, size));
+            } else {
+                return Math.max(-1, Math.min(position, size - 1));
+            }
+        }
+    }
+
+    /**
+     * Selects a node and all of its descendants, in document order.
+     */
+    private static final class DescendantStep extends Step {
+        @Override
+        boolean select(YamlNode node, Sink sink) {
+            if (!sink.accept(node)) {
+                return false;
+            }
+            for (YamlNode child : YamlNodes.children(node)) {
+                if (!select(child, sink)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        Stream<YamlNode> parallelStream(YamlNode node) {
+            List<YamlNode> nodes = new ArrayList<>();
+            collect(node, nodes, true);
+            return nodes.size() >= PARALLEL_SIZE ? nodes.parallelStream()
+                                                 : nodes.stream();
+        }
+
+        /**
+         * Adds the node and all of its descendants to {@code nodes}. The
+         * descendants of the first large container are collected in parallel.
+         *
+         * @param node     the node
+         * @param nodes    the nodes
+         * @param parallel if large containers should be split
+         */
+        private void collect(YamlNode node, List<YamlNode> nodes,
+                             boolean parallel) {
+            nodes.add(node);
+            if (parallel && isLarge(node)) {
+                children(node).map(child -> {
+                    List<YamlNode> descendants = new ArrayList<>();
+                    collect(child, descendants, false);
+                    return descendants;
+                }).forEachOrdered(nodes::addAll);
+            } else {
+                for (YamlNode child : YamlNodes.children(node)) {
+                    collect(child, nodes, parallel);
+                }
+            }
+        }
+    }
+
+    /**
+     * An operand of a comparison in a filter.
+     */
+    @FunctionalInterface
+    private interface Operand {
+        /**
+         * Checks if any node of this operand matches {@code predicate}.
+         *
+         * @param current   the node tested by the filter
+         * @param predicate the predicate
+         *
+         * @return if any node matches
+         */
+        boolean anyMatch(YamlNode current, Predicate<YamlNode> predicate);
+    }
+
+    /**
+     * The comparison operators of filters.
+     */
+    private enum Operator {
+        EQ("==") {
+            @Override
+            boolean test(YamlNode a, YamlNode b) {
+                Integer comparison = compare(a, b);
+                return comparison == null ? a.equals(b) : comparison == 0;
+            }
+        },
+        NE("!=") {
+            @Override
+            boolean test(YamlNode a, YamlNode b) {
+                return !EQ.test(a, b);
+            }
+        },
+        LE("<=") {
+            @Override
+            boolean test(YamlNode a, YamlNode b) {
+                Integer comparison = compare(a, b);
+                return comparison != null && comparison <= 0;
+            }
+        },
+        LT("<") {
+            @Override
+            boolean test(YamlNode a, YamlNode b) {
+                Integer comparison = compare(a, b);
+                return comparison != null && comparison < 0;
+            }
+        },
+        GE(">=") {
+            @Override
+            boolean test(YamlNode a, YamlNode b) {
+                Integer comparison = compare(a, b);
+                return comparison != null && comparison >= 0;
+            }
+        },
+        GT(">") {
+            @Override
+            boolean test(YamlNode a, YamlNode b) {
+                Integer comparison = compare(a, b);
+                return comparison != null && comparison > 0;
+            }
+        };
+
+        /**
+         * The symbol of this operator.
+         */
+        private final String symbol;
+
+        /**
+         * Creates a new {@link Operator}.
+         *
+         * @param symbol the symbol
+         */
+        Operator(String symbol) {
+            this.symbol = symbol;
+        }
+
+        /**
+         * Applies this operator.
+         *
+         * @param a the left operand
+         * @param b the right operand
+         *
+         * @return the result
+         */
+        abstract boolean test(YamlNode a, YamlNode b);
+
+        /**
+         * Compares two nodes of comparable types.
+         *
+         * @param a the first node
+         * @param b the second node
+         *
+         * @return the result of the comparison, or {@code null} if the nodes
+         *         are not comparable
+         */
+        private static Integer compare(YamlNode a, YamlNode b) {
+            if (a.isNumber() && b.isNumber()) {
+                if (a.isFloat() || a.isDouble() ||
+                    b.isFloat() || b.isDouble()) {
+                    return Double.compare(a.asDoubleValue(),
+                                          b.asDoubleValue());
+                }
+                return toBigDecimal(a).compareTo(toBigDecimal(b));
+            } else if (a.isText() && b.isText()) {
+                return a.asTextValue().compareTo(b.asTextValue());
+            } else if (a.isBoolean() && b.isBoolean()) {
+                return Boolean.compare(a.asBooleanValue(), b.asBooleanValue());
+            } else if (a.isTime() && b.isTime()) {
+                return a.asDateTimeValue().compareTo(b.asDateTimeValue());
+            } else if (a.isNull() && b.isNull()) {
+                return 0;
+            }
+            return null;
+        }
+
+        /**
+         * Converts the value of an integral or decimal node to a
+         * {@code BigDecimal}.
+         *
+         * @param node the node
+         *
+         * @return the value
+         */
+        private static BigDecimal toBigDecimal(YamlNode node) {
+            if (node.isBigInteger()) {
+                return new BigDecimal(node.asBigIntegerValue());
+            } else if (node.isIntegral()) {
+                return BigDecimal.valueOf(node.asLongValue());
+            }
+            return node.asBigDecimalValue();
+        }
+    }
+
+    /**
+     * Parses a query expression.
+     */
+    private static final class Parser {
+        /**
+         * The expression.
+         */
+        private final String expression;
+        /**
+         * The current position in the expression.
+         */
+        private int position;
+
+        /**
+         * Creates a new {@link Parser}.
+         *
+         * @param expression the expression
+         */
+        Parser(String expression) {
+            this.expression = expression;
+        }
+
+        /**
+         * Parses the expression.
+         *
+         * @return the query
+         */
+        YamlQuery parse() {
+            List<Step> steps = new ArrayList<>();
+            if (!accept('$') && isNameCharacter(peek())) {
+                steps.add(new NameStep(parseName()));
+            }
+            steps.addAll(parseSteps());
+            if (this.position < this.expression.length()) {
+                throw error("unexpected character");
+            }
+            return new YamlQuery(this.expression, steps);
+        }
+
+        /**
+         * Parses steps until the next character does not start a step.
+         *
+         * @return the steps
+         */
+        private List<Step> parseSteps() {
+            List<Step> steps = new ArrayList<>();
+            while (true) {
+                if (accept('.')) {
+                    if (accept('.')) {
+                        steps.add(new DescendantStep());
+                        if (peek() == '[') {
+                            steps.add(parseBracket());
+                            continue;
+                        }
+                    }
+                    steps.add(accept('*') ? new WildcardStep()
+                              : new NameStep(parseName()));
+                } else if (peek() == '[') {
+                    steps.add(parseBracket());
+                } else {
+                    return steps;
+                }
+            }
+        }
+
+        /**
+         * Parses a step in brackets.
+         *
+         * @return the step
+         */
+        private Step parseBracket() {
+            expect('[');
+            skipWhitespace();
+            Step step;
+            if (accept('*')) {
+                step = new WildcardStep();
+            } else if (accept('?')) {
+                expect('(');
+                step = new FilterStep(parseOr());
+                skipWhitespace();
+                expect(')');
+            } else if (peek() == ':' || isInteger() && isSlice()) {
+                step = parseSlice();
+            } else {
+                step = parseUnion();
+            }
+            skipWhitespace();
+            expect(']');
+            return step;
+        }
+
+        /**
+         * Parses a union of names and indices.
+         *
+         * @return the step
+         */
+        private Step parseUnion() {
+            List<Step> steps = new ArrayList<>();
+            do {
+                skipWhitespace();
+                if (isQuote(peek())) {
+                    steps.add(new NameStep(parseString()));
+                } else if (isInteger()) {
+                    steps.add(new IndexStep(parseInteger()));
+                } else {
+                    throw error("expected name or index");
+                }
+                skipWhitespace();
+            } while (accept(','));
+            return steps.size() == 1 ? steps.get(0) : new UnionStep(steps);
+        }
+
+        /**
+         * Parses a slice.
+         *
+         * @return the step
+         */
+        private Step parseSlice() {
+            Integer start = parseOptionalInteger();
+            expect(':');
+            Integer end = parseOptionalInteger();
+            Integer step = null;
+            if (accept(':')) {
+                step = parseOptionalInteger();
+            }
+            if (step != null && step == 0) {
+                throw error("slice step must not be zero");
+            }
+            return new SliceStep(start, end, step == null ? 1 : step);
+        }
+
+        /**
+         * Parses a disjunction of filters.
+         *
+         * @return the filter
+         */
+        private Predicate<YamlNode> parseOr() {
+            Predicate<YamlNode> filter = parseAnd();
+            skipWhitespace();
+            while (accept("||")) {
+                filter = filter.or(parseAnd());
+                skipWhitespace();
+            }
+            return filter;
+        }
+
+        /**
+         * Parses a conjunction of filters.
+         *
+         * @return the filter
+         */
+        private Predicate<YamlNode> parseAnd() {
+            Predicate<YamlNode> filter = parseUnary();
+            skipWhitespace();
+            while (accept("&&")) {
+                filter = filter.and(parseUnary());
+                skipWhitespace();
+            }
+            return filter;
+        }
+
+        /**
+         * Parses a negated, parenthesized or comparing filter.
+         *
+         * @return the filter
+         */
+        private Predicate<YamlNode> parseUnary() {
+            skipWhitespace();
+            if (accept('!')) {
+                return parseUnary().negate();
+            } else if (accept('(')) {
+                Predicate<YamlNode> filter = parseOr();
+                skipWhitespace();
+                expect(')');
+                return filter;
+            }
+            boolean path = peek() == '@';
+            Operand left = parseOperand();
+            skipWhitespace();
+            Operator operator = parseOperator();
+            if (operator == null) {
+                if (!path) {
+                    throw error("expected comparison");
+                }
+                return current -> left.anyMatch(current, node -> true);
+            }
+            skipWhitespace();
+            Operand right = parseOperand();
+            return current -> left.anyMatch(current, a -> right
+                    .anyMatch(current, b -> operator.test(a, b)));
+        }
+
+        /**
+         * Parses a comparison operator.
+         *
+         * @return the operator, or {@code null} if there is none
+         */
+        private Operator parseOperator() {
+            for (Operator operator : Operator.values()) {
+                if (accept(operator.symbol)) {
+                    return operator;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Parses a path relative to the tested node or a literal.
+         *
+         * @return the operand
+         */
+        private Operand parseOperand() {
+            if (accept('@')) {
+                int start = this.position - 1;
+                List<Step> steps = parseSteps();
+                YamlQuery query = new YamlQuery(
+                        this.expression.substring(start, this.position), steps);
+                return (current, predicate) -> !query
+                        .select(current, 0, node -> !predicate.test(node));
+            }
+            YamlNode literal = parseLiteral();
+            return (current, predicate) -> predicate.test(literal);
+        }
+
+        /**
+         * Parses a literal.
+         *
+         * @return the literal
+         */
+        private YamlNode parseLiteral() {
+            char c = peek();
+            if (isQuote(c)) {
+                return FACTORY.textNode(parseString());
+            } else if (c == '-' || isDigit(c)) {
+                int start = this.position;
+                accept('-');
+                while (isDigit(peek()) || peek() == '.' || peek() == 'e' ||
+                       peek() == 'E' || (peek() == '+' || peek() == '-') &&
+                                        isExponent(this.position - 1)) {
+                    ++this.position;
+                }
+                try {
+                    return FACTORY.bigDecimalNode(new BigDecimal(
+                            this.expression.substring(start, this.position)));
+                } catch (NumberFormatException e) {
+                    this.position = start;
+                    throw error("invalid number");
+                }
+            } else if (accept("true")) {
+                return FACTORY.booleanNode(true);
+            } else if (accept("false")) {
+                return FACTORY.booleanNode(false);
+            } else if (accept("null")) {
+                return FACTORY.nullNode();
+            }
+            throw error("expected path or literal");
+        }
+
+        /**
+         * Parses a name in dot notation.
+         *
+         * @return the name
+         */
+        private String parseName() {
+            int start = this.position;
+            while (isNameCharacter(peek())) {
+                ++this.position;
+            }
+            if (start == this.position) {
+                throw error("expected name");
+            }
+            return this.expression.substring(start, this.position);
+        }
+
+        /**
+         * Parses a quoted string, in which backslashes escape the following
+         * character.
+         *
+         * @return the string
+         */
+        private String parseString() {
+            char quote = peek();
+            int start = this.position++;
+            StringBuilder builder = new StringBuilder();
+            while (this.position < this.expression.length()) {
+                char c = this.expression.charAt(this.position++);
+                if (c == quote) {
+                    return builder.toString();
+                } else if (c == '\\' &&
+                           this.position < this.expression.length()) {
+                    c = this.expression.charAt(this.position++);
+                }
+                builder.append(c);
+            }
+            this.position = start;
+            throw error("unterminated string");
+        }
+
+        /**
+         * Parses an integer, if there is one.
+         *
+         * @return the integer, or {@code null}
+         */
+        private Integer parseOptionalInteger() {
+            skipWhitespace();
+            Integer integer = isInteger() ? parseInteger() : null;
+            skipWhitespace();
+            return integer;
+        }
+
+        /**
+         * Parses an integer.
+         *
+         * @return the integer
+         */
+        private int parseInteger() {
+            int start = this.position;
+            accept('-');
+            while (isDigit(peek())) {
+                ++this.position;
+            }
+            try {
+                return Integer.parseInt(
+                        this.expression.substring(start, this.position));
+            } catch (NumberFormatException e) {
+                this.position = start;
+                throw error("invalid integer");
+            }
+        }
+
+        /**
+         * Checks if an integer starts at the current position.
+         *
+         * @return if an integer starts
+         */
+        private boolean isInteger() {
+            int i = this.position;
+            if (i < this.expression.length() &&
+                this.expression.charAt(i) == '-') {
+                ++i;
+            }
+            return i < this.expression.length() &&
+                   isDigit(this.expression.charAt(i));
+        }
+
+        /**
+         * Checks if the integer at the current position is followed by a
+         * colon.
+         *
+         * @return if a slice starts
+         */
+        private boolean isSlice() {
+            int i = this.position + 1;
+            while (i < this.expression.length() &&
+                   isDigit(this.expression.charAt(i))) {
+                ++i;
+            }
+            while (i < this.expression.length() &&
+                   Character.isWhitespace(this.expression.charAt(i))) {
+                ++i;
+            }
+            return i < this.expression.length() &&
+                   this.expression.charAt(i) == ':';
+        }
+
+        /**
+         * Checks if the character at the specified position is the exponent
+         * marker of a number.
+         *
+         * @param i the position
+         *
+         * @return if it is an exponent marker
+         */
+        private boolean isExponent(int i) {
+            char c = this.expression.charAt(i);
+            return c == 'e' || c == 'E';
+        }
+
+        /**
+         * Gets the current character.
+         *
+         * @return the character, or {@code 0} at the end of the expression
+         */
+        private char peek() {
+            return this.position < this.expression.length()
+                   ? this.expression.charAt(this.position) : '\0';
+        }
+
+        /**
+         * Skips the current character if it is {@code c}.
+         *
+         * @param c the character
+         *
+         * @return if the character was skipped
+         */
+        private boolean accept(char c) {
+            if (peek() == c) {
+                ++this.position;
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Skips {@code s} if the expression continues with it.
+         *
+         * @param s the string
+         *
+         * @return if the string was skipped
+         */
+        private boolean accept(String s) {
+            if (this.expression.startsWith(s, this.position)) {
+                this.position += s.length();
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Skips the current character, which has to be {@code c}.
+         *
+         * @param c the character
+         */
+        private void expect(char c) {
+            if (!accept(c)) {
+                throw error("expected '" + c + "'");
+            }
+        }
+
+        /**
+         * Skips whitespace.
+         */
+        private void skipWhitespace() {
+            while (Character.isWhitespace(peek())) {
+                ++this.position;
+            }
+        }
+
+        /**
+         * Creates an exception for an invalid expression.
+         *
+         * @param message the message
+         *
+         * @return the exception
+         */
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(String.format(
+                    "%s at position %d in query: %s",
+                    message, this.position, this.expression));
+        }
+
+        /**
+         * Checks if the character is a decimal digit.
+         *
+         * @param c the character
+         *
+         * @return if it is a digit
+         */
+        private static boolean isDigit(char c) {
+            return c >= '0' && c <= '9';
+        }
+
+        /**
+         * Checks if the character is a quote.
+         *
+         * @param c the character
+         *
+         * @return if it is a quote
+         */
+        private static boolean isQuote(char c) {
+            return c == '\'' || c == '"';
+        }
+
+        /**
+         * Checks if the character may be part of a name in dot notation.
+         *
+         * @param c the character
+         *
+         * @return if it is a name character
+         */
+        private static boolean isNameCharacter(char c) {
+            return Character.isLetterOrDigit(c) || c == '_' || c == '-';
+        }
+    }
+}
@@ -0,0 +1,917 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StreamCorruptedException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+
+import com.github.autermann.yaml.nodes.YamlBigIntegerNode;
+import com.github.autermann.yaml.nodes.YamlBinaryNode;
+import com.github.autermann.yaml.nodes.YamlBooleanNode;
+import com.github.autermann.yaml.nodes.YamlByteNode;
+import com.github.autermann.yaml.nodes.YamlDecimalNode;
+import com.github.autermann.yaml.nodes.YamlDoubleArrayNode;
+import com.github.autermann.yaml.nodes.YamlDoubleNode;
+import com.github.autermann.yaml.nodes.YamlFloatNode;
+import com.github.autermann.yaml.nodes.YamlIntegerNode;
+import com.github.autermann.yaml.nodes.YamlIntegralNode;
+import com.github.autermann.yaml.nodes.YamlLongArrayNode;
+import com.github.autermann.yaml.nodes.YamlLongNode;
+import com.github.autermann.yaml.nodes.YamlMapNode;
+import com.github.autermann.yaml.nodes.YamlMappingNode;
+import com.github.autermann.yaml.nodes.YamlNullNode;
+import com.github.autermann.yaml.nodes.YamlOrderedMapNode;
+import com.github.autermann.yaml.nodes.YamlPairsNode;
+import com.github.autermann.yaml.nodes.YamlSeqNode;
+import com.github.autermann.yaml.nodes.YamlSequenceNode;
+import com.github.autermann.yaml.nodes.YamlSetNode;
+import com.github.autermann.yaml.nodes.YamlShortNode;
+import com.github.autermann.yaml.nodes.YamlTextNode;
+import com.github.autermann.yaml.nodes.YamlTimeNode;
+import com.google.common.io.ByteStreams;
+
+/**
+ * Compact binary snapshot of a {@link YamlNode} tree. Every node is written
+ * as a tag byte followed by its payload: integral numbers as zig-zag
+ * varints of their exact width, floating point numbers as their raw bits,
+ * binary nodes as raw bytes and time nodes as epoch milliseconds and zone
+ * id. Text keys of mappings and zone ids are written once and referenced
+ * by index afterwards. Reading a snapshot does not involve the YAML parser
+ * or resolver and is considerably faster than loading the text.
+ *
+ * @author Christian Autermann
+ */
+final class YamlSnapshot {
+    /**
+     * The magic number at the start of every snapshot ({@code YSNP}).
+     */
+    private static final int MAGIC = 0x59534e50;
+    /**
+     * The version of the snapshot format.
+     */
+    private static final int VERSION = 1;
+    /**
+     * The size of the output buffer.
+     */
+    private static final int BUFFER_SIZE = 8192;
+    /**
+     * Tag of a {@link YamlNullNode} or a missing node.
+     */
+    private static final int NULL = 0;
+    /**
+     * Tag of the {@code true} {@link YamlBooleanNode}.
+     */
+    private static final int TRUE = 1;
+    /**
+     * Tag of the {@code false} {@link YamlBooleanNode}.
+     */
+    private static final int FALSE = 2;
+    /**
+     * Tag of a {@link YamlByteNode}.
+     */
+    private static final int BYTE = 3;
+    /**
+     * Tag of a {@link YamlShortNode}.
+     */
+    private static final int SHORT = 4;
+    /**
+     * Tag of a {@link YamlIntegerNode}.
+     */
+    private static final int INT = 5;
+    /**
+     * Tag of a {@link YamlLongNode}.
+     */
+    private static final int LONG = 6;
+    /**
+     * Tag of a {@link YamlBigIntegerNode}.
+     */
+    private static final int BIG_INTEGER = 7;
+    /**
+     * Tag of a {@link YamlFloatNode}.
+     */
+    private static final int FLOAT = 8;
+    /**
+     * Tag of a {@link YamlDoubleNode}.
+     */
+    private static final int DOUBLE = 9;
+    /**
+     * Tag of a {@link com.github.autermann.yaml.nodes.YamlBigDecimalNode}.
+     */
+    private static final int BIG_DECIMAL = 10;
+    /**
+     * Tag of a {@link YamlTextNode}.
+     */
+    private static final int TEXT = 11;
+    /**
+     * Tag of a {@link YamlBinaryNode}.
+     */
+    private static final int BINARY = 12;
+    /**
+     * Tag of a {@link YamlTimeNode}.
+     */
+    private static final int TIME = 13;
+    /**
+     * Tag of a {@link YamlMapNode}.
+     */
+    private static final int MAP = 14;
+    /**
+     * Tag of a {@link YamlOrderedMapNode}.
+     */
+    private static final int ORDERED_MAP = 15;
+    /**
+     * Tag of a {@link YamlPairsNode}.
+     */
+    private static final int PAIRS = 16;
+    /**
+     * Tag of a {@link YamlSeqNode}.
+     */
+    private static final int SEQ = 17;
+    /**
+     * Tag of a {@link YamlSetNode}.
+     */
+    private static final int SET = 18;
+    /**
+     * Tag of a {@link YamlLongArrayNode}.
+     */
+    private static final int LONG_ARRAY = 19;
+    /**
+     * Tag of a {@link YamlDoubleArrayNode}.
+     */
+    private static final int DOUBLE_ARRAY = 20;
+    /**
+     * Tag of a {@link YamlTextNode} in the key dictionary.
+     */
+    private static final int KEY = 21;
+
+    /**
+     * Private constructor for utility class.
+     */
+    private YamlSnapshot() {
+    }
+
+    /**
+     * Writes a snapshot of the specified node. The stream is not closed.
+     *
+     * @param node   the node
+     * @param output the output stream
+     *
+     * @throws IOException if writing fails
+     */
+    static void write(YamlNode node, OutputStream output)
+            throws IOException {
+        Encoder encoder = new Encoder(output);
+        try {
+            encoder.writeInt(MAGIC);
+            encoder.writeByte(VERSION);
+            encoder.writeNode(node);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        encoder.flush();
+    }
+
+    /**
+     * Reads a snapshot from the specified stream. The stream is read to its
+     * end but not closed.
+     *
+     * @param input   the input stream
+     * @param factory the factory for the nodes
+     *
+     * @return the node
+     *
+     * @throws IOException if reading fails or the snapshot is malformed
+     */
+    static YamlNode read(InputStream input, YamlNodeFactory factory)
+            throws IOException {
+        return read(ByteStreams.toByteArray(input), factory);
+    }
+
+    /**
+     * Reads a snapshot from the specified bytes.
+     *
+     * @param bytes   the bytes
+     * @param factory the factory for the nodes
+     *
+     * @return the node
+     *
+     * @throws IOException if the snapshot is malformed
+     */
+    static YamlNode read(byte[] bytes, YamlNodeFactory factory)
+            throws IOException {
+        Decoder decoder = new Decoder(bytes, factory);
+        if (bytes.length < 5 || decoder.readInt() != MAGIC) {
+            throw new StreamCorruptedException("Not a YAML snapshot");
+        }
+        int version = decoder.readByte();
+        if (version != VERSION) {
+            throw new StreamCorruptedException(
+                    "Unsupported snapshot version: " + version);
+        }
+        YamlNode node = decoder.readNode();
+        if (decoder.position != bytes.length) {
+            throw new StreamCorruptedException(
+                    "Trailing bytes after snapshot");
+        }
+        return node;
+    }
+
+    /**
+     * Visitor that encodes the nodes into a buffer that is flushed to the
+     * output stream when full. As visitors can not throw checked
+     * exceptions, failures of the stream are rethrown as
+     * {@link UncheckedIOException}.
+     */
+    private static class Encoder implements YamlNodeVisitor {
+        /**
+         * The output stream.
+         */
+        private final OutputStream output;
+        /**
+         * The indices of the written mapping keys.
+         */
+        private final Map<String, Integer> keys = new HashMap<>();
+        /**
+         * The indices of the written zone ids.
+         */
+        private final Map<String, Integer> zones = new HashMap<>();
+        /**
+         * The buffer.
+         */
+        private byte[] buffer = new byte[BUFFER_SIZE];
+        /**
+         * The number of bytes in the {@link #buffer}.
+         */
+        private int position;
+
+        /**
+         * Creates a new {@link Encoder}.
+         *
+         * @param output the output stream
+         */
+        Encoder(OutputStream output) {
+            this.output = output;
+        }
+
+        /**
+         * Writes the buffered bytes to the output stream.
+         *
+         * @throws IOException if writing fails
+         */
+        void flush()
+                throws IOException {
+            output.write(buffer, 0, position);
+            position = 0;
+        }
+
+        /**
+         * Ensures that the buffer has room for the specified number of
+         * bytes, flushing it or growing it if necessary.
+         *
+         * @param length the number of bytes
+         */
+        private void ensure(int length) {
+            if (buffer.length - position >= length) {
+                return;
+            }
+            try {
+                flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (buffer.length < length) {
+                buffer = new byte[Math.max(length, buffer.length * 2)];
+            }
+        }
+
+        /**
+         * Writes a single byte.
+         *
+         * @param value the byte
+         */
+        void writeByte(int value) {
+            ensure(1);
+            buffer[position++] = (byte) value;
+        }
+
+        /**
+         * Writes a big-endian 32 bit value.
+         *
+         * @param value the value
+         */
+        void writeInt(int value) {
+            ensure(4);
+            buffer[position++] = (byte) (value >>> 24);
+            buffer[position++] = (byte) (value >>> 16);
+            buffer[position++] = (byte) (value >>> 8);
+            buffer[position++] = (byte) value;
+        }
+
+        /**
+         * Writes a big-endian 64 bit value.
+         *
+         * @param value the value
+         */
+        void writeLong(long value) {
+            writeInt((int) (value >>> 32));
+            writeInt((int) value);
+        }
+
+        /**
+         * Writes an unsigned varint of up to 64 bits.
+         *
+         * @param value the value
+         */
+        void writeVarint(long value) {
+            ensure(10);
+            while ((value & ~0x7fL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7f) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        /**
+         * Writes a signed value as zig-zag varint.
+         *
+         * @param value the value
+         */
+        void writeSigned(long value) {
+            writeVarint((value << 1) ^ (value >> 63));
+        }
+
+        /**
+         * Writes a length prefixed byte array.
+         *
+         * @param bytes the bytes
+         */
+        void writeBytes(byte[] bytes) {
+            writeVarint(bytes.length);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        /**
+         * Writes a length prefixed UTF-8 string. Strings consisting of ASCII
+         * characters only are copied to the buffer without encoder.
+         *
+         * @param value the string
+         */
+        void writeString(String value) {
+            int length = value.length();
+            ensure(10 + length);
+            int start = position;
+            writeVarint(length);
+            for (int i = 0; i < length; ++i) {
+                char c = value.charAt(i);
+                if (c >= 0x80) {
+                    // rewind and fall back to the encoder
+                    position = start;
+                    writeBytes(value.getBytes(StandardCharsets.UTF_8));
+                    return;
+                }
+                buffer[position++] = (byte) c;
+            }
+        }
+
+        /**
+         * Writes a string from a dictionary: the index of the string plus
+         * one if it was written before, or {@code 0} followed by the
+         * string.
+         *
+         * @param dictionary the dictionary
+         * @param value      the string
+         */
+        void writeSymbol(Map<String, Integer> dictionary, String value) {
+            Integer index = dictionary.get(value);
+            if (index != null) {
+                writeVarint(index + 1);
+            } else {
+                dictionary.put(value, dictionary.size());
+                writeVarint(0);
+                writeString(value);
+            }
+        }
+
+        /**
+         * Writes the specified node. {@code null} and missing nodes are
+         * written as null nodes.
+         *
+         * @param node the node
+         */
+        void writeNode(YamlNode node) {
+            if (node == null || !node.exists()) {
+                writeByte(NULL);
+            } else {
+                node.accept(this);
+            }
+        }
+
+        /**
+         * Writes the key of a mapping entry. Text keys are written to the
+         * key dictionary.
+         *
+         * @param key the key
+         */
+        private void writeKey(YamlNode key) {
+            if (key instanceof YamlTextNode) {
+                writeByte(KEY);
+                writeSymbol(keys, key.textValue());
+            } else {
+                writeNode(key);
+            }
+        }
+
+        /**
+         * Writes the entries of the specified mapping.
+         *
+         * @param tag  the tag of the mapping
+         * @param node the mapping
+         */
+        private void writeMapping(int tag, YamlMappingNode<?> node) {
+            writeByte(tag);
+            writeVarint(node.size());
+            for (Entry<YamlNode, YamlNode> entry : node.entries()) {
+                writeKey(entry.getKey());
+                writeNode(entry.getValue());
+            }
+        }
+
+        /**
+         * Writes the elements of the specified sequence.
+         *
+         * @param tag  the tag of the sequence
+         * @param node the sequence
+         */
+        private void writeSequence(int tag, YamlSequenceNode<?> node) {
+            Collection<YamlNode> value = node.value();
+            writeByte(tag);
+            writeVarint(value.size());
+            for (YamlNode child : value) {
+                writeNode(child);
+            }
+        }
+
+        @Override
+        public void visit(YamlMapNode node) {
+            writeMapping(MAP, node);
+        }
+
+        @Override
+        public void visit(YamlOrderedMapNode node) {
+            writeMapping(ORDERED_MAP, node);
+        }
+
+        @Override
+        public void visit(YamlPairsNode node) {
+            writeMapping(PAIRS, node);
+        }
+
+        @Override
+        public void visit(YamlSeqNode node) {
+            if (node instanceof YamlLongArrayNode) {
+                writeSequence(LONG_ARRAY, node);
+            } else if (node instanceof YamlDoubleArrayNode) {
+                writeSequence(DOUBLE_ARRAY, node);
+            } else {
+                writeSequence(SEQ, node);
+            }
+        }
+
+        @Override
+        public void visit(YamlSetNode node) {
+            writeSequence(SET, node);
+        }
+
+        @Override
+        public void visit(YamlBinaryNode node) {
+            writeByte(BINARY);
+            writeBytes(node.binaryValue());
+        }
+
+        @Override
+        public void visit(YamlBooleanNode node) {
+            writeByte(node.booleanValue() ? TRUE : FALSE);
+        }
+
+        @Override
+        public void visit(YamlDecimalNode node) {
+            if (node instanceof YamlDoubleNode) {
+                writeByte(DOUBLE);
+                writeLong(Double.doubleToRawLongBits(node.doubleValue()));
+            } else if (node instanceof YamlFloatNode) {
+                writeByte(FLOAT);
+                writeInt(Float.floatToRawIntBits(node.floatValue()));
+            } else {
+                BigDecimal value = node.bigDecimalValue();
+                writeByte(BIG_DECIMAL);
+                writeSigned(value.scale());
+                writeBytes(value.unscaledValue().toByteArray());
+            }
+        }
+
+        @Override
+        public void visit(YamlIntegralNode node) {
+            if (node instanceof YamlIntegerNode) {
+                writeByte(INT);
+                writeSigned(node.intValue());
+            } else if (node instanceof YamlLongNode) {
+                writeByte(LONG);
+                writeSigned(node.longValue());
+            } else if (node instanceof YamlShortNode) {
+                writeByte(SHORT);
+                writeSigned(node.shortValue());
+            } else if (node instanceof YamlByteNode) {
+                writeByte(BYTE);
+                writeByte(node.byteValue());
+            } else {
+                writeByte(BIG_INTEGER);
+                writeBytes(node.bigIntegerValue().toByteArray());
+            }
+        }
+
+        @Override
+        public void visit(YamlNullNode node) {
+            writeByte(NULL);
+        }
+
+        @Override
+        public void visit(YamlTextNode node) {
+            writeByte(TEXT);
+            writeString(node.textValue());
+        }
+
+        @Override
+        public void visit(YamlTimeNode node) {
+            DateTime value = node.dateTimeValue();
+            writeByte(TIME);
+            writeSigned(value.getMillis());
+            writeSymbol(zones, value.getZone().getID());
+        }
+    }
+
+    /**
+     * Decoder of the nodes in a snapshot.
+     */
+    private static class Decoder {
+        /**
+         * The bytes of the snapshot.
+         */
+        private final byte[] bytes;
+        /**
+         * The node factory.
+         */
+        private final YamlNodeFactory factory;
+        /**
+         * The key nodes of the key dictionary.
+         */
+        private final List<YamlNode> keys = new ArrayList<>();
+        /**
+         * The zones of the zone dictionary.
+         */
+        private final List<DateTimeZone> zones = new ArrayList<>();
+        /**
+         * The position of the next byte.
+         */
+        private int position;
+
+        /**
+         * Creates a new {@link Decoder}.
+         *
+         * @param bytes   the bytes of the snapshot
+         * @param factory the node factory
+         */
+        Decoder(byte[] bytes, YamlNodeFactory factory) {
+            this.bytes = bytes;
+            this.factory = factory;
+        }
+
+        /**
+         * Checks that the specified number of bytes is available.
+         *
+         * @param length the number of bytes
+         *
+         * @throws EOFException if the snapshot ends before
+         */
+        private void require(int length)
+                throws EOFException {
+            if (length < 0 || bytes.length - position < length) {
+                throw new EOFException("Unexpected end of snapshot");
+            }
+        }
+
+        /**
+         * Reads a single unsigned byte.
+         *
+         * @return the byte
+         *
+         * @throws EOFException if the snapshot ends before
+         */
+        int readByte()
+                throws EOFException {
+            require(1);
+            return bytes[position++] & 0xff;
+        }
+
+        /**
+         * Reads a big-endian 32 bit value.
+         *
+         * @return the value
+         *
+         * @throws EOFException if the snapshot ends before
+         */
+        int readInt()
+                throws EOFException {
+            require(4);
+            return (bytes[position++] & 0xff) << 24 |
+                   (bytes[position++] & 0xff) << 16 |
+                   (bytes[position++] & 0xff) << 8 |
+                   (bytes[position++] & 0xff);
+        }
+
+        /**
+         * Reads a big-endian 64 bit value.
+         *
+         * @return the value
+         *
+         * @throws EOFException if the snapshot ends before
+         */
+        long readLong()
+                throws EOFException {
+            return ((long) readInt() << 32) | (readInt() & 0xffffffffL);
+        }
+
+        /**
+         * Reads an unsigned varint of up to 64 bits.
+         *
+         * @return the value
+         *
+         * @throws IOException if the varint is truncated or too long
+         */
+        long readVarint()
+                throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                require(1);
+                byte b = bytes[position++];
+                value |= (long) (b & 0x7f) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new StreamCorruptedException("Malformed varint");
+        }
+
+        /**
+         * Reads a varint that denotes a length or an index.
+         *
+         * @return the value
+         *
+         * @throws IOException if the varint is malformed or too large
+         */
+        int readLength()
+                throws IOException {
+            long value = readVarint();
+            if (value < 0 || value > Integer.MAX_VALUE) {
+                throw new StreamCorruptedException("Invalid length: " + value);
+            }
+            return (int) value;
+        }
+
+        /**
+         * Reads a zig-zag encoded varint.
+         *
+         * @return the value
+         *
+         * @throws IOException if the varint is malformed
+         */
+        long readSigned()
+                throws IOException {
+            long value = readVarint();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        /**
+         * Reads a length prefixed byte array.
+         *
+         * @return the bytes
+         *
+         * @throws IOException if the snapshot is malformed
+         */
+        byte[] readBytes()
+                throws IOException {
+            int length = readLength();
+            require(length);
+            byte[] value = new byte[length];
+            System.arraycopy(bytes, position, value, 0, length);
+            position += length;
+            return value;
+        }
+
+        /**
+         * Reads a length prefixed UTF-8 string.
+         *
+         * @return the string
+         *
+         * @throws IOException if the snapshot is malformed
+         */
+        String readString()
+                throws IOException {
+            int length = readLength();
+            require(length);
+            String value = new String(bytes, position, length,
+                                      StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        /**
+         * Reads the index of a dictionary entry. A new entry is denoted by
+         * {@code -1} and followed by its string.
+         *
+         * @param size the size of the dictionary
+         *
+         * @return the index or {@code -1}
+         *
+         * @throws IOException if the index is out of range
+         */
+        private int readSymbol(int size)
+                throws IOException {
+            int index = readLength() - 1;
+            if (index >= size) {
+                throw new StreamCorruptedException(
+                        "Invalid dictionary index: " + index);
+            }
+            return index;
+        }
+
+        /**
+         * Reads a key from the key dictionary.
+         *
+         * @return the key node
+         *
+         * @throws IOException if the snapshot is malformed
+         */
+        private YamlNode readKey()
+                throws IOException {
+            int index = readSymbol(keys.size());
+            if (index >= 0) {
+                return keys.get(index);
+            }
+            YamlNode key = factory.textNode(readString());
+            keys.add(key);
+            return key;
+        }
+
+        /**
+         * Reads a zone from the zone dictionary.
+         *
+         * @return the zone
+         *
+         * @throws IOException if the snapshot is malformed
+         */
+        private DateTimeZone readZone()
+                throws IOException {
+            int index = readSymbol(zones.size());
+            if (index >= 0) {
+                return zones.get(index);
+            }
+            String id = readString();
+            DateTimeZone zone;
+            try {
+                zone = DateTimeZone.forID(id);
+            } catch (IllegalArgumentException e) {
+                throw new StreamCorruptedException("Unknown zone: " + id);
+            }
+            zones.add(zone);
+            return zone;
+        }
+
+        /**
+         * Reads the entries of a mapping.
+         *
+         * @param node the empty mapping
+         *
+         * @return the mapping
+         *
+         * @throws IOException if the snapshot is malformed
+         */
+        private YamlNode readMapping(YamlMappingNode<?> node)
+                throws IOException {
+            for (int i = readLength(); i > 0; --i) {
+                YamlNode key = readNode();
+                node.put(key, readNode());
+            }
+            return node;
+        }
+
+        /**
+         * Reads the elements of a sequence.
+         *
+         * @param node the empty sequence
+         *
+         * @return the sequence
+         *
+         * @throws IOException if the snapshot is malformed
+         */
+        private YamlNode readSequence(YamlSequenceNode<?> node)
+                throws IOException {
+            for (int i = readLength(); i > 0; --i) {
+                node.add(readNode());
+            }
+            return node;
+        }
+
+        /**
+         * Reads the next node.
+         *
+         * @return the node
+         *
+         * @throws IOException if the snapshot is malformed
+         */
+        YamlNode readNode()
+                throws IOException {
+            int tag = readByte();
+            switch (tag) {
+                case NULL:
+                    return factory.nullNode();
+                case TRUE:
+                    return factory.booleanNode(true);
+                case FALSE:
+                    return factory.booleanNode(false);
+                case BYTE:
+                    return factory.byteNode((byte) readByte());
+                case SHORT:
+                    return factory.shortNode((short) readSigned());
+                case INT:
+                    return factory.intNode((int) readSigned());
+                case LONG:
+                    return factory.longNode(readSigned());
+                case BIG_INTEGER:
+                    return factory.bigIntegerNode(new BigInteger(readBytes()));
+                case FLOAT:
+                    return factory.floatNode(Float.intBitsToFloat(readInt()));
+                case DOUBLE:
+                    return factory.doubleNode(Double.longBitsToDouble(readLong()));
+                case BIG_DECIMAL:
+                    int scale = (int) readSigned();
+                    return factory.bigDecimalNode(
+                            new BigDecimal(new BigInteger(readBytes()), scale));
+                case TEXT:
+                    return factory.textNode(readString());
+                case BINARY:
+                    return factory.binaryNode(readBytes());
+                case TIME:
+                    long millis = readSigned();
+                    return factory.dateTimeNode(new DateTime(millis, readZone()));
+                case KEY:
+                    return readKey();
+                case MAP:
+                    return readMapping(factory.mapNode());
+                case ORDERED_MAP:
+                    return readMapping(factory.orderedMapNode());
+                case PAIRS:
+                    return readMapping(factory.pairsNode());
+                case SEQ:
+                    return readSequence(factory.sequenceNode());
+                case SET:
+                    return readSequence(factory.setNode());
+                case LONG_ARRAY:
+                    return readSequence(factory.longArrayNode());
+                case DOUBLE_ARRAY:
+                    return readSequence(factory.doubleArrayNode());
+                default:
+                    throw new StreamCorruptedException("Unknown node tag: " + tag);
+            }
+        }
+    }
+}
@@ -0,0 +1,397 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.bind;
+
+import static java.lang.invoke.MethodType.methodType;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import com.google.common.base.Throwables;
+import com.google.common.primitives.Primitives;
+
+/**
+ * The metadata of a bound class: how to create instances and how to access
+ * its properties. The properties are the non-static, non-transient and
+ * non-final fields of the class and its superclasses.
+ * <p>
+ * The metadata is computed once per class. Public constructors, getters and
+ * setters of public classes are called through functional interfaces created
+ * with the {@link LambdaMetafactory}, that the JIT can inline like handwritten
+ * code. Fields without accessors and non-public members are accessed through
+ * {@link MethodHandle}s.
+ *
+ * @author Christian Autermann
+ */
+final class BeanType {
+    /**
+     * The lookup to create the accessors with.
+     */
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    /**
+     * The metadata of the bound classes.
+     */
+    private static final ClassValue<BeanType> TYPES = new ClassValue<BeanType>() {
+        @Override
+        protected BeanType computeValue(Class<?> type) {
+            return new BeanType(type);
+        }
+    };
+    /**
+     * The bound class.
+     */
+    private final Class<?> type;
+    /**
+     * The constructor of the bound class.
+     */
+    private final Supplier<Object> constructor;
+    /**
+     * The properties in declaration order.
+     */
+    private final List<Property> properties;
+    /**
+     * The properties by name.
+     */
+    private final Map<String, Property> propertiesByName;
+
+    /**
+     * Creates the metadata of the specified class.
+     *
+     * @param type the class
+     */
+    private BeanType(Class<?> type) {
+        this.type = type;
+        this.constructor = constructor(type);
+        List<Property> list = new ArrayList<>();
+        Map<String, Property> map = new HashMap<>();
+        for (Field field : fields(type)) {
+            Property property = new Property(
+                    field.getName(),
+                    Converters.forType(field.getGenericType()),
+                    getter(type, field),
+                    setter(type, field),
+                    field.getType().isPrimitive());
+            list.add(property);
+            map.put(property.getName(), property);
+        }
+        this.properties = Collections.unmodifiableList(list);
+        this.propertiesByName = map;
+    }
+
+    /**
+     * Gets the bound class.
+     *
+     * @return the class
+     */
+    Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * Creates a new instance of the bound class.
+     *
+     * @return the instance
+     */
+    Object newInstance() {
+        return constructor.get();
+    }
+
+    /**
+     * Gets the properties in declaration order.
+     *
+     * @return the properties
+     */
+    List<Property> getProperties() {
+        return properties;
+    }
+
+    /**
+     * Gets the property with the specified name.
+     *
+     * @param name the name
+     *
+     * @return the property, or {@code null} if there is none
+     */
+    Property getProperty(String name) {
+        return propertiesByName.get(name);
+    }
+
+    /**
+     * Gets the metadata of the specified class.
+     *
+     * @param type the class
+     *
+     * @return the metadata
+     *
+     * @throws IllegalArgumentException if the class can not be bound
+     */
+    static BeanType of(Class<?> type) {
+        return TYPES.get(type);
+    }
+
+    /**
+     * Gets the bound fields of the class and its superclasses, superclass
+     * fields first.
+     *
+     * @param type the class
+     *
+     * @return the fields
+     */
+    private static List<Field> fields(Class<?> type) {
+        List<Field> fields = new ArrayList<>();
+        if (type.getSuperclass() != null) {
+            fields.addAll(fields(type.getSuperclass()));
+        }
+        for (Field field : type.getDeclaredFields()) {
+            int modifiers = field.getModifiers();
+            if (!Modifier.isStatic(modifiers) &&
+                !Modifier.isTransient(modifiers) &&
+                !Modifier.isFinal(modifiers) && !field.isSynthetic()) {
+                fields.add(field);
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * Creates the constructor of the class.
+     *
+     * @param type the class
+     *
+     * @return the constructor
+     */
+    @SuppressWarnings("unchecked")
+    private static Supplier<Object> constructor(Class<?> type) {
+        Constructor<?> constructor;
+        try {
+            constructor = type.getDeclaredConstructor();
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException(
+                    "no default constructor: " + type.getName(), e);
+        }
+        if (Modifier.isAbstract(type.getModifiers())) {
+            throw new IllegalArgumentException(
+                    "can not instantiate " + type.getName());
+        }
+        if (isAccessible(constructor.getModifiers(), type)) {
+            try {
+                MethodHandle handle = LOOKUP.unreflectConstructor(constructor);
+                CallSite site = LambdaMetafactory.metafactory(
+                        LOOKUP, "get", methodType(Supplier.class),
+                        methodType(Object.class), handle, methodType(type));
+                return (Supplier<Object>) site.getTarget().invoke();
+            } catch (Throwable t) {
+                // fall back to a method handle
+            }
+        }
+        constructor.setAccessible(true);
+        MethodHandle handle = unreflect(() -> LOOKUP
+                .unreflectConstructor(constructor))
+                .asType(methodType(Object.class));
+        return () -> {
+            try {
+                return handle.invokeExact();
+            } catch (Throwable t) {
+                throw Throwables.propagate(t);
+            }
+        };
+    }
+
+    /**
+     * Creates the accessor reading the field. Uses the public getter of
+     * the field if there is one.
+     *
+     * @param type  the bound class
+     * @param field the field
+     *
+     * @return the accessor
+     */
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> getter(Class<?> type, Field field) {
+        Method method = accessor(type, field, "get", field.getType());
+        if (method == null && field.getType() == boolean.class) {
+            method = accessor(type, field, "is", field.getType());
+        }
+        if (method != null) {
+            try {
+                MethodHandle handle = LOOKUP.unreflect(method);
+                CallSite site = LambdaMetafactory.metafactory(
+                        LOOKUP, "apply", methodType(Function.class),
+                        methodType(Object.class, Object.class), handle,
+                        methodType(Primitives.wrap(field.getType()),
+                                   method.getDeclaringClass()));
+                return (Function<Object, Object>) site.getTarget().invoke();
+            } catch (Throwable t) {
+                // fall back to the field
+            }
+        }
+        field.setAccessible(true);
+        MethodHandle handle = unreflect(() -> LOOKUP.unreflectGetter(field))
+                .asType(methodType(Object.class, Object.class));
+        return bean -> {
+            try {
+                return handle.invokeExact(bean);
+            } catch (Throwable t) {
+                throw Throwables.propagate(t);
+            }
+        };
+    }
+
+    /**
+     * Creates the accessor writing the field. Uses the public setter of
+     * the field if there is one.
+     *
+     * @param type  the bound class
+     * @param field the field
+     *
+     * @return the accessor
+     */
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> setter(Class<?> type,
+                                                     Field field) {
+        Method method = accessor(type, field, "set", void.class,
+                                 field.getType());
+        if (method != null) {
+            try {
+                MethodHandle handle = LOOKUP.unreflect(method);
+                CallSite site = LambdaMetafactory.metafactory(
+                        LOOKUP, "accept", methodType(BiConsumer.class),
+                        methodType(void.class, Object.class, Object.class),
+                        handle, methodType(void.class,
+                                           method.getDeclaringClass(),
+                                           Primitives.wrap(field.getType())));
+                return (BiConsumer<Object, Object>) site.getTarget().invoke();
+            } catch (Throwable t) {
+                // fall back to the field
+            }
+        }
+        field.setAccessible(true);
+        MethodHandle handle = unreflect(() -> LOOKUP.unreflectSetter(field))
+                .asType(methodType(void.class, Object.class, Object.class));
+        return (bean, value) -> {
+            try {
+                handle.invokeExact(bean, value);
+            } catch (Throwable t) {
+                throw Throwables.propagate(t);
+            }
+        };
+    }
+
+    /**
+     * Finds a public accessor method of a field, like {@code getName()} or
+     * {@code setName(String)}, that can be called from a lambda.
+     *
+     * @param type       the bound class
+     * @param field      the field
+     * @param prefix     the prefix of the method name
+     * @param returnType the return type of the method
+     * @param parameters the parameter types of the method
+     *
+     * @return the method, or {@code null} if there is none
+     */
+    private static Method accessor(Class<?> type, Field field, String prefix,
+                                   Class<?> returnType,
+                                   Class<?>... parameters) {
+        String name = field.getName();
+        String methodName = prefix + Character.toUpperCase(name.charAt(0)) +
+                            name.substring(1);
+        try {
+            Method method = type.getMethod(methodName, parameters);
+            if (method.getReturnType() == returnType &&
+                !Modifier.isStatic(method.getModifiers()) &&
+                isAccessible(method.getModifiers(),
+                             method.getDeclaringClass())) {
+                return method;
+            }
+        } catch (NoSuchMethodException e) {
+            // no accessor
+        }
+        return null;
+    }
+
+    /**
+     * Checks if a member with the specified modifiers of the specified class
+     * can be called directly from a lambda: the member, the class and all of
+     * its enclosing classes have to be public and the class has to be
+     * visible from the class loader of this class.
+     *
+     * @param modifiers the modifiers of the member
+     * @param type      the class
+     *
+     * @return if the member can be called
+     */
+    private static boolean isAccessible(int modifiers, Class<?> type) {
+        if (!Modifier.isPublic(modifiers)) {
+            return false;
+        }
+        for (Class<?> c = type; c != null; c = c.getEnclosingClass()) {
+            if (!Modifier.isPublic(c.getModifiers())) {
+                return false;
+            }
+        }
+        try {
+            return Class.forName(type.getName(), false,
+                                 BeanType.class.getClassLoader()) == type;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * Creates a method handle, rethrowing the {@link IllegalAccessException}
+     * unchecked. The member has to be made accessible before.
+     *
+     * @param unreflector the function creating the method handle
+     *
+     * @return the method handle
+     */
+    private static MethodHandle unreflect(Unreflector unreflector) {
+        try {
+            return unreflector.unreflect();
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    /**
+     * Creates a method handle of a reflected member.
+     */
+    @FunctionalInterface
+    private interface Unreflector {
+        /**
+         * Creates the method handle.
+         *
+         * @return the method handle
+         *
+         * @throws IllegalAccessException if the member is not accessible
+         */
+        MethodHandle unreflect() throws IllegalAccessException;
+    }
+}
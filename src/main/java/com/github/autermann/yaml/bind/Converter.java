@@ -0,0 +1,59 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.bind;
+
+import org.yaml.snakeyaml.nodes.Node;
+
+import com.github.autermann.yaml.YamlNode;
+
+/**
+ * Converts values of a Java type from and to nodes. Converters are only
+ * called with nodes and values that are not {@code null}.
+ *
+ * @author Christian Autermann
+ */
+interface Converter {
+
+    /**
+     * Converts a {@link YamlNode} to a value.
+     *
+     * @param node   the node
+     * @param binder the binder
+     *
+     * @return the value
+     */
+    Object fromNode(YamlNode node, YamlBinder binder);
+
+    /**
+     * Converts a node of a composed SnakeYAML document to a value.
+     *
+     * @param node   the node
+     * @param binder the binder
+     *
+     * @return the value
+     */
+    Object fromNode(Node node, YamlBinder binder);
+
+    /**
+     * Converts a value to a {@link YamlNode}.
+     *
+     * @param value  the value
+     * @param binder the binder
+     *
+     * @return the node
+     */
+    YamlNode toNode(Object value, YamlBinder binder);
+}
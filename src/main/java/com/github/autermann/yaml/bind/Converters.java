@@ -0,0 +1,663 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.bind;
+
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.joda.time.DateTime;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeTuple;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.SequenceNode;
+import org.yaml.snakeyaml.nodes.Tag;
+
+import com.github.autermann.yaml.YamlNode;
+import com.github.autermann.yaml.YamlNodeFactory;
+import com.github.autermann.yaml.nodes.YamlMappingNode;
+import com.github.autermann.yaml.nodes.YamlSequenceNode;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.primitives.Primitives;
+
+/**
+ * Factory methods for the {@link Converter}s of Java types. Supported are
+ * primitives and their wrappers, {@code String}, {@code BigInteger},
+ * {@code BigDecimal}, {@code byte[]}, {@code Date}, {@code DateTime},
+ * enumerations, {@link YamlNode}s, collections, maps and classes with a
+ * default constructor, which are bound by their fields.
+ *
+ * @author Christian Autermann
+ */
+final class Converters {
+    /**
+     * The converters of scalar types.
+     */
+    private static final Map<Class<?>, Converter> SCALARS
+            = ImmutableMap.<Class<?>, Converter>builder()
+            .put(boolean.class, scalar(YamlNode::asBooleanValue,
+                                       (f, v) -> f.booleanNode((Boolean) v)))
+            .put(byte.class, scalar(YamlNode::asByteValue,
+                                    (f, v) -> f.byteNode((Byte) v)))
+            .put(short.class, scalar(YamlNode::asShortValue,
+                                     (f, v) -> f.shortNode((Short) v)))
+            .put(int.class, scalar(YamlNode::asIntValue,
+                                   (f, v) -> f.intNode((Integer) v)))
+            .put(long.class, scalar(YamlNode::asLongValue,
+                                    (f, v) -> f.longNode((Long) v)))
+            .put(float.class, scalar(YamlNode::asFloatValue,
+                                     (f, v) -> f.floatNode((Float) v)))
+            .put(double.class, scalar(YamlNode::asDoubleValue,
+                                      (f, v) -> f.doubleNode((Double) v)))
+            .put(BigInteger.class, scalar(YamlNode::asBigIntegerValue,
+                                          (f, v) -> f.bigIntegerNode((BigInteger) v)))
+            .put(BigDecimal.class, scalar(YamlNode::asBigDecimalValue,
+                                          (f, v) -> f.bigDecimalNode((BigDecimal) v)))
+            .put(String.class, scalar(YamlNode::asTextValue,
+                                      (f, v) -> f.textNode((String) v)))
+            .put(byte[].class, scalar(YamlNode::asBinaryValue,
+                                      (f, v) -> f.binaryNode((byte[]) v)))
+            .put(Date.class, scalar(YamlNode::asDateValue,
+                                    (f, v) -> f.dateTimeNode((Date) v)))
+            .put(DateTime.class, scalar(YamlNode::asDateTimeValue,
+                                        (f, v) -> f.dateTimeNode((DateTime) v)))
+            .build();
+    /**
+     * The converters of classes.
+     */
+    private static final ClassValue<Converter> CONVERTERS
+            = new ClassValue<Converter>() {
+        @Override
+        protected Converter computeValue(Class<?> type) {
+            return create(type);
+        }
+    };
+
+    /**
+     * Private constructor for utility class.
+     */
+    private Converters() {
+    }
+
+    /**
+     * Gets the converter of the specified type.
+     *
+     * @param type the type
+     *
+     * @return the converter
+     *
+     * @throws IllegalArgumentException if the type is not supported
+     */
+    static Converter forType(Type type) {
+        if (type instanceof Class) {
+            return CONVERTERS.get((Class<?>) type);
+        } else if (type instanceof ParameterizedType) {
+            ParameterizedType parameterized = (ParameterizedType) type;
+            Class<?> raw = (Class<?>) parameterized.getRawType();
+            Type[] arguments = parameterized.getActualTypeArguments();
+            if (Collection.class.isAssignableFrom(raw)) {
+                return collection(raw, arguments[0]);
+            } else if (Map.class.isAssignableFrom(raw)) {
+                return map(raw, arguments[0], arguments[1]);
+            }
+            return forType(raw);
+        } else if (type instanceof WildcardType) {
+            return forType(((WildcardType) type).getUpperBounds()[0]);
+        } else if (type instanceof TypeVariable) {
+            return forType(((TypeVariable<?>) type).getBounds()[0]);
+        } else if (type instanceof GenericArrayType) {
+            throw new IllegalArgumentException("unsupported type: " + type);
+        }
+        throw new IllegalArgumentException("unknown type: " + type);
+    }
+
+    /**
+     * Gets the converter of the class of the specified value. Collections
+     * and maps are converted like a {@code Set}, {@code List} or
+     * {@code Map}, as their classes may not be instantiable.
+     *
+     * @param value the value
+     *
+     * @return the converter
+     *
+     * @throws IllegalArgumentException if the class is not supported
+     */
+    static Converter forValue(Object value) {
+        if (value instanceof Set) {
+            return forType(Set.class);
+        } else if (value instanceof Collection) {
+            return forType(List.class);
+        } else if (value instanceof Map) {
+            return forType(Map.class);
+        }
+        return forType(value.getClass());
+    }
+
+    /**
+     * Creates the converter of the specified class.
+     *
+     * @param type the class
+     *
+     * @return the converter
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static Converter create(Class<?> type) {
+        Class<?> unwrapped = Primitives.unwrap(type);
+        if (SCALARS.containsKey(unwrapped)) {
+            return SCALARS.get(unwrapped);
+        } else if (type.isEnum()) {
+            return scalar(node -> enumValue((Class) type, node.asTextValue()),
+                          (f, v) -> f.textNode(((Enum<?>) v).name()));
+        } else if (YamlNode.class.isAssignableFrom(type) ||
+                   type == Object.class) {
+            return new NodeConverter(type);
+        } else if (Collection.class.isAssignableFrom(type)) {
+            return collection(type, Object.class);
+        } else if (Map.class.isAssignableFrom(type)) {
+            return map(type, Object.class, Object.class);
+        } else if (type.isArray() || type.isPrimitive() ||
+                   type.isInterface() ||
+                   Modifier.isAbstract(type.getModifiers())) {
+            throw new IllegalArgumentException("unsupported type: " + type);
+        }
+        return new BeanConverter(type);
+    }
+
+    /**
+     * Creates a converter of a collection type.
+     *
+     * @param type    the collection class
+     * @param element the element type
+     *
+     * @return the converter
+     */
+    private static Converter collection(Class<?> type, Type element) {
+        Supplier<Collection<Object>> supplier;
+        if (type.isAssignableFrom(ArrayList.class)) {
+            supplier = ArrayList::new;
+        } else if (type.isAssignableFrom(LinkedHashSet.class)) {
+            supplier = LinkedHashSet::new;
+        } else if (type.isAssignableFrom(TreeSet.class)) {
+            supplier = TreeSet::new;
+        } else if (type == EnumSet.class) {
+            throw new IllegalArgumentException("unsupported type: " + type);
+        } else {
+            supplier = instantiator(type);
+        }
+        return new CollectionConverter(forType(element), supplier,
+                                       Set.class.isAssignableFrom(type));
+    }
+
+    /**
+     * Creates a converter of a map type.
+     *
+     * @param type  the map class
+     * @param key   the key type
+     * @param value the value type
+     *
+     * @return the converter
+     */
+    private static Converter map(Class<?> type, Type key, Type value) {
+        Supplier<Map<Object, Object>> supplier;
+        if (type.isAssignableFrom(LinkedHashMap.class)) {
+            supplier = LinkedHashMap::new;
+        } else if (type == SortedMap.class || type == NavigableMap.class ||
+                   type == TreeMap.class) {
+            supplier = TreeMap::new;
+        } else if (type == EnumMap.class) {
+            throw new IllegalArgumentException("unsupported type: " + type);
+        } else {
+            supplier = instantiator(type);
+        }
+        return new MapConverter(forType(key), forType(value), supplier);
+    }
+
+    /**
+     * Creates a supplier of instances of a concrete collection or map class
+     * with a default constructor.
+     *
+     * @param <T>  the type of the instances
+     * @param type the class
+     *
+     * @return the supplier
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> Supplier<T> instantiator(Class<?> type) {
+        if (type.isInterface() || Modifier.isAbstract(type.getModifiers()) ||
+            type == SortedSet.class || type == NavigableSet.class) {
+            throw new IllegalArgumentException("unsupported type: " + type);
+        }
+        BeanType bean = BeanType.of(type);
+        return () -> (T) bean.newInstance();
+    }
+
+    /**
+     * Creates the converter of a scalar type.
+     *
+     * @param reader the function reading the value of a node
+     * @param writer the function creating the node of a value
+     *
+     * @return the converter
+     */
+    private static Converter scalar(
+            Function<YamlNode, Object> reader,
+            BiFunction<YamlNodeFactory, Object, YamlNode> writer) {
+        return new ScalarConverter(reader, writer);
+    }
+
+    /**
+     * Gets the constant of an enumeration.
+     *
+     * @param <E>  the type of the enumeration
+     * @param type the class of the enumeration
+     * @param name the name of the constant
+     *
+     * @return the constant
+     */
+    private static <E extends Enum<E>> E enumValue(Class<E> type, String name) {
+        try {
+            return Enum.valueOf(type, name);
+        } catch (IllegalArgumentException e) {
+            throw new YAMLException(String.format(
+                    "no constant %s in %s", name, type.getName()), e);
+        }
+    }
+
+    /**
+     * Creates the exception for a node of an unexpected kind.
+     *
+     * @param expected the expected kind
+     * @param node     the node
+     *
+     * @return the exception
+     */
+    private static YAMLException unexpected(String expected, Node node) {
+        return new YAMLException(String.format(
+                "expected a %s, but found %s%s", expected,
+                node.getNodeId(), node.getStartMark()));
+    }
+
+    /**
+     * Creates the exception for a node of an unexpected kind.
+     *
+     * @param expected the expected kind
+     * @param node     the node
+     *
+     * @return the exception
+     */
+    private static YAMLException unexpected(String expected, YamlNode node) {
+        return new YAMLException(String.format(
+                "expected a %s, but found %s", expected, node.tag()));
+    }
+
+    /**
+     * Converts scalars with functions reading and creating
+     * {@link YamlNode}s.
+     */
+    private static final class ScalarConverter implements Converter {
+        /**
+         * The function reading the value of a node.
+         */
+        private final Function<YamlNode, Object> reader;
+        /**
+         * The function creating the node of a value.
+         */
+        private final BiFunction<YamlNodeFactory, Object, YamlNode> writer;
+
+        /**
+         * Creates a new {@link ScalarConverter}.
+         *
+         * @param reader the function reading the value of a node
+         * @param writer the function creating the node of a value
+         */
+        ScalarConverter(Function<YamlNode, Object> reader,
+                        BiFunction<YamlNodeFactory, Object, YamlNode> writer) {
+            this.reader = reader;
+            this.writer = writer;
+        }
+
+        @Override
+        public Object fromNode(YamlNode node, YamlBinder binder) {
+            if (!node.isScalar()) {
+                throw unexpected("scalar", node);
+            }
+            return reader.apply(node);
+        }
+
+        @Override
+        public Object fromNode(Node node, YamlBinder binder) {
+            if (!(node instanceof ScalarNode)) {
+                throw unexpected("scalar", node);
+            }
+            return reader.apply(binder.constructScalar((ScalarNode) node));
+        }
+
+        @Override
+        public YamlNode toNode(Object value, YamlBinder binder) {
+            return writer.apply(binder.getNodeFactory(), value);
+        }
+    }
+
+    /**
+     * Converts {@link YamlNode}s to themselves. Values of other types, that
+     * can be contained in properties of type {@code Object}, are converted
+     * using their class.
+     */
+    private static final class NodeConverter implements Converter {
+        /**
+         * The node class.
+         */
+        private final Class<?> type;
+
+        /**
+         * Creates a new {@link NodeConverter}.
+         *
+         * @param type the node class
+         */
+        NodeConverter(Class<?> type) {
+            this.type = type;
+        }
+
+        @Override
+        public Object fromNode(YamlNode node, YamlBinder binder) {
+            return check(node);
+        }
+
+        @Override
+        public Object fromNode(Node node, YamlBinder binder) {
+            return check(binder.constructNode(node));
+        }
+
+        @Override
+        public YamlNode toNode(Object value, YamlBinder binder) {
+            if (value instanceof YamlNode) {
+                return (YamlNode) value;
+            }
+            return Converters.forValue(value).toNode(value, binder);
+        }
+
+        /**
+         * Checks that the node is an instance of the node class.
+         *
+         * @param node the node
+         *
+         * @return the node
+         */
+        private YamlNode check(YamlNode node) {
+            if (!type.isInstance(node)) {
+                throw new YAMLException(String.format(
+                        "expected a %s, but found %s", type.getSimpleName(),
+                        node.getClass().getSimpleName()));
+            }
+            return node;
+        }
+    }
+
+    /**
+     * Converts sequences and sets to collections.
+     */
+    private static final class CollectionConverter implements Converter {
+        /**
+         * The converter of the elements.
+         */
+        private final Converter element;
+        /**
+         * The supplier of new collections.
+         */
+        private final Supplier<Collection<Object>> supplier;
+        /**
+         * If the collection is converted to a set node.
+         */
+        private final boolean set;
+
+        /**
+         * Creates a new {@link CollectionConverter}.
+         *
+         * @param element  the converter of the elements
+         * @param supplier the supplier of new collections
+         * @param set      if the collection is converted to a set node
+         */
+        CollectionConverter(Converter element,
+                            Supplier<Collection<Object>> supplier,
+                            boolean set) {
+            this.element = element;
+            this.supplier = supplier;
+            this.set = set;
+        }
+
+        @Override
+        public Object fromNode(YamlNode node, YamlBinder binder) {
+            if (!(node instanceof YamlSequenceNode)) {
+                throw unexpected("sequence", node);
+            }
+            Collection<Object> collection = supplier.get();
+            for (YamlNode child : node) {
+                collection.add(binder.read(child, element));
+            }
+            return collection;
+        }
+
+        @Override
+        public Object fromNode(Node node, YamlBinder binder) {
+            Collection<Object> collection = supplier.get();
+            if (node instanceof SequenceNode) {
+                for (Node child : ((SequenceNode) node).getValue()) {
+                    collection.add(binder.read(child, element));
+                }
+            } else if (node instanceof MappingNode &&
+                       node.getTag().equals(Tag.SET)) {
+                for (NodeTuple tuple : ((MappingNode) node).getValue()) {
+                    collection.add(binder.read(tuple.getKeyNode(), element));
+                }
+            } else {
+                throw unexpected("sequence", node);
+            }
+            return collection;
+        }
+
+        @Override
+        public YamlNode toNode(Object value, YamlBinder binder) {
+            YamlNodeFactory factory = binder.getNodeFactory();
+            YamlSequenceNode<?> node = set ? factory.setNode()
+                                           : factory.sequenceNode();
+            for (Object child : (Collection<?>) value) {
+                node.add(binder.write(child, element));
+            }
+            return node;
+        }
+    }
+
+    /**
+     * Converts mappings to maps.
+     */
+    private static final class MapConverter implements Converter {
+        /**
+         * The converter of the keys.
+         */
+        private final Converter key;
+        /**
+         * The converter of the values.
+         */
+        private final Converter value;
+        /**
+         * The supplier of new maps.
+         */
+        private final Supplier<Map<Object, Object>> supplier;
+
+        /**
+         * Creates a new {@link MapConverter}.
+         *
+         * @param key      the converter of the keys
+         * @param value    the converter of the values
+         * @param supplier the supplier of new maps
+         */
+        MapConverter(Converter key, Converter value,
+                     Supplier<Map<Object, Object>> supplier) {
+            this.key = key;
+            this.value = value;
+            this.supplier = supplier;
+        }
+
+        @Override
+        public Object fromNode(YamlNode node, YamlBinder binder) {
+            if (!(node instanceof YamlMappingNode)) {
+                throw unexpected("mapping", node);
+            }
+            Map<Object, Object> map = supplier.get();
+            for (Entry<YamlNode, YamlNode> entry
+                         : ((YamlMappingNode<?>) node).entries()) {
+                map.put(binder.read(entry.getKey(), key),
+                        binder.read(entry.getValue(), value));
+            }
+            return map;
+        }
+
+        @Override
+        public Object fromNode(Node node, YamlBinder binder) {
+            if (!(node instanceof MappingNode)) {
+                throw unexpected("mapping", node);
+            }
+            Map<Object, Object> map = supplier.get();
+            for (NodeTuple tuple : ((MappingNode) node).getValue()) {
+                map.put(binder.read(tuple.getKeyNode(), key),
+                        binder.read(tuple.getValueNode(), value));
+            }
+            return map;
+        }
+
+        @Override
+        public YamlNode toNode(Object value, YamlBinder binder) {
+            YamlMappingNode<?> node = binder.getNodeFactory().orderedMapNode();
+            for (Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                node.put(binder.write(entry.getKey(), key),
+                         binder.write(entry.getValue(), this.value));
+            }
+            return node;
+        }
+    }
+
+    /**
+     * Converts mappings to objects, binding their fields.
+     */
+    private static final class BeanConverter implements Converter {
+        /**
+         * The bound class.
+         */
+        private final Class<?> type;
+        /**
+         * The metadata of the bound class, created on first use.
+         */
+        private BeanType bean;
+
+        /**
+         * Creates a new {@link BeanConverter}.
+         *
+         * @param type the bound class
+         */
+        BeanConverter(Class<?> type) {
+            this.type = type;
+        }
+
+        /**
+         * Gets the metadata of the bound class.
+         *
+         * @return the metadata
+         */
+        private BeanType bean() {
+            BeanType metadata = bean;
+            if (metadata == null) {
+                bean = metadata = BeanType.of(type);
+            }
+            return metadata;
+        }
+
+        @Override
+        public Object fromNode(YamlNode node, YamlBinder binder) {
+            if (!(node instanceof YamlMappingNode)) {
+                throw unexpected("mapping", node);
+            }
+            BeanType metadata = bean();
+            Object object = metadata.newInstance();
+            for (Property property : metadata.getProperties()) {
+                YamlNode child = node.path(property.getName());
+                if (child.exists()) {
+                    property.set(object, binder.read(child,
+                                                     property.getConverter()));
+                }
+            }
+            return object;
+        }
+
+        @Override
+        public Object fromNode(Node node, YamlBinder binder) {
+            if (!(node instanceof MappingNode)) {
+                throw unexpected("mapping", node);
+            }
+            BeanType metadata = bean();
+            Object object = metadata.newInstance();
+            for (NodeTuple tuple : ((MappingNode) node).getValue()) {
+                Node key = tuple.getKeyNode();
+                if (key instanceof ScalarNode) {
+                    Property property = metadata
+                            .getProperty(((ScalarNode) key).getValue());
+                    if (property != null) {
+                        property.set(object, binder.read(
+                                tuple.getValueNode(), property.getConverter()));
+                    }
+                }
+            }
+            return object;
+        }
+
+        @Override
+        public YamlNode toNode(Object value, YamlBinder binder) {
+            YamlMappingNode<?> node = binder.getNodeFactory().orderedMapNode();
+            for (Property property : bean().getProperties()) {
+                node.put(binder.getNodeFactory().textNode(property.getName()),
+                         binder.write(property.get(value),
+                                      property.getConverter()));
+            }
+            return node;
+        }
+    }
+}
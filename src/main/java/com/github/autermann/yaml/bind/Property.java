@@ -0,0 +1,109 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.bind;
+
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * A property of a bound class.
+ *
+ * @author Christian Autermann
+ */
+final class Property {
+    /**
+     * The name of the property.
+     */
+    private final String name;
+    /**
+     * The converter of the property values.
+     */
+    private final Converter converter;
+    /**
+     * The accessor reading the property.
+     */
+    private final Function<Object, Object> getter;
+    /**
+     * The accessor writing the property.
+     */
+    private final BiConsumer<Object, Object> setter;
+    /**
+     * If the property has a primitive type.
+     */
+    private final boolean primitive;
+
+    /**
+     * Creates a new {@link Property}.
+     *
+     * @param name      the name of the property
+     * @param converter the converter of the property values
+     * @param getter    the accessor reading the property
+     * @param setter    the accessor writing the property
+     * @param primitive if the property has a primitive type
+     */
+    Property(String name, Converter converter,
+             Function<Object, Object> getter,
+             BiConsumer<Object, Object> setter,
+             boolean primitive) {
+        this.name = name;
+        this.converter = converter;
+        this.getter = getter;
+        this.setter = setter;
+        this.primitive = primitive;
+    }
+
+    /**
+     * Gets the name of the property.
+     *
+     * @return the name
+     */
+    String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the converter of the property values.
+     *
+     * @return the converter
+     */
+    Converter getConverter() {
+        return converter;
+    }
+
+    /**
+     * Reads the property.
+     *
+     * @param bean the object
+     *
+     * @return the value
+     */
+    Object get(Object bean) {
+        return getter.apply(bean);
+    }
+
+    /**
+     * Writes the property. Primitive properties keep their value if
+     * {@code value} is {@code null}.
+     *
+     * @param bean  the object
+     * @param value the value
+     */
+    void set(Object bean, Object value) {
+        if (value != null || !primitive) {
+            setter.accept(bean, value);
+        }
+    }
+}
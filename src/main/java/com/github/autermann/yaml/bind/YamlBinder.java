@@ -0,0 +1,240 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.bind;
+
+import java.util.Objects;
+
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.Tag;
+
+import com.github.autermann.yaml.YamlNode;
+import com.github.autermann.yaml.YamlNodeFactory;
+import com.github.autermann.yaml.construct.YamlNodeConstructor;
+import com.google.common.primitives.Primitives;
+
+/**
+ * Binds {@link YamlNode}s to plain Java objects and back. Objects are bound
+ * by their non-static, non-transient and non-final fields, which are read
+ * from and written to the mapping entries with the field names as keys.
+ * Entries without a field are ignored. Fields can be primitives and their
+ * wrappers, {@code String}, {@code BigInteger}, {@code BigDecimal},
+ * {@code byte[]}, {@code Date}, {@code DateTime}, enumerations (by name),
+ * {@link YamlNode}s, collections, maps and other bound classes. Bound
+ * classes need a default constructor.
+ * <pre>
+ * YamlBinder binder = new YamlBinder();
+ * Config config = binder.bind(node, Config.class);
+ * YamlNode copy = binder.unbind(config);
+ * </pre>
+ * <p>
+ * The metadata of a class is computed once. Public constructors, getters and
+ * setters are called through generated lambdas, other members through
+ * method handles, so binding does not use reflection on the hot path.
+ * {@link #bind(Node, Class)} binds composed SnakeYAML nodes directly:
+ * only scalars are constructed as {@link YamlNode}s, and entries without a
+ * field are not constructed at all.
+ *
+ * @author Christian Autermann
+ * @see com.github.autermann.yaml.Yaml#load(String, Class)
+ */
+public class YamlBinder {
+    /**
+     * The node factory.
+     */
+    private final YamlNodeFactory nodeFactory;
+    /**
+     * The constructor for composed SnakeYAML nodes.
+     */
+    private final YamlNodeConstructor constructor;
+
+    /**
+     * Creates a new {@link YamlBinder} using the default
+     * {@link YamlNodeFactory}.
+     */
+    public YamlBinder() {
+        this(YamlNodeFactory.createDefault());
+    }
+
+    /**
+     * Creates a new {@link YamlBinder} using the specified
+     * {@link YamlNodeFactory}.
+     *
+     * @param nodeFactory the node factory
+     */
+    public YamlBinder(YamlNodeFactory nodeFactory) {
+        this(nodeFactory, new DumperOptions());
+    }
+
+    /**
+     * Creates a new {@link YamlBinder} using the specified
+     * {@link YamlNodeFactory} and {@link DumperOptions}.
+     *
+     * @param nodeFactory   the node factory
+     * @param dumperOptions the dumper options
+     */
+    public YamlBinder(YamlNodeFactory nodeFactory,
+                      DumperOptions dumperOptions) {
+        this.nodeFactory = Objects.requireNonNull(nodeFactory);
+        this.constructor = new YamlNodeConstructor(
+                nodeFactory, Objects.requireNonNull(dumperOptions), true);
+    }
+
+    /**
+     * Gets the node factory.
+     *
+     * @return the node factory
+     */
+    public YamlNodeFactory getNodeFactory() {
+        return nodeFactory;
+    }
+
+    /**
+     * Binds the node to an instance of the specified type.
+     *
+     * @param <T>  the type
+     * @param node the node
+     * @param type the class of the type
+     *
+     * @return the instance, or {@code null} if the node is {@code null},
+     *         a null node or missing
+     *
+     * @throws IllegalArgumentException if the type can not be bound
+     * @throws org.yaml.snakeyaml.error.YAMLException if the node does not
+     *                                                match the type
+     */
+    public <T> T bind(YamlNode node, Class<T> type) {
+        if (node == null) {
+            return null;
+        }
+        Class<T> wrapped = Primitives.wrap(type);
+        return wrapped.cast(read(node, Converters.forType(wrapped)));
+    }
+
+    /**
+     * Binds a node of a composed SnakeYAML document to an instance of the
+     * specified type, without constructing a {@link YamlNode} tree first.
+     *
+     * @param <T>  the type
+     * @param node the node
+     * @param type the class of the type
+     *
+     * @return the instance, or {@code null} if the node is {@code null} or
+     *         a null node
+     *
+     * @throws IllegalArgumentException if the type can not be bound
+     * @throws org.yaml.snakeyaml.error.YAMLException if the node does not
+     *                                                match the type
+     * @see org.yaml.snakeyaml.Yaml#compose(java.io.Reader)
+     */
+    public <T> T bind(Node node, Class<T> type) {
+        if (node == null) {
+            return null;
+        }
+        Class<T> wrapped = Primitives.wrap(type);
+        return wrapped.cast(read(node, Converters.forType(wrapped)));
+    }
+
+    /**
+     * Converts the value to a {@link YamlNode}. Bound classes and maps are
+     * converted to {@link com.github.autermann.yaml.nodes.YamlOrderedMapNode}s.
+     *
+     * @param value the value
+     *
+     * @return the node
+     *
+     * @throws IllegalArgumentException if the class of the value can not be
+     *                                  bound
+     */
+    public YamlNode unbind(Object value) {
+        if (value == null) {
+            return nodeFactory.nullNode();
+        }
+        if (value instanceof YamlNode) {
+            return (YamlNode) value;
+        }
+        return Converters.forValue(value).toNode(value, this);
+    }
+
+    /**
+     * Converts the node with the specified converter.
+     *
+     * @param node      the node
+     * @param converter the converter
+     *
+     * @return the value, or {@code null} for null and missing nodes
+     */
+    Object read(YamlNode node, Converter converter) {
+        if (!node.exists() || node.isNull()) {
+            return null;
+        }
+        return converter.fromNode(node, this);
+    }
+
+    /**
+     * Converts the node with the specified converter.
+     *
+     * @param node      the node
+     * @param converter the converter
+     *
+     * @return the value, or {@code null} for null nodes
+     */
+    Object read(Node node, Converter converter) {
+        if (node.getTag().equals(Tag.NULL)) {
+            return null;
+        }
+        return converter.fromNode(node, this);
+    }
+
+    /**
+     * Converts the value with the specified converter.
+     *
+     * @param value     the value
+     * @param converter the converter
+     *
+     * @return the node, or a null node if the value is {@code null}
+     */
+    YamlNode write(Object value, Converter converter) {
+        if (value == null) {
+            return nodeFactory.nullNode();
+        }
+        return converter.toNode(value, this);
+    }
+
+    /**
+     * Constructs a scalar of a composed SnakeYAML document.
+     *
+     * @param node the node
+     *
+     * @return the constructed node
+     */
+    YamlNode constructScalar(ScalarNode node) {
+        return constructor.constructScalarNode(node);
+    }
+
+    /**
+     * Constructs a node of a composed SnakeYAML document. Containers are
+     * constructed lazily.
+     *
+     * @param node the node
+     *
+     * @return the constructed node
+     */
+    YamlNode constructNode(Node node) {
+        return constructor.constructLazily(node);
+    }
+}
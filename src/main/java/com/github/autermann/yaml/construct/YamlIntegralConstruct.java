@@ -23,7 +23,10 @@ import com.github.autermann.yaml.util.Numbers;
 
 /**
  * Constructs a {@link com.github.autermann.yaml.nodes.YamlIntegralNode} from a
- * scalar node.
+ * scalar node. Decimal, binary ({@code 0b}), octal ({@code 0}), hexadecimal
+ * ({@code 0x}) and base 60 ({@code 1:30}) values with optional sign and
+ * {@code _} separators are supported. Values are parsed into a {@code long}
+ * and only fall back to a {@link BigInteger} if they do not fit.
  *
  * @see com.github.autermann.yaml.nodes.YamlByteNode
  * @see com.github.autermann.yaml.nodes.YamlShortNode
@@ -46,19 +49,140 @@ public class YamlIntegralConstruct extends YamlScalarNodeConstruct {
 
     @Override
     public YamlScalarNode construct(String value) {
-        BigInteger number = new BigInteger(value);
+        int length = value.length();
+        int start = 0;
+        boolean negative = false;
+        if (length > 0) {
+            char first = value.charAt(0);
+            if (first == '-') {
+                negative = true;
+                start = 1;
+            } else if (first == '+') {
+                start = 1;
+            }
+        }
+        if (value.indexOf(':', start) >= 0) {
+            return construct(parseSexagesimal(value, start, negative));
+        }
+        int radix = 10;
+        if (value.startsWith("0b", start)) {
+            radix = 2;
+            start += 2;
+        } else if (value.startsWith("0x", start)) {
+            radix = 16;
+            start += 2;
+        } else if (value.startsWith("0", start) && length > start + 1) {
+            radix = 8;
+            start += 1;
+        }
+        // accumulate negatively to be able to represent Long.MIN_VALUE
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long multiplicationLimit = limit / radix;
+        long number = 0;
+        // the leading zero of an octal value is a digit itself
+        boolean empty = radix != 8;
+        for (int i = start; i < length; ++i) {
+            char c = value.charAt(i);
+            if (c == '_') {
+                continue;
+            }
+            int digit = Character.digit(c, radix);
+            if (digit < 0) {
+                throw new NumberFormatException(value);
+            }
+            if (number < multiplicationLimit ||
+                number * radix < limit + digit) {
+                return construct(parseBigInteger(value, start, radix, negative));
+            }
+            number = number * radix - digit;
+            empty = false;
+        }
+        if (empty) {
+            throw new NumberFormatException(value);
+        }
+        return construct(negative ? number : -number);
+    }
+
+    /**
+     * Creates the smallest {@link YamlScalarNode} that can hold the supplied
+     * value.
+     *
+     * @param number the value
+     *
+     * @return the node
+     */
+    private YamlScalarNode construct(long number) {
         YamlNodeFactory nodeFactory = getNodeFactory();
         if (Numbers.fitsIntoByte(number)) {
-            return nodeFactory.byteNode(number.byteValue());
+            return nodeFactory.byteNode((byte) number);
         } else if (Numbers.fitsIntoShort(number)) {
-            return nodeFactory.shortNode(number.shortValue());
+            return nodeFactory.shortNode((short) number);
         } else if (Numbers.fitsIntoInt(number)) {
-            return nodeFactory.intNode(number.intValue());
-        } else if (Numbers.fitsIntoLong(number)) {
-            return nodeFactory.longNode(number.longValue());
+            return nodeFactory.intNode((int) number);
+        } else {
+            return nodeFactory.longNode(number);
+        }
+    }
+
+    /**
+     * Creates the smallest {@link YamlScalarNode} that can hold the supplied
+     * value.
+     *
+     * @param number the value
+     *
+     * @return the node
+     */
+    private YamlScalarNode construct(BigInteger number) {
+        if (Numbers.fitsIntoLong(number)) {
+            return construct(number.longValue());
         } else {
-            return nodeFactory.bigIntegerNode(number);
+            return getNodeFactory().bigIntegerNode(number);
+        }
+    }
+
+    /**
+     * Parses the digits of a value that does not fit into a {@code long}.
+     *
+     * @param value    the value
+     * @param start    the index of the first digit
+     * @param radix    the radix of the digits
+     * @param negative if the value is negative
+     *
+     * @return the value
+     */
+    private static BigInteger parseBigInteger(String value, int start,
+                                              int radix, boolean negative) {
+        StringBuilder digits = new StringBuilder(value.length() - start + 1);
+        if (negative) {
+            digits.append('-');
+        }
+        for (int i = start; i < value.length(); ++i) {
+            char c = value.charAt(i);
+            if (c != '_') {
+                digits.append(c);
+            }
+        }
+        return new BigInteger(digits.toString(), radix);
+    }
+
+    /**
+     * Parses a base 60 value like {@code 190:20:30}.
+     *
+     * @param value    the value
+     * @param start    the index of the first digit
+     * @param negative if the value is negative
+     *
+     * @return the value
+     */
+    private static BigInteger parseSexagesimal(String value, int start,
+                                               boolean negative) {
+        BigInteger sixty = BigInteger.valueOf(60);
+        BigInteger number = BigInteger.ZERO;
+        for (String part : value.substring(start).split(":")) {
+            BigInteger digit = parseBigInteger(part, 0, 10, false);
+            number = number.multiply(sixty).add(digit);
         }
+        return negative ? number.negate() : number;
     }
 
 }
@@ -15,10 +15,9 @@
  */
 package com.github.autermann.yaml.construct;
 
-import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import org.yaml.snakeyaml.nodes.MappingNode;
 import org.yaml.snakeyaml.nodes.Node;
@@ -37,6 +36,11 @@ public class YamlMappingNodeConstruct extends YamlConstruct {
      * A supplier for {@link YamlMappingNode} instances.
      */
     private final Supplier<? extends YamlMappingNode<?>> supplier;
+    /**
+     * Creates lazily initialized instances or {@code null} if this mapping
+     * type can not be constructed lazily.
+     */
+    private final Function<Consumer<YamlMappingNode<?>>, ? extends YamlMappingNode<?>> lazySupplier;
 
     /**
      * Creates a new {@link YamlMappingNodeConstruct} using
@@ -51,18 +55,57 @@ public class YamlMappingNodeConstruct extends YamlConstruct {
             YamlNodeFactory nodeFactory,
             YamlNodeConstructor delegate,
             Supplier<? extends YamlMappingNode<?>> supplier) {
+        this(nodeFactory, delegate, supplier, null);
+    }
+
+    /**
+     * Creates a new {@link YamlMappingNodeConstruct} using
+     * {@code supplier} to create concrete instances and
+     * {@code lazySupplier} to create lazily initialized instances if the
+     * delegate {@linkplain YamlNodeConstructor#isLazy() is lazy}.
+     *
+     * @param nodeFactory  the node factory
+     * @param delegate     the delegate
+     * @param supplier     the supplier
+     * @param lazySupplier the supplier of lazy instances, taking the
+     *                     initializer of the instance
+     */
+    YamlMappingNodeConstruct(
+            YamlNodeFactory nodeFactory,
+            YamlNodeConstructor delegate,
+            Supplier<? extends YamlMappingNode<?>> supplier,
+            Function<Consumer<YamlMappingNode<?>>, ? extends YamlMappingNode<?>> lazySupplier) {
         super(nodeFactory, delegate);
         this.supplier = supplier;
+        this.lazySupplier = lazySupplier;
     }
 
     @Override
     public YamlNode construct(Node node) {
         MappingNode mnode = (MappingNode) node;
-        YamlMappingNode<?> mapping = supplier.get();
-        for (NodeTuple tuple : mnode.getValue()) {
+        if (lazySupplier != null && getDelegate().isLazy()) {
+            return lazySupplier.apply(mapping -> fill(mapping, mnode,
+                    getDelegate()::constructLazily));
+        }
+        return fill(supplier.get(), mnode, this::delegate);
+    }
+
+    /**
+     * Adds the constructed pairs of a mapping node to a mapping.
+     *
+     * @param mapping     the mapping
+     * @param node        the mapping node
+     * @param constructor the constructor of the keys and values
+     *
+     * @return the mapping
+     */
+    private static YamlMappingNode<?> fill(YamlMappingNode<?> mapping,
+                                           MappingNode node,
+                                           Function<Node, YamlNode> constructor) {
+        for (NodeTuple tuple : node.getValue()) {
             Node key = tuple.getKeyNode();
             Node value = tuple.getValueNode();
-            mapping.put(delegate(key), delegate(value));
+            mapping.put(constructor.apply(key), constructor.apply(value));
         }
         return mapping;
     }
@@ -25,13 +25,16 @@ import org.joda.time.format.ISODateTimeFormat;
 import org.yaml.snakeyaml.DumperOptions;
 import org.yaml.snakeyaml.constructor.Construct;
 import org.yaml.snakeyaml.constructor.SafeConstructor;
+import org.yaml.snakeyaml.error.YAMLException;
 import org.yaml.snakeyaml.nodes.MappingNode;
 import org.yaml.snakeyaml.nodes.Node;
 import org.yaml.snakeyaml.nodes.ScalarNode;
 import org.yaml.snakeyaml.nodes.SequenceNode;
 import org.yaml.snakeyaml.nodes.Tag;
 
+import com.github.autermann.yaml.YamlNode;
 import com.github.autermann.yaml.YamlNodeFactory;
+import com.github.autermann.yaml.nodes.LazyNodes;
 import com.google.common.io.BaseEncoding;
 
 /**
@@ -49,6 +52,10 @@ public class YamlNodeConstructor extends SafeConstructor {
      * The {@link YamlNodeFactory} of this constructor.
      */
     private final YamlNodeFactory nodeFactory;
+    /**
+     * If container nodes construct their children on first access.
+     */
+    private final boolean lazy;
 
     /**
      * Creates a new {@link YamlNodeConstructor} using a default
@@ -87,8 +94,25 @@ public class YamlNodeConstructor extends SafeConstructor {
      */
     public YamlNodeConstructor(YamlNodeFactory nodeFactory,
                                DumperOptions options) {
+        this(nodeFactory, options, false);
+    }
+
+    /**
+     * Creates a new {@link YamlNodeConstructor} using the supplied
+     * {@link YamlNodeFactory} and {@link DumperOptions}. If {@code lazy} is
+     * {@code true}, mappings, ordered mappings, sequences and sets keep the
+     * SnakeYAML node and construct their children on first access; see
+     * {@link #isLazy()}.
+     *
+     * @param nodeFactory the node factory
+     * @param options     the dumper options
+     * @param lazy        if container nodes should be constructed lazily
+     */
+    public YamlNodeConstructor(YamlNodeFactory nodeFactory,
+                               DumperOptions options, boolean lazy) {
         this.options = Objects.requireNonNull(options);
         this.nodeFactory = Objects.requireNonNull(nodeFactory);
+        this.lazy = lazy;
         register();
     }
 
@@ -211,7 +235,8 @@ public class YamlNodeConstructor extends SafeConstructor {
      * @return the construct
      */
     protected Construct omapConstruct() {
-        return new YamlMappingNodeConstruct(getNodeFactory(), this, getNodeFactory()::orderedMapNode);
+        return new YamlMappingNodeConstruct(getNodeFactory(), this, getNodeFactory()::orderedMapNode,
+                initializer -> LazyNodes.orderedMapNode(getNodeFactory(), initializer::accept));
     }
 
     /**
@@ -220,7 +245,8 @@ public class YamlNodeConstructor extends SafeConstructor {
      * @return the construct
      */
     protected Construct mapConstruct() {
-        return new YamlMappingNodeConstruct(getNodeFactory(), this, getNodeFactory()::mapNode);
+        return new YamlMappingNodeConstruct(getNodeFactory(), this, getNodeFactory()::mapNode,
+                initializer -> LazyNodes.mapNode(getNodeFactory(), initializer::accept));
     }
 
     /**
@@ -241,8 +267,26 @@ public class YamlNodeConstructor extends SafeConstructor {
         return nodeFactory;
     }
 
+    /**
+     * Checks if container nodes construct their children on first access.
+     * Lazily constructed containers are created by
+     * {@link com.github.autermann.yaml.nodes.LazyNodes} instead of the
+     * {@link YamlNodeFactory}, sequences are never backed by primitive
+     * arrays, aliased nodes are constructed once per occurrence and errors
+     * in a subtree are thrown on its first access.
+     *
+     * @return if container nodes are constructed lazily
+     */
+    public boolean isLazy() {
+        return lazy;
+    }
+
     @Override
     public Object constructObject(Node node) {
+        if (lazy) {
+            // lazy containers would not detect the recursion
+            checkNotRecursive(node);
+        }
         return super.constructObject(node);
     }
 
@@ -329,4 +373,50 @@ public class YamlNodeConstructor extends SafeConstructor {
     public Object constructScalar(ScalarNode node) {
         return super.constructScalar(node);
     }
+
+    /**
+     * Constructs a {@link YamlNode} from a single scalar node. In contrast to
+     * {@link #constructObject(Node)} the node is not remembered for the
+     * resolution of recursive structures, so this can be used for scalars
+     * that are not part of a composed document.
+     *
+     * @param node the node to construct from
+     *
+     * @return the constructed node
+     */
+    public YamlNode constructScalarNode(ScalarNode node) {
+        return (YamlNode) getConstructor(node).construct(node);
+    }
+
+    /**
+     * Constructs a child of a lazily constructed container, or any other node
+     * of a composed document. Like {@link #constructScalarNode(ScalarNode)}
+     * this does not use the state of the document construction, so it can be
+     * called after the document was constructed and from any thread, but
+     * only if this constructor {@linkplain #isLazy() is lazy}: otherwise the
+     * children of containers are constructed with
+     * {@link #constructObject(Node)}.
+     *
+     * @param node the node to construct from
+     *
+     * @return the constructed node
+     */
+    public YamlNode constructLazily(Node node) {
+        checkNotRecursive(node);
+        return (YamlNode) getConstructor(node).construct(node);
+    }
+
+    /**
+     * Checks that the specified node is not part of a recursive structure.
+     *
+     * @param node the node
+     *
+     * @throws YAMLException if the node contains itself
+     */
+    private static void checkNotRecursive(Node node) {
+        if (node.isTwoStepsConstruction()) {
+            throw new YAMLException("found unconstructable recursive node" +
+                                    node.getStartMark());
+        }
+    }
 }
@@ -15,17 +15,30 @@
  */
 package com.github.autermann.yaml.construct;
 
+import java.util.List;
+import java.util.function.Predicate;
+
 import com.github.autermann.yaml.YamlNode;
 import com.github.autermann.yaml.YamlNodeFactory;
 import org.yaml.snakeyaml.nodes.Node;
 import org.yaml.snakeyaml.nodes.SequenceNode;
 
+import com.github.autermann.yaml.nodes.LazyNodes;
+import com.github.autermann.yaml.nodes.YamlDoubleArrayNode;
+import com.github.autermann.yaml.nodes.YamlLongArrayNode;
 import com.github.autermann.yaml.nodes.YamlSeqNode;
 
 /**
- * Constructs a {@link YamlSeqNode} from a mapping node.
+ * Constructs a {@link YamlSeqNode} from a mapping node. Sequences of at least
+ * {@value #MIN_PRIMITIVE_SIZE} integral or {@code double} values are
+ * constructed by {@link YamlNodeFactory#longArrayNode()} or
+ * {@link YamlNodeFactory#doubleArrayNode()}.
  */
 public class YamlSequenceNodeConstruct extends YamlConstruct {
+    /**
+     * The minimal size of a sequence to be backed by a primitive array.
+     */
+    public static final int MIN_PRIMITIVE_SIZE = 16;
 
     /**
      * Creates a new {@link YamlSequenceNodeConstruct}.
@@ -40,11 +53,46 @@ public class YamlSequenceNodeConstruct extends YamlConstruct {
 
     @Override
     public YamlSeqNode construct(Node node) {
-        YamlSeqNode seq = getNodeFactory().sequenceNode();
-        for (Object o : getDelegate().constructSequence((SequenceNode) node)) {
+        if (getDelegate().isLazy()) {
+            List<Node> children = ((SequenceNode) node).getValue();
+            return LazyNodes.sequenceNode(getNodeFactory(), seq -> {
+                for (Node child : children) {
+                    seq.add(getDelegate().constructLazily(child));
+                }
+            });
+        }
+        List<?> values = getDelegate().constructSequence((SequenceNode) node);
+        YamlSeqNode seq;
+        if (values.size() < MIN_PRIMITIVE_SIZE) {
+            seq = getNodeFactory().sequenceNode();
+        } else if (all(values, YamlLongArrayNode::supports)) {
+            seq = getNodeFactory().longArrayNode();
+        } else if (all(values, YamlDoubleArrayNode::supports)) {
+            seq = getNodeFactory().doubleArrayNode();
+        } else {
+            seq = getNodeFactory().sequenceNode();
+        }
+        for (Object o : values) {
             seq.add((YamlNode) o);
         }
         return seq;
     }
 
+    /**
+     * Checks if all values match the specified predicate.
+     *
+     * @param values    the values
+     * @param predicate the predicate
+     *
+     * @return if all values match
+     */
+    private static boolean all(List<?> values, Predicate<YamlNode> predicate) {
+        for (Object o : values) {
+            if (!(o instanceof YamlNode) || !predicate.test((YamlNode) o)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
 }
@@ -15,11 +15,15 @@
  */
 package com.github.autermann.yaml.construct;
 
+import java.util.List;
+
 import com.github.autermann.yaml.YamlNode;
 import com.github.autermann.yaml.YamlNodeFactory;
 import org.yaml.snakeyaml.nodes.MappingNode;
 import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeTuple;
 
+import com.github.autermann.yaml.nodes.LazyNodes;
 import com.github.autermann.yaml.nodes.YamlSetNode;
 
 /**
@@ -40,6 +44,14 @@ public class YamlSetNodeConstruct extends YamlConstruct {
 
     @Override
     public YamlSetNode construct(Node node) {
+        if (getDelegate().isLazy()) {
+            List<NodeTuple> tuples = ((MappingNode) node).getValue();
+            return LazyNodes.setNode(getNodeFactory(), set -> {
+                for (NodeTuple tuple : tuples) {
+                    set.add(getDelegate().constructLazily(tuple.getKeyNode()));
+                }
+            });
+        }
         YamlSetNode set = getNodeFactory().setNode();
         for (Object o : getDelegate().constructSet((MappingNode) node)) {
             set.add((YamlNode) o);
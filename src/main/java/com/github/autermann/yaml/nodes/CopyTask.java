@@ -0,0 +1,125 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.nodes;
+
+import java.util.concurrent.RecursiveAction;
+
+import com.github.autermann.yaml.YamlNode;
+
+/**
+ * Replaces the nodes of an array with their deep copies, splitting large
+ * arrays into subtasks. Containers are copied with
+ * {@link YamlContainerNode#parallelCopy()}, which in turn copies their
+ * children with a {@link CopyTask}, so large containers are split on every
+ * level of the tree.
+ *
+ * @author Christian Autermann
+ */
+final class CopyTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+    /**
+     * The maximal number of nodes copied by a single task.
+     */
+    private static final int LEAF_SIZE = 64;
+    /**
+     * The nodes.
+     */
+    private final YamlNode[] nodes;
+    /**
+     * The first index (inclusive).
+     */
+    private final int from;
+    /**
+     * The last index (exclusive).
+     */
+    private final int to;
+
+    /**
+     * Creates a new {@link CopyTask}.
+     *
+     * @param nodes the nodes
+     * @param from  the first index (inclusive)
+     * @param to    the last index (exclusive)
+     */
+    private CopyTask(YamlNode[] nodes, int from, int to) {
+        this.nodes = nodes;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+        if (to - from <= LEAF_SIZE) {
+            for (int i = from; i < to; ++i) {
+                nodes[i] = copy(nodes[i]);
+            }
+        } else {
+            int mid = (from + to) >>> 1;
+            invokeAll(new CopyTask(nodes, from, mid),
+                      new CopyTask(nodes, mid, to));
+        }
+    }
+
+    /**
+     * Checks if the specified number of nodes is copied by a single task.
+     * Containers with few children can copy them directly into the target
+     * collection instead of using a {@link CopyTask}.
+     *
+     * @param nodes the number of nodes
+     *
+     * @return if the nodes are not split
+     */
+    static boolean isLeaf(int nodes) {
+        return nodes <= LEAF_SIZE;
+    }
+
+    /**
+     * Creates a deep copy of the specified node from within a
+     * {@link java.util.concurrent.ForkJoinPool}.
+     *
+     * @param node the node
+     *
+     * @return the copy
+     */
+    static YamlNode copy(YamlNode node) {
+        if (node instanceof YamlContainerNode) {
+            return ((YamlContainerNode) node).parallelCopy();
+        }
+        return node.copy();
+    }
+
+    /**
+     * Replaces the nodes of the specified array with their deep copies. Has
+     * to be called from within a {@link java.util.concurrent.ForkJoinPool}.
+     *
+     * @param nodes the nodes
+     */
+    static void copyAll(YamlNode[] nodes) {
+        new CopyTask(nodes, 0, nodes.length).invoke();
+    }
+
+    /**
+     * Gets the initial capacity of a hash based collection to hold the
+     * specified number of elements without being resized.
+     *
+     * @param expectedSize the number of elements
+     *
+     * @return the capacity
+     */
+    static int capacity(int expectedSize) {
+        return (int) (expectedSize / 0.75f) + 1;
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.nodes;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import com.github.autermann.yaml.YamlNode;
+import com.github.autermann.yaml.YamlNodeFactory;
+import com.google.common.collect.ForwardingList;
+import com.google.common.collect.ForwardingMap;
+import com.google.common.collect.ForwardingSet;
+
+/**
+ * Factory methods for container nodes whose children are created on first
+ * access. The returned nodes are backed by collections that run the
+ * supplied initializer against an empty node of the same type the first
+ * time any of their methods is called, so the lazy nodes behave exactly
+ * like the initialized nodes afterwards. Initialization is thread-safe and
+ * happens at most once; the initializer is released afterwards.
+ *
+ * @author Christian Autermann
+ */
+public final class LazyNodes {
+
+    /**
+     * Private constructor for utility class.
+     */
+    private LazyNodes() {
+    }
+
+    /**
+     * Creates a {@link YamlMapNode} that is initialized on first access.
+     *
+     * @param factory     the factory to create children with
+     * @param initializer the initializer adding the entries
+     *
+     * @return the lazy node
+     */
+    public static YamlMapNode mapNode(YamlNodeFactory factory,
+                                      Consumer<? super YamlMapNode> initializer) {
+        return new YamlMapNode(factory, new LazyMap(() -> {
+            Map<YamlNode, YamlNode> map = new HashMap<>();
+            initializer.accept(new YamlMapNode(factory, map));
+            return map;
+        }));
+    }
+
+    /**
+     * Creates a {@link YamlOrderedMapNode} that is initialized on first
+     * access.
+     *
+     * @param factory     the factory to create children with
+     * @param initializer the initializer adding the entries
+     *
+     * @return the lazy node
+     */
+    public static YamlOrderedMapNode orderedMapNode(
+            YamlNodeFactory factory,
+            Consumer<? super YamlOrderedMapNode> initializer) {
+        return new YamlOrderedMapNode(factory, new LazyMap(() -> {
+            Map<YamlNode, YamlNode> map = new LinkedHashMap<>();
+            initializer.accept(new YamlOrderedMapNode(factory, map));
+            return map;
+        }));
+    }
+
+    /**
+     * Creates a {@link YamlSeqNode} that is initialized on first access.
+     *
+     * @param factory     the factory to create children with
+     * @param initializer the initializer adding the elements
+     *
+     * @return the lazy node
+     */
+    public static YamlSeqNode sequenceNode(YamlNodeFactory factory,
+                                           Consumer<? super YamlSeqNode> initializer) {
+        return new YamlSeqNode(factory, new LazyList(() -> {
+            List<YamlNode> list = new ArrayList<>();
+            initializer.accept(new YamlSeqNode(factory, list));
+            return list;
+        }));
+    }
+
+    /**
+     * Creates a {@link YamlSetNode} that is initialized on first access.
+     *
+     * @param factory     the factory to create children with
+     * @param initializer the initializer adding the elements
+     *
+     * @return the lazy node
+     */
+    public static YamlSetNode setNode(YamlNodeFactory factory,
+                                      Consumer<? super YamlSetNode> initializer) {
+        return new YamlSetNode(factory, new LazySet(() -> {
+            Set<YamlNode> set = new LinkedHashSet<>();
+            initializer.accept(new YamlSetNode(factory, set));
+            return set;
+        }));
+    }
+
+    /**
+     * Thread-safe memoization of a {@link Supplier} that drops the supplier
+     * once it was called.
+     *
+     * @param <T> the type of the value
+     */
+    private static final class Memo<T> {
+        /**
+         * The value or {@code null} if it was not yet supplied.
+         */
+        private volatile T value;
+        /**
+         * The supplier or {@code null} if the value was supplied.
+         */
+        private Supplier<? extends T> supplier;
+
+        /**
+         * Creates a new {@link Memo}.
+         *
+         * @param supplier the supplier of the value
+         */
+        Memo(Supplier<? extends T> supplier) {
+            this.supplier = supplier;
+        }
+
+        /**
+         * Gets the value, supplying it on the first call.
+         *
+         * @return the value
+         */
+        T get() {
+            T v = value;
+            if (v == null) {
+                synchronized (this) {
+                    v = value;
+                    if (v == null) {
+                        value = v = supplier.get();
+                        supplier = null;
+                    }
+                }
+            }
+            return v;
+        }
+    }
+
+    /**
+     * {@link Map} that is supplied on first access.
+     */
+    private static final class LazyMap
+            extends ForwardingMap<YamlNode, YamlNode> {
+        /**
+         * The backing map.
+         */
+        private final Memo<Map<YamlNode, YamlNode>> delegate;
+
+        /**
+         * Creates a new {@link LazyMap}.
+         *
+         * @param supplier the supplier of the backing map
+         */
+        LazyMap(Supplier<Map<YamlNode, YamlNode>> supplier) {
+            this.delegate = new Memo<>(supplier);
+        }
+
+        @Override
+        protected Map<YamlNode, YamlNode> delegate() {
+            return delegate.get();
+        }
+    }
+
+    /**
+     * {@link List} that is supplied on first access.
+     */
+    private static final class LazyList extends ForwardingList<YamlNode>
+            implements RandomAccess {
+        /**
+         * The backing list.
+         */
+        private final Memo<List<YamlNode>> delegate;
+
+        /**
+         * Creates a new {@link LazyList}.
+         *
+         * @param supplier the supplier of the backing list
+         */
+        LazyList(Supplier<List<YamlNode>> supplier) {
+            this.delegate = new Memo<>(supplier);
+        }
+
+        @Override
+        protected List<YamlNode> delegate() {
+            return delegate.get();
+        }
+    }
+
+    /**
+     * {@link Set} that is supplied on first access.
+     */
+    private static final class LazySet extends ForwardingSet<YamlNode> {
+        /**
+         * The backing set.
+         */
+        private final Memo<Set<YamlNode>> delegate;
+
+        /**
+         * Creates a new {@link LazySet}.
+         *
+         * @param supplier the supplier of the backing set
+         */
+        LazySet(Supplier<Set<YamlNode>> supplier) {
+            this.delegate = new Memo<>(supplier);
+        }
+
+        @Override
+        protected Set<YamlNode> delegate() {
+            return delegate.get();
+        }
+    }
+}
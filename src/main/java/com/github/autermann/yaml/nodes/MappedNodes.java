@@ -0,0 +1,1101 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.nodes;
+
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.function.IntFunction;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+
+import com.github.autermann.yaml.YamlNode;
+import com.github.autermann.yaml.YamlNodeFactory;
+import com.github.autermann.yaml.YamlNodeVisitor;
+
+/**
+ * Read-only nodes backed by a memory-mapped tree image. An image is written
+ * once by {@link #write(YamlNode, Path)} and can then be mapped by any
+ * number of processes with {@link #map(YamlNodeFactory, Path)}; the mapped
+ * pages are shared through the page cache instead of every process holding
+ * its own copy of the tree.
+ * <p>
+ * Every node of the image is addressed by its offset. Containers store the
+ * offsets of their children, so nodes are decoded only when they are
+ * accessed and nothing is cached on the heap: mappings, ordered mappings,
+ * sequences and sets are regular nodes whose backing collections read the
+ * image, scalars are decoded on every access. Mappings and sets carry a
+ * sorted hash index of their text keys, looking up a text key decodes only
+ * the matching value. Other keys, whose hash codes are not necessarily
+ * stable across processes, are found by a linear scan. Pairs are
+ * materialized into a {@link YamlPairsNode} of lazy children, and long and
+ * double array nodes are mapped as plain sequences.
+ * <p>
+ * The mapped nodes are thread-safe. Modifying them throws an
+ * {@link UnsupportedOperationException}; {@link YamlNode#copy()} and
+ * {@link YamlNode#freeze()} create heap copies. Images are limited to 2 GB.
+ *
+ * @author Christian Autermann
+ */
+public final class MappedNodes {
+    /**
+     * The magic number at the start of every image ({@code YIMG}).
+     */
+    private static final int MAGIC = 0x59494d47;
+    /**
+     * The version of the image format.
+     */
+    private static final int VERSION = 1;
+    /**
+     * The size of the header: magic number, version and root offset.
+     */
+    private static final int HEADER_SIZE = 12;
+    /**
+     * The size of the write buffer.
+     */
+    private static final int BUFFER_SIZE = 65536;
+    /**
+     * Tag of a {@link YamlNullNode}.
+     */
+    private static final byte NULL = 0;
+    /**
+     * Tag of the {@code true} {@link YamlBooleanNode}.
+     */
+    private static final byte TRUE = 1;
+    /**
+     * Tag of the {@code false} {@link YamlBooleanNode}.
+     */
+    private static final byte FALSE = 2;
+    /**
+     * Tag of a {@link YamlByteNode}.
+     */
+    private static final byte BYTE = 3;
+    /**
+     * Tag of a {@link YamlShortNode}.
+     */
+    private static final byte SHORT = 4;
+    /**
+     * Tag of a {@link YamlIntegerNode}.
+     */
+    private static final byte INT = 5;
+    /**
+     * Tag of a {@link YamlLongNode}.
+     */
+    private static final byte LONG = 6;
+    /**
+     * Tag of a {@link YamlBigIntegerNode}.
+     */
+    private static final byte BIG_INTEGER = 7;
+    /**
+     * Tag of a {@link YamlFloatNode}.
+     */
+    private static final byte FLOAT = 8;
+    /**
+     * Tag of a {@link YamlDoubleNode}.
+     */
+    private static final byte DOUBLE = 9;
+    /**
+     * Tag of a {@link YamlBigDecimalNode}.
+     */
+    private static final byte BIG_DECIMAL = 10;
+    /**
+     * Tag of a {@link YamlTextNode}.
+     */
+    private static final byte TEXT = 11;
+    /**
+     * Tag of a {@link YamlBinaryNode}.
+     */
+    private static final byte BINARY = 12;
+    /**
+     * Tag of a {@link YamlTimeNode}.
+     */
+    private static final byte TIME = 13;
+    /**
+     * Tag of a {@link YamlMapNode}.
+     */
+    private static final byte MAP = 14;
+    /**
+     * Tag of a {@link YamlOrderedMapNode}.
+     */
+    private static final byte ORDERED_MAP = 15;
+    /**
+     * Tag of a {@link YamlPairsNode}.
+     */
+    private static final byte PAIRS = 16;
+    /**
+     * Tag of a {@link YamlSeqNode}.
+     */
+    private static final byte SEQ = 17;
+    /**
+     * Tag of a {@link YamlSetNode}.
+     */
+    private static final byte SET = 18;
+
+    /**
+     * Private constructor for utility class.
+     */
+    private MappedNodes() {
+    }
+
+    /**
+     * Writes an image of the specified node to the specified file. The image
+     * is written to a temporary file next to it that replaces the file once
+     * it is complete, so processes that mapped a previous image keep their
+     * consistent view.
+     *
+     * @param node the node
+     * @param path the file
+     *
+     * @throws IOException if writing fails or the image exceeds 2 GB
+     */
+    public static void write(YamlNode node, Path path)
+            throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(
+                    temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE)) {
+                new ImageWriter(channel).write(node);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            try {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING,
+                           StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Maps the image in the specified file. The file is closed right away,
+     * the mapping stays valid until the returned nodes are garbage
+     * collected.
+     *
+     * @param factory the factory to create scalars with
+     * @param path    the file
+     *
+     * @return the root node
+     *
+     * @throws IOException if the file can not be mapped or is not an image
+     */
+    public static YamlNode map(YamlNodeFactory factory, Path path)
+            throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new StreamCorruptedException("Not a YAML image: " + path);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+        return map(factory, buffer);
+    }
+
+    /**
+     * Creates a view of the image in the specified buffer. The buffer must
+     * not be modified afterwards.
+     *
+     * @param factory the factory to create scalars with
+     * @param buffer  the image
+     *
+     * @return the root node
+     *
+     * @throws IOException if the buffer does not contain an image
+     */
+    public static YamlNode map(YamlNodeFactory factory, ByteBuffer buffer)
+            throws IOException {
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new StreamCorruptedException("Not a YAML image");
+        }
+        int version = buffer.getInt(4);
+        if (version != VERSION) {
+            throw new StreamCorruptedException(
+                    "Unsupported image version: " + version);
+        }
+        int root = buffer.getInt(8);
+        if (root < HEADER_SIZE || root >= buffer.limit()) {
+            throw new StreamCorruptedException("Invalid root offset: " + root);
+        }
+        return new Image(factory, buffer).node(root);
+    }
+
+    /**
+     * Writer of an image. Nodes are written in post-order, so the offsets of
+     * the children are known when their container is written, and the
+     * offset of the root is patched into the header at the end. Text keys
+     * and zone ids are written once and shared.
+     */
+    private static class ImageWriter implements YamlNodeVisitor {
+        /**
+         * The channel of the file.
+         */
+        private final FileChannel channel;
+        /**
+         * The offsets of the shared texts.
+         */
+        private final Map<String, Integer> texts = new HashMap<>();
+        /**
+         * The offsets of the null, {@code true} and {@code false} nodes, or
+         * {@code -1} if they were not yet written.
+         */
+        private final int[] constants = { -1, -1, -1 };
+        /**
+         * The write buffer.
+         */
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        /**
+         * The file position of the start of the {@link #buffer}.
+         */
+        private long position;
+        /**
+         * The offset of the last visited node.
+         */
+        private int result;
+
+        /**
+         * Creates a new {@link ImageWriter}.
+         *
+         * @param channel the channel of the file
+         */
+        ImageWriter(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * Writes the image of the specified node.
+         *
+         * @param node the root node
+         *
+         * @throws IOException if writing fails
+         */
+        void write(YamlNode node)
+                throws IOException {
+            putInt(MAGIC);
+            putInt(VERSION);
+            putInt(0);
+            int root = writeNode(node);
+            flush();
+            ByteBuffer header = ByteBuffer.allocate(4);
+            header.putInt(root);
+            ((Buffer) header).flip();
+            while (header.hasRemaining()) {
+                channel.write(header, 8 + header.position());
+            }
+        }
+
+        /**
+         * Writes the buffered bytes to the channel.
+         *
+         * @throws IOException if writing fails
+         */
+        private void flush()
+                throws IOException {
+            // Buffer casts keep the Java 8 signatures when built on JDK 9+
+            ((Buffer) buffer).flip();
+            position += buffer.remaining();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            ((Buffer) buffer).clear();
+        }
+
+        /**
+         * Ensures that the buffer has room for the specified number of
+         * bytes.
+         *
+         * @param length the number of bytes, at most {@link #BUFFER_SIZE}
+         */
+        private void ensure(int length) {
+            if (buffer.remaining() < length) {
+                try {
+                    flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+
+        /**
+         * Gets the offset of the next byte.
+         *
+         * @return the offset
+         */
+        private int offset() {
+            long offset = position + buffer.position();
+            if (offset > Integer.MAX_VALUE) {
+                throw new UncheckedIOException(
+                        new IOException("Image exceeds 2 GB"));
+            }
+            return (int) offset;
+        }
+
+        /**
+         * Writes the tag of a node and returns its offset.
+         *
+         * @param tag the tag
+         *
+         * @return the offset of the node
+         */
+        private int putTag(byte tag) {
+            ensure(1);
+            int offset = offset();
+            buffer.put(tag);
+            return offset;
+        }
+
+        /**
+         * Writes a 32 bit value.
+         *
+         * @param value the value
+         */
+        private void putInt(int value) {
+            ensure(4);
+            buffer.putInt(value);
+        }
+
+        /**
+         * Writes a 64 bit value.
+         *
+         * @param value the value
+         */
+        private void putLong(long value) {
+            ensure(8);
+            buffer.putLong(value);
+        }
+
+        /**
+         * Writes a length prefixed byte array.
+         *
+         * @param bytes the bytes
+         */
+        private void putBytes(byte[] bytes) {
+            putInt(bytes.length);
+            for (int i = 0; i < bytes.length; i += BUFFER_SIZE) {
+                int length = Math.min(BUFFER_SIZE, bytes.length - i);
+                ensure(length);
+                buffer.put(bytes, i, length);
+            }
+        }
+
+        /**
+         * Writes a text node.
+         *
+         * @param value the text
+         *
+         * @return the offset of the node
+         */
+        private int writeText(String value) {
+            int offset = putTag(TEXT);
+            putBytes(value.getBytes(StandardCharsets.UTF_8));
+            return offset;
+        }
+
+        /**
+         * Writes a text node that is shared with other occurrences of the
+         * same text.
+         *
+         * @param value the text
+         *
+         * @return the offset of the node
+         */
+        private int writeSharedText(String value) {
+            Integer offset = texts.get(value);
+            if (offset == null) {
+                offset = writeText(value);
+                texts.put(value, offset);
+            }
+            return offset;
+        }
+
+        /**
+         * Writes a shared constant node.
+         *
+         * @param tag the tag of the constant
+         *
+         * @return the offset of the node
+         */
+        private int writeConstant(byte tag) {
+            if (constants[tag] < 0) {
+                constants[tag] = putTag(tag);
+            }
+            return constants[tag];
+        }
+
+        /**
+         * Writes the specified node. {@code null} and missing nodes are
+         * written as null nodes.
+         *
+         * @param node the node
+         *
+         * @return the offset of the node
+         */
+        private int writeNode(YamlNode node) {
+            if (node == null || !node.exists()) {
+                return writeConstant(NULL);
+            }
+            node.accept(this);
+            return result;
+        }
+
+        /**
+         * Writes the hash index of the text children of a container. Every
+         * entry consists of the hash code of the text and the index of the
+         * child, sorted by hash code.
+         *
+         * @param index the entries, the hash code in the upper 32 bits
+         * @param size  the number of entries
+         */
+        private void putIndex(long[] index, int size) {
+            Arrays.sort(index, 0, size);
+            putInt(size);
+            for (int i = 0; i < size; ++i) {
+                putLong(index[i]);
+            }
+        }
+
+        /**
+         * Writes a mapping.
+         *
+         * @param tag     the tag of the mapping
+         * @param node    the mapping
+         * @param indexed if a hash index should be written
+         */
+        private void writeMapping(byte tag, YamlMappingNode<?> node,
+                                  boolean indexed) {
+            int size = node.size();
+            int[] children = new int[2 * size];
+            long[] index = new long[indexed ? size : 0];
+            int indexSize = 0;
+            int i = 0;
+            for (Entry<YamlNode, YamlNode> entry : node.entries()) {
+                YamlNode key = entry.getKey();
+                if (key instanceof YamlTextNode) {
+                    children[i] = writeSharedText(key.textValue());
+                    if (indexed) {
+                        index[indexSize++] = indexEntry(key, i / 2);
+                    }
+                } else {
+                    children[i] = writeNode(key);
+                }
+                children[i + 1] = writeNode(entry.getValue());
+                i += 2;
+            }
+            int offset = putTag(tag);
+            putInt(size);
+            for (int child : children) {
+                putInt(child);
+            }
+            putIndex(index, indexSize);
+            result = offset;
+        }
+
+        /**
+         * Writes a sequence.
+         *
+         * @param tag     the tag of the sequence
+         * @param node    the sequence
+         * @param indexed if a hash index should be written
+         */
+        private void writeSequence(byte tag, YamlSequenceNode<?> node,
+                                   boolean indexed) {
+            int size = node.size();
+            int[] children = new int[size];
+            long[] index = new long[indexed ? size : 0];
+            int indexSize = 0;
+            int i = 0;
+            for (YamlNode child : node.value()) {
+                if (indexed && child instanceof YamlTextNode) {
+                    index[indexSize++] = indexEntry(child, i);
+                }
+                children[i++] = writeNode(child);
+            }
+            int offset = putTag(tag);
+            putInt(size);
+            for (int child : children) {
+                putInt(child);
+            }
+            putIndex(index, indexSize);
+            result = offset;
+        }
+
+        /**
+         * Creates an entry of a hash index.
+         *
+         * @param node  the text node
+         * @param child the index of the child
+         *
+         * @return the entry
+         */
+        private static long indexEntry(YamlNode node, int child) {
+            return (long) node.textValue().hashCode() << 32 | child;
+        }
+
+        @Override
+        public void visit(YamlMapNode node) {
+            writeMapping(MAP, node, true);
+        }
+
+        @Override
+        public void visit(YamlOrderedMapNode node) {
+            writeMapping(ORDERED_MAP, node, true);
+        }
+
+        @Override
+        public void visit(YamlPairsNode node) {
+            writeMapping(PAIRS, node, false);
+        }
+
+        @Override
+        public void visit(YamlSeqNode node) {
+            writeSequence(SEQ, node, false);
+        }
+
+        @Override
+        public void visit(YamlSetNode node) {
+            writeSequence(SET, node, true);
+        }
+
+        @Override
+        public void visit(YamlBinaryNode node) {
+            result = putTag(BINARY);
+            putBytes(node.binaryValue());
+        }
+
+        @Override
+        public void visit(YamlBooleanNode node) {
+            result = writeConstant(node.booleanValue() ? TRUE : FALSE);
+        }
+
+        @Override
+        public void visit(YamlDecimalNode node) {
+            if (node instanceof YamlDoubleNode) {
+                result = putTag(DOUBLE);
+                putLong(Double.doubleToRawLongBits(node.doubleValue()));
+            } else if (node instanceof YamlFloatNode) {
+                result = putTag(FLOAT);
+                putInt(Float.floatToRawIntBits(node.floatValue()));
+            } else {
+                BigDecimal value = node.bigDecimalValue();
+                result = putTag(BIG_DECIMAL);
+                putInt(value.scale());
+                putBytes(value.unscaledValue().toByteArray());
+            }
+        }
+
+        @Override
+        public void visit(YamlIntegralNode node) {
+            if (node instanceof YamlIntegerNode) {
+                result = putTag(INT);
+                putInt(node.intValue());
+            } else if (node instanceof YamlLongNode) {
+                result = putTag(LONG);
+                putLong(node.longValue());
+            } else if (node instanceof YamlShortNode) {
+                result = putTag(SHORT);
+                ensure(2);
+                buffer.putShort(node.shortValue());
+            } else if (node instanceof YamlByteNode) {
+                result = putTag(BYTE);
+                ensure(1);
+                buffer.put(node.byteValue());
+            } else {
+                result = putTag(BIG_INTEGER);
+                putBytes(node.bigIntegerValue().toByteArray());
+            }
+        }
+
+        @Override
+        public void visit(YamlNullNode node) {
+            result = writeConstant(NULL);
+        }
+
+        @Override
+        public void visit(YamlTextNode node) {
+            result = writeText(node.textValue());
+        }
+
+        @Override
+        public void visit(YamlTimeNode node) {
+            DateTime value = node.dateTimeValue();
+            int zone = writeSharedText(value.getZone().getID());
+            result = putTag(TIME);
+            putLong(value.getMillis());
+            putInt(zone);
+        }
+    }
+
+    /**
+     * A mapped image.
+     */
+    private static class Image {
+        /**
+         * The factory to create scalars with.
+         */
+        private final YamlNodeFactory factory;
+        /**
+         * The image.
+         */
+        private final ByteBuffer buffer;
+
+        /**
+         * Creates a new {@link Image}.
+         *
+         * @param factory the factory to create scalars with
+         * @param buffer  the image
+         */
+        Image(YamlNodeFactory factory, ByteBuffer buffer) {
+            this.factory = factory;
+            this.buffer = buffer;
+        }
+
+        /**
+         * Decodes the node at the specified offset.
+         *
+         * @param offset the offset
+         *
+         * @return the node
+         */
+        YamlNode node(int offset) {
+            byte tag = buffer.get(offset);
+            switch (tag) {
+                case NULL:
+                    return factory.nullNode();
+                case TRUE:
+                    return factory.booleanNode(true);
+                case FALSE:
+                    return factory.booleanNode(false);
+                case BYTE:
+                    return factory.byteNode(buffer.get(offset + 1));
+                case SHORT:
+                    return factory.shortNode(buffer.getShort(offset + 1));
+                case INT:
+                    return factory.intNode(buffer.getInt(offset + 1));
+                case LONG:
+                    return factory.longNode(buffer.getLong(offset + 1));
+                case BIG_INTEGER:
+                    return factory.bigIntegerNode(
+                            new BigInteger(bytes(offset + 1)));
+                case FLOAT:
+                    return factory.floatNode(buffer.getFloat(offset + 1));
+                case DOUBLE:
+                    return factory.doubleNode(buffer.getDouble(offset + 1));
+                case BIG_DECIMAL:
+                    return factory.bigDecimalNode(new BigDecimal(
+                            new BigInteger(bytes(offset + 5)),
+                            buffer.getInt(offset + 1)));
+                case TEXT:
+                    return factory.textNode(text(offset));
+                case BINARY:
+                    return factory.binaryNode(bytes(offset + 1));
+                case TIME:
+                    DateTimeZone zone = DateTimeZone.forID(
+                            text(buffer.getInt(offset + 9)));
+                    return factory.dateTimeNode(
+                            new DateTime(buffer.getLong(offset + 1), zone));
+                case MAP:
+                    return new YamlMapNode(factory, new MappedMap(offset));
+                case ORDERED_MAP:
+                    return new YamlOrderedMapNode(factory, new MappedMap(offset));
+                case PAIRS:
+                    YamlPairsNode pairs = factory.pairsNode();
+                    for (Entry<YamlNode, YamlNode> e : new MappedMap(offset).entrySet()) {
+                        pairs.put(e.getKey(), e.getValue());
+                    }
+                    return pairs;
+                case SEQ:
+                    return new YamlSeqNode(factory, new MappedList(offset));
+                case SET:
+                    return new YamlSetNode(factory, new MappedSet(offset));
+                default:
+                    throw new IllegalStateException(
+                            "Unknown node tag " + tag + " at offset " + offset);
+            }
+        }
+
+        /**
+         * Reads a length prefixed byte array.
+         *
+         * @param offset the offset of the length
+         *
+         * @return the bytes
+         */
+        private byte[] bytes(int offset) {
+            byte[] bytes = new byte[buffer.getInt(offset)];
+            ByteBuffer view = buffer.duplicate();
+            ((Buffer) view).position(offset + 4);
+            view.get(bytes);
+            return bytes;
+        }
+
+        /**
+         * Reads the text of the text node at the specified offset.
+         *
+         * @param offset the offset of the node
+         *
+         * @return the text
+         */
+        private String text(int offset) {
+            return new String(bytes(offset + 1), StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Checks if the node at the specified offset is a text node with the
+         * specified text. ASCII texts are compared without decoding them.
+         *
+         * @param offset the offset of the node
+         * @param value  the text
+         *
+         * @return if the texts are equal
+         */
+        private boolean textEquals(int offset, String value) {
+            if (buffer.get(offset) != TEXT) {
+                return false;
+            }
+            int length = buffer.getInt(offset + 1);
+            if (length < value.length()) {
+                return false;
+            }
+            int start = offset + 5;
+            for (int i = 0; i < length; ++i) {
+                byte b = buffer.get(start + i);
+                if (b < 0) {
+                    return text(offset).equals(value);
+                }
+                if (i >= value.length() || value.charAt(i) != b) {
+                    return false;
+                }
+            }
+            return length == value.length();
+        }
+
+        /**
+         * Gets the text of a lookup key.
+         *
+         * @param key the key
+         *
+         * @return the text or {@code null} if the key is not a text
+         */
+        private static String textOf(Object key) {
+            if (key instanceof TextKeyProbe) {
+                return key.toString();
+            }
+            if (key instanceof YamlTextNode) {
+                return ((YamlTextNode) key).textValue();
+            }
+            return null;
+        }
+
+        /**
+         * A mapped container: the tag, the number of children, the child
+         * offsets and the hash index.
+         */
+        private final class Container {
+            /**
+             * The offset of the container.
+             */
+            final int offset;
+            /**
+             * The number of children.
+             */
+            final int size;
+            /**
+             * The number of offsets per child.
+             */
+            final int stride;
+
+            /**
+             * Creates a new {@link Container}.
+             *
+             * @param offset the offset of the container
+             * @param stride the number of offsets per child
+             */
+            Container(int offset, int stride) {
+                this.offset = offset;
+                this.size = buffer.getInt(offset + 1);
+                this.stride = stride;
+            }
+
+            /**
+             * Gets the offset of the first node of the specified child.
+             *
+             * @param index the index of the child
+             *
+             * @return the offset
+             */
+            int child(int index) {
+                return buffer.getInt(offset + 5 + 4 * stride * index);
+            }
+
+            /**
+             * Gets the offset of the second node of the specified child.
+             *
+             * @param index the index of the child
+             *
+             * @return the offset
+             */
+            int value(int index) {
+                return buffer.getInt(offset + 9 + 4 * stride * index);
+            }
+
+            /**
+             * Finds the child whose first node equals the specified node.
+             *
+             * @param key the node
+             *
+             * @return the index of the child or {@code -1}
+             */
+            int find(Object key) {
+                String text = textOf(key);
+                return text == null ? scan(key) : find(text);
+            }
+
+            /**
+             * Finds the text child with the specified text using the hash
+             * index.
+             *
+             * @param text the text
+             *
+             * @return the index of the child or {@code -1}
+             */
+            private int find(String text) {
+                int index = offset + 5 + 4 * stride * size;
+                int low = 0;
+                int high = buffer.getInt(index) - 1;
+                int hash = text.hashCode();
+                index += 4;
+                while (low <= high) {
+                    int mid = (low + high) >>> 1;
+                    int h = buffer.getInt(index + 8 * mid);
+                    if (h < hash) {
+                        low = mid + 1;
+                    } else if (h > hash) {
+                        high = mid - 1;
+                    } else {
+                        while (mid > low &&
+                               buffer.getInt(index + 8 * (mid - 1)) == hash) {
+                            --mid;
+                        }
+                        for (; mid <= high &&
+                               buffer.getInt(index + 8 * mid) == hash; ++mid) {
+                            int child = buffer.getInt(index + 8 * mid + 4);
+                            if (textEquals(child(child), text)) {
+                                return child;
+                            }
+                        }
+                        return -1;
+                    }
+                }
+                return -1;
+            }
+
+            /**
+             * Finds the non-text child that equals the specified node by a
+             * linear scan.
+             *
+             * @param key the node
+             *
+             * @return the index of the child or {@code -1}
+             */
+            private int scan(Object key) {
+                if (!(key instanceof YamlNode)) {
+                    return -1;
+                }
+                for (int i = 0; i < size; ++i) {
+                    int child = child(i);
+                    if (buffer.get(child) != TEXT && node(child).equals(key)) {
+                        return i;
+                    }
+                }
+                return -1;
+            }
+
+            /**
+             * Creates an iterator over the children.
+             *
+             * @param <T>      the type of the elements
+             * @param function the function creating the element of a child
+             *
+             * @return the iterator
+             */
+            <T> Iterator<T> iterator(IntFunction<T> function) {
+                return new Iterator<T>() {
+                    private int next;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < size;
+                    }
+
+                    @Override
+                    public T next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        return function.apply(next++);
+                    }
+                };
+            }
+        }
+
+        /**
+         * {@link Map} view of a mapped mapping.
+         */
+        private final class MappedMap extends AbstractMap<YamlNode, YamlNode> {
+            /**
+             * The mapped container.
+             */
+            private final Container container;
+
+            /**
+             * Creates a new {@link MappedMap}.
+             *
+             * @param offset the offset of the mapping
+             */
+            MappedMap(int offset) {
+                this.container = new Container(offset, 2);
+            }
+
+            @Override
+            public int size() {
+                return container.size;
+            }
+
+            @Override
+            public boolean containsKey(Object key) {
+                return container.find(key) >= 0;
+            }
+
+            @Override
+            public YamlNode get(Object key) {
+                int index = container.find(key);
+                return index < 0 ? null : node(container.value(index));
+            }
+
+            @Override
+            public Set<Entry<YamlNode, YamlNode>> entrySet() {
+                return new AbstractSet<Entry<YamlNode, YamlNode>>() {
+                    @Override
+                    public int size() {
+                        return container.size;
+                    }
+
+                    @Override
+                    public Iterator<Entry<YamlNode, YamlNode>> iterator() {
+                        return container.iterator(i -> new SimpleImmutableEntry<>(
+                                node(container.child(i)),
+                                node(container.value(i))));
+                    }
+                };
+            }
+        }
+
+        /**
+         * {@link java.util.List} view of a mapped sequence.
+         */
+        private final class MappedList extends AbstractList<YamlNode>
+                implements RandomAccess {
+            /**
+             * The mapped container.
+             */
+            private final Container container;
+
+            /**
+             * Creates a new {@link MappedList}.
+             *
+             * @param offset the offset of the sequence
+             */
+            MappedList(int offset) {
+                this.container = new Container(offset, 1);
+            }
+
+            @Override
+            public int size() {
+                return container.size;
+            }
+
+            @Override
+            public YamlNode get(int index) {
+                if (index < 0 || index >= container.size) {
+                    throw new IndexOutOfBoundsException(String.valueOf(index));
+                }
+                return node(container.child(index));
+            }
+        }
+
+        /**
+         * {@link Set} view of a mapped set.
+         */
+        private final class MappedSet extends AbstractSet<YamlNode> {
+            /**
+             * The mapped container.
+             */
+            private final Container container;
+
+            /**
+             * Creates a new {@link MappedSet}.
+             *
+             * @param offset the offset of the set
+             */
+            MappedSet(int offset) {
+                this.container = new Container(offset, 1);
+            }
+
+            @Override
+            public int size() {
+                return container.size;
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return container.find(o) >= 0;
+            }
+
+            @Override
+            public Iterator<YamlNode> iterator() {
+                return container.iterator(i -> node(container.child(i)));
+            }
+        }
+    }
+}
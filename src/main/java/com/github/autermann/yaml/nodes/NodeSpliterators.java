@@ -0,0 +1,229 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.nodes;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+import com.github.autermann.yaml.YamlNode;
+import com.google.common.collect.ImmutableCollection;
+
+/**
+ * Factory methods for {@link Spliterator}s that split the backing storage of
+ * container nodes evenly, instead of copying batches of an iterator into
+ * arrays like {@link java.util.Spliterators#spliterator(Collection, int)}.
+ *
+ * @author Christian Autermann
+ */
+final class NodeSpliterators {
+
+    /**
+     * Private constructor for utility class.
+     */
+    private NodeSpliterators() {
+    }
+
+    /**
+     * Creates a {@link Spliterator} over the specified collection. Immutable
+     * collections are split by index, all other collections use their own
+     * spliterator, which fails fast if the collection is modified. If that
+     * spliterator does not report {@code characteristics}, it is replaced by
+     * one over the iterator of the collection that does.
+     *
+     * @param <T>             the element type
+     * @param collection      the collection
+     * @param characteristics additional characteristics of the elements
+     *
+     * @return the spliterator
+     */
+    static <T> Spliterator<T> of(Collection<T> collection,
+                                 int characteristics) {
+        if (collection instanceof ImmutableCollection) {
+            List<T> list = ((ImmutableCollection<T>) collection).asList();
+            return indexed(list::get, list.size(), characteristics |
+                                                   Spliterator.IMMUTABLE);
+        }
+        Spliterator<T> spliterator = collection.spliterator();
+        if (spliterator.hasCharacteristics(characteristics)) {
+            return spliterator;
+        }
+        // keep the order of the collection and its fail-fast iterator
+        return Spliterators.spliterator(collection, characteristics |
+                (spliterator.characteristics() & Spliterator.ORDERED));
+    }
+
+    /**
+     * Creates a {@link Spliterator} over the elements at the indices
+     * {@code 0} to {@code size - 1}.
+     *
+     * @param <T>             the element type
+     * @param elements        the function getting the element of an index
+     * @param size            the number of elements
+     * @param characteristics additional characteristics of the elements
+     *
+     * @return the spliterator
+     */
+    static <T> Spliterator<T> indexed(IntFunction<? extends T> elements,
+                                      int size, int characteristics) {
+        return new IndexSpliterator<>(elements, 0, size,
+                                      characteristics | Spliterator.ORDERED |
+                                      Spliterator.SIZED | Spliterator.SUBSIZED);
+    }
+
+    /**
+     * Creates a {@link Spliterator} over the keys of the specified entries.
+     *
+     * @param entries the entries
+     *
+     * @return the spliterator
+     */
+    static Spliterator<YamlNode> keys(
+            Spliterator<Entry<YamlNode, YamlNode>> entries) {
+        return new KeySpliterator(entries);
+    }
+
+    /**
+     * {@link Spliterator} over a range of indices that is split in half.
+     *
+     * @param <T> the element type
+     */
+    private static final class IndexSpliterator<T> implements Spliterator<T> {
+        /**
+         * The function getting the element of an index.
+         */
+        private final IntFunction<? extends T> elements;
+        /**
+         * The characteristics.
+         */
+        private final int characteristics;
+        /**
+         * The next index.
+         */
+        private int index;
+        /**
+         * The last index (exclusive).
+         */
+        private final int fence;
+
+        /**
+         * Creates a new {@link IndexSpliterator}.
+         *
+         * @param elements        the function getting the element of an index
+         * @param index           the first index (inclusive)
+         * @param fence           the last index (exclusive)
+         * @param characteristics the characteristics
+         */
+        IndexSpliterator(IntFunction<? extends T> elements, int index,
+                         int fence, int characteristics) {
+            this.elements = elements;
+            this.index = index;
+            this.fence = fence;
+            this.characteristics = characteristics;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (index < fence) {
+                action.accept(elements.apply(index++));
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            int i = index;
+            index = fence;
+            for (; i < fence; ++i) {
+                action.accept(elements.apply(i));
+            }
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            int from = index;
+            int mid = (from + fence) >>> 1;
+            if (from >= mid) {
+                return null;
+            }
+            index = mid;
+            return new IndexSpliterator<>(elements, from, mid, characteristics);
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return characteristics;
+        }
+    }
+
+    /**
+     * {@link Spliterator} over the keys of a {@link Spliterator} of entries.
+     */
+    private static final class KeySpliterator
+            implements Spliterator<YamlNode> {
+        /**
+         * The entries.
+         */
+        private final Spliterator<Entry<YamlNode, YamlNode>> entries;
+
+        /**
+         * Creates a new {@link KeySpliterator}.
+         *
+         * @param entries the entries
+         */
+        KeySpliterator(Spliterator<Entry<YamlNode, YamlNode>> entries) {
+            this.entries = entries;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super YamlNode> action) {
+            return entries.tryAdvance(e -> action.accept(e.getKey()));
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super YamlNode> action) {
+            entries.forEachRemaining(e -> action.accept(e.getKey()));
+        }
+
+        @Override
+        public Spliterator<YamlNode> trySplit() {
+            Spliterator<Entry<YamlNode, YamlNode>> split = entries.trySplit();
+            return split == null ? null : new KeySpliterator(split);
+        }
+
+        @Override
+        public long estimateSize() {
+            return entries.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            // the keys of a mapping are distinct
+            return entries.characteristics() | Spliterator.DISTINCT |
+                   Spliterator.NONNULL;
+        }
+    }
+}
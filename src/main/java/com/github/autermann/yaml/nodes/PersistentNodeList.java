@@ -0,0 +1,258 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.nodes;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+import com.github.autermann.yaml.YamlNode;
+
+/**
+ * An immutable {@link java.util.List} of {@link YamlNode}s backed by a
+ * 32-way trie of arrays with a separate tail array. Every version created by
+ * {@link #with(int, YamlNode)} or {@link #withAdded(YamlNode)} shares all
+ * unchanged arrays with this list, so it only copies the {@code O(log n)}
+ * arrays on the path to the changed index.
+ *
+ * @author Christian Autermann
+ */
+final class PersistentNodeList extends AbstractList<YamlNode>
+        implements RandomAccess {
+    /**
+     * The number of index bits consumed per level.
+     */
+    private static final int BITS = 5;
+    /**
+     * The number of elements of a trie array.
+     */
+    private static final int WIDTH = 1 << BITS;
+    /**
+     * The mask of the bits of a level.
+     */
+    private static final int MASK = WIDTH - 1;
+    /**
+     * The empty list.
+     */
+    private static final PersistentNodeList EMPTY
+            = new PersistentNodeList(0, BITS, new Object[WIDTH], new Object[0]);
+    /**
+     * The number of elements.
+     */
+    private final int size;
+    /**
+     * The shift of the root array.
+     */
+    private final int shift;
+    /**
+     * The root of the trie, holding all elements before the tail.
+     */
+    private final Object[] root;
+    /**
+     * The last (up to {@link #WIDTH}) elements.
+     */
+    private final Object[] tail;
+
+    /**
+     * Creates a new {@link PersistentNodeList}.
+     *
+     * @param size  the number of elements
+     * @param shift the shift of the root array
+     * @param root  the root of the trie
+     * @param tail  the tail
+     */
+    private PersistentNodeList(int size, int shift, Object[] root,
+                               Object[] tail) {
+        this.size = size;
+        this.shift = shift;
+        this.root = root;
+        this.tail = tail;
+    }
+
+    /**
+     * Gets the empty list.
+     *
+     * @return the empty list
+     */
+    static PersistentNodeList empty() {
+        return EMPTY;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public YamlNode get(int index) {
+        checkIndex(index);
+        return (YamlNode) arrayFor(index)[index & MASK];
+    }
+
+    /**
+     * Creates a list with the element at the specified index replaced.
+     *
+     * @param index the index
+     * @param value the new element
+     *
+     * @return the new list or {@code this} if the element is already present
+     */
+    PersistentNodeList with(int index, YamlNode value) {
+        Objects.requireNonNull(value);
+        checkIndex(index);
+        if (get(index) == value) {
+            return this;
+        }
+        if (index >= tailOffset()) {
+            Object[] copy = tail.clone();
+            copy[index & MASK] = value;
+            return new PersistentNodeList(size, shift, root, copy);
+        }
+        return new PersistentNodeList(size, shift,
+                                      replace(shift, root, index, value), tail);
+    }
+
+    /**
+     * Creates a list with the specified element appended.
+     *
+     * @param value the element
+     *
+     * @return the new list
+     */
+    PersistentNodeList withAdded(YamlNode value) {
+        Objects.requireNonNull(value);
+        if (size - tailOffset() < WIDTH) {
+            Object[] copy = Arrays.copyOf(tail, tail.length + 1);
+            copy[tail.length] = value;
+            return new PersistentNodeList(size + 1, shift, root, copy);
+        }
+        // the tail is full, move it into the trie
+        Object[] newRoot;
+        int newShift = shift;
+        if ((size >>> BITS) > (1 << shift)) {
+            newRoot = new Object[WIDTH];
+            newRoot[0] = root;
+            newRoot[1] = path(shift, tail);
+            newShift += BITS;
+        } else {
+            newRoot = pushTail(shift, root, tail);
+        }
+        return new PersistentNodeList(size + 1, newShift, newRoot,
+                                      new Object[] { value });
+    }
+
+    /**
+     * Gets the index of the first element of the tail.
+     *
+     * @return the index
+     */
+    private int tailOffset() {
+        return size < WIDTH ? 0 : ((size - 1) >>> BITS) << BITS;
+    }
+
+    /**
+     * Gets the array holding the element at the specified index.
+     *
+     * @param index the index
+     *
+     * @return the array
+     */
+    private Object[] arrayFor(int index) {
+        if (index >= tailOffset()) {
+            return tail;
+        }
+        Object[] array = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            array = (Object[]) array[(index >>> level) & MASK];
+        }
+        return array;
+    }
+
+    /**
+     * Creates a copy of the path to the specified index with the element
+     * replaced.
+     *
+     * @param level the shift of the array
+     * @param array the array
+     * @param index the index
+     * @param value the new element
+     *
+     * @return the new array
+     */
+    private static Object[] replace(int level, Object[] array, int index,
+                                    YamlNode value) {
+        Object[] copy = array.clone();
+        if (level == 0) {
+            copy[index & MASK] = value;
+        } else {
+            int i = (index >>> level) & MASK;
+            copy[i] = replace(level - BITS, (Object[]) array[i], index, value);
+        }
+        return copy;
+    }
+
+    /**
+     * Creates a copy of the path to the end of the trie with the full tail
+     * appended.
+     *
+     * @param level the shift of the array
+     * @param array the array
+     * @param tail  the full tail
+     *
+     * @return the new array
+     */
+    private Object[] pushTail(int level, Object[] array, Object[] tail) {
+        int i = ((size - 1) >>> level) & MASK;
+        Object[] copy = array.clone();
+        if (level == BITS) {
+            copy[i] = tail;
+        } else {
+            Object[] child = (Object[]) array[i];
+            copy[i] = child == null ? path(level - BITS, tail)
+                      : pushTail(level - BITS, child, tail);
+        }
+        return copy;
+    }
+
+    /**
+     * Creates a new path of arrays leading to the specified leaf array.
+     *
+     * @param level the shift of the topmost array
+     * @param leaf  the leaf array
+     *
+     * @return the topmost array
+     */
+    private static Object[] path(int level, Object[] leaf) {
+        if (level == 0) {
+            return leaf;
+        }
+        Object[] array = new Object[WIDTH];
+        array[0] = path(level - BITS, leaf);
+        return array;
+    }
+
+    /**
+     * Checks the specified index against the size of this list.
+     *
+     * @param index the index
+     */
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(String.valueOf(index));
+        }
+    }
+}
@@ -0,0 +1,675 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.nodes;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+import com.github.autermann.yaml.YamlNode;
+import com.google.common.collect.Maps;
+import com.google.common.collect.UnmodifiableIterator;
+
+/**
+ * An immutable {@link java.util.Map} of {@link YamlNode}s backed by a hash
+ * array mapped trie. {@link #with(YamlNode, YamlNode)} and
+ * {@link #without(Object)} create new versions of the map that share all
+ * unchanged trie nodes with this map, so they only copy the
+ * {@code O(log n)} nodes on the path to the changed key.
+ * <p>
+ * Every trie node consumes {@link #BITS} bits of the key's hash. Its array
+ * holds a key and a value for every set bit of its bitmap; a {@code null}
+ * key marks a child node in place of the value. Keys whose hashes are
+ * identical end up in a collision node below the last level that holds all
+ * pairs in a plain array.
+ *
+ * @author Christian Autermann
+ */
+final class PersistentNodeMap extends AbstractMap<YamlNode, YamlNode> {
+    /**
+     * The number of hash bits consumed per level.
+     */
+    private static final int BITS = 5;
+    /**
+     * The mask of the bits of a level.
+     */
+    private static final int MASK = (1 << BITS) - 1;
+    /**
+     * The maximal number of trie nodes on a path, including a collision
+     * node.
+     */
+    private static final int MAX_DEPTH = (Integer.SIZE + BITS - 1) / BITS + 1;
+    /**
+     * The empty map.
+     */
+    private static final PersistentNodeMap EMPTY
+            = new PersistentNodeMap(null, 0);
+    /**
+     * The root of the trie or {@code null} if this map is empty.
+     */
+    private final Node root;
+    /**
+     * The number of pairs.
+     */
+    private final int size;
+
+    /**
+     * Creates a new {@link PersistentNodeMap}.
+     *
+     * @param root the root of the trie
+     * @param size the number of pairs
+     */
+    private PersistentNodeMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Gets the empty map.
+     *
+     * @return the empty map
+     */
+    static PersistentNodeMap empty() {
+        return EMPTY;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public YamlNode get(Object key) {
+        return key == null || root == null ? null : find(root, key, hash(key));
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Creates a map that maps the specified key to the specified value.
+     *
+     * @param key   the key
+     * @param value the value
+     *
+     * @return the new map or {@code this} if the key is already mapped to
+     *         the value
+     */
+    PersistentNodeMap with(YamlNode key, YamlNode value) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(value);
+        YamlNode old = get(key);
+        if (old == value) {
+            return this;
+        }
+        int hash = hash(key);
+        Node node = root == null
+                    ? Node.leaf(key, value, hash, 0)
+                    : put(root, key, value, hash, 0);
+        return new PersistentNodeMap(node, old == null ? size + 1 : size);
+    }
+
+    /**
+     * Creates a map that does not contain the specified key.
+     *
+     * @param key the key
+     *
+     * @return the new map or {@code this} if the key is not present
+     */
+    PersistentNodeMap without(Object key) {
+        if (!containsKey(key)) {
+            return this;
+        }
+        Node node = remove(root, key, hash(key), 0);
+        return node == null ? EMPTY : new PersistentNodeMap(node, size - 1);
+    }
+
+    @Override
+    public Set<Entry<YamlNode, YamlNode>> entrySet() {
+        return new AbstractSet<Entry<YamlNode, YamlNode>>() {
+            @Override
+            public Iterator<Entry<YamlNode, YamlNode>> iterator() {
+                return new EntryIterator(root);
+            }
+
+            @Override
+            public int size() {
+                return PersistentNodeMap.this.size;
+            }
+
+            @Override
+            public Spliterator<Entry<YamlNode, YamlNode>> spliterator() {
+                return root == null ? Spliterators.emptySpliterator()
+                       : new EntrySpliterator(root.array, size);
+            }
+        };
+    }
+
+    /**
+     * Finds the value of a key.
+     *
+     * @param node the root node
+     * @param key  the key
+     * @param hash the hash of the key
+     *
+     * @return the value or {@code null}
+     */
+    private static YamlNode find(Node node, Object key, int hash) {
+        for (int shift = 0;; shift += BITS) {
+            Object[] array = node.array;
+            if (shift >= Integer.SIZE) {
+                for (int i = 0; i < array.length; i += 2) {
+                    if (key.equals(array[i])) {
+                        return (YamlNode) array[i + 1];
+                    }
+                }
+                return null;
+            }
+            int bit = bit(hash, shift);
+            if ((node.bitmap & bit) == 0) {
+                return null;
+            }
+            int i = node.index(bit);
+            if (array[i] == null) {
+                node = (Node) array[i + 1];
+            } else {
+                return key.equals(array[i]) ? (YamlNode) array[i + 1] : null;
+            }
+        }
+    }
+
+    /**
+     * Creates a copy of the specified node that contains the specified pair.
+     *
+     * @param node  the node
+     * @param key   the key
+     * @param value the value
+     * @param hash  the hash of the key
+     * @param shift the shift of the node
+     *
+     * @return the new node
+     */
+    private static Node put(Node node, YamlNode key, YamlNode value,
+                            int hash, int shift) {
+        Object[] array = node.array;
+        if (shift >= Integer.SIZE) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (key.equals(array[i])) {
+                    return node.replace(i + 1, value);
+                }
+            }
+            return new Node(0, insert(array, array.length, key, value));
+        }
+        int bit = bit(hash, shift);
+        int i = node.index(bit);
+        if ((node.bitmap & bit) == 0) {
+            return new Node(node.bitmap | bit, insert(array, i, key, value));
+        }
+        Object k = array[i];
+        if (k == null) {
+            Node child = put((Node) array[i + 1], key, value, hash, shift + BITS);
+            return node.replace(i + 1, child);
+        } else if (key.equals(k)) {
+            return node.replace(i + 1, value);
+        } else {
+            YamlNode other = (YamlNode) k;
+            Node child = merge(other, (YamlNode) array[i + 1], hash(other),
+                               key, value, hash, shift + BITS);
+            Object[] copy = array.clone();
+            copy[i] = null;
+            copy[i + 1] = child;
+            return new Node(node.bitmap, copy);
+        }
+    }
+
+    /**
+     * Creates a node containing two pairs whose hashes are equal up to the
+     * specified shift.
+     *
+     * @param key1   the first key
+     * @param value1 the first value
+     * @param hash1  the hash of the first key
+     * @param key2   the second key
+     * @param value2 the second value
+     * @param hash2  the hash of the second key
+     * @param shift  the shift of the new node
+     *
+     * @return the node
+     */
+    private static Node merge(YamlNode key1, YamlNode value1, int hash1,
+                              YamlNode key2, YamlNode value2, int hash2,
+                              int shift) {
+        if (shift >= Integer.SIZE) {
+            return new Node(0, new Object[] { key1, value1, key2, value2 });
+        }
+        int fragment1 = (hash1 >>> shift) & MASK;
+        int fragment2 = (hash2 >>> shift) & MASK;
+        if (fragment1 == fragment2) {
+            Node child = merge(key1, value1, hash1, key2, value2, hash2,
+                               shift + BITS);
+            return new Node(1 << fragment1, new Object[] { null, child });
+        } else if (fragment1 < fragment2) {
+            return new Node((1 << fragment1) | (1 << fragment2),
+                            new Object[] { key1, value1, key2, value2 });
+        } else {
+            return new Node((1 << fragment1) | (1 << fragment2),
+                            new Object[] { key2, value2, key1, value1 });
+        }
+    }
+
+    /**
+     * Creates a copy of the specified node without the specified key.
+     *
+     * @param node  the node
+     * @param key   the key
+     * @param hash  the hash of the key
+     * @param shift the shift of the node
+     *
+     * @return the new node or {@code null} if it would be empty
+     */
+    private static Node remove(Node node, Object key, int hash, int shift) {
+        Object[] array = node.array;
+        if (shift >= Integer.SIZE) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (key.equals(array[i])) {
+                    return array.length == 2 ? null
+                           : new Node(0, delete(array, i));
+                }
+            }
+            return node;
+        }
+        int bit = bit(hash, shift);
+        if ((node.bitmap & bit) == 0) {
+            return node;
+        }
+        int i = node.index(bit);
+        Object k = array[i];
+        if (k == null) {
+            Node child = (Node) array[i + 1];
+            Node removed = remove(child, key, hash, shift + BITS);
+            if (removed == child) {
+                return node;
+            } else if (removed == null) {
+                return array.length == 2 ? null
+                       : new Node(node.bitmap & ~bit, delete(array, i));
+            } else if (removed.array.length == 2 && removed.array[0] != null) {
+                // pull a single remaining pair up into this node
+                Object[] copy = array.clone();
+                copy[i] = removed.array[0];
+                copy[i + 1] = removed.array[1];
+                return new Node(node.bitmap, copy);
+            } else {
+                return node.replace(i + 1, removed);
+            }
+        } else if (key.equals(k)) {
+            return array.length == 2 ? null
+                   : new Node(node.bitmap & ~bit, delete(array, i));
+        } else {
+            return node;
+        }
+    }
+
+    /**
+     * Creates a copy of the specified array with a pair inserted at the
+     * specified index.
+     *
+     * @param array the array
+     * @param index the index
+     * @param key   the key
+     * @param value the value
+     *
+     * @return the new array
+     */
+    private static Object[] insert(Object[] array, int index,
+                                   Object key, Object value) {
+        Object[] copy = new Object[array.length + 2];
+        System.arraycopy(array, 0, copy, 0, index);
+        copy[index] = key;
+        copy[index + 1] = value;
+        System.arraycopy(array, index, copy, index + 2, array.length - index);
+        return copy;
+    }
+
+    /**
+     * Creates a copy of the specified array without the pair at the
+     * specified index.
+     *
+     * @param array the array
+     * @param index the index
+     *
+     * @return the new array
+     */
+    private static Object[] delete(Object[] array, int index) {
+        Object[] copy = new Object[array.length - 2];
+        System.arraycopy(array, 0, copy, 0, index);
+        System.arraycopy(array, index + 2, copy, index, copy.length - index);
+        return copy;
+    }
+
+    /**
+     * Gets the bit of the specified hash for the specified shift.
+     *
+     * @param hash  the hash
+     * @param shift the shift
+     *
+     * @return the bit
+     */
+    private static int bit(int hash, int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+    /**
+     * Computes the hash of a key.
+     *
+     * @param key the key
+     *
+     * @return the hash
+     */
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * A node of the trie.
+     */
+    private static final class Node {
+        /**
+         * The bits of the present keys and children.
+         */
+        private final int bitmap;
+        /**
+         * The keys and values, or {@code null} and child nodes.
+         */
+        private final Object[] array;
+
+        /**
+         * Creates a new {@link Node}.
+         *
+         * @param bitmap the bitmap
+         * @param array  the keys and values
+         */
+        Node(int bitmap, Object[] array) {
+            this.bitmap = bitmap;
+            this.array = array;
+        }
+
+        /**
+         * Gets the index of the key of the specified bit in {@link #array}.
+         *
+         * @param bit the bit
+         *
+         * @return the index
+         */
+        int index(int bit) {
+            return 2 * Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        /**
+         * Creates a copy of this node with a replaced array element.
+         *
+         * @param index the index
+         * @param value the new element
+         *
+         * @return the new node
+         */
+        Node replace(int index, Object value) {
+            Object[] copy = array.clone();
+            copy[index] = value;
+            return new Node(bitmap, copy);
+        }
+
+        /**
+         * Creates a node containing a single pair.
+         *
+         * @param key   the key
+         * @param value the value
+         * @param hash  the hash of the key
+         * @param shift the shift of the node
+         *
+         * @return the node
+         */
+        static Node leaf(YamlNode key, YamlNode value, int hash, int shift) {
+            return new Node(bit(hash, shift), new Object[] { key, value });
+        }
+    }
+
+    /**
+     * {@link Iterator} over the pairs of a trie in depth-first order.
+     */
+    private static final class EntryIterator
+            extends UnmodifiableIterator<Entry<YamlNode, YamlNode>> {
+        /**
+         * The arrays of the nodes on the current path.
+         */
+        private final Object[][] arrays = new Object[MAX_DEPTH][];
+        /**
+         * The next index into each array of {@link #arrays}.
+         */
+        private final int[] indices = new int[MAX_DEPTH];
+        /**
+         * The current depth or {@code -1} if the iteration is done.
+         */
+        private int depth = -1;
+        /**
+         * The next entry.
+         */
+        private Entry<YamlNode, YamlNode> next;
+
+        /**
+         * Creates a new {@link EntryIterator}.
+         *
+         * @param root the root of the trie or {@code null}
+         */
+        EntryIterator(Node root) {
+            if (root != null) {
+                push(root);
+            }
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Entry<YamlNode, YamlNode> next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Entry<YamlNode, YamlNode> entry = next;
+            advance();
+            return entry;
+        }
+
+        /**
+         * Descends into the specified node.
+         *
+         * @param node the node
+         */
+        private void push(Node node) {
+            ++depth;
+            arrays[depth] = node.array;
+            indices[depth] = 0;
+        }
+
+        /**
+         * Moves to the next pair.
+         */
+        private void advance() {
+            next = null;
+            while (depth >= 0) {
+                Object[] array = arrays[depth];
+                int i = indices[depth];
+                if (i >= array.length) {
+                    arrays[depth--] = null;
+                } else {
+                    indices[depth] = i + 2;
+                    if (array[i] == null) {
+                        push((Node) array[i + 1]);
+                    } else {
+                        next = Maps.immutableEntry((YamlNode) array[i],
+                                                   (YamlNode) array[i + 1]);
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * {@link Spliterator} over the pairs of a range of a trie node's array.
+     * It splits the range in half and descends into the child node if only
+     * a single child remains, so every level of the trie can be split.
+     */
+    private static final class EntrySpliterator
+            implements Spliterator<Entry<YamlNode, YamlNode>> {
+        /**
+         * The array of the trie node.
+         */
+        private Object[] array;
+        /**
+         * The index of the next key in {@link #array}.
+         */
+        private int index;
+        /**
+         * The end of the range in {@link #array} (exclusive).
+         */
+        private int fence;
+        /**
+         * The estimated number of pairs in the range.
+         */
+        private long estimate;
+        /**
+         * The iterator over the child node currently traversed by
+         * {@link #tryAdvance(Consumer)} or {@code null}.
+         */
+        private EntryIterator child;
+
+        /**
+         * Creates a new {@link EntrySpliterator} over a whole trie node.
+         *
+         * @param array the array of the node
+         * @param size  the number of pairs below the node
+         */
+        EntrySpliterator(Object[] array, long size) {
+            this(array, 0, array.length, size);
+        }
+
+        /**
+         * Creates a new {@link EntrySpliterator}.
+         *
+         * @param array    the array of the node
+         * @param index    the index of the first key
+         * @param fence    the end of the range (exclusive)
+         * @param estimate the estimated number of pairs in the range
+         */
+        private EntrySpliterator(Object[] array, int index, int fence,
+                                 long estimate) {
+            this.array = array;
+            this.index = index;
+            this.fence = fence;
+            this.estimate = estimate;
+        }
+
+        @Override
+        public boolean tryAdvance(
+                Consumer<? super Entry<YamlNode, YamlNode>> action) {
+            while (true) {
+                if (child != null) {
+                    if (child.hasNext()) {
+                        action.accept(child.next());
+                        return true;
+                    }
+                    child = null;
+                }
+                if (index >= fence) {
+                    return false;
+                }
+                int i = index;
+                index += 2;
+                if (array[i] == null) {
+                    child = new EntryIterator((Node) array[i + 1]);
+                } else {
+                    action.accept(Maps.immutableEntry((YamlNode) array[i],
+                                                      (YamlNode) array[i + 1]));
+                    return true;
+                }
+            }
+        }
+
+        @Override
+        public void forEachRemaining(
+                Consumer<? super Entry<YamlNode, YamlNode>> action) {
+            if (child != null) {
+                child.forEachRemaining(action);
+                child = null;
+            }
+            for (; index < fence; index += 2) {
+                if (array[index] == null) {
+                    new EntryIterator((Node) array[index + 1])
+                            .forEachRemaining(action);
+                } else {
+                    action.accept(Maps.immutableEntry((YamlNode) array[index],
+                                                      (YamlNode) array[index + 1]));
+                }
+            }
+        }
+
+        @Override
+        public Spliterator<Entry<YamlNode, YamlNode>> trySplit() {
+            if (child != null) {
+                return null;
+            }
+            if (fence - index == 2 && array[index] == null) {
+                // descend into the only remaining child
+                array = ((Node) array[index + 1]).array;
+                index = 0;
+                fence = array.length;
+            }
+            int pairs = (fence - index) / 2;
+            if (pairs < 2) {
+                return null;
+            }
+            int mid = index + 2 * (pairs / 2);
+            EntrySpliterator prefix
+                    = new EntrySpliterator(array, index, mid, estimate / 2);
+            index = mid;
+            estimate -= prefix.estimate;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return estimate;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.DISTINCT | Spliterator.NONNULL |
+                   Spliterator.IMMUTABLE;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.nodes;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+
+import com.github.autermann.yaml.YamlNode;
+import com.github.autermann.yaml.YamlNodes;
+
+/**
+ * A {@link List} of {@link YamlNode}s that stores the values of its elements
+ * in a primitive array and creates the nodes on access. If a node is added
+ * that can not be stored in the array, or an element is removed, the list
+ * is converted to an {@link ArrayList} of nodes.
+ *
+ * @author Christian Autermann
+ */
+abstract class PrimitiveNodeList extends AbstractList<YamlNode>
+        implements RandomAccess {
+    /**
+     * The initial capacity of the primitive array.
+     */
+    static final int INITIAL_CAPACITY = 8;
+    /**
+     * The nodes once this list was converted, or {@code null}.
+     */
+    private List<YamlNode> nodes;
+    /**
+     * The number of values in the primitive array.
+     */
+    int size;
+    /**
+     * If this list can not be modified.
+     */
+    boolean frozen;
+
+    /**
+     * Checks if this list was converted to an {@link ArrayList} of nodes.
+     *
+     * @return if the primitive array is no longer used
+     */
+    boolean isInflated() {
+        return this.nodes != null;
+    }
+
+    @Override
+    public YamlNode get(int index) {
+        if (nodes != null) {
+            return nodes.get(index);
+        }
+        checkIndex(index);
+        return materialize(index);
+    }
+
+    @Override
+    public int size() {
+        return nodes != null ? nodes.size() : size;
+    }
+
+    @Override
+    public YamlNode set(int index, YamlNode node) {
+        checkNotFrozen();
+        YamlNode value = YamlNodes.nullToNode(node);
+        if (nodes == null) {
+            checkIndex(index);
+            YamlNode old = materialize(index);
+            if (store(index, value)) {
+                return old;
+            }
+            inflate();
+        }
+        return nodes.set(index, value);
+    }
+
+    @Override
+    public void add(int index, YamlNode node) {
+        checkNotFrozen();
+        YamlNode value = YamlNodes.nullToNode(node);
+        ++modCount;
+        if (nodes == null) {
+            if (index == size && append(value)) {
+                return;
+            }
+            inflate();
+        }
+        nodes.add(index, value);
+    }
+
+    @Override
+    public YamlNode remove(int index) {
+        checkNotFrozen();
+        if (nodes == null) {
+            inflate();
+        }
+        ++modCount;
+        return nodes.remove(index);
+    }
+
+    /**
+     * Converts this list to an {@link ArrayList} of nodes.
+     */
+    private void inflate() {
+        List<YamlNode> list = new ArrayList<>(size + 1);
+        for (int i = 0; i < size; ++i) {
+            list.add(materialize(i));
+        }
+        release();
+        this.size = 0;
+        this.nodes = list;
+    }
+
+    /**
+     * Checks that this list is not frozen.
+     *
+     * @throws UnsupportedOperationException if this list is frozen
+     */
+    private void checkNotFrozen() {
+        if (frozen) {
+            throw new UnsupportedOperationException("sequence is frozen");
+        }
+    }
+
+    /**
+     * Checks the specified index against the size of the primitive array.
+     *
+     * @param index the index
+     */
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(String.valueOf(index));
+        }
+    }
+
+    /**
+     * Creates the node for the value at the specified index.
+     *
+     * @param index the index
+     *
+     * @return the node
+     */
+    abstract YamlNode materialize(int index);
+
+    /**
+     * Tries to append the value of the specified node to the primitive array.
+     *
+     * @param node the node
+     *
+     * @return if the value could be stored
+     */
+    abstract boolean append(YamlNode node);
+
+    /**
+     * Tries to store the value of the specified node at the specified index
+     * of the primitive array.
+     *
+     * @param index the index
+     * @param node  the node
+     *
+     * @return if the value could be stored
+     */
+    abstract boolean store(int index, YamlNode node);
+
+    /**
+     * Releases the primitive array after the list was converted.
+     */
+    abstract void release();
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.nodes;
+
+/**
+ * Lookup key for {@link String} keys that is hash and equality compatible with
+ * {@link YamlTextNode}. It allows mapping nodes to probe their backing maps
+ * without creating a {@link YamlTextNode} for every lookup.
+ * <p>
+ * Instances are reused per thread and must never be stored in a map. Both
+ * {@link #equals(Object)} and {@link YamlTextNode#equals(Object)} accept the
+ * other type, as maps differ in which key they compare with.
+ *
+ * @author Christian Autermann
+ */
+final class TextKeyProbe {
+    /**
+     * The per-thread probe instances.
+     */
+    private static final ThreadLocal<TextKeyProbe> PROBES
+            = ThreadLocal.withInitial(TextKeyProbe::new);
+    /**
+     * The key currently probed for.
+     */
+    private String key;
+
+    /**
+     * Private constructor; use {@link #of(String)}.
+     */
+    private TextKeyProbe() {
+    }
+
+    @Override
+    public int hashCode() {
+        return key.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof YamlTextNode &&
+               key.equals(((YamlTextNode) o).textValue());
+    }
+
+    @Override
+    public String toString() {
+        return key;
+    }
+
+    /**
+     * Releases the key of this probe.
+     */
+    void release() {
+        this.key = null;
+    }
+
+    /**
+     * Gets the probe of the current thread for the specified key. Callers
+     * should {@link #release()} the probe when the lookup is done.
+     *
+     * @param key the (non-{@code null}) key
+     *
+     * @return the probe
+     */
+    static TextKeyProbe of(String key) {
+        TextKeyProbe probe = PROBES.get();
+        probe.key = key;
+        return probe;
+    }
+}
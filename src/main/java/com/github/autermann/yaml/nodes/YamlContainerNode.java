@@ -18,6 +18,8 @@ package com.github.autermann.yaml.nodes;
 
 import java.util.Iterator;
 import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -35,6 +37,11 @@ public abstract class YamlContainerNode implements YamlNode {
      * The {@link YamlNodeFactory} to create children with.
      */
     private final YamlNodeFactory factory;
+    /**
+     * The cached hash code of a frozen node, or {@code 0} if it was not yet
+     * computed.
+     */
+    private int hashCode;
 
     /**
      * Creates a new {@link YamlContainerNode}.
@@ -129,9 +136,66 @@ public abstract class YamlContainerNode implements YamlNode {
     @Override
     public abstract Iterator<YamlNode> iterator();
 
+    @Override
+    public abstract boolean isFrozen();
+
+    @Override
+    public YamlNode copy(ForkJoinPool pool) {
+        return pool.invoke(ForkJoinTask.adapt(this::parallelCopy));
+    }
+
+    /**
+     * Creates a deep copy of this node from within a {@link ForkJoinPool}.
+     * Containers with many children copy them in parallel using a
+     * {@link CopyTask}.
+     *
+     * @return the copy
+     */
+    YamlContainerNode parallelCopy() {
+        return (YamlContainerNode) copy();
+    }
+
+    /**
+     * Gets the hash code of this node. The hash code of a frozen node is
+     * computed once and cached, as it can not change anymore.
+     *
+     * @return the hash code
+     */
+    @Override
+    public int hashCode() {
+        if (!isFrozen()) {
+            return computeHashCode();
+        }
+        // racy single-check: concurrent callers compute the same value
+        int h = this.hashCode;
+        if (h == 0) {
+            this.hashCode = h = computeHashCode();
+        }
+        return h;
+    }
+
+    /**
+     * Computes the hash code of this node from its children.
+     *
+     * @return the hash code
+     */
+    protected abstract int computeHashCode();
+
+    @Override
+    public abstract YamlContainerNode freeze();
+
     @Override
     public Stream<YamlNode> stream() {
         return StreamSupport.stream(spliterator(), false);
     }
 
+    /**
+     * Creates a parallel stream of nodes for this {@code YamlNode}.
+     *
+     * @return the stream
+     */
+    public Stream<YamlNode> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
 }
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.nodes;
+
+import java.util.Arrays;
+import java.util.stream.DoubleStream;
+
+import com.github.autermann.yaml.YamlNode;
+import com.github.autermann.yaml.YamlNodeFactory;
+
+/**
+ * A {@link YamlSeqNode} of {@code double} values, backed by a
+ * {@code double[]}. The {@link YamlDoubleNode}s of the elements are created on
+ * access, so repeated accesses may return different (but equal) instances.
+ * <p>
+ * If a node is added that is not a {@link YamlDoubleNode}, the sequence falls
+ * back to storing nodes.
+ *
+ * @author Christian Autermann
+ */
+public class YamlDoubleArrayNode extends YamlSeqNode {
+    /**
+     * The backing list.
+     */
+    private final Values values;
+
+    /**
+     * Creates a new empty {@link YamlDoubleArrayNode}.
+     *
+     * @param factory the factory to create children
+     */
+    public YamlDoubleArrayNode(YamlNodeFactory factory) {
+        this(factory, new Values(new double[PrimitiveNodeList.INITIAL_CAPACITY], 0));
+    }
+
+    /**
+     * Creates a new {@link YamlDoubleArrayNode} containing the specified
+     * values.
+     *
+     * @param factory the factory to create children
+     * @param values  the values
+     */
+    public YamlDoubleArrayNode(YamlNodeFactory factory, double... values) {
+        this(factory, new Values(values.clone(), values.length));
+    }
+
+    /**
+     * Creates a new {@link YamlDoubleArrayNode} with the specified backing
+     * list.
+     *
+     * @param factory the factory to create children
+     * @param values  the backing list
+     */
+    private YamlDoubleArrayNode(YamlNodeFactory factory, Values values) {
+        super(factory, values);
+        this.values = values;
+    }
+
+    /**
+     * Gets the values of this sequence. If the sequence contains nodes that
+     * are not decimal, their {@link YamlNode#asDoubleValue()} is returned.
+     *
+     * @return the values
+     */
+    public DoubleStream doubleStream() {
+        if (values.isInflated()) {
+            return stream().mapToDouble(YamlNode::asDoubleValue);
+        }
+        return Arrays.stream(values.values, 0, values.size);
+    }
+
+    /**
+     * Checks if the specified node can be stored without falling back to
+     * storing nodes, i.e. if it is a {@link YamlDoubleNode}.
+     *
+     * @param node the node
+     *
+     * @return if the node can be stored
+     */
+    public static boolean supports(YamlNode node) {
+        return node != null && node.getClass() == YamlDoubleNode.class;
+    }
+
+    @Override
+    public boolean isFrozen() {
+        return values.frozen;
+    }
+
+    /**
+     * Creates a frozen copy of this sequence. The copy is backed by a
+     * {@code double[]} of the exact size, unless this sequence already fell
+     * back to storing nodes; then a frozen {@link YamlSeqNode} is returned.
+     *
+     * @return the frozen sequence
+     */
+    @Override
+    public YamlSeqNode freeze() {
+        if (isFrozen()) {
+            return this;
+        } else if (values.isInflated()) {
+            return super.freeze();
+        }
+        return new YamlDoubleArrayNode(getNodeFactory(), values.copy(true));
+    }
+
+    @Override
+    YamlContainerNode parallelCopy() {
+        // the elements are scalars, there is nothing to split
+        return copy();
+    }
+
+    @Override
+    public YamlDoubleArrayNode copy() {
+        if (!values.isInflated()) {
+            return new YamlDoubleArrayNode(getNodeFactory(), values.copy(false));
+        }
+        YamlDoubleArrayNode copy = new YamlDoubleArrayNode(getNodeFactory());
+        for (YamlNode node : this) {
+            copy.add(node.copy());
+        }
+        return copy;
+    }
+
+    /**
+     * The backing list of a {@link YamlDoubleArrayNode}.
+     */
+    private static class Values extends PrimitiveNodeList {
+        /**
+         * The values.
+         */
+        private double[] values;
+
+        /**
+         * Creates a new list.
+         *
+         * @param values the values
+         * @param size   the number of values
+         */
+        Values(double[] values, int size) {
+            this.values = values;
+            this.size = size;
+        }
+
+        /**
+         * Creates a copy of this list, trimmed to its size.
+         *
+         * @param frozen if the copy should be frozen
+         *
+         * @return the copy
+         */
+        Values copy(boolean frozen) {
+            Values copy = new Values(Arrays.copyOf(values, size), size);
+            copy.frozen = frozen;
+            return copy;
+        }
+
+        @Override
+        YamlNode materialize(int index) {
+            // not using the factory, as it may convert to float
+            return new YamlDoubleNode(values[index]);
+        }
+
+        @Override
+        boolean append(YamlNode node) {
+            if (node.getClass() != YamlDoubleNode.class) {
+                return false;
+            }
+            if (size == values.length) {
+                int capacity = Math.max(size + (size >> 1), INITIAL_CAPACITY);
+                values = Arrays.copyOf(values, capacity);
+            }
+            values[size++] = node.doubleValue();
+            return true;
+        }
+
+        @Override
+        boolean store(int index, YamlNode node) {
+            if (node.getClass() != YamlDoubleNode.class) {
+                return false;
+            }
+            values[index] = node.doubleValue();
+            return true;
+        }
+
+        @Override
+        void release() {
+            this.values = null;
+        }
+    }
+}
@@ -0,0 +1,313 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.nodes;
+
+import java.util.Arrays;
+import java.util.stream.LongStream;
+
+import com.github.autermann.yaml.YamlNode;
+import com.github.autermann.yaml.YamlNodeFactory;
+import com.github.autermann.yaml.util.Numbers;
+
+/**
+ * A {@link YamlSeqNode} of integral values that fit into a {@code long},
+ * backed by a {@code long[]}. The {@link YamlIntegralNode}s of the elements
+ * are created on access, so repeated accesses may return different (but
+ * equal) instances.
+ * <p>
+ * If a node is added that is not a {@link YamlByteNode},
+ * {@link YamlShortNode}, {@link YamlIntegerNode} or {@link YamlLongNode}, the
+ * sequence falls back to storing nodes.
+ *
+ * @author Christian Autermann
+ */
+public class YamlLongArrayNode extends YamlSeqNode {
+    /**
+     * The width of a {@link YamlByteNode}.
+     */
+    private static final byte BYTE = 0;
+    /**
+     * The width of a {@link YamlShortNode}.
+     */
+    private static final byte SHORT = 1;
+    /**
+     * The width of a {@link YamlIntegerNode}.
+     */
+    private static final byte INT = 2;
+    /**
+     * The width of a {@link YamlLongNode}.
+     */
+    private static final byte LONG = 3;
+    /**
+     * The backing list.
+     */
+    private final Values values;
+
+    /**
+     * Creates a new empty {@link YamlLongArrayNode}.
+     *
+     * @param factory the factory to create children
+     */
+    public YamlLongArrayNode(YamlNodeFactory factory) {
+        this(new Values(factory, new long[PrimitiveNodeList.INITIAL_CAPACITY], 0));
+    }
+
+    /**
+     * Creates a new {@link YamlLongArrayNode} containing the specified
+     * values. Each value is represented by the smallest
+     * {@link YamlIntegralNode} it fits into.
+     *
+     * @param factory the factory to create children
+     * @param values  the values
+     */
+    public YamlLongArrayNode(YamlNodeFactory factory, long... values) {
+        this(new Values(factory, values.clone(), values.length));
+    }
+
+    /**
+     * Creates a new {@link YamlLongArrayNode} with the specified backing list.
+     *
+     * @param values the backing list
+     */
+    private YamlLongArrayNode(Values values) {
+        super(values.factory, values);
+        this.values = values;
+    }
+
+    /**
+     * Gets the values of this sequence. If the sequence contains nodes that
+     * are not integral, their {@link YamlNode#asLongValue()} is returned.
+     *
+     * @return the values
+     */
+    public LongStream longStream() {
+        if (values.isInflated()) {
+            return stream().mapToLong(YamlNode::asLongValue);
+        }
+        return Arrays.stream(values.values, 0, values.size);
+    }
+
+    /**
+     * Checks if the specified node can be stored without falling back to
+     * storing nodes, i.e. if it is a {@link YamlByteNode},
+     * {@link YamlShortNode}, {@link YamlIntegerNode} or {@link YamlLongNode}.
+     *
+     * @param node the node
+     *
+     * @return if the node can be stored
+     */
+    public static boolean supports(YamlNode node) {
+        return node != null && widthOf(node) >= 0;
+    }
+
+    @Override
+    public boolean isFrozen() {
+        return values.frozen;
+    }
+
+    /**
+     * Creates a frozen copy of this sequence. The copy is backed by a
+     * {@code long[]} of the exact size, unless this sequence already fell
+     * back to storing nodes; then a frozen {@link YamlSeqNode} is returned.
+     *
+     * @return the frozen sequence
+     */
+    @Override
+    public YamlSeqNode freeze() {
+        if (isFrozen()) {
+            return this;
+        } else if (values.isInflated()) {
+            return super.freeze();
+        }
+        return new YamlLongArrayNode(values.copy(true));
+    }
+
+    @Override
+    YamlContainerNode parallelCopy() {
+        // the elements are scalars, there is nothing to split
+        return copy();
+    }
+
+    @Override
+    public YamlLongArrayNode copy() {
+        if (!values.isInflated()) {
+            return new YamlLongArrayNode(values.copy(false));
+        }
+        YamlLongArrayNode copy = new YamlLongArrayNode(getNodeFactory());
+        for (YamlNode node : this) {
+            copy.add(node.copy());
+        }
+        return copy;
+    }
+
+    /**
+     * Gets the width of the specified node.
+     *
+     * @param node the node
+     *
+     * @return the width or {@code -1} if the node can not be stored
+     */
+    private static byte widthOf(YamlNode node) {
+        Class<?> type = node.getClass();
+        if (type == YamlByteNode.class) {
+            return BYTE;
+        } else if (type == YamlShortNode.class) {
+            return SHORT;
+        } else if (type == YamlIntegerNode.class) {
+            return INT;
+        } else if (type == YamlLongNode.class) {
+            return LONG;
+        } else {
+            return -1;
+        }
+    }
+
+    /**
+     * Gets the width of the smallest node the specified value fits into.
+     *
+     * @param value the value
+     *
+     * @return the width
+     */
+    private static byte widthOf(long value) {
+        if (Numbers.fitsIntoByte(value)) {
+            return BYTE;
+        } else if (Numbers.fitsIntoShort(value)) {
+            return SHORT;
+        } else if (Numbers.fitsIntoInt(value)) {
+            return INT;
+        } else {
+            return LONG;
+        }
+    }
+
+    /**
+     * The backing list of a {@link YamlLongArrayNode}.
+     */
+    private static class Values extends PrimitiveNodeList {
+        /**
+         * The factory to create the nodes with.
+         */
+        private final YamlNodeFactory factory;
+        /**
+         * The values.
+         */
+        private long[] values;
+        /**
+         * The widths of the values, or {@code null} as long as every value is
+         * represented by the smallest node it fits into.
+         */
+        private byte[] widths;
+
+        /**
+         * Creates a new list.
+         *
+         * @param factory the factory to create the nodes with
+         * @param values  the values
+         * @param size    the number of values
+         */
+        Values(YamlNodeFactory factory, long[] values, int size) {
+            this.factory = factory;
+            this.values = values;
+            this.size = size;
+        }
+
+        /**
+         * Creates a copy of this list, trimmed to its size.
+         *
+         * @param frozen if the copy should be frozen
+         *
+         * @return the copy
+         */
+        Values copy(boolean frozen) {
+            Values copy = new Values(factory, Arrays.copyOf(values, size), size);
+            if (widths != null) {
+                copy.widths = Arrays.copyOf(widths, size);
+            }
+            copy.frozen = frozen;
+            return copy;
+        }
+
+        @Override
+        YamlNode materialize(int index) {
+            long value = values[index];
+            byte width = widths == null ? widthOf(value) : widths[index];
+            switch (width) {
+                case BYTE:
+                    return factory.byteNode((byte) value);
+                case SHORT:
+                    return factory.shortNode((short) value);
+                case INT:
+                    return factory.intNode((int) value);
+                default:
+                    return factory.longNode(value);
+            }
+        }
+
+        @Override
+        boolean append(YamlNode node) {
+            byte width = widthOf(node);
+            if (width < 0) {
+                return false;
+            }
+            if (size == values.length) {
+                int capacity = Math.max(size + (size >> 1), INITIAL_CAPACITY);
+                values = Arrays.copyOf(values, capacity);
+                if (widths != null) {
+                    widths = Arrays.copyOf(widths, capacity);
+                }
+            }
+            put(size++, node.longValue(), width);
+            return true;
+        }
+
+        @Override
+        boolean store(int index, YamlNode node) {
+            byte width = widthOf(node);
+            if (width < 0) {
+                return false;
+            }
+            put(index, node.longValue(), width);
+            return true;
+        }
+
+        /**
+         * Stores a value and its width.
+         *
+         * @param index the index
+         * @param value the value
+         * @param width the width of the node of the value
+         */
+        private void put(int index, long value, byte width) {
+            values[index] = value;
+            if (widths == null && width != widthOf(value)) {
+                widths = new byte[values.length];
+                for (int i = 0; i < size; ++i) {
+                    widths[i] = widthOf(values[i]);
+                }
+            }
+            if (widths != null) {
+                widths[index] = width;
+            }
+        }
+
+        @Override
+        void release() {
+            this.values = null;
+            this.widths = null;
+        }
+    }
+}
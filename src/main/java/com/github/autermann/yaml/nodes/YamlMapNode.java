@@ -23,7 +23,6 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Spliterator;
-import java.util.Spliterators;
 
 import org.yaml.snakeyaml.nodes.Tag;
 
@@ -32,6 +31,7 @@ import com.github.autermann.yaml.YamlNode;
 import com.github.autermann.yaml.YamlNodeFactory;
 import com.github.autermann.yaml.YamlNodeVisitor;
 import com.github.autermann.yaml.YamlNodes;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterators;
 
 /**
@@ -92,14 +92,30 @@ public class YamlMapNode extends YamlMappingNode<YamlMapNode> {
     }
 
     @Override
-    public int hashCode() {
+    protected int computeHashCode() {
         return Objects.hashCode(this.value);
     }
 
     @Override
     public boolean equals(Object o) {
-        return o instanceof YamlMapNode &&
-               this.value.equals(((YamlMapNode) o).value);
+        if (o == this) {
+            return true;
+        }
+        if (!(o instanceof YamlMapNode)) {
+            return false;
+        }
+        YamlMapNode that = (YamlMapNode) o;
+        if (this.size() != that.size() ||
+            isFrozen() && that.isFrozen() && hashCode() != that.hashCode()) {
+            return false;
+        }
+        // iterate this mapping, as not all maps iterate their own entries
+        for (Entry<YamlNode, YamlNode> e : entries()) {
+            if (!e.getValue().equals(that.value.get(e.getKey()))) {
+                return false;
+            }
+        }
+        return true;
     }
 
     @Override
@@ -111,6 +127,65 @@ public class YamlMapNode extends YamlMappingNode<YamlMapNode> {
         return copy;
     }
 
+    @Override
+    public boolean isFrozen() {
+        return this.value instanceof ImmutableMap;
+    }
+
+    @Override
+    public YamlMapNode freeze() {
+        if (isFrozen()) {
+            return this;
+        }
+        return new YamlMapNode(getNodeFactory(), frozenValue());
+    }
+
+    /**
+     * Creates an immutable map of the frozen children of this mapping.
+     *
+     * @return the frozen children
+     */
+    protected ImmutableMap<YamlNode, YamlNode> frozenValue() {
+        ImmutableMap.Builder<YamlNode, YamlNode> builder = ImmutableMap.builder();
+        for (Entry<YamlNode, YamlNode> e : entries()) {
+            builder.put(e.getKey().freeze(), e.getValue().freeze());
+        }
+        return builder.build();
+    }
+
+    @Override
+    YamlMapNode parallelCopy() {
+        Map<YamlNode, YamlNode> copy = new HashMap<>(CopyTask.capacity(size()));
+        return new YamlMapNode(getNodeFactory(), parallelCopy(copy));
+    }
+
+    /**
+     * Copies the entries of this mapping in parallel into the specified map.
+     *
+     * @param copy the empty map
+     *
+     * @return the map
+     */
+    Map<YamlNode, YamlNode> parallelCopy(Map<YamlNode, YamlNode> copy) {
+        if (CopyTask.isLeaf(2 * size())) {
+            for (Entry<YamlNode, YamlNode> e : entries()) {
+                copy.put(CopyTask.copy(e.getKey()), CopyTask.copy(e.getValue()));
+            }
+            return copy;
+        }
+        YamlNode[] nodes = new YamlNode[2 * size()];
+        int i = 0;
+        for (Entry<YamlNode, YamlNode> e : entries()) {
+            nodes[i++] = e.getKey();
+            nodes[i++] = e.getValue();
+        }
+        CopyTask.copyAll(nodes);
+        for (i = 0; i < nodes.length; i += 2) {
+            copy.put(nodes[i], nodes[i + 1]);
+        }
+        return copy;
+    }
+
     @Override
     public int size() {
         return this.value.size();
@@ -142,6 +217,19 @@ public class YamlMapNode extends YamlMappingNode<YamlMapNode> {
                 .nullToMissing(this.value.get(YamlNodes.nullToNode(key)));
     }
 
+    @Override
+    public YamlNode path(String key) {
+        if (key == null) {
+            return super.path(key);
+        }
+        TextKeyProbe probe = TextKeyProbe.of(key);
+        try {
+            return YamlNodes.nullToMissing(this.value.get(probe));
+        } finally {
+            probe.release();
+        }
+    }
+
     @Override
     public Iterator<YamlNode> iterator() {
         return Iterators.unmodifiableIterator(this.value.keySet().iterator());
@@ -149,8 +237,12 @@ public class YamlMapNode extends YamlMappingNode<YamlMapNode> {
 
     @Override
     public Spliterator<YamlNode> spliterator() {
-        return Spliterators.spliterator(iterator(), size(), Spliterator.SIZED |
-                                                            Spliterator.SUBSIZED |
-                                                            Spliterator.NONNULL);
+        return NodeSpliterators.keys(entrySpliterator());
+    }
+
+    @Override
+    public Spliterator<Entry<YamlNode, YamlNode>> entrySpliterator() {
+        return NodeSpliterators.of(this.value.entrySet(),
+                                   Spliterator.DISTINCT | Spliterator.NONNULL);
     }
 }
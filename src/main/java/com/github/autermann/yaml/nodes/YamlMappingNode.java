@@ -19,6 +19,9 @@ import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.Date;
 import java.util.Map.Entry;
+import java.util.Spliterator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.joda.time.DateTime;
 
@@ -795,21 +798,11 @@ public abstract class YamlMappingNode<T extends YamlMappingNode<T>>
         return has(getNodeFactory().intNode(key));
     }
 
-    @Override
-    public boolean has(String key) {
-        return has(getNodeFactory().textNode(key));
-    }
-
     @Override
     public boolean hasNotNull(int key) {
         return hasNotNull(getNodeFactory().intNode(key));
     }
 
-    @Override
-    public boolean hasNotNull(String key) {
-        return hasNotNull(getNodeFactory().textNode(key));
-    }
-
     @Override
     public YamlNode path(int i) {
         return path(getNodeFactory().intNode(i));
@@ -836,4 +829,32 @@ public abstract class YamlMappingNode<T extends YamlMappingNode<T>>
      * @return the entries
      */
     public abstract Iterable<Entry<YamlNode, YamlNode>> entries();
+
+    /**
+     * Creates a {@link Spliterator} over the entries of this mapping.
+     * Subclasses should override this to split their storage evenly.
+     *
+     * @return the spliterator
+     */
+    public Spliterator<Entry<YamlNode, YamlNode>> entrySpliterator() {
+        return entries().spliterator();
+    }
+
+    /**
+     * Creates a sequential stream of the entries of this mapping.
+     *
+     * @return the stream
+     */
+    public Stream<Entry<YamlNode, YamlNode>> entryStream() {
+        return StreamSupport.stream(entrySpliterator(), false);
+    }
+
+    /**
+     * Creates a parallel stream of the entries of this mapping.
+     *
+     * @return the stream
+     */
+    public Stream<Entry<YamlNode, YamlNode>> parallelEntryStream() {
+        return StreamSupport.stream(entrySpliterator(), true);
+    }
 }
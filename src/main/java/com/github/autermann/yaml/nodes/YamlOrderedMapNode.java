@@ -15,6 +15,8 @@
  */
 package com.github.autermann.yaml.nodes;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Map.Entry;
 
 import org.yaml.snakeyaml.nodes.Tag;
@@ -38,7 +40,19 @@ public class YamlOrderedMapNode extends YamlMapNode {
      * @param factory the factory to create children with
      */
     public YamlOrderedMapNode(YamlNodeFactory factory) {
-        super(factory, Maps.<YamlNode, YamlNode>newLinkedHashMap());
+        this(factory, Maps.<YamlNode, YamlNode>newLinkedHashMap());
+    }
+
+    /**
+     * Creates a new {@link YamlOrderedMapNode} with the specified backing
+     * map.
+     *
+     * @param factory the factory to create children with
+     * @param nodes   the backing map, iterating in insertion order
+     */
+    protected YamlOrderedMapNode(YamlNodeFactory factory,
+                                 Map<YamlNode, YamlNode> nodes) {
+        super(factory, nodes);
     }
 
     @Override
@@ -65,6 +79,22 @@ public class YamlOrderedMapNode extends YamlMapNode {
         return copy;
     }
 
+    @Override
+    YamlOrderedMapNode parallelCopy() {
+        Map<YamlNode, YamlNode> copy
+                = new LinkedHashMap<>(CopyTask.capacity(size()));
+        return new YamlOrderedMapNode(getNodeFactory(), parallelCopy(copy));
+    }
+
+    @Override
+    public YamlOrderedMapNode freeze() {
+        if (isFrozen()) {
+            return this;
+        }
+        // immutable maps keep the insertion order
+        return new YamlOrderedMapNode(getNodeFactory(), frozenValue());
+    }
+
     @Override
     public void accept(YamlNodeVisitor visitor) {
         visitor.visit(this);
@@ -15,17 +15,13 @@
  */
 package com.github.autermann.yaml.nodes;
 
+import java.util.AbstractCollection;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Objects;
+import java.util.NoSuchElementException;
 import java.util.Spliterator;
-import java.util.Spliterators;
 
 import org.yaml.snakeyaml.nodes.Tag;
 
@@ -34,24 +30,62 @@ import com.github.autermann.yaml.YamlNode;
 import com.github.autermann.yaml.YamlNodeFactory;
 import com.github.autermann.yaml.YamlNodeVisitor;
 import com.github.autermann.yaml.YamlNodes;
-import com.google.common.collect.Iterators;
-import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Maps;
+import com.google.common.collect.UnmodifiableIterator;
 
 /**
  * A {@link YamlNode} for {@code !!pairs} mappings.
+ * <p>
+ * The pairs are stored in insertion order in parallel arrays. Every pair
+ * links to the next pair with the same key, and an open addressing table of
+ * the distinct keys points to the first and last pair of each key, so the
+ * values of a key can be accessed without scanning all pairs.
  *
  * @author Christian Autermann
  */
 public class YamlPairsNode extends YamlMappingNode<YamlPairsNode> {
     /**
-     * A {@link ListMultimap} to enable fast access to all values of a key.
+     * The initial capacity of the pair arrays and the key table.
      */
-    private final Map<YamlNode, List<YamlNode>> multiMap;
+    private static final int INITIAL_CAPACITY = 8;
     /**
-     * A {@link List} of all entries to maintain insertion order.
+     * Marker for empty slots and the end of a chain.
      */
-    private final List<Entry<YamlNode, YamlNode>> value;
+    private static final int NONE = -1;
+    /**
+     * The keys of all pairs in insertion order.
+     */
+    private YamlNode[] keys;
+    /**
+     * The values of all pairs in insertion order.
+     */
+    private YamlNode[] values;
+    /**
+     * The index of the next pair with the same key, or {@link #NONE}.
+     */
+    private int[] next;
+    /**
+     * The number of pairs.
+     */
+    private int size;
+    /**
+     * The open addressing table of distinct keys, holding the index of the
+     * first pair with that key or {@link #NONE}.
+     */
+    private int[] heads;
+    /**
+     * The index of the last pair of the key in the same slot of
+     * {@link #heads}.
+     */
+    private int[] tails;
+    /**
+     * The number of distinct keys.
+     */
+    private int distinct;
+    /**
+     * If this node can not be modified.
+     */
+    private boolean frozen;
 
     /**
      * Creates a new {@link YamlPairsNode}.
@@ -59,9 +93,23 @@ public class YamlPairsNode extends YamlMappingNode<YamlPairsNode> {
      * @param factory the factory to create children with
      */
     public YamlPairsNode(YamlNodeFactory factory) {
+        this(factory, INITIAL_CAPACITY, INITIAL_CAPACITY);
+    }
+
+    /**
+     * Creates a new {@link YamlPairsNode} for the specified number of pairs.
+     *
+     * @param factory  the factory to create children with
+     * @param capacity the capacity of the pair arrays
+     * @param table    the capacity of the key table (a power of two)
+     */
+    private YamlPairsNode(YamlNodeFactory factory, int capacity, int table) {
         super(factory);
-        this.multiMap = new HashMap<>();
-        this.value = new LinkedList<>();
+        this.keys = new YamlNode[capacity];
+        this.values = new YamlNode[capacity];
+        this.next = new int[capacity];
+        this.heads = newTable(table);
+        this.tails = new int[table];
     }
 
     @Override
@@ -85,47 +133,155 @@ public class YamlPairsNode extends YamlMappingNode<YamlPairsNode> {
         if (key == this || value == this) {
             throw new IllegalArgumentException("recursive structures are currently not supported");
         }
-        this.value.add(Maps.immutableEntry(key, value));
-        this.multiMap.computeIfAbsent(key, k -> new LinkedList<>()).add(value);
+        if (frozen) {
+            throw new UnsupportedOperationException("pairs are frozen");
+        }
+        append(YamlNodes.nullToNode(key), YamlNodes.nullToNode(value));
         return this;
     }
 
+    /**
+     * Appends a pair without any checks.
+     *
+     * @param key   the non-{@code null} key
+     * @param value the non-{@code null} value
+     */
+    private void append(YamlNode key, YamlNode value) {
+        if (size == keys.length) {
+            int capacity = size + (size >> 1);
+            keys = Arrays.copyOf(keys, capacity);
+            values = Arrays.copyOf(values, capacity);
+            next = Arrays.copyOf(next, capacity);
+        }
+        int index = size++;
+        keys[index] = key;
+        values[index] = value;
+        next[index] = NONE;
+        int slot = slot(key);
+        if (heads[slot] == NONE) {
+            heads[slot] = index;
+            tails[slot] = index;
+            if (++distinct * 2 > heads.length) {
+                rehash(heads.length * 2);
+            }
+        } else {
+            next[tails[slot]] = index;
+            tails[slot] = index;
+        }
+    }
+
     @Override
     public int size() {
-        return this.value.size();
+        return this.size;
     }
 
     @Override
     public boolean isEmpty() {
-        return this.value.isEmpty();
+        return this.size == 0;
     }
 
     @Override
     public boolean equals(Object o) {
         if (o instanceof YamlPairsNode) {
             YamlPairsNode that = (YamlPairsNode) o;
-            return this.value.equals(that.value);
+            if (this.size != that.size) {
+                return false;
+            }
+            for (int i = 0; i < size; ++i) {
+                if (!this.keys[i].equals(that.keys[i]) ||
+                    !this.values[i].equals(that.values[i])) {
+                    return false;
+                }
+            }
+            return true;
         }
         return false;
     }
 
     @Override
-    public int hashCode() {
-        return this.value.hashCode();
+    protected int computeHashCode() {
+        // same as the hash code of a List of Map.Entry
+        int hashCode = 1;
+        for (int i = 0; i < size; ++i) {
+            hashCode = 31 * hashCode +
+                       (keys[i].hashCode() ^ values[i].hashCode());
+        }
+        return hashCode;
     }
 
     @Override
     public YamlPairsNode copy() {
         YamlPairsNode copy = getNodeFactory().pairsNode();
-        for (Entry<YamlNode, YamlNode> e : entries()) {
-            copy.put(e.getKey().copy(), e.getValue().copy());
+        for (int i = 0; i < size; ++i) {
+            copy.put(keys[i].copy(), values[i].copy());
         }
         return copy;
     }
 
+    @Override
+    YamlPairsNode parallelCopy() {
+        int capacity = Math.max(size, INITIAL_CAPACITY);
+        // room for every key to be distinct without a rehash
+        int table = Integer.highestOneBit(2 * capacity - 1) << 1;
+        YamlPairsNode copy = new YamlPairsNode(getNodeFactory(), capacity, table);
+        if (CopyTask.isLeaf(2 * size)) {
+            for (int i = 0; i < size; ++i) {
+                copy.append(CopyTask.copy(keys[i]), CopyTask.copy(values[i]));
+            }
+            return copy;
+        }
+        YamlNode[] nodes = new YamlNode[2 * size];
+        for (int i = 0; i < size; ++i) {
+            nodes[2 * i] = keys[i];
+            nodes[2 * i + 1] = values[i];
+        }
+        CopyTask.copyAll(nodes);
+        for (int i = 0; i < nodes.length; i += 2) {
+            copy.append(nodes[i], nodes[i + 1]);
+        }
+        return copy;
+    }
+
+    @Override
+    public boolean isFrozen() {
+        return this.frozen;
+    }
+
+    @Override
+    public YamlPairsNode freeze() {
+        if (frozen) {
+            return this;
+        }
+        YamlPairsNode copy = getNodeFactory().pairsNode();
+        for (int i = 0; i < size; ++i) {
+            copy.put(keys[i].freeze(), values[i].freeze());
+        }
+        // the key table stays as is, it is at most half empty
+        copy.keys = Arrays.copyOf(copy.keys, copy.size);
+        copy.values = Arrays.copyOf(copy.values, copy.size);
+        copy.next = Arrays.copyOf(copy.next, copy.size);
+        copy.frozen = true;
+        return copy;
+    }
+
     @Override
     public Collection<Entry<YamlNode, YamlNode>> entries() {
-        return Collections.unmodifiableCollection(this.value);
+        return new AbstractCollection<Entry<YamlNode, YamlNode>>() {
+            @Override
+            public Iterator<Entry<YamlNode, YamlNode>> iterator() {
+                return new PairIterator<Entry<YamlNode, YamlNode>>() {
+                    @Override
+                    protected Entry<YamlNode, YamlNode> get(int index) {
+                        return Maps.immutableEntry(keys[index], values[index]);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return YamlPairsNode.this.size;
+            }
+        };
     }
 
     @Override
@@ -140,36 +296,291 @@ public class YamlPairsNode extends YamlMappingNode<YamlPairsNode> {
 
     @Override
     public boolean has(YamlNode key) {
-        return this.multiMap.containsKey(key) &&
-               !this.multiMap.get(key).isEmpty();
+        return find(YamlNodes.nullToNode(key)) != NONE;
+    }
+
+    @Override
+    public boolean has(String key) {
+        if (key == null) {
+            return super.has(key);
+        }
+        TextKeyProbe probe = TextKeyProbe.of(key);
+        try {
+            return find(probe) != NONE;
+        } finally {
+            probe.release();
+        }
     }
 
     @Override
     public boolean hasNotNull(YamlNode key) {
-        return this.multiMap.getOrDefault(key, Collections.emptyList())
-                .stream().filter(Objects::nonNull)
-                .anyMatch(n -> !n.isNull() && n.exists());
+        return hasNotNullValue(find(YamlNodes.nullToNode(key)));
+    }
+
+    @Override
+    public boolean hasNotNull(String key) {
+        if (key == null) {
+            return super.hasNotNull(key);
+        }
+        TextKeyProbe probe = TextKeyProbe.of(key);
+        try {
+            return hasNotNullValue(find(probe));
+        } finally {
+            probe.release();
+        }
     }
 
+    /**
+     * Gets the values of the specified key as a new {@link YamlSeqNode}.
+     * Modifying the returned node does not affect this node.
+     *
+     * @param key the key
+     *
+     * @return the values or a {@link YamlMissingNode}
+     */
     @Override
     public YamlNode path(YamlNode key) {
-        List<YamlNode> nodes = this.multiMap.get(YamlNodes.nullToNode(key));
-        if (nodes == null) {
+        return valuesOf(find(YamlNodes.nullToNode(key)));
+    }
+
+    @Override
+    public YamlNode path(String key) {
+        if (key == null) {
+            return super.path(key);
+        }
+        TextKeyProbe probe = TextKeyProbe.of(key);
+        try {
+            return valuesOf(find(probe));
+        } finally {
+            probe.release();
+        }
+    }
+
+    /**
+     * Checks if the values of the key in the specified slot contain a
+     * non-{@code null} value.
+     *
+     * @param slot the slot of the key or {@link #NONE}
+     *
+     * @return if there is at least one non-{@code null} value
+     */
+    private boolean hasNotNullValue(int slot) {
+        if (slot != NONE) {
+            for (int i = heads[slot]; i != NONE; i = next[i]) {
+                if (values[i].exists() && !values[i].isNull()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Creates the value returned by {@link #path(YamlNode)} for the key in
+     * the specified slot: a new sequence of its values in insertion order.
+     *
+     * @param slot the slot of the key or {@link #NONE}
+     *
+     * @return a sequence of the values or a {@link YamlMissingNode}
+     */
+    private YamlNode valuesOf(int slot) {
+        if (slot == NONE) {
             return YamlMissingNode.instance();
         }
-        return getNodeFactory().sequenceNode().addAll(nodes);
+        YamlSeqNode sequence = getNodeFactory().sequenceNode();
+        for (int i = heads[slot]; i != NONE; i = next[i]) {
+            sequence.add(values[i]);
+        }
+        return sequence;
+    }
+
+    /**
+     * Finds the slot of the specified key.
+     *
+     * @param key the key (or a key probe)
+     *
+     * @return the slot or {@link #NONE} if the key is not present
+     */
+    private int find(Object key) {
+        int mask = heads.length - 1;
+        for (int slot = hash(key) & mask;; slot = (slot + 1) & mask) {
+            int head = heads[slot];
+            if (head == NONE) {
+                return NONE;
+            } else if (key.equals(keys[head])) {
+                return slot;
+            }
+        }
+    }
+
+    /**
+     * Finds the slot of the specified key or the empty slot it should be
+     * inserted into.
+     *
+     * @param key the key
+     *
+     * @return the slot
+     */
+    private int slot(YamlNode key) {
+        int mask = heads.length - 1;
+        for (int slot = hash(key) & mask;; slot = (slot + 1) & mask) {
+            int head = heads[slot];
+            if (head == NONE || key.equals(keys[head])) {
+                return slot;
+            }
+        }
+    }
+
+    /**
+     * Resizes the key table.
+     *
+     * @param capacity the new capacity (a power of two)
+     */
+    private void rehash(int capacity) {
+        int[] oldHeads = this.heads;
+        int[] oldTails = this.tails;
+        this.heads = newTable(capacity);
+        this.tails = new int[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < oldHeads.length; ++i) {
+            int head = oldHeads[i];
+            if (head != NONE) {
+                int slot = hash(keys[head]) & mask;
+                while (heads[slot] != NONE) {
+                    slot = (slot + 1) & mask;
+                }
+                heads[slot] = head;
+                tails[slot] = oldTails[i];
+            }
+        }
     }
 
     @Override
     public Iterator<YamlNode> iterator() {
-        return Iterators.unmodifiableIterator(this.multiMap.keySet().iterator());
+        return new PairIterator<YamlNode>() {
+            @Override
+            protected boolean accept(int index) {
+                return heads[find(keys[index])] == index;
+            }
+
+            @Override
+            protected YamlNode get(int index) {
+                return keys[index];
+            }
+        };
     }
 
     @Override
     public Spliterator<YamlNode> spliterator() {
-        return Spliterators.spliterator(iterator(), size(), Spliterator.SIZED |
-                                                            Spliterator.SUBSIZED |
-                                                            Spliterator.ORDERED |
-                                                            Spliterator.NONNULL);
+        YamlNode[] k = this.keys;
+        if (distinct == size) {
+            return NodeSpliterators.indexed(i -> k[i], size,
+                                            Spliterator.DISTINCT |
+                                            Spliterator.NONNULL);
+        }
+        // the indices of the first pair of every key in insertion order
+        int[] firsts = new int[distinct];
+        int n = 0;
+        for (int head : heads) {
+            if (head != NONE) {
+                firsts[n++] = head;
+            }
+        }
+        Arrays.sort(firsts);
+        return NodeSpliterators.indexed(i -> k[firsts[i]], distinct,
+                                        Spliterator.DISTINCT |
+                                        Spliterator.NONNULL);
+    }
+
+    @Override
+    public Spliterator<Entry<YamlNode, YamlNode>> entrySpliterator() {
+        YamlNode[] k = this.keys;
+        YamlNode[] v = this.values;
+        return NodeSpliterators.indexed(i -> Maps.immutableEntry(k[i], v[i]),
+                                        size, Spliterator.NONNULL);
+    }
+
+    /**
+     * Creates a new empty key table.
+     *
+     * @param capacity the capacity
+     *
+     * @return the table
+     */
+    private static int[] newTable(int capacity) {
+        int[] table = new int[capacity];
+        Arrays.fill(table, NONE);
+        return table;
+    }
+
+    /**
+     * Computes the hash of a key.
+     *
+     * @param key the key
+     *
+     * @return the hash
+     */
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * {@link Iterator} over the pairs in insertion order.
+     *
+     * @param <T> the element type
+     */
+    private abstract class PairIterator<T> extends UnmodifiableIterator<T> {
+        private int index = advance(0);
+
+        @Override
+        public boolean hasNext() {
+            return index < size;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            T t = get(index);
+            index = advance(index + 1);
+            return t;
+        }
+
+        /**
+         * Gets the index of the next accepted pair.
+         *
+         * @param from the first index to check
+         *
+         * @return the index
+         */
+        private int advance(int from) {
+            int i = from;
+            while (i < size && !accept(i)) {
+                ++i;
+            }
+            return i;
+        }
+
+        /**
+         * Checks if the pair at the specified index should be returned.
+         *
+         * @param index the index
+         *
+         * @return if the pair should be returned
+         */
+        protected boolean accept(int index) {
+            return true;
+        }
+
+        /**
+         * Gets the element for the pair at the specified index.
+         *
+         * @param index the index
+         *
+         * @return the element
+         */
+        protected abstract T get(int index);
     }
 }
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.nodes;
+
+import java.util.Map.Entry;
+
+import com.github.autermann.yaml.YamlNode;
+import com.github.autermann.yaml.YamlNodeFactory;
+import com.github.autermann.yaml.YamlNodes;
+
+/**
+ * A persistent {@link YamlMapNode}. The node can not be modified, but
+ * {@link #with(YamlNode, YamlNode)} and {@link #without(YamlNode)} create
+ * new versions that share all unchanged structure with this node, in
+ * {@code O(log n)} time and memory instead of the {@code O(n)} of a
+ * {@link #copy()}.
+ * <p>
+ * Keys and values are {@linkplain YamlNode#freeze() frozen} when they are
+ * added, so every version is {@linkplain #isFrozen() frozen} as well.
+ *
+ * @author Christian Autermann
+ */
+public class YamlPersistentMapNode extends YamlMapNode {
+    /**
+     * The children of this mapping.
+     */
+    private final PersistentNodeMap value;
+
+    /**
+     * Creates a new empty {@link YamlPersistentMapNode}.
+     *
+     * @param factory the factory to create children with
+     */
+    public YamlPersistentMapNode(YamlNodeFactory factory) {
+        this(factory, PersistentNodeMap.empty());
+    }
+
+    /**
+     * Creates a new {@link YamlPersistentMapNode} with the specified backing
+     * map.
+     *
+     * @param factory the factory to create children with
+     * @param value   the backing map
+     */
+    private YamlPersistentMapNode(YamlNodeFactory factory,
+                                  PersistentNodeMap value) {
+        super(factory, value);
+        this.value = value;
+    }
+
+    /**
+     * Creates a version of this mapping that maps the specified key to the
+     * specified value.
+     *
+     * @param key   the key
+     * @param value the value
+     *
+     * @return the new version or {@code this} if the key is already mapped
+     *         to the value
+     */
+    public YamlPersistentMapNode with(YamlNode key, YamlNode value) {
+        // small protection adding this to a collection added to this still works
+        if (key == this || value == this) {
+            throw new IllegalArgumentException("recursive structures are currently not supported");
+        }
+        return create(this.value.with(YamlNodes.nullToNode(key).freeze(),
+                                      YamlNodes.nullToNode(value).freeze()));
+    }
+
+    /**
+     * Creates a version of this mapping that maps the specified key to the
+     * specified value.
+     *
+     * @param key   the key
+     * @param value the value
+     *
+     * @return the new version or {@code this} if the key is already mapped
+     *         to the value
+     */
+    public YamlPersistentMapNode with(String key, YamlNode value) {
+        return with(getNodeFactory().textNode(key), value);
+    }
+
+    /**
+     * Creates a version of this mapping without the specified key.
+     *
+     * @param key the key
+     *
+     * @return the new version or {@code this} if the key is not present
+     */
+    public YamlPersistentMapNode without(YamlNode key) {
+        return create(this.value.without(YamlNodes.nullToNode(key)));
+    }
+
+    /**
+     * Creates a version of this mapping without the specified key.
+     *
+     * @param key the key
+     *
+     * @return the new version or {@code this} if the key is not present
+     */
+    public YamlPersistentMapNode without(String key) {
+        return without(getNodeFactory().textNode(key));
+    }
+
+    /**
+     * Wraps the specified map in a new version, unless it is the map of this
+     * version.
+     *
+     * @param map the map
+     *
+     * @return the version
+     */
+    private YamlPersistentMapNode create(PersistentNodeMap map) {
+        return map == this.value ? this
+               : new YamlPersistentMapNode(getNodeFactory(), map);
+    }
+
+    /**
+     * Not supported, use {@link #with(YamlNode, YamlNode)}.
+     *
+     * @param key   the key
+     * @param value the value
+     *
+     * @return nothing
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public YamlMapNode put(YamlNode key, YamlNode value) {
+        throw new UnsupportedOperationException("persistent mappings can not be modified, use with()");
+    }
+
+    @Override
+    public boolean isFrozen() {
+        return true;
+    }
+
+    @Override
+    public YamlPersistentMapNode freeze() {
+        return this;
+    }
+
+    /**
+     * Creates a {@link YamlPersistentMapNode} with the entries of the
+     * specified mapping.
+     *
+     * @param node the mapping
+     *
+     * @return the persistent mapping
+     */
+    public static YamlPersistentMapNode copyOf(YamlMapNode node) {
+        if (node instanceof YamlPersistentMapNode) {
+            return (YamlPersistentMapNode) node;
+        }
+        YamlPersistentMapNode copy
+                = new YamlPersistentMapNode(node.getNodeFactory());
+        for (Entry<YamlNode, YamlNode> e : node.entries()) {
+            copy = copy.with(e.getKey(), e.getValue());
+        }
+        return copy;
+    }
+}
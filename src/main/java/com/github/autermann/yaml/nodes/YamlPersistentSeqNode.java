@@ -0,0 +1,151 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.nodes;
+
+import com.github.autermann.yaml.YamlNode;
+import com.github.autermann.yaml.YamlNodeFactory;
+import com.github.autermann.yaml.YamlNodes;
+
+/**
+ * A persistent {@link YamlSeqNode}. The node can not be modified, but
+ * {@link #with(int, YamlNode)} and {@link #withAdded(YamlNode)} create new
+ * versions that share all unchanged structure with this node, in
+ * {@code O(log n)} time and memory instead of the {@code O(n)} of a
+ * {@link #copy()}.
+ * <p>
+ * Values are {@linkplain YamlNode#freeze() frozen} when they are added, so
+ * every version is {@linkplain #isFrozen() frozen} as well.
+ *
+ * @author Christian Autermann
+ */
+public class YamlPersistentSeqNode extends YamlSeqNode {
+    /**
+     * The children of this node.
+     */
+    private final PersistentNodeList nodes;
+
+    /**
+     * Creates a new empty {@link YamlPersistentSeqNode}.
+     *
+     * @param factory the factory to create children
+     */
+    public YamlPersistentSeqNode(YamlNodeFactory factory) {
+        this(factory, PersistentNodeList.empty());
+    }
+
+    /**
+     * Creates a new {@link YamlPersistentSeqNode} with the specified backing
+     * list.
+     *
+     * @param factory the factory to create children
+     * @param nodes   the backing list
+     */
+    private YamlPersistentSeqNode(YamlNodeFactory factory,
+                                  PersistentNodeList nodes) {
+        super(factory, nodes);
+        this.nodes = nodes;
+    }
+
+    /**
+     * Creates a version of this sequence with the value at the specified
+     * index replaced.
+     *
+     * @param index the index
+     * @param value the value
+     *
+     * @return the new version or {@code this} if the value is already
+     *         present
+     *
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public YamlPersistentSeqNode with(int index, YamlNode value) {
+        if (value == this) {
+            throw new IllegalArgumentException("recursive structures are currently not supported");
+        }
+        return create(nodes.with(index, YamlNodes.nullToNode(value).freeze()));
+    }
+
+    /**
+     * Creates a version of this sequence with the specified value appended.
+     *
+     * @param value the value
+     *
+     * @return the new version
+     */
+    public YamlPersistentSeqNode withAdded(YamlNode value) {
+        if (value == this) {
+            throw new IllegalArgumentException("recursive structures are currently not supported");
+        }
+        return create(nodes.withAdded(YamlNodes.nullToNode(value).freeze()));
+    }
+
+    /**
+     * Wraps the specified list in a new version, unless it is the list of
+     * this version.
+     *
+     * @param list the list
+     *
+     * @return the version
+     */
+    private YamlPersistentSeqNode create(PersistentNodeList list) {
+        return list == this.nodes ? this
+               : new YamlPersistentSeqNode(getNodeFactory(), list);
+    }
+
+    /**
+     * Not supported, use {@link #withAdded(YamlNode)}.
+     *
+     * @param value the value
+     *
+     * @return nothing
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public YamlSeqNode add(YamlNode value) {
+        throw new UnsupportedOperationException("persistent sequences can not be modified, use withAdded()");
+    }
+
+    @Override
+    public boolean isFrozen() {
+        return true;
+    }
+
+    @Override
+    public YamlPersistentSeqNode freeze() {
+        return this;
+    }
+
+    /**
+     * Creates a {@link YamlPersistentSeqNode} with the values of the
+     * specified sequence.
+     *
+     * @param node the sequence
+     *
+     * @return the persistent sequence
+     */
+    public static YamlPersistentSeqNode copyOf(YamlSequenceNode<?> node) {
+        if (node instanceof YamlPersistentSeqNode) {
+            return (YamlPersistentSeqNode) node;
+        }
+        YamlPersistentSeqNode copy
+                = new YamlPersistentSeqNode(node.getNodeFactory());
+        for (YamlNode value : node) {
+            copy = copy.withAdded(value);
+        }
+        return copy;
+    }
+}
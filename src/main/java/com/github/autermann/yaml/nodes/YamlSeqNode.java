@@ -15,9 +15,11 @@
  */
 package com.github.autermann.yaml.nodes;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 import java.util.Spliterator;
-import java.util.Spliterators;
 
 import org.yaml.snakeyaml.nodes.Tag;
 
@@ -25,6 +27,7 @@ import com.github.autermann.yaml.ReturningYamlNodeVisitor;
 import com.github.autermann.yaml.YamlNode;
 import com.github.autermann.yaml.YamlNodeFactory;
 import com.github.autermann.yaml.YamlNodeVisitor;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 
 /**
@@ -38,14 +41,24 @@ public class YamlSeqNode extends YamlSequenceNode<YamlSeqNode> {
      */
     private final List<YamlNode> nodes;
 
+    /**
+     * Creates a new {@link YamlSeqNode} with the specified backing list.
+     *
+     * @param factory the factory to create children
+     * @param nodes   the backing list
+     */
+    protected YamlSeqNode(YamlNodeFactory factory, List<YamlNode> nodes) {
+        super(factory);
+        this.nodes = Objects.requireNonNull(nodes);
+    }
+
     /**
      * Creates a new {@link YamlSequenceNode}.
      *
      * @param factory the factory to create children
      */
     public YamlSeqNode(YamlNodeFactory factory) {
-        super(factory);
-        this.nodes = Lists.newArrayList();
+        this(factory, Lists.newArrayList());
     }
 
     @Override
@@ -68,6 +81,26 @@ public class YamlSeqNode extends YamlSequenceNode<YamlSeqNode> {
         return nodes;
     }
 
+    @Override
+    public YamlNode path(int index) {
+        if (index < 0 || index >= nodes.size()) {
+            return YamlMissingNode.instance();
+        }
+        return nodes.get(index);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        // subclasses differ only in their backing list
+        return o instanceof YamlSeqNode &&
+               value().equals(((YamlSeqNode) o).value());
+    }
+
+    @Override
+    protected int computeHashCode() {
+        return value().hashCode();
+    }
+
     @Override
     public YamlSeqNode copy() {
         YamlSeqNode copy = getNodeFactory().sequenceNode();
@@ -77,6 +110,39 @@ public class YamlSeqNode extends YamlSequenceNode<YamlSeqNode> {
         return copy;
     }
 
+    @Override
+    YamlContainerNode parallelCopy() {
+        List<YamlNode> copy;
+        if (CopyTask.isLeaf(size())) {
+            copy = new ArrayList<>(size());
+            for (YamlNode node : this) {
+                copy.add(CopyTask.copy(node));
+            }
+        } else {
+            YamlNode[] nodes = value().toArray(new YamlNode[size()]);
+            CopyTask.copyAll(nodes);
+            copy = new ArrayList<>(Arrays.asList(nodes));
+        }
+        return new YamlSeqNode(getNodeFactory(), copy);
+    }
+
+    @Override
+    public boolean isFrozen() {
+        return nodes instanceof ImmutableList;
+    }
+
+    @Override
+    public YamlSeqNode freeze() {
+        if (isFrozen()) {
+            return this;
+        }
+        ImmutableList.Builder<YamlNode> builder = ImmutableList.builder();
+        for (YamlNode node : this) {
+            builder.add(node.freeze());
+        }
+        return new YamlSeqNode(getNodeFactory(), builder.build());
+    }
+
     @Override
     public void accept(YamlNodeVisitor visitor) {
         visitor.visit(this);
@@ -89,7 +155,6 @@ public class YamlSeqNode extends YamlSequenceNode<YamlSeqNode> {
 
     @Override
     public Spliterator<YamlNode> spliterator() {
-        return Spliterators.spliterator(value(), Spliterator.ORDERED |
-                                                 Spliterator.NONNULL);
+        return NodeSpliterators.of(value(), Spliterator.NONNULL);
     }
 }
@@ -20,6 +20,8 @@ import java.math.BigInteger;
 import java.util.Collection;
 import java.util.Date;
 import java.util.Iterator;
+import java.util.List;
+import java.util.RandomAccess;
 import java.util.stream.Collectors;
 
 import org.joda.time.DateTime;
@@ -416,7 +418,7 @@ public abstract class YamlSequenceNode<T extends YamlSequenceNode<T>>
     }
 
     @Override
-    public int hashCode() {
+    protected int computeHashCode() {
         return value().hashCode();
     }
 
@@ -441,11 +443,14 @@ public abstract class YamlSequenceNode<T extends YamlSequenceNode<T>>
 
     @Override
     public YamlNode path(int index) {
-        if (index < 0) {
+        Collection<YamlNode> nodes = value();
+        if (index < 0 || index >= nodes.size()) {
             return YamlMissingNode.instance();
         }
-        return value().stream().skip(index)
-                .findFirst().orElseGet(YamlMissingNode::instance);
+        if (nodes instanceof List && nodes instanceof RandomAccess) {
+            return ((List<YamlNode>) nodes).get(index);
+        }
+        return Iterators.get(nodes.iterator(), index);
     }
 
     /**
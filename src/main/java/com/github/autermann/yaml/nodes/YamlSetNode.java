@@ -15,10 +15,13 @@
  */
 package com.github.autermann.yaml.nodes;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
+import java.util.Objects;
 import java.util.Set;
 import java.util.Spliterator;
-import java.util.Spliterators;
 
 import org.yaml.snakeyaml.nodes.Tag;
 
@@ -26,6 +29,9 @@ import com.github.autermann.yaml.ReturningYamlNodeVisitor;
 import com.github.autermann.yaml.YamlNode;
 import com.github.autermann.yaml.YamlNodeFactory;
 import com.github.autermann.yaml.YamlNodeVisitor;
+import com.google.common.collect.ForwardingIterator;
+import com.google.common.collect.ForwardingSet;
+import com.google.common.collect.ImmutableSet;
 
 /**
  * A {@link YamlNode} for {@code !!set} mappings.
@@ -36,7 +42,18 @@ public class YamlSetNode extends YamlSequenceNode<YamlSetNode> {
     /**
      * The children of this node.
      */
-    private final LinkedHashSet<YamlNode> nodes;
+    private final Set<YamlNode> nodes;
+    /**
+     * The view of {@link #nodes} returned by {@link #value()}, discarding the
+     * {@link #index} on every modification.
+     */
+    private final Set<YamlNode> view;
+    /**
+     * Indexed snapshot of {@link #nodes} in iteration order, created lazily by
+     * {@link #path(int)} and discarded by any modification through
+     * {@link #value()}.
+     */
+    private YamlNode[] index;
 
     /**
      * Create a new {@link YamlSetNode}.
@@ -44,8 +61,19 @@ public class YamlSetNode extends YamlSequenceNode<YamlSetNode> {
      * @param factory the factory to create children
      */
     public YamlSetNode(YamlNodeFactory factory) {
+        this(factory, new LinkedHashSet<>());
+    }
+
+    /**
+     * Creates a new {@link YamlSetNode} with the specified backing set.
+     *
+     * @param factory the factory to create children
+     * @param nodes   the backing set, iterating in insertion order
+     */
+    protected YamlSetNode(YamlNodeFactory factory, Set<YamlNode> nodes) {
         super(factory);
-        this.nodes = new LinkedHashSet<>();
+        this.nodes = Objects.requireNonNull(nodes);
+        this.view = nodes instanceof ImmutableSet ? nodes : new IndexedSet();
     }
 
     @Override
@@ -65,7 +93,32 @@ public class YamlSetNode extends YamlSequenceNode<YamlSetNode> {
 
     @Override
     public Set<YamlNode> value() {
-        return this.nodes;
+        return this.view;
+    }
+
+    @Override
+    public YamlNode path(int i) {
+        if (i < 0 || i >= nodes.size()) {
+            return YamlMissingNode.instance();
+        }
+        if (isFrozen()) {
+            // the lazy index is not safe for concurrent readers
+            return ((ImmutableSet<YamlNode>) nodes).asList().get(i);
+        }
+        return indexed()[i];
+    }
+
+    /**
+     * Gets the indexed snapshot of this set, creating it if it is missing.
+     *
+     * @return the nodes of this set in iteration order
+     */
+    private YamlNode[] indexed() {
+        YamlNode[] snapshot = this.index;
+        if (snapshot == null) {
+            this.index = snapshot = nodes.toArray(new YamlNode[nodes.size()]);
+        }
+        return snapshot;
     }
 
     @Override
@@ -77,6 +130,38 @@ public class YamlSetNode extends YamlSequenceNode<YamlSetNode> {
         return copy;
     }
 
+    @Override
+    YamlSetNode parallelCopy() {
+        Set<YamlNode> copy = new LinkedHashSet<>(CopyTask.capacity(size()));
+        if (CopyTask.isLeaf(size())) {
+            for (YamlNode node : this) {
+                copy.add(CopyTask.copy(node));
+            }
+        } else {
+            YamlNode[] nodes = value().toArray(new YamlNode[size()]);
+            CopyTask.copyAll(nodes);
+            copy.addAll(Arrays.asList(nodes));
+        }
+        return new YamlSetNode(getNodeFactory(), copy);
+    }
+
+    @Override
+    public boolean isFrozen() {
+        return nodes instanceof ImmutableSet;
+    }
+
+    @Override
+    public YamlSetNode freeze() {
+        if (isFrozen()) {
+            return this;
+        }
+        ImmutableSet.Builder<YamlNode> builder = ImmutableSet.builder();
+        for (YamlNode node : this) {
+            builder.add(node.freeze());
+        }
+        return new YamlSetNode(getNodeFactory(), builder.build());
+    }
+
     @Override
     public void accept(YamlNodeVisitor visitor) {
         visitor.visit(this);
@@ -89,7 +174,76 @@ public class YamlSetNode extends YamlSequenceNode<YamlSetNode> {
 
     @Override
     public Spliterator<YamlNode> spliterator() {
-        return Spliterators.spliterator(value(), Spliterator.DISTINCT |
-                                                 Spliterator.NONNULL);
+        return NodeSpliterators.of(value(), Spliterator.DISTINCT |
+                                            Spliterator.NONNULL);
+    }
+
+    /**
+     * View of the backing set that discards the {@link #index} whenever the
+     * set is modified, including through its iterator.
+     */
+    private class IndexedSet extends ForwardingSet<YamlNode> {
+        @Override
+        protected Set<YamlNode> delegate() {
+            return nodes;
+        }
+
+        @Override
+        public boolean add(YamlNode element) {
+            index = null;
+            return nodes.add(element);
+        }
+
+        @Override
+        public boolean addAll(Collection<? extends YamlNode> collection) {
+            index = null;
+            return nodes.addAll(collection);
+        }
+
+        @Override
+        public boolean remove(Object object) {
+            index = null;
+            return nodes.remove(object);
+        }
+
+        @Override
+        public boolean removeAll(Collection<?> collection) {
+            index = null;
+            return nodes.removeAll(collection);
+        }
+
+        @Override
+        public boolean retainAll(Collection<?> collection) {
+            index = null;
+            return nodes.retainAll(collection);
+        }
+
+        @Override
+        public void clear() {
+            index = null;
+            nodes.clear();
+        }
+
+        @Override
+        public Iterator<YamlNode> iterator() {
+            Iterator<YamlNode> iterator = nodes.iterator();
+            return new ForwardingIterator<YamlNode>() {
+                @Override
+                protected Iterator<YamlNode> delegate() {
+                    return iterator;
+                }
+
+                @Override
+                public void remove() {
+                    index = null;
+                    iterator.remove();
+                }
+            };
+        }
+
+        @Override
+        public Spliterator<YamlNode> spliterator() {
+            return nodes.spliterator();
+        }
     }
 }
@@ -31,6 +31,8 @@ import static com.github.autermann.yaml.nodes.YamlNodesMatcher.timeNode;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
@@ -161,6 +163,41 @@ public class DefaultYamlNodeFactoryTest {
         DefaultYamlNodeFactory.create(null);
     }
 
+    @Test
+    public void testIntegralCache() {
+        errors.checkThat(factory.byteNode((byte) -128),
+                         is(sameInstance(factory.byteNode((byte) -128))));
+        errors.checkThat(factory.shortNode((short) 1024),
+                         is(sameInstance(factory.shortNode((short) 1024))));
+        errors.checkThat(factory.intNode(0),
+                         is(sameInstance(factory.intNode(0))));
+        errors.checkThat(factory.longNode(42L),
+                         is(sameInstance(factory.longNode(42L))));
+        errors.checkThat(factory.longNode(42L), is(longNode()));
+        errors.checkThat(factory.intNode(1025),
+                         is(not(sameInstance(factory.intNode(1025)))));
+        errors.checkThat(factory.intNode(1025),
+                         is(equalTo(factory.intNode(1025))));
+        YamlNodeFactory custom = factory.withIntegralCache(0, 50000);
+        errors.checkThat(custom.intNode(50000),
+                         is(sameInstance(custom.intNode(50000))));
+        errors.checkThat(custom.shortNode((short) -1),
+                         is(not(sameInstance(custom.shortNode((short) -1)))));
+        YamlNodeFactory disabled = factory.withIntegralCache(0, -1);
+        errors.checkThat(disabled.intNode(0),
+                         is(not(sameInstance(disabled.intNode(0)))));
+        errors.checkThat(DefaultYamlNodeFactory.create(DecimalPrecision.BIG_DECIMAL,
+                                                       DefaultYamlNodeFactory.DEFAULT_INTEGRAL_CACHE_LOW,
+                                                       DefaultYamlNodeFactory.DEFAULT_INTEGRAL_CACHE_HIGH),
+                         is(sameInstance(factory)));
+    }
+
+    @Test
+    public void testTooLargeIntegralCache() {
+        thrown.expect(IllegalArgumentException.class);
+        factory.withIntegralCache(Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
     @Test
     public void testBooleanNode() {
         errors.checkThat(factory.booleanNode(null), is(nullNode()));
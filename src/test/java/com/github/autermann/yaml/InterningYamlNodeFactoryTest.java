@@ -0,0 +1,89 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.util.Iterator;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ErrorCollector;
+
+import com.github.autermann.yaml.util.DecimalPrecision;
+
+/**
+ * Tests for {@link InterningYamlNodeFactory}.
+ *
+ * @author Christian Autermann
+ */
+public class InterningYamlNodeFactoryTest {
+    /**
+     * {@link ErrorCollector} rule.
+     */
+    @Rule
+    public final ErrorCollector errors = new ErrorCollector();
+
+    @Test
+    public void testTextNode() {
+        YamlNodeFactory factory = InterningYamlNodeFactory.create(16);
+        errors.checkThat(factory.textNode(new String("a")),
+                         is(sameInstance(factory.textNode(new String("a")))));
+        errors.checkThat(factory.textNode("a"),
+                         is(not(sameInstance(factory.textNode("b")))));
+    }
+
+    @Test
+    public void testEviction() {
+        YamlNodeFactory factory = InterningYamlNodeFactory.create(1);
+        YamlNode a = factory.textNode("a");
+        for (int i = 0; i < 100; ++i) {
+            factory.textNode(String.valueOf(i));
+        }
+        errors.checkThat(factory.textNode("a"), is(not(sameInstance(a))));
+        errors.checkThat(factory.textNode("a"), is(equalTo(a)));
+    }
+
+    @Test
+    public void testLoad() {
+        Yaml yaml = new Yaml(InterningYamlNodeFactory.create(16));
+        YamlNode node = yaml.load("- {host: a, status: up}\n" +
+                                  "- {host: b, status: up}\n");
+        Iterator<YamlNode> keys1 = node.path(0).iterator();
+        Iterator<YamlNode> keys2 = node.path(1).iterator();
+        errors.checkThat(keys1.next(), is(sameInstance(keys2.next())));
+        errors.checkThat(keys1.next(), is(sameInstance(keys2.next())));
+        errors.checkThat(node.path(0).path("status"),
+                         is(sameInstance(node.path(1).path("status"))));
+    }
+
+    @Test
+    public void testWithDecimalPrecision() {
+        InterningYamlNodeFactory factory = InterningYamlNodeFactory.create(16);
+        YamlNodeFactory other = factory
+                .withDecimalPrecision(DecimalPrecision.DOUBLE)
+                .withIntegralCache(0, 10);
+        errors.checkThat(other, is(instanceOf(InterningYamlNodeFactory.class)));
+        errors.checkThat(((InterningYamlNodeFactory) other).getMaximumSize(),
+                         is(16L));
+        errors.checkThat(((InterningYamlNodeFactory) other).getDecimalPrecision(),
+                         is(DecimalPrecision.DOUBLE));
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+import java.io.ByteArrayOutputStream;
+import java.io.UnsupportedEncodingException;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map.Entry;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ErrorCollector;
+import org.junit.rules.ExpectedException;
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.DumperOptions.FlowStyle;
+import org.yaml.snakeyaml.DumperOptions.ScalarStyle;
+
+import com.github.autermann.yaml.nodes.YamlMapNode;
+import com.github.autermann.yaml.nodes.YamlSeqNode;
+
+public class YamlDumpTest {
+    private static final String DOCUMENT = "a: [1, 2, 3]\n" +
+                                           "b: [1.5, 2.5]\n" +
+                                           "c: [x, 1, null]\n" +
+                                           "d: !!set {x, y}\n" +
+                                           "e: !!omap {z: 1, y: []}\n" +
+                                           "f: !!pairs {a: 1, b: {}}\n" +
+                                           "g: 2015-01-01T12:00:00.000+01:00\n" +
+                                           "h: !!binary aGVsbG8=\n" +
+                                           "i: |\n  multi\n  line\n" +
+                                           "j: \"quoted: \\ttab\"\n" +
+                                           "? [complex, key]\n" +
+                                           ": {nested: {deeper: true}}\n";
+    private final YamlNodeFactory factory = YamlNodeFactory.createDefault();
+
+    @Rule
+    public final ErrorCollector errors = new ErrorCollector();
+
+    @Rule
+    public final ExpectedException thrown = ExpectedException.none();
+
+    private YamlMapNode createDocument() {
+        YamlMapNode node = (YamlMapNode) new Yaml(factory).load(DOCUMENT);
+        node.put("k", factory.bigDecimalNode(new BigDecimal("1e400")));
+        node.put("l", factory.doubleNode(Double.NaN));
+        node.put("m", factory.floatNode(Float.NEGATIVE_INFINITY));
+        node.put("n", factory.dateTimeNode(new DateTime(0L, DateTimeZone.UTC)));
+        node.put("o", factory.textNode("non-printable \u0001"));
+        node.put("p", factory.pairsNode().put((YamlNode) null, 1));
+        return node;
+    }
+
+    private List<DumperOptions> createOptions() {
+        DumperOptions block = new DumperOptions();
+        DumperOptions flow = new DumperOptions();
+        flow.setDefaultFlowStyle(FlowStyle.FLOW);
+        DumperOptions auto = new DumperOptions();
+        auto.setDefaultFlowStyle(FlowStyle.AUTO);
+        DumperOptions canonical = new DumperOptions();
+        canonical.setCanonical(true);
+        DumperOptions explicit = new DumperOptions();
+        explicit.setExplicitStart(true);
+        explicit.setExplicitEnd(true);
+        explicit.setVersion(DumperOptions.Version.V1_1);
+        DumperOptions quoted = new DumperOptions();
+        quoted.setDefaultScalarStyle(ScalarStyle.DOUBLE_QUOTED);
+        quoted.setDefaultFlowStyle(FlowStyle.AUTO);
+        return Arrays.asList(block, flow, auto, canonical, explicit, quoted);
+    }
+
+    private String dumpWithRepresenter(DumperOptions options, Object... nodes) {
+        return new org.yaml.snakeyaml.Yaml(new YamlNodeRepresenter(options),
+                                           options)
+                .dumpAll(Arrays.asList(nodes).iterator());
+    }
+
+    @Test
+    public void testSameAsRepresenter() {
+        YamlNode node = createDocument();
+        for (YamlNode n : Arrays.asList(node, node.freeze())) {
+            for (DumperOptions options : createOptions()) {
+                errors.checkThat(new Yaml(options).dump(n),
+                                 is(equalTo(dumpWithRepresenter(options, n))));
+            }
+        }
+    }
+
+    @Test
+    public void testScalars() {
+        for (DumperOptions options : createOptions()) {
+            for (Entry<YamlNode, YamlNode> e : createDocument().entries()) {
+                YamlNode node = e.getValue();
+                errors.checkThat(new Yaml(options).dump(node),
+                                 is(equalTo(dumpWithRepresenter(options, node))));
+            }
+        }
+    }
+
+    @Test
+    public void testAliases() {
+        YamlSeqNode shared = factory.sequenceNode().add(1).add(2);
+        YamlMapNode map = factory.mapNode().put("x", "y");
+        YamlNode first = factory.mapNode()
+                .put("a", shared).put("b", shared)
+                .put("c", map).put(map, map)
+                .put("d", factory.setNode().add(map));
+        YamlNode second = factory.sequenceNode().add(shared).add(shared);
+        for (DumperOptions options : createOptions()) {
+            errors.checkThat(new Yaml(options).dumpAll(Arrays.asList(first, second)),
+                             is(equalTo(dumpWithRepresenter(options, first, second))));
+        }
+        errors.checkThat(new Yaml().dump(first), containsString("&id001"));
+    }
+
+    @Test
+    public void testOutputStream() throws UnsupportedEncodingException {
+        YamlNode node = factory.mapNode().put("\u00e4", "\u00f6");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new Yaml().dump(node, out);
+        errors.checkThat(out.toString("UTF-8"),
+                         is(equalTo(new Yaml().dump(node))));
+    }
+
+    @Test
+    public void testMissingNode() {
+        thrown.expect(IllegalArgumentException.class);
+        new Yaml().dump(factory.mapNode().path("missing"));
+    }
+}
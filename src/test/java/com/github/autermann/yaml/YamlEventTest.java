@@ -0,0 +1,103 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ErrorCollector;
+import org.yaml.snakeyaml.nodes.Tag;
+
+import com.github.autermann.yaml.YamlEvent.Type;
+import com.github.autermann.yaml.nodes.YamlScalarNode;
+
+public class YamlEventTest {
+    private final Yaml yaml = new Yaml();
+    private final YamlNodeFactory factory = YamlNodeFactory.createDefault();
+
+    @Rule
+    public final ErrorCollector errors = new ErrorCollector();
+
+    @Test
+    public void testEvents() {
+        List<Type> types = new ArrayList<>();
+        List<YamlNode> scalars = new ArrayList<>();
+        List<Tag> tags = new ArrayList<>();
+        for (YamlEvent event : yaml.parse("a: [1, 0x10, 2.5, ~, true]\n" +
+                                          "b: !!set {x}\n" +
+                                          "c: &anchor text\n" +
+                                          "d: *anchor\n")) {
+            types.add(event.getType());
+            if (event.getType() == Type.SCALAR) {
+                scalars.add(event.getValue());
+            }
+            if (event.getTag() != null && event.getType() != Type.SCALAR) {
+                tags.add(event.getTag());
+            }
+        }
+        errors.checkThat(types, contains(
+                Type.DOCUMENT_START, Type.MAPPING_START,
+                Type.SCALAR, Type.SEQUENCE_START,
+                Type.SCALAR, Type.SCALAR, Type.SCALAR, Type.SCALAR, Type.SCALAR,
+                Type.SEQUENCE_END,
+                Type.SCALAR, Type.MAPPING_START, Type.SCALAR, Type.SCALAR,
+                Type.MAPPING_END,
+                Type.SCALAR, Type.SCALAR,
+                Type.SCALAR, Type.ALIAS,
+                Type.MAPPING_END, Type.DOCUMENT_END));
+        errors.checkThat(tags, contains(Tag.MAP, Tag.SEQ, Tag.SET));
+        errors.checkThat(scalars, contains(
+                factory.textNode("a"), factory.byteNode((byte) 1),
+                factory.byteNode((byte) 16),
+                factory.bigDecimalNode(new BigDecimal("2.5")),
+                factory.nullNode(), factory.booleanNode(true),
+                factory.textNode("b"), factory.textNode("x"), factory.nullNode(),
+                factory.textNode("c"), factory.textNode("text"),
+                factory.textNode("d")));
+    }
+
+    @Test
+    public void testHandler() {
+        int[] counts = new int[3];
+        yaml.parse(new StringReader("--- [1, 2]\n--- {a: 3}\n"),
+                   new YamlEventHandler() {
+            @Override
+            public void startDocument() {
+                ++counts[0];
+            }
+
+            @Override
+            public void scalar(YamlScalarNode value, String anchor) {
+                counts[1] += value.asIntValue(0);
+            }
+
+            @Override
+            public void endMapping() {
+                ++counts[2];
+            }
+        });
+        errors.checkThat(counts[0], is(2));
+        errors.checkThat(counts[1], is(6));
+        errors.checkThat(counts[2], is(1));
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ErrorCollector;
+
+import com.github.autermann.yaml.nodes.YamlLongArrayNode;
+import com.github.autermann.yaml.nodes.YamlMapNode;
+import com.github.autermann.yaml.nodes.YamlPairsNode;
+import com.github.autermann.yaml.nodes.YamlSeqNode;
+
+/**
+ * Tests for {@link YamlNode#freeze()}.
+ *
+ * @author Christian Autermann
+ */
+public class YamlFreezeTest {
+
+    private final YamlNodeFactory factory = YamlNodeFactory.createDefault();
+
+    @Rule
+    public final ErrorCollector errors = new ErrorCollector();
+
+    private YamlMapNode createTree() {
+        YamlMapNode node = factory.mapNode();
+        node.put("text", "value");
+        node.putSequence("seq").add(1).add("two").addMap().put("three", 3);
+        node.putSet("set").add("a").add("b").add("c");
+        node.putPairs("pairs").put("a", 1).put("a", 2).put("b", 3);
+        node.putOrderedMap("omap").put("z", 1).put("y", 2);
+        node.put("longs", new YamlLongArrayNode(factory, 1L, 2L, 3L));
+        return node;
+    }
+
+    @Test
+    public void testFreeze() {
+        YamlMapNode node = createTree();
+        errors.checkThat(node.isFrozen(), is(false));
+        YamlMapNode frozen = node.freeze();
+        errors.checkThat(frozen, is(equalTo(node)));
+        errors.checkThat(frozen.hashCode(), is(node.hashCode()));
+        errors.checkThat(frozen.isFrozen(), is(true));
+        for (String key : new String[] { "seq", "set", "pairs", "omap", "longs" }) {
+            errors.checkThat(key, frozen.path(key).isContainer(), is(true));
+            errors.checkThat(key, frozen.path(key).isFrozen(), is(true));
+        }
+        errors.checkThat(frozen.path("seq").path(2).isFrozen(), is(true));
+        errors.checkThat(frozen.path("omap").isOrderedMap(), is(true));
+        errors.checkThat(frozen.path("longs"),
+                         is(instanceOf(YamlLongArrayNode.class)));
+        errors.checkThat(frozen.path("set").path(1),
+                         is(equalTo(factory.textNode("b"))));
+        errors.checkThat(frozen.path("pairs").path("a").size(), is(2));
+        errors.checkThat(frozen.path("omap").iterator().next(),
+                         is(equalTo(factory.textNode("z"))));
+        // the original is still modifiable
+        node.put("other", true);
+        errors.checkThat(frozen.has("other"), is(false));
+    }
+
+    @Test
+    public void testStructuralSharing() {
+        YamlMapNode frozen = createTree().freeze();
+        errors.checkThat(frozen.freeze(), is(sameInstance(frozen)));
+        YamlMapNode parent = factory.mapNode();
+        parent.put("child", frozen);
+        YamlMapNode frozenParent = parent.freeze();
+        // a single entry map compares the stored key with the lookup key
+        errors.checkThat(frozenParent.path("child"), is(sameInstance(frozen)));
+        errors.checkThat(frozenParent.path(factory.textNode("child")),
+                         is(sameInstance(frozen)));
+    }
+
+    @Test
+    public void testCopyIsModifiable() {
+        YamlMapNode copy = createTree().freeze().copy();
+        errors.checkThat(copy.isFrozen(), is(false));
+        copy.put("other", true);
+        copy.path("seq").asSequence().add(4);
+        errors.checkThat(copy.path("seq").size(), is(4));
+    }
+
+    @Test
+    public void testHashCode() {
+        YamlMapNode node = createTree();
+        YamlMapNode frozen = node.freeze();
+        errors.checkThat(frozen.hashCode(), is(node.hashCode()));
+        // the cached hash code is the same
+        errors.checkThat(frozen.hashCode(), is(node.hashCode()));
+        for (YamlNode key : node) {
+            errors.checkThat(key.toString(), frozen.path(key).hashCode(),
+                             is(node.path(key).hashCode()));
+        }
+        // hash codes of modifiable nodes are not cached
+        int hashCode = node.hashCode();
+        node.path("seq").path(2).asMap().put("four", 4);
+        errors.checkThat(node.hashCode(), is(not(hashCode)));
+    }
+
+    @Test
+    public void testComplexKeys() {
+        YamlMapNode key = factory.mapNode().put("a", 1).put("b", 2);
+        YamlMapNode node = factory.mapNode().put(key.freeze(), "value");
+        errors.checkThat(node.path(key).textValue(), is("value"));
+        errors.checkThat(node.path(key.freeze()).textValue(), is("value"));
+        YamlNode set = factory.setNode().add(key.freeze()).add(key).freeze();
+        errors.checkThat(set.size(), is(1));
+    }
+
+    @Test
+    public void testScalars() {
+        YamlNode node = factory.textNode("text");
+        errors.checkThat(node.isFrozen(), is(true));
+        errors.checkThat(node.freeze(), is(sameInstance(node)));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testMapIsFrozen() {
+        createTree().freeze().put("other", true);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testSequenceIsFrozen() {
+        createTree().freeze().path("seq").asSequence().add(4);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testSetIsFrozen() {
+        createTree().freeze().path("set").asSet().add("d");
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testPairsIsFrozen() {
+        createTree().freeze().path("pairs").asPairs().put("c", 4);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testLongArrayIsFrozen() {
+        ((YamlSeqNode) createTree().freeze().path("longs")).add(4L);
+    }
+
+    @Test
+    public void testFreezeInflatedLongArray() {
+        YamlLongArrayNode node = new YamlLongArrayNode(factory, 1L, 2L);
+        node.add("text");
+        YamlSeqNode frozen = node.freeze();
+        errors.checkThat(frozen, is(not(instanceOf(YamlLongArrayNode.class))));
+        errors.checkThat(frozen.isFrozen(), is(true));
+        errors.checkThat(frozen, is(equalTo((YamlSeqNode) node)));
+    }
+
+    @Test
+    public void testDump() {
+        Yaml yaml = new Yaml(factory);
+        YamlMapNode node = createTree();
+        errors.checkThat(yaml.dump(node.freeze()), is(yaml.dump(node)));
+    }
+
+    @Test
+    public void testConcurrentReaders() throws Exception {
+        YamlMapNode node = factory.mapNode();
+        YamlPairsNode pairs = node.putPairs("pairs");
+        for (int i = 0; i < 1000; ++i) {
+            node.put("key-" + i, i);
+            pairs.put("key-" + (i % 10), i);
+        }
+        YamlMapNode frozen = node.freeze();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Long>> results = new ArrayList<>();
+            for (int t = 0; t < 4; ++t) {
+                results.add(executor.submit(() -> {
+                    long sum = 0;
+                    for (int i = 0; i < 1000; ++i) {
+                        sum += frozen.path("key-" + i).asLongValue();
+                        sum += frozen.path("pairs").path("key-" + (i % 10)).size();
+                    }
+                    return sum;
+                }));
+            }
+            for (Future<Long> result : results) {
+                errors.checkThat(result.get(), is(499500L + 100000L));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
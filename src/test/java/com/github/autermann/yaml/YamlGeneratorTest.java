@@ -0,0 +1,254 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.startsWith;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ErrorCollector;
+import org.junit.rules.ExpectedException;
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.DumperOptions.FlowStyle;
+
+import com.github.autermann.yaml.nodes.YamlSeqNode;
+import com.google.common.collect.Lists;
+
+public class YamlGeneratorTest {
+    private final YamlNodeFactory factory = YamlNodeFactory.createDefault();
+
+    @Rule
+    public final ErrorCollector errors = new ErrorCollector();
+
+    @Rule
+    public final ExpectedException thrown = ExpectedException.none();
+
+    private YamlNode createNode() {
+        DateTime time = new DateTime(0L, DateTimeZone.UTC);
+        return factory.orderedMapNode()
+                .put("text", "multi\nline")
+                .put("boolean", true)
+                .put("null", factory.nullNode())
+                .put("byte", (byte) 1)
+                .put("short", (short) 2)
+                .put("int", 3)
+                .put("long", Long.MAX_VALUE)
+                .put("bigInteger", BigInteger.TEN.pow(30))
+                .put("float", 1.5f)
+                .put("double", 0.5d)
+                .put("bigDecimal", new BigDecimal("1.25"))
+                .put("binary", new byte[] { 1, 2, 3 })
+                .put("time", factory.dateTimeNode(time))
+                .put("seq", factory.sequenceNode().add(1).add("a")
+                        .add(factory.sequenceNode()))
+                .put("set", factory.setNode().add("x").add("y"))
+                .put("omap", factory.orderedMapNode().put("b", 1).put("a", 2))
+                .put("pairs", factory.pairsNode().put("a", 1).put("a", 2));
+    }
+
+    private void writeNode(YamlGenerator generator) {
+        DateTime time = new DateTime(0L, DateTimeZone.UTC);
+        generator.writeStartOrderedMap()
+                .writeKey("text").writeString("multi\nline")
+                .writeKey("boolean").writeBoolean(true)
+                .writeKey("null").writeNull()
+                .writeKey("byte").writeNumber((byte) 1)
+                .writeKey("short").writeNumber((short) 2)
+                .writeKey("int").writeNumber(3)
+                .writeKey("long").writeNumber(Long.MAX_VALUE)
+                .writeKey("bigInteger").writeNumber(BigInteger.TEN.pow(30))
+                .writeKey("float").writeNumber(1.5f)
+                .writeKey("double").writeNumber(0.5d)
+                .writeKey("bigDecimal").writeNumber(new BigDecimal("1.25"))
+                .writeKey("binary").writeBinary(new byte[] { 1, 2, 3 })
+                .writeKey("time").writeTime(time)
+                .writeKey("seq").writeStartSequence()
+                    .writeNumber(1).writeString("a")
+                    .writeStartSequence().writeEndSequence()
+                .writeEndSequence()
+                .writeKey("set").writeStartSet()
+                    .writeString("x").writeString("y")
+                .writeEndSet()
+                .writeKey("omap").writeStartOrderedMap()
+                    .writeKey("b").writeNumber(1)
+                    .writeKey("a").writeNumber(2)
+                .writeEndMap()
+                .writeKey("pairs").writeStartPairs()
+                    .writeKey("a").writeNumber(1)
+                    .writeKey("a").writeNumber(2)
+                .writeEndMap()
+                .writeEndMap();
+    }
+
+    private String generate(Yaml yaml, int documents) throws IOException {
+        StringWriter writer = new StringWriter();
+        try (YamlGenerator generator = yaml.createGenerator(writer)) {
+            for (int i = 0; i < documents; ++i) {
+                writeNode(generator);
+            }
+        }
+        return writer.toString();
+    }
+
+    @Test
+    public void testSameAsDump() throws IOException {
+        DumperOptions auto = new DumperOptions();
+        DumperOptions block = new DumperOptions();
+        block.setDefaultFlowStyle(FlowStyle.BLOCK);
+        DumperOptions flow = new DumperOptions();
+        flow.setDefaultFlowStyle(FlowStyle.FLOW);
+        DumperOptions canonical = new DumperOptions();
+        canonical.setCanonical(true);
+        DumperOptions explicit = new DumperOptions();
+        explicit.setExplicitStart(true);
+        explicit.setExplicitEnd(true);
+        YamlNode node = createNode();
+        for (DumperOptions options : Arrays.asList(auto, block, flow, canonical, explicit)) {
+            Yaml yaml = new Yaml(options);
+            errors.checkThat(generate(yaml, 1), is(equalTo(yaml.dump(node))));
+            errors.checkThat(generate(yaml, 3),
+                             is(equalTo(yaml.dumpAll(Arrays.asList(node, node, node)))));
+        }
+    }
+
+    @Test
+    public void testPendingEvents() throws IOException {
+        Yaml yaml = new Yaml();
+        YamlSeqNode small = factory.sequenceNode();
+        YamlSeqNode large = factory.sequenceNode();
+        StringWriter writer = new StringWriter();
+        try (YamlGenerator generator = yaml.createGenerator(writer)) {
+            generator.writeStartSequence().writeStartSequence();
+            for (int i = 0; i < 10; ++i) {
+                generator.writeNumber(i);
+                small.add(i);
+            }
+            generator.writeEndSequence().writeStartSequence();
+            for (int i = 0; i < 2 * YamlGenerator.MAX_PENDING_EVENTS; ++i) {
+                generator.writeNumber(i);
+                large.add(i);
+            }
+            generator.writeEndSequence().writeEndSequence();
+        }
+        YamlNode node = factory.sequenceNode().add(small).add(large);
+        String expected = yaml.dump(node);
+        // the large sequence is written in block style
+        errors.checkThat(writer.toString(), is(not(equalTo(expected))));
+        errors.checkThat(writer.toString(), startsWith("- [0, 1, 2, 3, 4, 5, 6, 7, 8, 9]\n- - 0\n"));
+        errors.checkThat(yaml.load(writer.toString()),
+                         is(equalTo(yaml.load(expected))));
+    }
+
+    @Test
+    public void testScalarDocuments() throws IOException {
+        Yaml yaml = new Yaml();
+        StringWriter writer = new StringWriter();
+        try (YamlGenerator generator = yaml.createGenerator(writer)) {
+            generator.writeString("a").writeNumber(1).writeNull();
+        }
+        errors.checkThat(Lists.newArrayList(yaml.loadAll(writer.toString())),
+                         contains(factory.textNode("a"), factory.byteNode((byte) 1),
+                                  factory.nullNode()));
+        errors.checkThat(generate(yaml, 0), is(equalTo("")));
+    }
+
+    @Test
+    public void testWriteNode() throws IOException {
+        Yaml yaml = new Yaml();
+        YamlSeqNode shared = factory.sequenceNode().add(1);
+        YamlNode node = factory.mapNode().put("a", shared).put("b", shared);
+        StringWriter writer = new StringWriter();
+        try (YamlGenerator generator = yaml.createGenerator(writer)) {
+            generator.writeStartSequence()
+                    .writeNode(node)
+                    .writeNode(node)
+                    .writeEndSequence();
+        }
+        errors.checkThat(writer.toString(), is(equalTo(
+                "- a: &id001 [1]\n  b: *id001\n- a: &id002 [1]\n  b: *id002\n")));
+    }
+
+    @Test
+    public void testOutputStream() throws IOException {
+        Yaml yaml = new Yaml();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (YamlGenerator generator = yaml.createGenerator(out)) {
+            writeNode(generator);
+        }
+        errors.checkThat(out.toString("UTF-8"), is(equalTo(yaml.dump(createNode()))));
+    }
+
+    @Test
+    public void testKeyOutsideOfMapping() {
+        YamlGenerator generator = new Yaml().createGenerator(new StringWriter());
+        generator.writeStartSequence();
+        thrown.expect(IllegalStateException.class);
+        generator.writeKey("a");
+    }
+
+    @Test
+    public void testKeyInsteadOfValue() {
+        YamlGenerator generator = new Yaml().createGenerator(new StringWriter());
+        generator.writeStartMap().writeKey("a");
+        thrown.expect(IllegalStateException.class);
+        generator.writeKey("b");
+    }
+
+    @Test
+    public void testMissingValue() {
+        YamlGenerator generator = new Yaml().createGenerator(new StringWriter());
+        generator.writeStartMap().writeKey("a");
+        thrown.expect(IllegalStateException.class);
+        generator.writeEndMap();
+    }
+
+    @Test
+    public void testMismatchedEnd() {
+        YamlGenerator generator = new Yaml().createGenerator(new StringWriter());
+        generator.writeStartSet();
+        thrown.expect(IllegalStateException.class);
+        generator.writeEndSequence();
+    }
+
+    @Test
+    public void testUnclosedContainer() throws IOException {
+        YamlGenerator generator = new Yaml().createGenerator(new StringWriter());
+        generator.writeStartMap();
+        thrown.expect(IllegalStateException.class);
+        generator.close();
+    }
+
+    @Test
+    public void testWriteAfterClose() throws IOException {
+        YamlGenerator generator = new Yaml().createGenerator(new StringWriter());
+        generator.close();
+        thrown.expect(IllegalStateException.class);
+        generator.writeNull();
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.not;
+
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ErrorCollector;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import com.github.autermann.yaml.nodes.MappedNodes;
+import com.github.autermann.yaml.nodes.YamlByteNode;
+import com.github.autermann.yaml.nodes.YamlDoubleArrayNode;
+import com.github.autermann.yaml.nodes.YamlLongArrayNode;
+import com.github.autermann.yaml.nodes.YamlMapNode;
+import com.github.autermann.yaml.nodes.YamlSeqNode;
+import com.github.autermann.yaml.util.DecimalPrecision;
+
+/**
+ * Tests for {@link Yaml#writeImage(YamlNode, Path)} and
+ * {@link Yaml#mapImage(Path)}.
+ *
+ * @author Christian Autermann
+ */
+public class YamlImageTest {
+
+    private final YamlNodeFactory factory
+            = DefaultYamlNodeFactory.create(DecimalPrecision.BIG_DECIMAL);
+
+    private final Yaml yaml = new Yaml(factory);
+
+    @Rule
+    public final ErrorCollector errors = new ErrorCollector();
+
+    @Rule
+    public final ExpectedException thrown = ExpectedException.none();
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private YamlMapNode createTree() {
+        YamlMapNode node = factory.orderedMapNode();
+        node.putNull("null");
+        node.put("true", true);
+        node.put("false", false);
+        node.put("byte", (byte) -3);
+        node.put("short", (short) 1000);
+        node.put("int", Integer.MIN_VALUE);
+        node.put("long", Long.MAX_VALUE);
+        node.put("bigInteger", BigInteger.TEN.pow(40).negate());
+        node.put("float", 1.5f);
+        node.put("double", -Math.PI);
+        node.put("bigDecimal", new BigDecimal("-1234567890.0987654321"));
+        node.put("text", "plain");
+        node.put("gr\u00fc\u00dfe", "\u2603 \ud83d\ude00");
+        node.put("binary", new byte[] { 0, 1, -1, 127, -128 });
+        node.put("berlin", new DateTime(1420070400000L,
+                                        DateTimeZone.forID("Europe/Berlin")));
+        node.put(factory.intNode(42), "integral key");
+        node.put(factory.nullNode(), "null key");
+        node.put("Aa", "colliding");
+        node.put("BB", "hash");
+        node.putSequence("seq").add(1).add("two").addMap().put("three", 3);
+        node.putSet("set").add("a").add(2).add("c");
+        node.putPairs("pairs").put("a", 1).put("a", 2).put("b", 3);
+        node.putOrderedMap("omap").put("z", 1).put("y", 2);
+        node.putMap("map").put("nested", factory.mapNode().put("key", "value"));
+        node.put("longs", new YamlLongArrayNode(factory, 1L, -2L, 3L));
+        node.put("doubles", new YamlDoubleArrayNode(factory, 0.5, -0.25));
+        return node;
+    }
+
+    private YamlNode map(YamlNode node) throws IOException {
+        Path path = folder.newFile().toPath();
+        yaml.writeImage(node, path);
+        return yaml.mapImage(path);
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        YamlMapNode node = createTree();
+        YamlNode mapped = map(node);
+        errors.checkThat(mapped, is(equalTo((YamlNode) node)));
+        errors.checkThat(node, is(equalTo(mapped)));
+        errors.checkThat(mapped.hashCode(), is(node.hashCode()));
+        errors.checkThat(mapped.isOrderedMap(), is(true));
+        errors.checkThat(mapped.path("pairs").isPairs(), is(true));
+        errors.checkThat(mapped.path("set").isSet(), is(true));
+        errors.checkThat(mapped.path("byte"), is(instanceOf(YamlByteNode.class)));
+        errors.checkThat(mapped.path("berlin").dateTimeValue(),
+                         is(equalTo(node.path("berlin").dateTimeValue())));
+        errors.checkThat(mapped.path("longs").path(1).longValue(), is(-2L));
+        errors.checkThat(mapped.asMap().entries().stream()
+                .map(e -> e.getKey()).limit(3)
+                .map(YamlNode::textValue).toArray(),
+                         is(new Object[] { "null", "true", "false" }));
+    }
+
+    @Test
+    public void testScalarRoot() throws IOException {
+        errors.checkThat(map(factory.textNode("text")),
+                         is(equalTo((YamlNode) factory.textNode("text"))));
+        errors.checkThat(map(factory.mapNode().path("missing")).isNull(),
+                         is(true));
+    }
+
+    @Test
+    public void testLookup() throws IOException {
+        YamlNode mapped = map(createTree());
+        errors.checkThat(mapped.path("text").textValue(), is("plain"));
+        errors.checkThat(mapped.path("gr\u00fc\u00dfe").textValue(),
+                         is("\u2603 \ud83d\ude00"));
+        errors.checkThat(mapped.path("Aa").textValue(), is("colliding"));
+        errors.checkThat(mapped.path("BB").textValue(), is("hash"));
+        errors.checkThat(mapped.path("Ab").exists(), is(false));
+        errors.checkThat(mapped.path("plain").exists(), is(false));
+        errors.checkThat(mapped.path(factory.intNode(42)).textValue(),
+                         is("integral key"));
+        errors.checkThat(mapped.path(factory.intNode(43)).exists(), is(false));
+        errors.checkThat(mapped.path(factory.nullNode()).textValue(),
+                         is("null key"));
+        errors.checkThat(mapped.path("pairs").path("a"),
+                         contains(factory.intNode(1), factory.intNode(2)));
+        errors.checkThat(mapped.path("set").asSet().value()
+                .contains(factory.textNode("c")), is(true));
+        errors.checkThat(mapped.path("set").asSet().value()
+                .contains(factory.intNode(2)), is(true));
+        errors.checkThat(mapped.path("set").asSet().value()
+                .contains(factory.textNode("b")), is(false));
+        errors.checkThat(mapped.path("set").path(2).textValue(), is("c"));
+        errors.checkThat(mapped.at("/map/nested/key").textValue(), is("value"));
+        errors.checkThat(YamlQuery.compile("$.seq[2].three").selectFirst(mapped)
+                .intValue(), is(3));
+    }
+
+    @Test
+    public void testSharedKeys() throws IOException {
+        YamlSeqNode node = factory.sequenceNode();
+        for (int i = 0; i < 1000; ++i) {
+            node.addMap()
+                    .put("identifier", i)
+                    .put("description", "item")
+                    .put("timestamp", new DateTime(i, DateTimeZone.UTC));
+        }
+        Path path = folder.newFile().toPath();
+        yaml.writeImage(node, path);
+        errors.checkThat(yaml.mapImage(path), is(equalTo((YamlNode) node)));
+        // without shared keys every entry would take another 46 bytes
+        errors.checkThat(Files.size(path), is(lessThan(100000L)));
+    }
+
+    @Test
+    public void testCopy() throws IOException {
+        YamlMapNode node = createTree();
+        YamlNode copy = map(node).copy();
+        copy.asMap().put("added", 1);
+        errors.checkThat(copy.path("added").intValue(), is(1));
+        errors.checkThat(copy, is(not(equalTo((YamlNode) node))));
+        errors.checkThat(map(node).freeze(), is(equalTo((YamlNode) node)));
+    }
+
+    @Test
+    public void testReadOnly() throws IOException {
+        YamlNode mapped = map(createTree());
+        thrown.expect(UnsupportedOperationException.class);
+        mapped.asMap().put("added", 1);
+    }
+
+    @Test
+    public void testReplace() throws IOException {
+        Path path = folder.newFile().toPath();
+        yaml.writeImage(factory.mapNode().put("version", 1), path);
+        YamlNode first = yaml.mapImage(path);
+        yaml.writeImage(factory.mapNode().put("version", 2), path);
+        YamlNode second = yaml.mapImage(path);
+        errors.checkThat(first.path("version").intValue(), is(1));
+        errors.checkThat(second.path("version").intValue(), is(2));
+        errors.checkThat(Files.exists(path.resolveSibling(
+                path.getFileName() + ".tmp")), is(false));
+    }
+
+    @Test
+    public void testInvalidImage() throws IOException {
+        Path path = folder.newFile().toPath();
+        Files.write(path, "a: b\nc: d\n".getBytes(StandardCharsets.UTF_8));
+        thrown.expect(StreamCorruptedException.class);
+        MappedNodes.map(factory, path);
+    }
+}
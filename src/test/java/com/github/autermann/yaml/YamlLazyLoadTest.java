@@ -0,0 +1,131 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ErrorCollector;
+import org.junit.rules.ExpectedException;
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.error.YAMLException;
+
+import com.github.autermann.yaml.nodes.YamlMapNode;
+import com.github.autermann.yaml.nodes.YamlOrderedMapNode;
+import com.github.autermann.yaml.nodes.YamlSetNode;
+import com.google.common.collect.Lists;
+
+/**
+ * Tests for loading with lazily constructed container nodes.
+ *
+ * @author Christian Autermann
+ */
+public class YamlLazyLoadTest {
+    private static final String DOCUMENT = "name: service\n"
+            + "ports: [80, 443]\n"
+            + "numbers: [1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17]\n"
+            + "limits: &limits {cpu: 2, memory: 4G}\n"
+            + "defaults: *limits\n"
+            + "ordered: !!omap {b: 1, a: 2}\n"
+            + "pairs: !!pairs {a: 1, a: {nested: [x, y]}}\n"
+            + "set: !!set {x, y, {z: 1}: null}\n"
+            + "binary: !!binary aGVsbG8=\n"
+            + "nested: {a: {b: {c: [{d: true}, null, 1.5]}}}\n";
+
+    private final YamlNodeFactory factory = YamlNodeFactory.createDefault();
+
+    private final Yaml eager = new Yaml(factory);
+
+    private final Yaml lazy = new Yaml(new DumperOptions(), factory, true);
+
+    @Rule
+    public final ErrorCollector errors = new ErrorCollector();
+
+    @Rule
+    public final ExpectedException thrown = ExpectedException.none();
+
+    @Test
+    public void testEquals() {
+        YamlNode expected = eager.load(DOCUMENT);
+        YamlNode actual = lazy.load(DOCUMENT);
+        errors.checkThat(actual, is(equalTo(expected)));
+        errors.checkThat(actual.hashCode(), is(expected.hashCode()));
+        // aliased nodes are constructed once per occurrence
+        errors.checkThat(eager.load(lazy.dump(lazy.load(DOCUMENT))),
+                         is(equalTo(expected)));
+    }
+
+    @Test
+    public void testTypes() {
+        YamlNode node = lazy.load(DOCUMENT);
+        errors.checkThat(node, is(instanceOf(YamlMapNode.class)));
+        errors.checkThat(node.path("ordered"),
+                         is(instanceOf(YamlOrderedMapNode.class)));
+        errors.checkThat(Lists.newArrayList(node.path("ordered")),
+                         is(equalTo(Lists.newArrayList(factory.textNode("b"),
+                                                       factory.textNode("a")))));
+        errors.checkThat(node.path("set"), is(instanceOf(YamlSetNode.class)));
+        errors.checkThat(node.path("pairs").isPairs(), is(true));
+        errors.checkThat(node.path("pairs").path("a").path(1)
+                .path("nested").path(1).asTextValue(), is("y"));
+        errors.checkThat(node.path("nested").path("a").path("b").path("c")
+                .path(0).path("d").asBooleanValue(), is(true));
+    }
+
+    @Test
+    public void testFreezeAndCopy() {
+        YamlNode expected = eager.load(DOCUMENT);
+        errors.checkThat(lazy.load(DOCUMENT).freeze(), is(equalTo(expected)));
+        errors.checkThat(lazy.load(DOCUMENT).copy(), is(equalTo(expected)));
+    }
+
+    @Test
+    public void testLoadAll() {
+        String documents = DOCUMENT + "---\n" + DOCUMENT;
+        List<YamlNode> expected = Lists.newArrayList(eager.loadAll(documents));
+        errors.checkThat(Lists.newArrayList(lazy.loadAll(documents)),
+                         is(equalTo(expected)));
+    }
+
+    @Test
+    public void testUnreadSubtreeIsNotConstructed() {
+        String document = "good: 1\nbad: {x: !unknown foo}\n";
+        YamlNode node = lazy.load(document);
+        errors.checkThat(node.path("good").asIntValue(), is(1));
+        thrown.expect(YAMLException.class);
+        node.path("bad").path("x");
+    }
+
+    @Test
+    public void testRecursiveNode() {
+        thrown.expect(YAMLException.class);
+        thrown.expectMessage("recursive");
+        lazy.load("&a {x: {y: *a}}");
+    }
+
+    @Test
+    public void testNestedRecursiveNode() {
+        YamlNode node = lazy.load("a: &a {x: {y: *a}}");
+        thrown.expect(YAMLException.class);
+        thrown.expectMessage("recursive");
+        node.path("a");
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.AfterClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ErrorCollector;
+
+import com.github.autermann.yaml.nodes.YamlLongArrayNode;
+import com.github.autermann.yaml.nodes.YamlMapNode;
+import com.github.autermann.yaml.nodes.YamlOrderedMapNode;
+import com.github.autermann.yaml.nodes.YamlPairsNode;
+import com.github.autermann.yaml.nodes.YamlSeqNode;
+
+/**
+ * Tests for {@link YamlNode#copy(ForkJoinPool)}.
+ *
+ * @author Christian Autermann
+ */
+public class YamlParallelCopyTest {
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    private final YamlNodeFactory factory = YamlNodeFactory.createDefault();
+
+    @Rule
+    public final ErrorCollector errors = new ErrorCollector();
+
+    @AfterClass
+    public static void shutdown() {
+        POOL.shutdown();
+    }
+
+    private YamlMapNode createTree() {
+        YamlMapNode node = factory.mapNode();
+        for (int i = 0; i < 200; ++i) {
+            YamlOrderedMapNode host = node.putOrderedMap("host-" + i);
+            host.put("name", "host-" + i).put("port", 8000 + i);
+            host.putSet("tags").add("tag-" + (i % 7)).add("all");
+            YamlPairsNode headers = host.putPairs("headers");
+            for (int j = 0; j < 100; ++j) {
+                headers.put("header-" + (j % 10), j);
+            }
+            YamlSeqNode services = host.putSequence("services");
+            for (int j = 0; j < 100; ++j) {
+                services.addMap().put("id", j).put("enabled", j % 2 == 0);
+            }
+            host.put("ports", new YamlLongArrayNode(factory, 80L, 443L, 8080L));
+        }
+        return node;
+    }
+
+    @Test
+    public void testCopy() {
+        YamlMapNode node = createTree();
+        YamlNode copy = node.copy(POOL);
+        errors.checkThat(copy, is(equalTo((YamlNode) node)));
+        errors.checkThat(copy, is(equalTo(node.copy())));
+        errors.checkThat(copy, is(not(sameInstance((YamlNode) node))));
+        YamlNode host = copy.path("host-1");
+        errors.checkThat(host, is(instanceOf(YamlOrderedMapNode.class)));
+        errors.checkThat(host, is(not(sameInstance(node.path("host-1")))));
+        errors.checkThat(host.path("services").path(1),
+                         is(not(sameInstance(node.path("host-1").path("services").path(1)))));
+        errors.checkThat(host.path("ports"), is(instanceOf(YamlLongArrayNode.class)));
+    }
+
+    @Test
+    public void testOrder() {
+        YamlMapNode node = createTree();
+        YamlNode copy = node.copy(POOL);
+        errors.checkThat(keys(copy.path("host-1")), is(equalTo(keys(node.path("host-1")))));
+        errors.checkThat(copy.path("host-1").path("tags"),
+                         contains(factory.textNode("tag-1"), factory.textNode("all")));
+        List<YamlNode> values = new ArrayList<>();
+        for (Entry<YamlNode, YamlNode> e : copy.path("host-1").path("headers").asPairs().entries()) {
+            values.add(e.getValue());
+        }
+        for (int j = 0; j < 100; ++j) {
+            errors.checkThat(values.get(j).asIntValue(), is(j));
+        }
+        errors.checkThat(copy.path("host-1").path("headers").path("header-3").size(), is(10));
+    }
+
+    @Test
+    public void testCopyIsIndependent() {
+        YamlMapNode node = createTree();
+        YamlNode copy = node.copy(POOL);
+        copy.asMap().put("other", true);
+        copy.path("host-1").asOrderedMap().put("other", true);
+        copy.path("host-1").path("headers").asPairs().put("other", true);
+        copy.path("host-1").path("services").asSequence().add(true);
+        copy.path("host-1").path("tags").asSet().add("other");
+        errors.checkThat(node.has("other"), is(false));
+        errors.checkThat(node.path("host-1").has("other"), is(false));
+        errors.checkThat(node.path("host-1").path("headers").has("other"), is(false));
+        errors.checkThat(node.path("host-1").path("services").size(), is(100));
+        errors.checkThat(node.path("host-1").path("tags").size(), is(2));
+    }
+
+    @Test
+    public void testCopyFrozen() {
+        YamlMapNode node = createTree();
+        YamlNode copy = node.freeze().copy(POOL);
+        errors.checkThat(copy, is(equalTo((YamlNode) node)));
+        errors.checkThat(copy.isFrozen(), is(false));
+        errors.checkThat(copy.path("host-1").path("services").isFrozen(), is(false));
+    }
+
+    @Test
+    public void testScalar() {
+        YamlNode node = factory.textNode("text");
+        errors.checkThat(node.copy(POOL), is(sameInstance(node)));
+    }
+
+    private static List<YamlNode> keys(YamlNode node) {
+        List<YamlNode> keys = new ArrayList<>();
+        node.forEach(keys::add);
+        return keys;
+    }
+}
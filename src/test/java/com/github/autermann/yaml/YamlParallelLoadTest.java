@@ -0,0 +1,198 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.AfterClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ErrorCollector;
+import org.junit.rules.ExpectedException;
+import org.yaml.snakeyaml.error.YAMLException;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Tests for {@link Yaml#loadStream(java.io.Reader, java.util.concurrent.Executor, boolean)}.
+ *
+ * @author Christian Autermann
+ */
+public class YamlParallelLoadTest {
+
+    private static final ExecutorService EXECUTOR
+            = Executors.newFixedThreadPool(4);
+
+    private final Yaml yaml = new Yaml();
+
+    @Rule
+    public final ErrorCollector errors = new ErrorCollector();
+
+    @Rule
+    public final ExpectedException thrown = ExpectedException.none();
+
+    @AfterClass
+    public static void shutdown() {
+        EXECUTOR.shutdown();
+    }
+
+    private String createStream(int documents) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < documents; ++i) {
+            switch (i % 5) {
+                case 0:
+                    builder.append("---\nid: ").append(i)
+                            .append("\nhost: host-").append(i % 7).append('\n');
+                    break;
+                case 1:
+                    // marker-like content inside of scalars
+                    builder.append("--- |\n  ").append(i)
+                            .append("\n  ---\n  ...\n");
+                    break;
+                case 2:
+                    builder.append("--- [").append(i).append(", \"---\"]\n...\n");
+                    break;
+                case 3:
+                    builder.append("%YAML 1.1\n---\n- ").append(i).append('\n')
+                            .append("- !!str ").append(i).append("\n...\n");
+                    break;
+                default:
+                    builder.append("--- ").append(i).append(" # comment\n");
+            }
+        }
+        return builder.toString();
+    }
+
+    @Test
+    public void testOrdered() {
+        String stream = createStream(20000);
+        List<YamlNode> expected = Lists.newArrayList(yaml.loadAll(stream));
+        errors.checkThat(expected.size(), is(20000));
+        errors.checkThat(yaml.loadStream(stream, EXECUTOR, true)
+                .collect(Collectors.toList()), is(expected));
+    }
+
+    @Test
+    public void testUnordered() {
+        String stream = createStream(20000);
+        List<YamlNode> expected = Lists.newArrayList(yaml.loadAll(stream));
+        errors.checkThat(yaml.loadStream(stream, EXECUTOR, false)
+                .collect(Collectors.toList()),
+                         containsInAnyOrder(expected.toArray()));
+    }
+
+    @Test
+    public void testInputStream() {
+        String stream = createStream(100);
+        List<YamlNode> expected = Lists.newArrayList(yaml.loadAll(stream));
+        byte[] bytes = stream.getBytes(StandardCharsets.UTF_8);
+        errors.checkThat(yaml.loadStream(new ByteArrayInputStream(bytes),
+                                         EXECUTOR, true)
+                .collect(Collectors.toList()), is(expected));
+    }
+
+    @Test
+    public void testEmpty() {
+        errors.checkThat(yaml.loadStream("", EXECUTOR, true).count(), is(0L));
+        errors.checkThat(yaml.loadStream("# comment\n", EXECUTOR, false)
+                .count(), is(0L));
+    }
+
+    @Test
+    public void testFailedBatchCancelsPendingTasks() {
+        for (boolean ordered : new boolean[] { true, false }) {
+            FirstTaskExecutor executor = new FirstTaskExecutor();
+            AtomicInteger loaded = new AtomicInteger();
+            ParallelDocumentLoader documents = new ParallelDocumentLoader(
+                    new StringReader(createStream(20000)), batch -> {
+                        if (loaded.getAndIncrement() == 0) {
+                            throw new YAMLException("failed");
+                        }
+                        return Lists.newArrayList(yaml.loadAll(batch));
+                    }, executor, ordered);
+            try {
+                documents.hasNext();
+                errors.addError(new AssertionError("no exception thrown"));
+            } catch (YAMLException ex) {
+                errors.checkThat(executor.queued, hasSize(greaterThan(0)));
+                executor.queued.forEach(Runnable::run);
+                errors.checkThat(loaded.get(), is(1));
+                errors.checkThat(documents.hasNext(), is(false));
+            }
+        }
+    }
+
+    @Test
+    public void testCloseCancelsPendingTasks() {
+        FirstTaskExecutor executor = new FirstTaskExecutor();
+        try (Stream<YamlNode> stream
+                = yaml.loadStream(createStream(20000), executor, true)) {
+            errors.checkThat(stream.findFirst().isPresent(), is(true));
+        }
+        errors.checkThat(executor.queued, hasSize(greaterThan(0)));
+        errors.checkThat(executor.queued, everyItem(is(instanceOf(Future.class))));
+        errors.checkThat(executor.cancelled(), is(executor.queued.size()));
+    }
+
+    @Test
+    public void testInvalidDocument() {
+        String stream = createStream(20000) + "--- [\n";
+        thrown.expect(YAMLException.class);
+        yaml.loadStream(stream, EXECUTOR, true).count();
+    }
+
+    /**
+     * Executor that runs the first task and queues all others.
+     */
+    private static class FirstTaskExecutor implements Executor {
+        private final List<Runnable> queued = new ArrayList<>();
+        private boolean first = true;
+
+        @Override
+        public void execute(Runnable task) {
+            if (first) {
+                first = false;
+                task.run();
+            } else {
+                queued.add(task);
+            }
+        }
+
+        int cancelled() {
+            return (int) queued.stream()
+                    .filter(task -> ((Future<?>) task).isCancelled())
+                    .count();
+        }
+    }
+}
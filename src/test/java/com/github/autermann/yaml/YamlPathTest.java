@@ -0,0 +1,128 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml;
+
+import static org.hamcrest.Matchers.is;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ErrorCollector;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+import org.yaml.snakeyaml.error.YAMLException;
+
+import com.google.common.collect.Lists;
+import com.google.common.primitives.Bytes;
+
+/**
+ * Tests for {@link Yaml#load(Path)} and {@link Yaml#loadAll(Path)}.
+ *
+ * @author Christian Autermann
+ */
+public class YamlPathTest {
+    private static final String TEXT
+            = "key: value\nquote: \"\u20ac\"\numlauts: \u00e4\u00f6\u00fc\n";
+
+    private final Yaml yaml = new Yaml();
+
+    @Rule
+    public final ErrorCollector errors = new ErrorCollector();
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Rule
+    public final ExpectedException thrown = ExpectedException.none();
+
+    private Path write(byte[] bom, String text, Charset charset)
+            throws IOException {
+        Path path = folder.newFile().toPath();
+        Files.write(path, Bytes.concat(bom, text.getBytes(charset)));
+        return path;
+    }
+
+    @Test
+    public void testEncodings() throws IOException {
+        YamlNode expected = yaml.load(TEXT);
+        errors.checkThat(yaml.load(write(new byte[0], TEXT,
+                                         StandardCharsets.UTF_8)),
+                         is(expected));
+        errors.checkThat(yaml.load(write(new byte[] {
+            (byte) 0xef, (byte) 0xbb, (byte) 0xbf
+        }, TEXT, StandardCharsets.UTF_8)), is(expected));
+        errors.checkThat(yaml.load(write(new byte[] {
+            (byte) 0xfe, (byte) 0xff
+        }, TEXT, StandardCharsets.UTF_16BE)), is(expected));
+        errors.checkThat(yaml.load(write(new byte[] {
+            (byte) 0xff, (byte) 0xfe
+        }, TEXT, StandardCharsets.UTF_16LE)), is(expected));
+    }
+
+    @Test
+    public void testLoadAll() throws IOException {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 1000; ++i) {
+            builder.append("--- {id: ").append(i).append(", text: \u00e4}\n");
+        }
+        String text = builder.toString();
+        Path path = write(new byte[0], text, StandardCharsets.UTF_8);
+        errors.checkThat(Lists.newArrayList(yaml.loadAll(path)),
+                         is(Lists.newArrayList(yaml.loadAll(text))));
+    }
+
+    @Test
+    public void testEmptyFile() throws IOException {
+        Path path = folder.newFile().toPath();
+        errors.checkThat(yaml.loadAll(path).iterator().hasNext(), is(false));
+    }
+
+    @Test
+    public void testSingleCharReads() throws IOException {
+        // surrogate pairs do not fit into a single char
+        String text = TEXT + "emoji: \ud83d\ude00\ud83d\ude00\n";
+        Path path = write(new byte[0], text, StandardCharsets.UTF_8);
+        StringBuilder builder = new StringBuilder();
+        try (Reader reader = MappedFileReader.open(path)) {
+            char[] buffer = new char[1];
+            while (reader.read(buffer, 0, 1) != -1) {
+                builder.append(buffer[0]);
+            }
+        }
+        errors.checkThat(builder.toString(), is(text));
+    }
+
+    @Test
+    public void testMalformedInput() throws IOException {
+        Path path = write(new byte[] { 'a', ':', ' ', (byte) 0xc3 },
+                          "", StandardCharsets.UTF_8);
+        thrown.expect(YAMLException.class);
+        yaml.load(path);
+    }
+
+    @Test
+    public void testMissingFile() throws IOException {
+        thrown.expect(NoSuchFileException.class);
+        yaml.load(folder.getRoot().toPath().resolve("missing.yaml"));
+    }
+}
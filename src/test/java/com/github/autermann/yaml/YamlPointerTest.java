@@ -0,0 +1,132 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ErrorCollector;
+import org.junit.rules.ExpectedException;
+
+public class YamlPointerTest {
+    private final YamlNodeFactory factory = YamlNodeFactory.createDefault();
+
+    @Rule
+    public final ErrorCollector errors = new ErrorCollector();
+
+    @Rule
+    public final ExpectedException thrown = ExpectedException.none();
+
+    private YamlNode createNode() {
+        return factory.orderedMapNode()
+                .put("servers", factory.sequenceNode()
+                     .add(factory.orderedMapNode().put("host", "a").put("port", 1))
+                     .add(factory.orderedMapNode().put("host", "b").put("port", 2)))
+                .put("a/b", "slash")
+                .put("m~n", "tilde")
+                .put("", "empty")
+                .put(factory.intNode(7), "seven")
+                .put("7", "text seven")
+                .put(factory.intNode(8), "eight")
+                .put("set", factory.setNode().add("x").add("y"));
+    }
+
+    @Test
+    public void testGet() {
+        YamlNode node = createNode();
+        errors.checkThat(YamlPointer.compile("").get(node), is(sameInstance(node)));
+        errors.checkThat(node.at("/servers/0/host").asTextValue(), is("a"));
+        errors.checkThat(node.at("/servers/1/port").asIntValue(), is(2));
+        errors.checkThat(node.at("/a~1b").asTextValue(), is("slash"));
+        errors.checkThat(node.at("/m~0n").asTextValue(), is("tilde"));
+        errors.checkThat(node.at("/").asTextValue(), is("empty"));
+        errors.checkThat(node.at("/7").asTextValue(), is("text seven"));
+        errors.checkThat(node.at("/8").asTextValue(), is("eight"));
+        errors.checkThat(node.at("/set/1").asTextValue(), is("y"));
+    }
+
+    @Test
+    public void testMissing() {
+        YamlNode node = createNode();
+        errors.checkThat(node.at("/servers/2/host").exists(), is(false));
+        errors.checkThat(node.at("/servers/01").exists(), is(false));
+        errors.checkThat(node.at("/servers/-").exists(), is(false));
+        errors.checkThat(node.at("/servers/host").exists(), is(false));
+        errors.checkThat(node.at("/a~1b/c").exists(), is(false));
+        errors.checkThat(node.at("/9").exists(), is(false));
+        errors.checkThat(YamlPointer.compile("/x").exists(node), is(false));
+        errors.checkThat(YamlPointer.compile("/servers").exists(node), is(true));
+    }
+
+    @Test
+    public void testWildcard() {
+        YamlNode node = createNode();
+        YamlPointer pointer = YamlPointer.compile("/servers/*/host");
+        errors.checkThat(pointer.hasWildcards(), is(true));
+        errors.checkThat(pointer.get(node), is(equalTo(factory.textNode("a"))));
+        errors.checkThat(pointer.getAll(node), contains(factory.textNode("a"),
+                                                         factory.textNode("b")));
+        errors.checkThat(YamlPointer.compile("/servers/0/*").getAll(node),
+                         contains(factory.textNode("a"), factory.intNode(1)));
+        errors.checkThat(YamlPointer.compile("/set/*").getAll(node),
+                         contains(factory.textNode("x"), factory.textNode("y")));
+        errors.checkThat(YamlPointer.compile("/*/*/port").get(node),
+                         is(equalTo(factory.intNode(1))));
+        errors.checkThat(YamlPointer.compile("/*/x").getAll(node), is(empty()));
+        errors.checkThat(YamlPointer.compile("/*/x").exists(node), is(false));
+    }
+
+    @Test
+    public void testCompile() {
+        YamlPointer pointer = YamlPointer.compile("/servers/0/host");
+        errors.checkThat(pointer.size(), is(3));
+        errors.checkThat(pointer.hasWildcards(), is(false));
+        errors.checkThat(pointer.toString(), is("/servers/0/host"));
+        errors.checkThat(YamlPointer.compile("/servers/0/host"),
+                         is(sameInstance(pointer)));
+        errors.checkThat(YamlPointer.compile(new String("/servers/0/host")),
+                         is(equalTo(pointer)));
+        errors.checkThat(YamlPointer.compile("/servers/0"),
+                         is(not(equalTo(pointer))));
+        errors.checkThat(YamlPointer.compile("").size(), is(0));
+        errors.checkThat(YamlPointer.compile("/").size(), is(1));
+        errors.checkThat(YamlPointer.compile("//").size(), is(2));
+    }
+
+    @Test
+    public void testInvalidStart() {
+        thrown.expect(IllegalArgumentException.class);
+        YamlPointer.compile("servers");
+    }
+
+    @Test
+    public void testInvalidEscape() {
+        thrown.expect(IllegalArgumentException.class);
+        YamlPointer.compile("/a~2");
+    }
+
+    @Test
+    public void testTrailingEscape() {
+        thrown.expect(IllegalArgumentException.class);
+        YamlPointer.compile("/a~");
+    }
+}
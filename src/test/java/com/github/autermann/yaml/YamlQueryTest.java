@@ -0,0 +1,252 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ErrorCollector;
+import org.junit.rules.ExpectedException;
+
+import com.github.autermann.yaml.nodes.YamlMapNode;
+import com.github.autermann.yaml.nodes.YamlSeqNode;
+
+public class YamlQueryTest {
+    private final YamlNodeFactory factory = YamlNodeFactory.createDefault();
+
+    @Rule
+    public final ErrorCollector errors = new ErrorCollector();
+
+    @Rule
+    public final ExpectedException thrown = ExpectedException.none();
+
+    private YamlNode createNode() {
+        return factory.orderedMapNode()
+                .put("services", factory.sequenceNode()
+                     .add(factory.orderedMapNode()
+                          .put("name", "web")
+                          .put("ports", factory.sequenceNode()
+                               .add(port(80, true))
+                               .add(port(8080, false))))
+                     .add(factory.orderedMapNode()
+                          .put("name", "db")
+                          .put("ports", factory.sequenceNode()
+                               .add(port(5432, false)))))
+                .put("numbers", factory.sequenceNode()
+                     .add(0).add(1).add(2).add(3).add(4).add(5))
+                .put("set", factory.setNode().add("x").add("y").add("z"))
+                .put(factory.intNode(7), "seven")
+                .put("a.b", "dot");
+    }
+
+    private YamlNode port(int port, boolean exposed) {
+        return factory.orderedMapNode()
+                .put("port", port)
+                .put("public", exposed);
+    }
+
+    private List<YamlNode> select(String query) {
+        return YamlQuery.compile(query).select(createNode());
+    }
+
+    private List<YamlNode> ints(int... values) {
+        List<YamlNode> nodes = new ArrayList<>(values.length);
+        for (int value : values) {
+            nodes.add(factory.intNode(value));
+        }
+        return nodes;
+    }
+
+    private List<YamlNode> texts(String... values) {
+        List<YamlNode> nodes = new ArrayList<>(values.length);
+        for (String value : values) {
+            nodes.add(factory.textNode(value));
+        }
+        return nodes;
+    }
+
+    @Test
+    public void testChildren() {
+        YamlNode node = createNode();
+        errors.checkThat(YamlQuery.compile("$").select(node),
+                         contains(sameInstance(node)));
+        errors.checkThat(YamlQuery.compile("").select(node),
+                         contains(sameInstance(node)));
+        errors.checkThat(select("$.services[0].name"), is(texts("web")));
+        errors.checkThat(select("services[1]['name']"), is(texts("db")));
+        errors.checkThat(select("$['a.b']"), is(texts("dot")));
+        errors.checkThat(select("$[7]"), is(texts("seven")));
+        errors.checkThat(select("$.numbers[-1]"), is(ints(5)));
+        errors.checkThat(select("$.set[1]"), is(texts("y")));
+        errors.checkThat(select("$.numbers[0, 2, -1]"), is(ints(0, 2, 5)));
+        errors.checkThat(select("$.services[0]['name', \"ports\"][0].port"),
+                         is(ints(80)));
+        errors.checkThat(select("$.missing"), is(empty()));
+        errors.checkThat(select("$.numbers[6]"), is(empty()));
+        errors.checkThat(select("$.numbers.name"), is(empty()));
+    }
+
+    @Test
+    public void testWildcards() {
+        errors.checkThat(select("$.services[*].name"), is(texts("web", "db")));
+        errors.checkThat(select("$.services.*.ports.*.port"),
+                         is(ints(80, 8080, 5432)));
+        errors.checkThat(select("$.set.*"), is(texts("x", "y", "z")));
+        errors.checkThat(select("$.numbers[0].*"), is(empty()));
+    }
+
+    @Test
+    public void testSlices() {
+        errors.checkThat(select("$.numbers[1:3]"), is(ints(1, 2)));
+        errors.checkThat(select("$.numbers[:2]"), is(ints(0, 1)));
+        errors.checkThat(select("$.numbers[4:]"), is(ints(4, 5)));
+        errors.checkThat(select("$.numbers[-2:]"), is(ints(4, 5)));
+        errors.checkThat(select("$.numbers[::2]"), is(ints(0, 2, 4)));
+        errors.checkThat(select("$.numbers[::-2]"), is(ints(5, 3, 1)));
+        errors.checkThat(select("$.numbers[4:1:-1]"), is(ints(4, 3, 2)));
+        errors.checkThat(select("$.numbers[-100:100]"),
+                         is(ints(0, 1, 2, 3, 4, 5)));
+        errors.checkThat(select("$.numbers[3:1]"), is(empty()));
+        errors.checkThat(select("$.set[1:]"), is(texts("y", "z")));
+    }
+
+    @Test
+    public void testRecursiveDescent() {
+        errors.checkThat(select("$..port"), is(ints(80, 8080, 5432)));
+        errors.checkThat(select("$..name"), is(texts("web", "db")));
+        errors.checkThat(select("$..ports[0].port"), is(ints(80, 5432)));
+        errors.checkThat(select("$.numbers..*"), is(ints(0, 1, 2, 3, 4, 5)));
+        errors.checkThat(select("$..*").size(), is(29));
+    }
+
+    @Test
+    public void testFilters() {
+        errors.checkThat(select("$.services[*].ports[?(@.public == true)].port"),
+                         is(ints(80)));
+        errors.checkThat(select("$..ports[?(@.port > 1024)].port"),
+                         is(ints(8080, 5432)));
+        errors.checkThat(select("$..ports[?(@.port > 80 && @.port <= 8079)].port"),
+                         is(ints(5432)));
+        errors.checkThat(select("$..ports[?(@.port == 80 || !(@.port != 5432))].port"),
+                         is(ints(80, 5432)));
+        errors.checkThat(select("$.services[?(@.name == 'db')].name"),
+                         is(texts("db")));
+        errors.checkThat(select("$.services[?(@.ports[?(@.port == 8080)])].name"),
+                         is(texts("web")));
+        errors.checkThat(select("$.services[?(@.ports[*].port == 5432)].name"),
+                         is(texts("db")));
+        errors.checkThat(select("$.services[?(@.missing)]"), is(empty()));
+        errors.checkThat(select("$.numbers[?(@ >= 2.5)]"), is(ints(3, 4, 5)));
+        errors.checkThat(select("$.numbers[?(@ == 1e0)]"), is(ints(1)));
+        errors.checkThat(select("$.numbers[?(@ < 'a')]"), is(empty()));
+        errors.checkThat(select("$.set[?(@ > \"x\")]"), is(texts("y", "z")));
+        errors.checkThat(select("$..[?(@ == null)]"), is(empty()));
+    }
+
+    @Test
+    public void testSelectFirst() {
+        YamlNode node = createNode();
+        errors.checkThat(YamlQuery.compile("$..port").selectFirst(node),
+                         is(equalTo(factory.intNode(80))));
+        errors.checkThat(YamlQuery.compile("$..missing").selectFirst(node)
+                .exists(), is(false));
+        List<YamlNode> nodes = new ArrayList<>();
+        YamlQuery.compile("$.set.*").forEach(node, nodes::add);
+        errors.checkThat(nodes, is(texts("x", "y", "z")));
+    }
+
+    @Test
+    public void testParallel() {
+        YamlMapNode root = factory.mapNode();
+        YamlSeqNode items = factory.sequenceNode();
+        for (int i = 0; i < 1000; ++i) {
+            YamlSeqNode values = factory.sequenceNode();
+            for (int j = 0; j < 100; ++j) {
+                values.add(i * 100 + j);
+            }
+            items.add(factory.mapNode().put("id", i).put("values", values));
+        }
+        root.put("items", items);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (String expression : new String[] {
+                "$.items[*].id",
+                "$.items[?(@.id >= 500)].values[::7]",
+                "$.items[100:900:3].values[-1]",
+                "$..values[?(@ > 12345)]",
+                "$..*",
+                "$..id" }) {
+                YamlQuery query = YamlQuery.compile(expression);
+                List<YamlNode> expected = query.select(root);
+                errors.checkThat(expression, expected, is(not(empty())));
+                errors.checkThat(expression, query.select(root, pool),
+                                 is(equalTo(expected)));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testCompile() {
+        YamlQuery query = YamlQuery.compile("$..port");
+        errors.checkThat(YamlQuery.compile("$..port"), is(sameInstance(query)));
+        errors.checkThat(YamlQuery.compile(new String("$..port")),
+                         is(equalTo(query)));
+        errors.checkThat(YamlQuery.compile("$..name"), is(not(equalTo(query))));
+        errors.checkThat(query.toString(), is("$..port"));
+    }
+
+    @Test
+    public void testInvalidCharacter() {
+        thrown.expect(IllegalArgumentException.class);
+        YamlQuery.compile("$.a b");
+    }
+
+    @Test
+    public void testUnterminatedBracket() {
+        thrown.expect(IllegalArgumentException.class);
+        YamlQuery.compile("$.a[0");
+    }
+
+    @Test
+    public void testUnterminatedString() {
+        thrown.expect(IllegalArgumentException.class);
+        YamlQuery.compile("$['a]");
+    }
+
+    @Test
+    public void testZeroStep() {
+        thrown.expect(IllegalArgumentException.class);
+        YamlQuery.compile("$.a[::0]");
+    }
+
+    @Test
+    public void testLiteralFilter() {
+        thrown.expect(IllegalArgumentException.class);
+        YamlQuery.compile("$.a[?(1)]");
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ErrorCollector;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import com.github.autermann.yaml.nodes.YamlBigDecimalNode;
+import com.github.autermann.yaml.nodes.YamlBigIntegerNode;
+import com.github.autermann.yaml.nodes.YamlByteNode;
+import com.github.autermann.yaml.nodes.YamlDoubleArrayNode;
+import com.github.autermann.yaml.nodes.YamlFloatNode;
+import com.github.autermann.yaml.nodes.YamlLongArrayNode;
+import com.github.autermann.yaml.nodes.YamlMapNode;
+import com.github.autermann.yaml.nodes.YamlSeqNode;
+import com.github.autermann.yaml.nodes.YamlShortNode;
+import com.github.autermann.yaml.util.DecimalPrecision;
+import com.google.common.base.Strings;
+
+/**
+ * Tests for {@link Yaml#writeSnapshot(YamlNode, java.io.OutputStream)} and
+ * {@link Yaml#readSnapshot(java.io.InputStream)}.
+ *
+ * @author Christian Autermann
+ */
+public class YamlSnapshotTest {
+
+    private final YamlNodeFactory factory
+            = DefaultYamlNodeFactory.create(DecimalPrecision.BIG_DECIMAL);
+
+    private final Yaml yaml = new Yaml(factory);
+
+    @Rule
+    public final ErrorCollector errors = new ErrorCollector();
+
+    @Rule
+    public final ExpectedException thrown = ExpectedException.none();
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private YamlMapNode createTree() {
+        YamlMapNode node = factory.orderedMapNode();
+        node.putNull("null");
+        node.put("true", true);
+        node.put("false", false);
+        node.put("byte", (byte) -3);
+        node.put("short", (short) 1000);
+        node.put("int", Integer.MIN_VALUE);
+        node.put("long", Long.MAX_VALUE);
+        node.put("bigInteger", BigInteger.TEN.pow(40).negate());
+        node.put("float", 1.5f);
+        node.put("double", -Math.PI);
+        node.put("bigDecimal", new BigDecimal("-1234567890.0987654321"));
+        node.put("text", "plain");
+        node.put("unicode", "gr\u00fc\u00dfe \u2603 \ud83d\ude00");
+        node.put("empty", "");
+        node.put("binary", new byte[] { 0, 1, -1, 127, -128 });
+        node.put("utc", new DateTime(2015, 3, 14, 15, 9, 26, DateTimeZone.UTC));
+        node.put("berlin", new DateTime(1420070400000L,
+                                        DateTimeZone.forID("Europe/Berlin")));
+        node.put(factory.intNode(42), "integral key");
+        node.put(factory.nullNode(), "null key");
+        node.putSequence("seq").add(1).add("two").addMap().put("three", 3);
+        node.putSet("set").add("a").add("b").add("c");
+        node.putPairs("pairs").put("a", 1).put("a", 2).put("b", 3);
+        node.putOrderedMap("omap").put("z", 1).put("y", 2);
+        node.putMap("map").put("nested", factory.mapNode().put("key", "value"));
+        node.put("longs", new YamlLongArrayNode(factory, 1L, -2L, 3L));
+        node.put("doubles", new YamlDoubleArrayNode(factory, 0.5, -0.25));
+        return node;
+    }
+
+    private byte[] write(YamlNode node) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        yaml.writeSnapshot(node, out);
+        return out.toByteArray();
+    }
+
+    private YamlNode read(byte[] snapshot) throws IOException {
+        return yaml.readSnapshot(new ByteArrayInputStream(snapshot));
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        YamlMapNode node = createTree();
+        YamlNode copy = read(write(node));
+        errors.checkThat(copy, is(equalTo((YamlNode) node)));
+        errors.checkThat(copy.hashCode(), is(node.hashCode()));
+        errors.checkThat(copy.isOrderedMap(), is(true));
+        errors.checkThat(copy.path("byte"), is(instanceOf(YamlByteNode.class)));
+        errors.checkThat(copy.path("short"), is(instanceOf(YamlShortNode.class)));
+        errors.checkThat(copy.path("float"), is(instanceOf(YamlFloatNode.class)));
+        errors.checkThat(copy.path("bigInteger"),
+                         is(instanceOf(YamlBigIntegerNode.class)));
+        errors.checkThat(copy.path("bigDecimal"),
+                         is(instanceOf(YamlBigDecimalNode.class)));
+        errors.checkThat(copy.path("berlin").dateTimeValue(),
+                         is(equalTo(node.path("berlin").dateTimeValue())));
+        errors.checkThat(copy.path("longs"),
+                         is(instanceOf(YamlLongArrayNode.class)));
+        errors.checkThat(copy.path("doubles"),
+                         is(instanceOf(YamlDoubleArrayNode.class)));
+        errors.checkThat(copy.path("pairs").path("a").size(), is(2));
+        errors.checkThat(copy.path(factory.intNode(42)).textValue(),
+                         is("integral key"));
+    }
+
+    @Test
+    public void testScalarRoots() throws IOException {
+        for (YamlNode node : Arrays.asList(factory.nullNode(),
+                                           factory.textNode("text"),
+                                           factory.textNode(Strings.repeat("x", 20000) + "\u00e9"),
+                                           factory.longNode(Long.MIN_VALUE),
+                                           factory.binaryNode(new byte[0]),
+                                           factory.sequenceNode())) {
+            errors.checkThat(read(write(node)), is(equalTo(node)));
+        }
+        errors.checkThat(read(write(factory.mapNode().path("missing"))),
+                         is(equalTo((YamlNode) factory.nullNode())));
+    }
+
+    @Test
+    public void testLoadedDocument() throws IOException {
+        String document = "services:\n" +
+                          "  - name: a\n" +
+                          "    created: 2001-12-14t21:59:43.10-05:00\n" +
+                          "    data: !!binary aGVsbG8=\n" +
+                          "    ports: [80, 443]\n" +
+                          "    weights: [0.5, 1.5]\n" +
+                          "  - name: b\n" +
+                          "    tags: !!set {x, y}\n" +
+                          "    order: !!omap {z: 1, y: 2}\n" +
+                          "    pairs: !!pairs {a: 1, b: 2}\n";
+        YamlNode node = yaml.load(document);
+        errors.checkThat(read(write(node)), is(equalTo(node)));
+    }
+
+    @Test
+    public void testKeyDictionary() throws IOException {
+        YamlSeqNode node = factory.sequenceNode();
+        for (int i = 0; i < 1000; ++i) {
+            node.addMap()
+                    .put("identifier", i)
+                    .put("description", "item")
+                    .put("timestamp", new DateTime(i, DateTimeZone.UTC));
+        }
+        byte[] snapshot = write(node);
+        YamlNode copy = read(snapshot);
+        errors.checkThat(copy, is(equalTo((YamlNode) node)));
+        errors.checkThat(snapshot.length, is(lessThan(
+                yaml.dump(node).getBytes(StandardCharsets.UTF_8).length / 3)));
+    }
+
+    @Test
+    public void testPath() throws IOException {
+        YamlMapNode node = createTree();
+        Path path = folder.newFile().toPath();
+        yaml.writeSnapshot(node, path);
+        errors.checkThat(yaml.readSnapshot(path), is(equalTo((YamlNode) node)));
+    }
+
+    @Test
+    public void testInvalidMagic() throws IOException {
+        thrown.expect(StreamCorruptedException.class);
+        read("a: b".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testTruncated() throws IOException {
+        byte[] snapshot = write(createTree());
+        thrown.expect(EOFException.class);
+        read(Arrays.copyOf(snapshot, snapshot.length - 1));
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ErrorCollector;
+
+import com.github.autermann.yaml.nodes.YamlContainerNode;
+import com.github.autermann.yaml.nodes.YamlMapNode;
+import com.github.autermann.yaml.nodes.YamlMappingNode;
+import com.github.autermann.yaml.nodes.YamlOrderedMapNode;
+import com.github.autermann.yaml.nodes.YamlPairsNode;
+import com.github.autermann.yaml.nodes.YamlPersistentMapNode;
+import com.github.autermann.yaml.nodes.YamlSeqNode;
+import com.google.common.collect.Lists;
+
+/**
+ * Tests for the spliterators and parallel streams of container nodes.
+ *
+ * @author Christian Autermann
+ */
+public class YamlSpliteratorTest {
+    private static final int SIZE = 10000;
+
+    private final YamlNodeFactory factory = YamlNodeFactory.createDefault();
+
+    @Rule
+    public final ErrorCollector errors = new ErrorCollector();
+
+    private <T extends YamlMappingNode<T>> T fill(T node) {
+        for (int i = 0; i < SIZE; ++i) {
+            node.put("key-" + i, i);
+        }
+        return node;
+    }
+
+    @Test
+    public void testMap() {
+        checkMapping(fill(factory.mapNode()));
+    }
+
+    @Test
+    public void testFrozenMap() {
+        checkMapping(fill(factory.mapNode()).freeze());
+    }
+
+    @Test
+    public void testOrderedMap() {
+        YamlMapNode node = fill(factory.orderedMapNode());
+        checkMapping(node);
+        checkOrder(node);
+        YamlMapNode frozen = node.freeze();
+        checkMapping(frozen);
+        checkOrder(frozen);
+    }
+
+    @Test
+    public void testPersistentMap() {
+        YamlPersistentMapNode node = factory.persistentMapNode();
+        for (int i = 0; i < SIZE; ++i) {
+            node = node.with("key-" + i, factory.intNode(i));
+        }
+        checkMapping(node);
+    }
+
+    @Test
+    public void testPairs() {
+        YamlPairsNode node = fill(factory.pairsNode());
+        checkMapping(node);
+        checkOrder(node);
+    }
+
+    @Test
+    public void testPairsWithDuplicateKeys() {
+        YamlPairsNode node = factory.pairsNode();
+        for (int i = 0; i < SIZE; ++i) {
+            node.put("key-" + (i % 100), i);
+        }
+        checkSplit(node.spliterator(), Lists.newArrayList(node));
+        checkSplit(node.entrySpliterator(), Lists.newArrayList(node.entries()));
+        errors.checkThat(node.parallelStream().count(), is(100L));
+        errors.checkThat(node.parallelEntryStream().count(), is((long) SIZE));
+    }
+
+    @Test
+    public void testSequence() {
+        YamlSeqNode node = factory.sequenceNode();
+        for (int i = 0; i < SIZE; ++i) {
+            node.add(i);
+        }
+        checkContainer(node);
+        checkContainer(node.freeze());
+        errors.checkThat(node.parallelStream()
+                .collect(Collectors.toList()), is(node.value()));
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void testSequenceModifiedDuringTraversal() {
+        YamlSeqNode node = factory.sequenceNode();
+        for (int i = 0; i < SIZE; ++i) {
+            node.add(i);
+        }
+        node.stream().forEach(child -> node.add(child));
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void testMapModifiedDuringTraversal() {
+        YamlMapNode node = fill(factory.mapNode());
+        node.entryStream().forEach(e -> node.put("new-" + e.getKey(), 0));
+    }
+
+    @Test
+    public void testCharacteristics() {
+        YamlSeqNode seq = factory.sequenceNode().add(1).add(2);
+        errors.checkThat(seq.spliterator().hasCharacteristics(
+                Spliterator.NONNULL | Spliterator.ORDERED), is(true));
+        errors.checkThat(seq.freeze().spliterator().hasCharacteristics(
+                Spliterator.NONNULL | Spliterator.IMMUTABLE), is(true));
+        YamlMapNode map = fill(factory.mapNode());
+        errors.checkThat(map.entrySpliterator().hasCharacteristics(
+                Spliterator.DISTINCT | Spliterator.NONNULL), is(true));
+    }
+
+    @Test
+    public void testEmpty() {
+        errors.checkThat(factory.mapNode().parallelStream().count(), is(0L));
+        errors.checkThat(factory.persistentMapNode()
+                .parallelEntryStream().count(), is(0L));
+        errors.checkThat(factory.pairsNode().parallelStream().count(), is(0L));
+    }
+
+    private void checkMapping(YamlMappingNode<?> node) {
+        checkContainer(node);
+        List<Entry<YamlNode, YamlNode>> entries
+                = Lists.newArrayList(node.entries());
+        checkSplit(node.entrySpliterator(), entries);
+        errors.checkThat(node.parallelEntryStream()
+                .mapToLong(e -> e.getValue().asLongValue())
+                .sum(), is((long) SIZE * (SIZE - 1) / 2));
+        errors.checkThat(node.entryStream().collect(Collectors.toList()),
+                         containsInAnyOrder(entries.toArray()));
+    }
+
+    private void checkContainer(YamlContainerNode node) {
+        List<YamlNode> nodes = Lists.newArrayList(node);
+        checkSplit(node.spliterator(), nodes);
+        errors.checkThat(node.parallelStream().collect(Collectors.toList()),
+                         containsInAnyOrder(nodes.toArray()));
+    }
+
+    private void checkOrder(YamlMappingNode<?> node) {
+        errors.checkThat(node.parallelStream().collect(Collectors.toList()),
+                         contains(Lists.newArrayList(node).toArray()));
+        errors.checkThat(node.parallelEntryStream()
+                .collect(Collectors.toList()),
+                         contains(Lists.newArrayList(node.entries()).toArray()));
+    }
+
+    private <T> void checkSplit(Spliterator<T> spliterator, List<T> expected) {
+        List<T> actual = new ArrayList<>(expected.size());
+        Spliterator<T> prefix = spliterator.trySplit();
+        errors.checkThat(prefix, is(notNullValue()));
+        int splits = 1 + split(prefix, actual) + split(spliterator, actual);
+        errors.checkThat(splits, is(greaterThan(expected.size() / 100)));
+        errors.checkThat(actual, containsInAnyOrder(expected.toArray()));
+    }
+
+    private <T> int split(Spliterator<T> spliterator, List<T> actual) {
+        if (spliterator == null) {
+            return 0;
+        }
+        Spliterator<T> prefix = spliterator.trySplit();
+        if (prefix == null) {
+            // traverse the first element individually
+            spliterator.tryAdvance(actual::add);
+            spliterator.forEachRemaining(actual::add);
+            return 0;
+        }
+        return 1 + split(prefix, actual) + split(spliterator, actual);
+    }
+}
@@ -31,6 +31,8 @@ import org.joda.time.DateTime;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ErrorCollector;
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.DumperOptions.FlowStyle;
 
 import com.github.autermann.yaml.util.DecimalPrecision;
 
@@ -106,6 +108,21 @@ public class YamlTest {
         test(factory.byteNode(Byte.MAX_VALUE));
     }
 
+    @Test
+    public void testIntegralFormats() {
+        errors.checkThat(YAML.load("!!int 12_345"), is(equalTo(factory.shortNode((short) 12345))));
+        errors.checkThat(YAML.load("-0b1010_0111"), is(equalTo(factory.shortNode((short) -167))));
+        errors.checkThat(YAML.load("+012"), is(equalTo(factory.byteNode((byte) 10))));
+        errors.checkThat(YAML.load("0x_0A_74_AE"), is(equalTo(factory.intNode(685230))));
+        errors.checkThat(YAML.load("190:20:30"), is(equalTo(factory.intNode(685230))));
+        errors.checkThat(YAML.load("0"), is(equalTo(factory.byteNode((byte) 0))));
+        errors.checkThat(YAML.load("-9223372036854775808"), is(equalTo(factory.longNode(Long.MIN_VALUE))));
+        errors.checkThat(YAML.load("9_223_372_036_854_775_808"), is(equalTo(factory
+                .bigIntegerNode(BigInteger.valueOf(Long.MAX_VALUE).add(BigInteger.ONE)))));
+        errors.checkThat(YAML.load("-0x8000_0000_0000_0001"), is(equalTo(factory
+                .bigIntegerNode(BigInteger.valueOf(Long.MIN_VALUE).subtract(BigInteger.ONE)))));
+    }
+
     @Test
     public void testDoubleNode() {
         YamlNodeFactory fac = factory.withDecimalPrecision(DecimalPrecision.DOUBLE);
@@ -175,4 +192,18 @@ public class YamlTest {
     public void testSetNode() {
         test(factory.setNode().add("a").add("a").add("b"));
     }
+
+    @Test
+    public void testDumpOptions() {
+        YamlNode node = factory.mapNode().put("a", factory.sequenceNode().add("b"));
+        errors.checkThat(node.dump(), is(equalTo(new Yaml().dump(node))));
+        DumperOptions options = new DumperOptions();
+        options.setDefaultFlowStyle(FlowStyle.BLOCK);
+        errors.checkThat(node.dump(options),
+                         is(equalTo(new Yaml(options).dump(node))));
+        options.setDefaultFlowStyle(FlowStyle.FLOW);
+        errors.checkThat(node.dump(options),
+                         is(equalTo(new Yaml(options).dump(node))));
+        errors.checkThat(node.dump(options), is(equalTo("{a: [b]}\n")));
+    }
 }
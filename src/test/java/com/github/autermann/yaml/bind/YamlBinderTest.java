@@ -0,0 +1,228 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.bind;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ErrorCollector;
+import org.junit.rules.ExpectedException;
+import org.yaml.snakeyaml.error.YAMLException;
+
+import com.github.autermann.yaml.Yaml;
+import com.github.autermann.yaml.YamlNode;
+import com.github.autermann.yaml.YamlNodeFactory;
+import com.github.autermann.yaml.nodes.YamlMapNode;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+public class YamlBinderTest {
+    private static final String DOCUMENT
+            = "name: server\n"
+              + "port: 8080\n"
+              + "enabled: true\n"
+              + "ratio: 0.5\n"
+              + "level: WARN\n"
+              + "limit: 12.50\n"
+              + "started: 2015-01-01T12:00:00.000Z\n"
+              + "unknown: { a: [1, 2, 3] }\n"
+              + "tags: [a, b, a]\n"
+              + "weights: { x: 1, y: 2 }\n"
+              + "sorted: { b: 2, a: 1 }\n"
+              + "endpoints:\n"
+              + "  - { path: /a, timeout: 10 }\n"
+              + "  - { path: /b }\n"
+              + "extra: { any: thing }\n"
+              + "options: { secret: s3cr3t, retries: 3 }\n";
+
+    private final YamlNodeFactory factory = YamlNodeFactory.createDefault();
+    private final YamlBinder binder = new YamlBinder(factory);
+    private final Yaml yaml = new Yaml(factory);
+
+    @Rule
+    public final ErrorCollector errors = new ErrorCollector();
+
+    @Rule
+    public final ExpectedException thrown = ExpectedException.none();
+
+    public enum Level {
+        INFO, WARN
+    }
+
+    public static class Endpoint {
+        private String path;
+        private int timeout = 5;
+        private Integer retries;
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        public int getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(int timeout) {
+            this.timeout = timeout;
+        }
+    }
+
+    public static class Server {
+        public String name;
+        public int port;
+        public boolean enabled;
+        public double ratio;
+        public Level level;
+        public BigDecimal limit;
+        public DateTime started;
+        public Set<String> tags;
+        public Map<String, Long> weights;
+        public SortedMap<String, Integer> sorted;
+        public List<Endpoint> endpoints;
+        public YamlNode extra;
+        public transient String ignored = "ignored";
+        Options options;
+    }
+
+    static class Options {
+        private String secret;
+        private int retries;
+
+        private Options() {
+        }
+    }
+
+    public static class Invalid {
+        public Invalid(int value) {
+        }
+    }
+
+    private void checkServer(Server server) {
+        errors.checkThat(server.name, is("server"));
+        errors.checkThat(server.port, is(8080));
+        errors.checkThat(server.enabled, is(true));
+        errors.checkThat(server.ratio, is(0.5));
+        errors.checkThat(server.level, is(Level.WARN));
+        errors.checkThat(server.limit, is(new BigDecimal("12.50")));
+        errors.checkThat(server.started.getMillis(),
+                         is(new DateTime(2015, 1, 1, 12, 0, DateTimeZone.UTC)
+                                 .getMillis()));
+        errors.checkThat(server.tags, contains("a", "b"));
+        errors.checkThat(server.weights, is((Map<String, Long>) ImmutableMap
+                .of("x", 1L, "y", 2L)));
+        errors.checkThat(server.sorted.keySet(), contains("a", "b"));
+        errors.checkThat(server.endpoints.size(), is(2));
+        errors.checkThat(server.endpoints.get(0).getPath(), is("/a"));
+        errors.checkThat(server.endpoints.get(0).getTimeout(), is(10));
+        errors.checkThat(server.endpoints.get(1).getPath(), is("/b"));
+        errors.checkThat(server.endpoints.get(1).getTimeout(), is(5));
+        errors.checkThat(server.endpoints.get(1).retries, is(nullValue()));
+        errors.checkThat(server.extra, is(instanceOf(YamlMapNode.class)));
+        errors.checkThat(server.extra.path("any").asTextValue(), is("thing"));
+        errors.checkThat(server.ignored, is("ignored"));
+        errors.checkThat(server.options.secret, is("s3cr3t"));
+        errors.checkThat(server.options.retries, is(3));
+    }
+
+    @Test
+    public void testBindNode() {
+        checkServer(binder.bind(yaml.load(DOCUMENT), Server.class));
+    }
+
+    @Test
+    public void testBindComposed() {
+        checkServer(yaml.load(DOCUMENT, Server.class));
+    }
+
+    @Test
+    public void testUnbind() {
+        Server server = yaml.load(DOCUMENT, Server.class);
+        YamlNode node = binder.unbind(server);
+        errors.checkThat(node.path("port"), is(equalTo(factory.intNode(8080))));
+        errors.checkThat(node.path("level"), is(equalTo(factory.textNode("WARN"))));
+        errors.checkThat(node.path("tags").isSet(), is(true));
+        errors.checkThat(node.path("endpoints").path(1).path("retries").isNull(),
+                         is(true));
+        errors.checkThat(node.has("ignored"), is(false));
+        errors.checkThat(node.has("unknown"), is(false));
+        checkServer(binder.bind(yaml.load(yaml.dump(node)), Server.class));
+    }
+
+    @Test
+    public void testNull() {
+        errors.checkThat(yaml.load("~", Server.class), is(nullValue()));
+        errors.checkThat(binder.bind(factory.nullNode(), Server.class),
+                         is(nullValue()));
+        Endpoint endpoint = yaml.load("{ timeout: ~, retries: ~ }",
+                                      Endpoint.class);
+        errors.checkThat(endpoint.getTimeout(), is(5));
+        errors.checkThat(endpoint.retries, is(nullValue()));
+        errors.checkThat(binder.unbind(null).isNull(), is(true));
+    }
+
+    @Test
+    public void testScalars() {
+        errors.checkThat(yaml.load("42", int.class), is(42));
+        errors.checkThat(binder.bind(factory.textNode("INFO"), Level.class),
+                         is(Level.INFO));
+        errors.checkThat(binder.unbind(Arrays.asList(1, "a")),
+                         is(equalTo((YamlNode) factory.sequenceNode()
+                                    .add(1).add("a"))));
+        errors.checkThat(binder.unbind(ImmutableSet.of("a")).isSet(), is(true));
+    }
+
+    @Test
+    public void testUnknownConstant() {
+        thrown.expect(YAMLException.class);
+        yaml.load("level: DEBUG", Server.class);
+    }
+
+    @Test
+    public void testUnexpectedNode() {
+        thrown.expect(YAMLException.class);
+        binder.bind(yaml.load("endpoints: { path: /a }"), Server.class);
+    }
+
+    @Test
+    public void testUnexpectedComposedNode() {
+        thrown.expect(YAMLException.class);
+        yaml.load("name: [a, b]", Server.class);
+    }
+
+    @Test
+    public void testNoDefaultConstructor() {
+        thrown.expect(IllegalArgumentException.class);
+        binder.bind(factory.mapNode(), Invalid.class);
+    }
+}
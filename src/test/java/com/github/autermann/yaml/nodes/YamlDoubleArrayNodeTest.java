@@ -0,0 +1,65 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.nodes;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ErrorCollector;
+
+import com.github.autermann.yaml.Yaml;
+import com.github.autermann.yaml.YamlNode;
+import com.github.autermann.yaml.YamlNodeFactory;
+import com.github.autermann.yaml.util.DecimalPrecision;
+
+public class YamlDoubleArrayNodeTest {
+
+    public final YamlNodeFactory factory = YamlNodeFactory.createDefault()
+            .withDecimalPrecision(DecimalPrecision.DOUBLE);
+
+    @Rule
+    public final ErrorCollector errors = new ErrorCollector();
+
+    @Test
+    public void testValues() {
+        YamlDoubleArrayNode node = new YamlDoubleArrayNode(factory, 0.5d, 1.5d);
+        YamlSeqNode expected = factory.sequenceNode().add(0.5d).add(1.5d);
+        errors.checkThat(node, is(equalTo(expected)));
+        errors.checkThat(node.hashCode(), is(expected.hashCode()));
+        errors.checkThat(node.doubleStream().sum(), is(2.0d));
+        node.add(1);
+        errors.checkThat(node.path(2), is(equalTo(factory.intNode(1))));
+        errors.checkThat(node.doubleStream().sum(), is(3.0d));
+    }
+
+    @Test
+    public void testLoad() {
+        Yaml yaml = new Yaml(factory);
+        YamlSeqNode seq = factory.sequenceNode();
+        for (int i = 0; i < 100; ++i) {
+            seq.add(i + 0.25d);
+        }
+        YamlNode node = yaml.load(yaml.dump(seq));
+        errors.checkThat(node, is(instanceOf(YamlDoubleArrayNode.class)));
+        errors.checkThat(node, is(equalTo(seq)));
+        YamlNode bigDecimals = new Yaml().load(yaml.dump(seq));
+        errors.checkThat(bigDecimals, is(not(instanceOf(YamlDoubleArrayNode.class))));
+    }
+}
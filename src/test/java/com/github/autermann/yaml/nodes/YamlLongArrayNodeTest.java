@@ -0,0 +1,119 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.nodes;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+import java.util.stream.LongStream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ErrorCollector;
+
+import com.github.autermann.yaml.DefaultYamlNodeFactory;
+import com.github.autermann.yaml.Yaml;
+import com.github.autermann.yaml.YamlNode;
+import com.github.autermann.yaml.YamlNodeFactory;
+import com.github.autermann.yaml.util.DecimalPrecision;
+
+public class YamlLongArrayNodeTest {
+
+    public final YamlNodeFactory factory = YamlNodeFactory.createDefault();
+
+    @Rule
+    public final ErrorCollector errors = new ErrorCollector();
+
+    @Test
+    public void testValues() {
+        YamlLongArrayNode node = new YamlLongArrayNode(factory,
+                1L, 1000L, 100000L, Long.MAX_VALUE);
+        YamlSeqNode expected = factory.sequenceNode()
+                .add((byte) 1).add((short) 1000).add(100000).add(Long.MAX_VALUE);
+        errors.checkThat(node, is(equalTo(expected)));
+        errors.checkThat(expected, is(equalTo((YamlSeqNode) node)));
+        errors.checkThat(node.hashCode(), is(expected.hashCode()));
+        errors.checkThat(node.path(1), is(equalTo(factory.shortNode((short) 1000))));
+        errors.checkThat(node.longStream().sum(),
+                         is(Long.MAX_VALUE + 101001L));
+    }
+
+    @Test
+    public void testAdd() {
+        YamlLongArrayNode node = new YamlLongArrayNode(factory);
+        for (int i = 0; i < 20; ++i) {
+            node.add((long) i);
+        }
+        errors.checkThat(node.size(), is(20));
+        errors.checkThat(node.path(3), is(equalTo(factory.longNode(3L))));
+        errors.checkThat(node.path(3), is(instanceOf(YamlLongNode.class)));
+        errors.checkThat(node.longStream().toArray(),
+                         is(LongStream.range(0, 20).toArray()));
+        node.add("text");
+        errors.checkThat(node.size(), is(21));
+        errors.checkThat(node.path(19), is(equalTo(factory.longNode(19L))));
+        errors.checkThat(node.path(20), is(equalTo(factory.textNode("text"))));
+        errors.checkThat(node.longStream().count(), is(21L));
+    }
+
+    @Test
+    public void testCopy() {
+        YamlLongArrayNode node = new YamlLongArrayNode(factory,
+                1L, 1000L, 100000L, Long.MAX_VALUE);
+        node.value().set(0, factory.longNode(1L));
+        YamlLongArrayNode copy = node.copy();
+        errors.checkThat(copy, is(equalTo((YamlSeqNode) node)));
+        errors.checkThat(copy.path(0), is(instanceOf(YamlLongNode.class)));
+        copy.add(5L);
+        errors.checkThat(copy.size(), is(5));
+        errors.checkThat(node.size(), is(4));
+    }
+
+    @Test
+    public void testLoad() {
+        Yaml yaml = new Yaml(factory);
+        YamlSeqNode seq = factory.sequenceNode();
+        for (int i = 0; i < 100; ++i) {
+            seq.add(100000 + i);
+        }
+        YamlNode node = yaml.load(yaml.dump(seq));
+        errors.checkThat(node, is(instanceOf(YamlLongArrayNode.class)));
+        errors.checkThat(node, is(equalTo(seq)));
+        errors.checkThat(node.copy(), is(equalTo(seq)));
+        errors.checkThat(yaml.load("[1, 2, 3]"),
+                         is(instanceOf(YamlSeqNode.class)));
+    }
+
+    @Test
+    public void testLoadWithFactory() {
+        YamlNodeFactory plain = new DefaultYamlNodeFactory(DecimalPrecision.DOUBLE) {
+            @Override
+            public YamlSeqNode longArrayNode() {
+                return sequenceNode();
+            }
+        };
+        Yaml yaml = new Yaml(plain);
+        YamlSeqNode seq = plain.sequenceNode();
+        for (int i = 0; i < 100; ++i) {
+            seq.add(100000 + i);
+        }
+        YamlNode node = yaml.load(yaml.dump(seq));
+        errors.checkThat(node, is(not(instanceOf(YamlLongArrayNode.class))));
+        errors.checkThat(node, is(equalTo(seq)));
+    }
+}
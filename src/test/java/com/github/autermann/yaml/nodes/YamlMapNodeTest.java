@@ -39,6 +39,7 @@ import static com.github.autermann.yaml.nodes.YamlNodesMatcher.setNode;
 import static com.github.autermann.yaml.nodes.YamlNodesMatcher.shortNode;
 import static com.github.autermann.yaml.nodes.YamlNodesMatcher.textNode;
 import static com.github.autermann.yaml.nodes.YamlNodesMatcher.timeNode;
+import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
@@ -87,4 +88,21 @@ public class YamlMapNodeTest {
         errors.checkThat(node, is(not(doubleNode())));
         errors.checkThat(node, is(not(floatNode())));
     }
+
+    @Test
+    public void testStringKeys() {
+        YamlMapNode node = factory.mapNode()
+                .put("a", 1).putNull("b").put(factory.intNode(1), "c");
+        errors.checkThat(node.path("a"), is(equalTo(factory.intNode(1))));
+        errors.checkThat(node.has("a"), is(true));
+        errors.checkThat(node.hasNotNull("a"), is(true));
+        errors.checkThat(node.has("b"), is(true));
+        errors.checkThat(node.hasNotNull("b"), is(false));
+        errors.checkThat(node.has("c"), is(false));
+        errors.checkThat(node.path("c"), is(not(existingNode())));
+        errors.checkThat(node.has("1"), is(false));
+        errors.checkThat(node.has((String) null), is(false));
+        node.putNull((String) null);
+        errors.checkThat(node.has((String) null), is(true));
+    }
 }
@@ -54,6 +54,7 @@ import org.junit.rules.ErrorCollector;
 
 import com.github.autermann.yaml.YamlNode;
 import com.github.autermann.yaml.YamlNodeFactory;
+import com.google.common.collect.Iterators;
 
 public class YamlPairsNodeTest {
     private final YamlNodeFactory factory = YamlNodeFactory.createDefault();
@@ -160,4 +161,53 @@ public class YamlPairsNodeTest {
         errors.checkThat(b.hashCode(), allOf(is(not(equalTo(a.hashCode()))),
                                              is(equalTo(b.hashCode()))));
     }
+
+    @Test
+    public void testStringKeys() {
+        YamlPairsNode node = factory.pairsNode()
+                .put("a", 1).put("a", 2).putNull("b");
+        errors.checkThat(node.path("a"), is(equalTo(factory.sequenceNode()
+                .add(1).add(2))));
+        errors.checkThat(node.has("a"), is(true));
+        errors.checkThat(node.hasNotNull("a"), is(true));
+        errors.checkThat(node.has("b"), is(true));
+        errors.checkThat(node.hasNotNull("b"), is(false));
+        errors.checkThat(node.has("c"), is(false));
+        errors.checkThat(node.hasNotNull("c"), is(false));
+        errors.checkThat(node.path("c"), is(not(existingNode())));
+    }
+
+    @Test
+    public void testManyKeys() {
+        YamlPairsNode node = factory.pairsNode();
+        for (int i = 0; i < 1000; ++i) {
+            node.put(factory.intNode(i % 100), i);
+        }
+        errors.checkThat(node.size(), is(1000));
+        errors.checkThat(node.entries().size(), is(1000));
+        errors.checkThat(Iterators.size(node.iterator()), is(100));
+        errors.checkThat(node.spliterator().getExactSizeIfKnown(), is(100L));
+        errors.checkThat(node.iterator().next(), is(equalTo(factory.intNode(0))));
+        for (int i = 0; i < 100; ++i) {
+            YamlNode values = node.path(factory.intNode(i));
+            errors.checkThat(values.size(), is(10));
+            errors.checkThat(values.path(9), is(equalTo(factory.intNode(900 + i))));
+        }
+        errors.checkThat(node.path(factory.intNode(100)), is(not(existingNode())));
+    }
+
+    @Test
+    public void testPathCopy() {
+        YamlPairsNode node = factory.pairsNode().put("a", 1).put("b", 2);
+        YamlNode values = node.path("a");
+        node.put("a", 3);
+        errors.checkThat(values, is(equalTo(factory.sequenceNode()
+                .add(1))));
+        values.asSequence().add(4);
+        errors.checkThat(node.path("a"), is(equalTo(factory.sequenceNode()
+                .add(1).add(3))));
+        node.put((YamlNode) null, factory.intNode(4));
+        errors.checkThat(node.path((YamlNode) null), is(equalTo(factory.sequenceNode()
+                .add(4))));
+    }
 }
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.nodes;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ErrorCollector;
+
+import com.github.autermann.yaml.Yaml;
+import com.github.autermann.yaml.YamlNode;
+import com.github.autermann.yaml.YamlNodeFactory;
+
+public class YamlPersistentMapNodeTest {
+
+    public final YamlNodeFactory factory = YamlNodeFactory.createDefault();
+
+    @Rule
+    public final ErrorCollector errors = new ErrorCollector();
+
+    @Test
+    public void testVersions() {
+        YamlPersistentMapNode empty = factory.persistentMapNode();
+        YamlPersistentMapNode v1 = empty.with("a", factory.intNode(1));
+        YamlPersistentMapNode v2 = v1.with("b", factory.intNode(2));
+        YamlPersistentMapNode v3 = v2.with("a", factory.intNode(3));
+        YamlPersistentMapNode v4 = v3.without("b");
+        errors.checkThat(empty.size(), is(0));
+        errors.checkThat(v1.size(), is(1));
+        errors.checkThat(v2.size(), is(2));
+        errors.checkThat(v2.path("a").asIntValue(), is(1));
+        errors.checkThat(v3.path("a").asIntValue(), is(3));
+        errors.checkThat(v4.size(), is(1));
+        errors.checkThat(v4.has("b"), is(false));
+        errors.checkThat(v4.without("b"), is(sameInstance(v4)));
+        errors.checkThat(v3.with("a", v3.path("a")), is(sameInstance(v3)));
+        errors.checkThat(v2, is(equalTo(factory.mapNode()
+                                        .put("a", 1).put("b", 2))));
+        errors.checkThat(v2.hashCode(),
+                         is(factory.mapNode().put("a", 1).put("b", 2).hashCode()));
+        errors.checkThat(v2.isFrozen(), is(true));
+    }
+
+    @Test
+    public void testValuesAreFrozen() {
+        YamlSeqNode seq = factory.sequenceNode().add(1);
+        YamlPersistentMapNode node = factory.persistentMapNode().with("seq", seq);
+        seq.add(2);
+        errors.checkThat(node.path("seq").size(), is(1));
+        errors.checkThat(node.path("seq").isFrozen(), is(true));
+    }
+
+    @Test
+    public void testAgainstHashMap() {
+        Random random = new Random(42);
+        Map<YamlNode, YamlNode> expected = new HashMap<>();
+        YamlPersistentMapNode node = factory.persistentMapNode();
+        for (int i = 0; i < 20000; ++i) {
+            YamlNode key = factory.textNode(collidingKey(random.nextInt(2000)));
+            if (random.nextInt(3) == 0) {
+                expected.remove(key);
+                node = node.without(key);
+            } else {
+                YamlNode value = factory.intNode(i);
+                expected.put(key, value);
+                node = node.with(key, value);
+            }
+        }
+        errors.checkThat(node.size(), is(expected.size()));
+        YamlMapNode map = factory.mapNode();
+        expected.forEach(map::put);
+        errors.checkThat(node, is(equalTo(map)));
+        errors.checkThat(map, is(equalTo((YamlMapNode) node)));
+        errors.checkThat(node.hashCode(), is(map.hashCode()));
+        for (Map.Entry<YamlNode, YamlNode> e : expected.entrySet()) {
+            errors.checkThat(node.path(e.getKey().textValue()), is(e.getValue()));
+        }
+    }
+
+    @Test
+    public void testCopyOf() {
+        YamlMapNode map = factory.mapNode();
+        for (int i = 0; i < 100; ++i) {
+            map.put("key-" + i, i);
+        }
+        YamlPersistentMapNode node = YamlPersistentMapNode.copyOf(map);
+        errors.checkThat(node, is(equalTo(map)));
+        errors.checkThat(YamlPersistentMapNode.copyOf(node), is(sameInstance(node)));
+        YamlMapNode copy = node.copy();
+        errors.checkThat(copy.isFrozen(), is(false));
+        errors.checkThat(copy, is(equalTo((YamlMapNode) node)));
+    }
+
+    @Test
+    public void testDump() {
+        Yaml yaml = new Yaml(factory);
+        YamlPersistentMapNode node = factory.persistentMapNode()
+                .with("a", factory.textNode("b"))
+                .with("c", factory.sequenceNode().add("d"));
+        errors.checkThat(yaml.load(yaml.dump(node)), is(equalTo((YamlNode) node)));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testPut() {
+        factory.persistentMapNode().put("a", 1);
+    }
+
+    /**
+     * Creates a key that shares its hash code with other keys, as
+     * {@code "Aa"} and {@code "BB"} have the same hash code.
+     *
+     * @param i the number of the key
+     *
+     * @return the key
+     */
+    private static String collidingKey(int i) {
+        StringBuilder builder = new StringBuilder();
+        for (int bit = 0; bit < 4; ++bit) {
+            builder.append((i & (1 << bit)) == 0 ? "Aa" : "BB");
+        }
+        return builder.append(i >> 4).toString();
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.nodes;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ErrorCollector;
+
+import com.github.autermann.yaml.Yaml;
+import com.github.autermann.yaml.YamlNode;
+import com.github.autermann.yaml.YamlNodeFactory;
+
+public class YamlPersistentSeqNodeTest {
+
+    public final YamlNodeFactory factory = YamlNodeFactory.createDefault();
+
+    @Rule
+    public final ErrorCollector errors = new ErrorCollector();
+
+    @Test
+    public void testVersions() {
+        YamlPersistentSeqNode empty = factory.persistentSequenceNode();
+        YamlPersistentSeqNode v1 = empty.withAdded(factory.textNode("a"));
+        YamlPersistentSeqNode v2 = v1.withAdded(factory.textNode("b"));
+        YamlPersistentSeqNode v3 = v2.with(0, factory.textNode("c"));
+        errors.checkThat(empty.size(), is(0));
+        errors.checkThat(v1.size(), is(1));
+        errors.checkThat(v2.path(0).textValue(), is("a"));
+        errors.checkThat(v3.path(0).textValue(), is("c"));
+        errors.checkThat(v3.path(1).textValue(), is("b"));
+        errors.checkThat(v3.with(1, v3.path(1)), is(sameInstance(v3)));
+        errors.checkThat(v3, is(equalTo(factory.sequenceNode()
+                                        .add("c").add("b"))));
+        errors.checkThat(v3.isFrozen(), is(true));
+    }
+
+    @Test
+    public void testAgainstArrayList() {
+        Random random = new Random(42);
+        List<YamlNode> expected = new ArrayList<>();
+        List<YamlPersistentSeqNode> versions = new ArrayList<>();
+        YamlPersistentSeqNode node = factory.persistentSequenceNode();
+        for (int i = 0; i < 40000; ++i) {
+            YamlNode value = factory.intNode(i);
+            if (!expected.isEmpty() && random.nextInt(4) == 0) {
+                int index = random.nextInt(expected.size());
+                expected.set(index, value);
+                node = node.with(index, value);
+            } else {
+                expected.add(value);
+                node = node.withAdded(value);
+            }
+            if (i % 1000 == 0) {
+                versions.add(node);
+            }
+        }
+        errors.checkThat(node.size(), is(expected.size()));
+        errors.checkThat(node.value(), is(equalTo(expected)));
+        // older versions are unaffected
+        errors.checkThat(versions.get(0).size(), is(1));
+        errors.checkThat(versions.get(0).path(0).asIntValue(), is(0));
+    }
+
+    @Test
+    public void testCopyOf() {
+        YamlSeqNode seq = factory.sequenceNode();
+        for (int i = 0; i < 100; ++i) {
+            seq.add(i);
+        }
+        YamlPersistentSeqNode node = YamlPersistentSeqNode.copyOf(seq);
+        errors.checkThat(node, is(equalTo(seq)));
+        errors.checkThat(YamlPersistentSeqNode.copyOf(node), is(sameInstance(node)));
+        errors.checkThat(node.copy().add(100).size(), is(101));
+    }
+
+    @Test
+    public void testDump() {
+        Yaml yaml = new Yaml(factory);
+        YamlPersistentSeqNode node = factory.persistentSequenceNode()
+                .withAdded(factory.textNode("a"))
+                .withAdded(factory.mapNode().put("b", "c"));
+        errors.checkThat(yaml.load(yaml.dump(node)), is(equalTo((YamlNode) node)));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testAdd() {
+        factory.persistentSequenceNode().add("a");
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testWithOutOfBounds() {
+        factory.persistentSequenceNode().with(0, factory.textNode("a"));
+    }
+}
@@ -39,6 +39,7 @@ import static com.github.autermann.yaml.nodes.YamlNodesMatcher.setNode;
 import static com.github.autermann.yaml.nodes.YamlNodesMatcher.shortNode;
 import static com.github.autermann.yaml.nodes.YamlNodesMatcher.textNode;
 import static com.github.autermann.yaml.nodes.YamlNodesMatcher.timeNode;
+import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
@@ -109,4 +110,15 @@ public class YamlSequenceNodeTest {
 
         errors.checkThat(nodes, Matchers.contains(arr));
     }
+
+    @Test
+    public void testPath() {
+        YamlSeqNode node = factory.sequenceNode().add(0).add(1).add(2);
+        errors.checkThat(node.path(0), is(equalTo(factory.intNode(0))));
+        errors.checkThat(node.path(2), is(equalTo(factory.intNode(2))));
+        errors.checkThat(node.path(3), is(not(existingNode())));
+        errors.checkThat(node.path(-1), is(not(existingNode())));
+        errors.checkThat(node.has(1), is(true));
+        errors.checkThat(node.has(3), is(false));
+    }
 }
@@ -39,11 +39,14 @@ import static com.github.autermann.yaml.nodes.YamlNodesMatcher.setNode;
 import static com.github.autermann.yaml.nodes.YamlNodesMatcher.shortNode;
 import static com.github.autermann.yaml.nodes.YamlNodesMatcher.textNode;
 import static com.github.autermann.yaml.nodes.YamlNodesMatcher.timeNode;
+import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.junit.Assert.assertThat;
 
+import java.util.Iterator;
+
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ErrorCollector;
@@ -88,4 +91,37 @@ public class YamlSetNodeTest {
         errors.checkThat(node, is(not(doubleNode())));
         errors.checkThat(node, is(not(floatNode())));
     }
+
+    @Test
+    public void testPath() {
+        YamlSetNode node = factory.setNode().add("a").add("b").add("a");
+        errors.checkThat(node.path(0), is(equalTo(factory.textNode("a"))));
+        errors.checkThat(node.path(1), is(equalTo(factory.textNode("b"))));
+        errors.checkThat(node.path(2), is(not(existingNode())));
+        errors.checkThat(node.path(-1), is(not(existingNode())));
+        node.add("c");
+        errors.checkThat(node.path(2), is(equalTo(factory.textNode("c"))));
+        node.value().remove(factory.textNode("a"));
+        errors.checkThat(node.path(0), is(equalTo(factory.textNode("b"))));
+    }
+
+    @Test
+    public void testPathAfterSameSizeModification() {
+        YamlSetNode node = factory.setNode().add("a").add("b");
+        errors.checkThat(node.path(0), is(equalTo(factory.textNode("a"))));
+        node.value().remove(factory.textNode("a"));
+        node.value().add(factory.textNode("c"));
+        errors.checkThat(node.path(0), is(equalTo(factory.textNode("b"))));
+        errors.checkThat(node.path(1), is(equalTo(factory.textNode("c"))));
+        Iterator<YamlNode> iterator = node.value().iterator();
+        iterator.next();
+        iterator.remove();
+        node.value().add(factory.textNode("d"));
+        errors.checkThat(node.path(0), is(equalTo(factory.textNode("c"))));
+        errors.checkThat(node.path(1), is(equalTo(factory.textNode("d"))));
+        node.value().removeIf(n -> n.textValue().equals("c"));
+        node.value().add(factory.textNode("e"));
+        errors.checkThat(node.path(0), is(equalTo(factory.textNode("d"))));
+        errors.checkThat(node.path(1), is(equalTo(factory.textNode("e"))));
+    }
 }